@@ -8,6 +8,7 @@ import com.pichincha.biblioteca.service.SearchStrategy;
 import com.pichincha.biblioteca.service.impl.ModernBibliotecaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -22,6 +23,10 @@ public class BibliotecaApplication {
 
   private final ModernBibliotecaService bibliotecaService;
 
+  // El menú de consola bloquea el arranque hasta salir; con la API HTTP queda desactivado por defecto
+  @Value("${biblioteca.menu.interactivo:true}")
+  private boolean menuInteractivo;
+
   public static void main(String[] args) {
     System.out.println("""
         🏛️  SISTEMA DE BIBLIOTECA MODERNO
@@ -42,7 +47,9 @@ public class BibliotecaApplication {
       demostrarFuncionalidades();
       
       // Mostrar menú interactivo
-      mostrarMenuInteractivo();
+      if (menuInteractivo) {
+        mostrarMenuInteractivo();
+      }
     };
   }
 
@@ -150,9 +157,9 @@ public class BibliotecaApplication {
     System.out.println(reporte);
     
     // Estadísticas por tipo
-    var librosPorTipo = bibliotecaService.obtenerLibrosPorTipo();
-    librosPorTipo.forEach((tipo, libros) -> 
-        log.info("Tipo {}: {} libros", tipo.getDescripcion(), libros.size())
+    var librosPorTipo = bibliotecaService.contarLibrosPorTipo();
+    librosPorTipo.forEach((tipo, cantidad) -> 
+        log.info("Tipo {}: {} libros", tipo.getDescripcion(), cantidad)
     );
     
     // Estadísticas por formato
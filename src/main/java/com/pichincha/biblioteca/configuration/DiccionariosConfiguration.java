@@ -0,0 +1,18 @@
+package com.pichincha.biblioteca.configuration;
+
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DiccionariosConfiguration {
+
+  /**
+   * Diccionario de autores de los libros cargados de la base de datos. Vive lo que el contexto,
+   * así que cada contexto (y cada contexto de prueba) empieza con uno vacío.
+   */
+  @Bean
+  public DiccionarioCadenas diccionarioAutores() {
+    return new DiccionarioCadenas();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.pichincha.biblioteca.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita las peticiones en curso de la API con un semáforo. Con
+ * {@code spring.threads.virtual.enabled} cada petición corre en su propio hilo virtual, así que
+ * el pool de hilos ya no pone el límite: lo pone este filtro ({@code biblioteca.api.concurrencia-maxima}).
+ * Una petición espera un permiso hasta {@code biblioteca.api.espera-maxima} y, si no lo obtiene,
+ * recibe 503 con {@code Retry-After}.
+ */
+@Component
+@Slf4j
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+  private final int maximo;
+  private final Duration esperaMaxima;
+  private final Semaphore permisos;
+  private final AtomicInteger pico = new AtomicInteger();
+
+  public LimiteConcurrenciaFilter(@Value("${biblioteca.api.concurrencia-maxima:10000}") int maximo,
+                                  @Value("${biblioteca.api.espera-maxima:PT1S}") Duration esperaMaxima) {
+    if (maximo < 1) {
+      throw new IllegalArgumentException("La concurrencia máxima debe ser positiva");
+    }
+    this.maximo = maximo;
+    this.esperaMaxima = esperaMaxima;
+    this.permisos = new Semaphore(maximo);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (!adquirir()) {
+      log.warn("🚦 Petición rechazada, {} en curso: {} {}", enCurso(), request.getMethod(), request.getRequestURI());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, esperaMaxima.toSeconds())));
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Demasiadas peticiones en curso");
+      return;
+    }
+    try {
+      pico.accumulateAndGet(enCurso(), Math::max);
+      chain.doFilter(request, response);
+    } finally {
+      permisos.release();
+    }
+  }
+
+  /** Peticiones de la API en curso en este momento. */
+  public int enCurso() {
+    return maximo - permisos.availablePermits();
+  }
+
+  /** Máximo de peticiones simultáneas en curso desde el arranque. */
+  public int pico() {
+    return pico.get();
+  }
+
+  private boolean adquirir() {
+    try {
+      return permisos.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.pichincha.biblioteca.configuration;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.util.RegistroPrestamos;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PrestamosConfiguration {
+
+  /**
+   * Registro único de préstamos activos. Lo comparten los servicios de la biblioteca, así que
+   * un libro prestado por uno figura como prestado para el otro y las operaciones de ambos sobre
+   * el mismo libro se serializan con el mismo cerrojo.
+   */
+  @Bean
+  public RegistroPrestamos<InfoPrestamo> registroPrestamos() {
+    return new RegistroPrestamos<>();
+  }
+}
\ No newline at end of file
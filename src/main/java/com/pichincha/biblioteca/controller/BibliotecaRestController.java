@@ -0,0 +1,184 @@
+package com.pichincha.biblioteca.controller;
+
+import com.pichincha.biblioteca.domain.ConteosAproximados;
+import com.pichincha.biblioteca.domain.CriterioRenovacion;
+import com.pichincha.biblioteca.domain.EstadisticasBiblioteca;
+import com.pichincha.biblioteca.domain.EstadoRenovacion;
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.OperacionLibro;
+import com.pichincha.biblioteca.domain.Reserva;
+import com.pichincha.biblioteca.domain.ResultadoOperacion;
+import com.pichincha.biblioteca.domain.ResumenTendencia;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.helper.EstadisticasEnVivo;
+import com.pichincha.biblioteca.helper.EstadisticasHelper;
+import com.pichincha.biblioteca.helper.TendenciaPrestamos;
+import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.service.impl.ModernBibliotecaService;
+import com.pichincha.biblioteca.service.impl.RenovacionMasivaService;
+import com.pichincha.biblioteca.util.SpaceSaving;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * API HTTP de la biblioteca sobre {@link ModernBibliotecaService}. Cada petición corre en un
+ * hilo virtual, así que los métodos bloquean (base de datos, bloqueos del registro de préstamos)
+ * sin ocupar hilos de plataforma; {@code LimiteConcurrenciaFilter} acota las peticiones en curso.
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BibliotecaRestController {
+
+  private final ModernBibliotecaService bibliotecaService;
+  private final EstadisticasEnVivo estadisticasEnVivo;
+  private final EstadisticasHelper estadisticasHelper;
+  private final RenovacionMasivaService renovacionMasiva;
+
+  public record NuevoLibro(@NotBlank String titulo, @NotBlank String autor,
+                           @NotNull TipoLibro tipo, @NotNull FormatoLibro formato) {
+  }
+
+  public record SolicitudUsuario(@NotBlank String usuario) {
+  }
+
+  @PostMapping("/libros")
+  @ResponseStatus(HttpStatus.CREATED)
+  public LibroInfo agregarLibro(@Valid @RequestBody NuevoLibro libro) {
+    return LibroInfo.fromLibro(bibliotecaService.agregarLibro(libro.titulo(), libro.autor(), libro.tipo(), libro.formato()));
+  }
+
+  @GetMapping("/libros")
+  public List<LibroInfo> buscarLibros(@RequestParam(defaultValue = "") String criterio,
+                                      @RequestParam(defaultValue = "combinada") String por) {
+    var estrategia = switch (por) {
+      case "titulo" -> SearchStrategy.porTitulo();
+      case "autor" -> SearchStrategy.porAutor();
+      default -> SearchStrategy.combinada();
+    };
+    return aInfo(bibliotecaService.buscarLibros(criterio, estrategia));
+  }
+
+  @GetMapping("/libros/disponibles")
+  public List<LibroInfo> librosDisponibles() {
+    return aInfo(bibliotecaService.obtenerLibrosDisponibles());
+  }
+
+  @PostMapping("/libros/{id}/prestamo")
+  public ResponseEntity<LibroInfo> prestarLibro(@PathVariable Long id, @Valid @RequestBody SolicitudUsuario solicitud) {
+    return respuesta(bibliotecaService.prestarLibro(id, solicitud.usuario()).map(LibroInfo::fromLibro));
+  }
+
+  @PostMapping("/libros/{id}/devolucion")
+  public ResponseEntity<LibroInfo> devolverLibro(@PathVariable Long id, @Valid @RequestBody SolicitudUsuario solicitud) {
+    return respuesta(bibliotecaService.devolverLibro(id, solicitud.usuario()).map(LibroInfo::fromLibro));
+  }
+
+  @PostMapping("/libros/{id}/reserva")
+  public ResponseEntity<Reserva> reservarLibro(@PathVariable Long id, @Valid @RequestBody SolicitudUsuario solicitud) {
+    return respuesta(bibliotecaService.reservarLibro(id, solicitud.usuario()));
+  }
+
+  @PostMapping("/prestamos/lote")
+  public List<ResultadoOperacion> prestarLibros(@RequestBody List<OperacionLibro> operaciones) {
+    return bibliotecaService.prestarLibros(operaciones);
+  }
+
+  @PostMapping("/devoluciones/lote")
+  public List<ResultadoOperacion> devolverLibros(@RequestBody List<OperacionLibro> operaciones) {
+    return bibliotecaService.devolverLibros(operaciones);
+  }
+
+  @GetMapping("/prestamos")
+  public List<InfoPrestamo> prestamosActivos(@RequestParam Optional<String> usuario) {
+    return usuario.map(bibliotecaService::obtenerPrestamosDeUsuario)
+        .orElseGet(bibliotecaService::obtenerPrestamosActivos);
+  }
+
+  // Corre en segundo plano (202); con el mismo nombre de trabajo se reanuda desde el último punto de control
+  @PostMapping("/prestamos/renovaciones/{trabajo}")
+  public ResponseEntity<EstadoRenovacion> renovarPrestamos(@PathVariable String trabajo,
+                                                           @RequestBody CriterioRenovacion criterio) {
+    return renovacionMasiva.iniciar(trabajo, criterio)
+        .map(estado -> ResponseEntity.accepted().body(estado))
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  @GetMapping("/prestamos/renovaciones/{trabajo}")
+  public ResponseEntity<EstadoRenovacion> estadoRenovacion(@PathVariable String trabajo) {
+    return ResponseEntity.of(renovacionMasiva.consultar(trabajo));
+  }
+
+  @GetMapping(value = "/reportes/resumen", produces = MediaType.TEXT_PLAIN_VALUE)
+  public String reporteResumen() {
+    return bibliotecaService.generarReporteCompleto();
+  }
+
+  @GetMapping("/reportes/estadisticas")
+  public EstadisticasBiblioteca estadisticas() {
+    return estadisticasEnVivo.obtenerEstadisticas();
+  }
+
+  // Top aproximado en streaming: sin días es desde el arranque, con días es la ventana reciente
+  @GetMapping("/reportes/populares/libros")
+  public List<SpaceSaving.Estimacion<Long>> librosPopulares(@RequestParam(defaultValue = "10") int limite,
+                                                            @RequestParam Optional<Integer> dias) {
+    return dias.map(d -> estadisticasHelper.obtenerLibrosMasPrestados(limite, Duration.ofDays(d)))
+        .orElseGet(() -> estadisticasHelper.obtenerLibrosMasPrestados(limite));
+  }
+
+  @GetMapping("/reportes/populares/autores")
+  public List<SpaceSaving.Estimacion<String>> autoresPopulares(@RequestParam(defaultValue = "10") int limite,
+                                                               @RequestParam Optional<Integer> dias) {
+    return dias.map(d -> estadisticasHelper.obtenerAutoresMasPrestados(limite, Duration.ofDays(d)))
+        .orElseGet(() -> estadisticasHelper.obtenerAutoresMasPrestados(limite));
+  }
+
+  @GetMapping("/reportes/distintos")
+  public ConteosAproximados conteosDistintos(@RequestParam(defaultValue = "30") int dias) {
+    return estadisticasHelper.obtenerConteosDistintos(dias);
+  }
+
+  @GetMapping("/reportes/tendencia")
+  public ResumenTendencia tendencia(@RequestParam(defaultValue = "PRESTAMOS") TendenciaPrestamos.Metrica metrica,
+                                    @RequestParam(defaultValue = "HORA") TendenciaPrestamos.Granularidad granularidad,
+                                    @RequestParam(defaultValue = "24") int ventanas) {
+    return estadisticasHelper.obtenerTendencia(metrica, granularidad, ventanas);
+  }
+
+  // El servicio envuelve los errores de validación del libro (IllegalArgumentException) en RuntimeException;
+  // el resto se relanza para que lo resuelva Spring (cuerpo ilegible, parámetros inválidos, errores internos)
+  @ExceptionHandler(RuntimeException.class)
+  public ProblemDetail manejarError(RuntimeException e) {
+    var causa = NestedExceptionUtils.getMostSpecificCause(e);
+    if (causa instanceof IllegalArgumentException) {
+      return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, causa.getMessage());
+    }
+    throw e;
+  }
+
+  // Vacío significa que el libro no existe o su estado no admite la operación
+  private static <T> ResponseEntity<T> respuesta(Optional<T> resultado) {
+    return resultado.map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+  }
+
+  private static List<LibroInfo> aInfo(List<ILibro> libros) {
+    return libros.stream().map(LibroInfo::fromLibro).toList();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.pichincha.biblioteca.domain;
+
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
+import jakarta.persistence.PostLoad;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Hace que las entidades {@link Libro} cargadas compartan la instancia del autor del diccionario
+ * de autores. Hibernate crea el listener a través del contenedor de beans de Spring, así que
+ * recibe el diccionario por constructor; el diccionario solo crece con los autores que se leen
+ * de la base de datos y se descarta con el contexto.
+ */
+@RequiredArgsConstructor
+public class AutorCanonicoListener {
+
+  private final DiccionarioCadenas diccionarioAutores;
+
+  @PostLoad
+  public void alCargar(Libro libro) {
+    libro.setAutor(diccionarioAutores.canonica(libro.getAutor()));
+  }
+}
\ No newline at end of file
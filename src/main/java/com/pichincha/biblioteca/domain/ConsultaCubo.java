@@ -0,0 +1,52 @@
+package com.pichincha.biblioteca.domain;
+
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ * Record con el corte de una consulta al cubo de la biblioteca: los tipos, formatos y
+ * estados incluidos (vacío = todos) y el rango de meses (null = sin límite).
+ */
+public record ConsultaCubo(
+    Set<TipoLibro> tipos,
+    Set<FormatoLibro> formatos,
+    Set<EstadoLibro> estados,
+    YearMonth desde,
+    YearMonth hasta
+) {
+
+  public static final ConsultaCubo TODO = new ConsultaCubo(Set.of(), Set.of(), Set.of(), null, null);
+
+  public ConsultaCubo {
+    tipos = Set.copyOf(tipos);
+    formatos = Set.copyOf(formatos);
+    estados = Set.copyOf(estados);
+    if (desde != null && hasta != null && desde.isAfter(hasta)) {
+      throw new IllegalArgumentException("El mes inicial no puede ser posterior al final");
+    }
+  }
+
+  public ConsultaCubo conTipos(TipoLibro... tipos) {
+    return new ConsultaCubo(Set.of(tipos), formatos, estados, desde, hasta);
+  }
+
+  public ConsultaCubo conFormatos(FormatoLibro... formatos) {
+    return new ConsultaCubo(tipos, Set.of(formatos), estados, desde, hasta);
+  }
+
+  public ConsultaCubo conEstados(EstadoLibro... estados) {
+    return new ConsultaCubo(tipos, formatos, Set.of(estados), desde, hasta);
+  }
+
+  public ConsultaCubo entre(YearMonth desde, YearMonth hasta) {
+    return new ConsultaCubo(tipos, formatos, estados, desde, hasta);
+  }
+
+  public ConsultaCubo enMes(YearMonth mes) {
+    return entre(mes, mes);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.pichincha.biblioteca.domain;
+
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+/**
+ * Record con la cantidad de libros de una combinación tipo × formato × estado,
+ * calculada por la base de datos con {@code GROUP BY}.
+ */
+public record ConteoLibros(
+    TipoLibro tipo,
+    FormatoLibro formato,
+    EstadoLibro estado,
+    long cantidad
+) {
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.pichincha.biblioteca.domain;
+
+/**
+ * Record con los conteos aproximados de elementos distintos (HyperLogLog): autores y títulos
+ * del catálogo, usuarios con préstamos desde el arranque y en los últimos {@code dias} días.
+ */
+public record ConteosAproximados(
+    long autores,
+    long titulos,
+    long usuarios,
+    int dias,
+    long usuariosRecientes
+) {
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.pichincha.biblioteca.domain;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Record con el criterio de una renovación masiva: qué préstamos activos se renuevan
+ * (usuarios del grupo, vacío = todos, y rango opcional de fecha de devolución) y cuántos días.
+ */
+public record CriterioRenovacion(
+    Set<String> usuarios,
+    LocalDate venceDesde,
+    LocalDate venceHasta,
+    int diasAdicionales
+) {
+
+  public CriterioRenovacion {
+    if (diasAdicionales <= 0) {
+      throw new IllegalArgumentException("Los días adicionales deben ser positivos");
+    }
+    if (venceDesde != null && venceHasta != null && venceHasta.isBefore(venceDesde)) {
+      throw new IllegalArgumentException("El rango de vencimiento es inválido");
+    }
+    usuarios = usuarios == null ? Set.of() : Set.copyOf(usuarios);
+  }
+
+  /** Renueva {@code dias} los préstamos de los usuarios del grupo. */
+  public static CriterioRenovacion paraUsuarios(Set<String> usuarios, int dias) {
+    return new CriterioRenovacion(usuarios, null, null, dias);
+  }
+
+  /**
+   * Cierre por feriado: los préstamos que vencen entre {@code inicio} y {@code fin} se extienden
+   * tantos días como dura el cierre, así que todos vencen después de la reapertura.
+   */
+  public static CriterioRenovacion porCierre(LocalDate inicio, LocalDate fin) {
+    return new CriterioRenovacion(Set.of(), inicio, fin, (int) ChronoUnit.DAYS.between(inicio, fin) + 1);
+  }
+
+  public boolean aplica(InfoPrestamo prestamo) {
+    var vence = prestamo.fechaDevolucion();
+    return prestamo.activo()
+        && (usuarios.isEmpty() || usuarios.contains(prestamo.usuario()))
+        && (venceDesde == null || !vence.isBefore(venceDesde))
+        && (venceHasta == null || !vence.isAfter(venceHasta));
+  }
+
+  /** Huella estable del criterio, para no reanudar un trabajo con un criterio distinto. */
+  public int huella() {
+    return Objects.hash(List.copyOf(new TreeSet<>(usuarios)), venceDesde, venceHasta, diasAdicionales);
+  }
+}
\ No newline at end of file
@@ -4,6 +4,9 @@ import com.pichincha.biblioteca.domain.enums.EstadoLibro;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
 
+import com.pichincha.biblioteca.util.ReporteWriter;
+import com.pichincha.biblioteca.util.ReporteWriter.Plantilla;
+
 import java.util.Map;
 
 /**
@@ -19,6 +22,11 @@ public record EstadisticasBiblioteca(
     double porcentajeDisponibilidad
 ) {
 
+  private static final Plantilla TOTAL_LIBROS = Plantilla.de("Total de libros: %d\n");
+  private static final Plantilla PRESTAMOS_ACTIVOS = Plantilla.de("Préstamos activos: %d\n");
+  private static final Plantilla DISPONIBILIDAD = Plantilla.de("Disponibilidad: %.1f%%\n\n");
+  private static final Plantilla DISTRIBUCION = Plantilla.de("%s: %d libros\n");
+
   public EstadisticasBiblioteca {
     if (totalLibros < 0) {
       throw new IllegalArgumentException("El total de libros no puede ser negativo");
@@ -33,27 +41,27 @@ public record EstadisticasBiblioteca(
 
   public String generarReporte() {
     var sb = new StringBuilder();
-    
-    sb.append("=== ESTADÍSTICAS DE LA BIBLIOTECA ===\n");
-    sb.append("Total de libros: %d\n".formatted(totalLibros));
-    sb.append("Préstamos activos: %d\n".formatted(prestamosActivos));
-    sb.append("Disponibilidad: %.1f%%\n\n".formatted(porcentajeDisponibilidad));
-    
-    sb.append("--- Distribución por Tipo ---\n");
-    librosPorTipo.forEach((tipo, cantidad) -> 
-        sb.append("%s: %d libros\n".formatted(tipo.getDescripcion(), cantidad)));
-    
-    sb.append("\n--- Distribución por Formato ---\n");
-    librosPorFormato.forEach((formato, cantidad) -> 
-        sb.append("%s: %d libros\n".formatted(formato.getDescripcion(), cantidad)));
-    
-    sb.append("\n--- Distribución por Estado ---\n");
-    librosPorEstado.forEach((estado, cantidad) -> 
-        sb.append("%s: %d libros\n".formatted(estado.getDescripcion(), cantidad)));
-    
+    escribirReporte(new ReporteWriter(sb));
     return sb.toString();
   }
 
+  public void escribirReporte(ReporteWriter writer) {
+    writer.linea("=== ESTADÍSTICAS DE LA BIBLIOTECA ===")
+        .escribir(TOTAL_LIBROS, totalLibros)
+        .escribir(PRESTAMOS_ACTIVOS, prestamosActivos)
+        .escribir(DISPONIBILIDAD, porcentajeDisponibilidad);
+
+    writer.linea("--- Distribución por Tipo ---");
+    librosPorTipo.forEach((tipo, cantidad) -> writer.escribir(DISTRIBUCION, tipo.getDescripcion(), cantidad));
+
+    writer.linea("\n--- Distribución por Formato ---");
+    librosPorFormato.forEach((formato, cantidad) ->
+        writer.escribir(DISTRIBUCION, formato.getDescripcion(), cantidad));
+
+    writer.linea("\n--- Distribución por Estado ---");
+    librosPorEstado.forEach((estado, cantidad) -> writer.escribir(DISTRIBUCION, estado.getDescripcion(), cantidad));
+  }
+
   public boolean necesitaMasLibros() {
     return totalLibros < 100; // Criterio arbitrario
   }
@@ -0,0 +1,18 @@
+package com.pichincha.biblioteca.domain;
+
+/**
+ * Record con el estado de un trabajo de renovación masiva que corre en segundo plano. Los
+ * conteos acumulan todas sus ejecuciones; {@code error} es el mensaje de la última ejecución
+ * fallida ({@code null} si no falló).
+ */
+public record EstadoRenovacion(
+    String trabajo,
+    boolean enCurso,
+    boolean completado,
+    long ultimoId,
+    long revisados,
+    long renovados,
+    int lotes,
+    String error
+) {
+}
\ No newline at end of file
@@ -47,8 +47,27 @@ public record InfoPrestamo(
     return ChronoUnit.DAYS.between(LocalDate.now(), fechaDevolucion);
   }
 
+  /** Días entre la fecha de préstamo y la de devolución. */
+  public long diasPrestamo() {
+    return ChronoUnit.DAYS.between(fechaPrestamo, fechaDevolucion);
+  }
+
+  /** Días que el libro estuvo prestado si se entrega en {@code fechaEntrega}. */
+  public long diasTranscurridos(LocalDate fechaEntrega) {
+    return Math.max(0, ChronoUnit.DAYS.between(fechaPrestamo, fechaEntrega));
+  }
+
+  /** Días de retraso si se entrega en {@code fechaEntrega} (0 si se entrega a tiempo). */
+  public long diasRetraso(LocalDate fechaEntrega) {
+    return Math.max(0, ChronoUnit.DAYS.between(fechaDevolucion, fechaEntrega));
+  }
+
   public boolean estaVencido() {
-    return LocalDate.now().isAfter(fechaDevolucion);
+    return estaVencido(LocalDate.now());
+  }
+
+  public boolean estaVencido(LocalDate fechaReferencia) {
+    return fechaReferencia.isAfter(fechaDevolucion);
   }
 
   public String getEstadoPrestamo() {
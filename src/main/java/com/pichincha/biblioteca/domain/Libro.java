@@ -14,6 +14,7 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "libros")
+@EntityListeners(AutorCanonicoListener.class)
 @Data
 @Builder
 @NoArgsConstructor
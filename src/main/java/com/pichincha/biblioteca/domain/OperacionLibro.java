@@ -0,0 +1,19 @@
+package com.pichincha.biblioteca.domain;
+
+/**
+ * Record con una operación de préstamo o devolución dentro de un lote.
+ */
+public record OperacionLibro(
+    Long libroId,
+    String usuario
+) {
+
+  public OperacionLibro {
+    if (libroId == null || libroId <= 0) {
+      throw new IllegalArgumentException("El ID del libro debe ser válido");
+    }
+    if (usuario == null || usuario.isBlank()) {
+      throw new IllegalArgumentException("El usuario no puede estar vacío");
+    }
+  }
+}
\ No newline at end of file
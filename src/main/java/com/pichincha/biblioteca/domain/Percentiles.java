@@ -0,0 +1,19 @@
+package com.pichincha.biblioteca.domain;
+
+/**
+ * Record con los percentiles de una distribución de días (duración o retraso de préstamos).
+ */
+public record Percentiles(
+    long muestras,
+    long p50,
+    long p90,
+    long p99,
+    long maximo
+) {
+
+  public static final Percentiles VACIO = new Percentiles(0, 0, 0, 0, 0);
+
+  public String resumen() {
+    return "p50=%d p90=%d p99=%d máx=%d (%d préstamos)".formatted(p50, p90, p99, maximo, muestras);
+  }
+}
\ No newline at end of file
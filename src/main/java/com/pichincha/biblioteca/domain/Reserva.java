@@ -0,0 +1,42 @@
+package com.pichincha.biblioteca.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record con la reserva de un libro: retenido para el usuario hasta {@code vence}
+ * (posición 0) o en la lista de espera en la posición indicada, contando desde 1.
+ */
+public record Reserva(
+    Long libroId,
+    String usuario,
+    int posicion,
+    LocalDateTime vence
+) {
+
+  public Reserva {
+    if (libroId == null || libroId <= 0) {
+      throw new IllegalArgumentException("El ID del libro debe ser válido");
+    }
+    if (usuario == null || usuario.isBlank()) {
+      throw new IllegalArgumentException("El usuario no puede estar vacío");
+    }
+    if (posicion < 0) {
+      throw new IllegalArgumentException("La posición en la lista de espera no puede ser negativa");
+    }
+    if (posicion == 0 && vence == null) {
+      throw new IllegalArgumentException("Una reserva retenida debe tener fecha de vencimiento");
+    }
+  }
+
+  public static Reserva retenida(Long libroId, String usuario, LocalDateTime vence) {
+    return new Reserva(libroId, usuario, 0, vence);
+  }
+
+  public static Reserva enEspera(Long libroId, String usuario, int posicion) {
+    return new Reserva(libroId, usuario, posicion, null);
+  }
+
+  public boolean estaRetenida() {
+    return posicion == 0;
+  }
+}
\ No newline at end of file
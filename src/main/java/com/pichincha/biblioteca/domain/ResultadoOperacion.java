@@ -0,0 +1,28 @@
+package com.pichincha.biblioteca.domain;
+
+/**
+ * Record con el resultado de cada operación de un lote de préstamos o devoluciones,
+ * en el mismo orden en que se recibieron.
+ */
+public record ResultadoOperacion(
+    OperacionLibro operacion,
+    Resultado resultado,
+    InfoPrestamo prestamo
+) {
+
+  public enum Resultado {
+    EXITOSO, NO_ENCONTRADO, ESTADO_INVALIDO
+  }
+
+  public static ResultadoOperacion exitoso(OperacionLibro operacion, InfoPrestamo prestamo) {
+    return new ResultadoOperacion(operacion, Resultado.EXITOSO, prestamo);
+  }
+
+  public static ResultadoOperacion fallido(OperacionLibro operacion, Resultado resultado) {
+    return new ResultadoOperacion(operacion, resultado, null);
+  }
+
+  public boolean esExitoso() {
+    return resultado == Resultado.EXITOSO;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.pichincha.biblioteca.domain;
+
+import java.time.Duration;
+
+/**
+ * Record con el resultado de una ejecución de renovación masiva. Los conteos son de esta
+ * ejecución; {@code reanudadoDesde} es el último id ya procesado al reanudar (0 si empezó de cero).
+ */
+public record ResultadoRenovacion(
+    String trabajo,
+    long revisados,
+    long renovados,
+    int lotes,
+    Duration duracion,
+    long reanudadoDesde
+) {
+
+  public double porSegundo() {
+    var segundos = duracion.toNanos() / 1e9;
+    return segundos == 0 ? 0 : revisados / segundos;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.pichincha.biblioteca.domain;
+
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record con la tendencia de una métrica de préstamos en las últimas ventanas: la serie
+ * (de la ventana más antigua a la actual), su total, la tasa promedio por ventana de cada tipo
+ * y la variación respecto de las ventanas anteriores ({@code NaN} si no se puede calcular).
+ */
+public record ResumenTendencia(
+    List<Long> serie,
+    long total,
+    Map<TipoLibro, Double> tasaPorTipo,
+    double variacion
+) {
+}
\ No newline at end of file
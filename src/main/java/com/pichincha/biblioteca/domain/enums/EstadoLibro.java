@@ -1,7 +1,10 @@
 package com.pichincha.biblioteca.domain.enums;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public enum EstadoLibro {
   DISPONIBLE("Disponible", "El libro está disponible para préstamo", true),
@@ -39,11 +42,21 @@ public enum EstadoLibro {
   }
 
   public boolean puedePrestar() {
-    return this == DISPONIBLE;
+    return permite(TransicionLibro.PRESTAR);
   }
 
   public boolean puedeDevolver() {
-    return this == PRESTADO;
+    return permite(TransicionLibro.DEVOLVER);
+  }
+
+  public boolean permite(TransicionLibro transicion) {
+    return transicion.getDesde() == this;
+  }
+
+  public Set<TransicionLibro> getTransicionesPermitidas() {
+    return Arrays.stream(TransicionLibro.values())
+        .filter(this::permite)
+        .collect(Collectors.toCollection(() -> EnumSet.noneOf(TransicionLibro.class)));
   }
 
   public String getAccionesPermitidas() {
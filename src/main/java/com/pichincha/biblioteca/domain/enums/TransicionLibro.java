@@ -0,0 +1,48 @@
+package com.pichincha.biblioteca.domain.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Transiciones legales entre estados de un libro, las mismas acciones que describe
+ * {@link EstadoLibro#getAccionesPermitidas()} cuando cambian el estado.
+ */
+public enum TransicionLibro {
+  PRESTAR("Prestar", EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO),
+  DEVOLVER("Devolver", EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE),
+  RESERVAR("Reservar", EstadoLibro.DISPONIBLE, EstadoLibro.RESERVADO),
+  CANCELAR_RESERVA("Cancelar reserva", EstadoLibro.RESERVADO, EstadoLibro.DISPONIBLE),
+  PRESTAR_RESERVADO("Prestar al usuario reservado", EstadoLibro.RESERVADO, EstadoLibro.PRESTADO),
+  ENVIAR_A_MANTENIMIENTO("Enviar a mantenimiento", EstadoLibro.DISPONIBLE, EstadoLibro.MANTENIMIENTO),
+  COMPLETAR_MANTENIMIENTO("Completar mantenimiento", EstadoLibro.MANTENIMIENTO, EstadoLibro.DISPONIBLE),
+  REPORTAR_PERDIDO("Reportar como perdido", EstadoLibro.PRESTADO, EstadoLibro.PERDIDO),
+  REPORTAR_ENCONTRADO("Reportar como encontrado", EstadoLibro.PERDIDO, EstadoLibro.DISPONIBLE);
+
+  private final String descripcion;
+  private final EstadoLibro desde;
+  private final EstadoLibro hacia;
+
+  TransicionLibro(String descripcion, EstadoLibro desde, EstadoLibro hacia) {
+    this.descripcion = descripcion;
+    this.desde = desde;
+    this.hacia = hacia;
+  }
+
+  public String getDescripcion() {
+    return descripcion;
+  }
+
+  public EstadoLibro getDesde() {
+    return desde;
+  }
+
+  public EstadoLibro getHacia() {
+    return hacia;
+  }
+
+  public static Optional<TransicionLibro> entre(EstadoLibro desde, EstadoLibro hacia) {
+    return Arrays.stream(values())
+        .filter(transicion -> transicion.desde == desde && transicion.hacia == hacia)
+        .findFirst();
+  }
+}
\ No newline at end of file
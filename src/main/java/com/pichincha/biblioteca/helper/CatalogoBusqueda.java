@@ -0,0 +1,94 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.service.impl.CatalogoSnapshotService;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.CatalogoOffHeap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copia del catálogo en un {@link CatalogoOffHeap} sobre la que se evalúan las búsquedas,
+ * en lugar de cargar todas las entidades en cada consulta. Se llena con el catálogo de arranque
+ * y sigue por eventos los libros agregados y sus cambios de estado.
+ *
+ * <p>Como {@link CatalogoOffHeap} usa una API preview, la aplicación necesita la JVM con
+ * {@code --enable-preview} también al ejecutar el jar empaquetado (ver README).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogoBusqueda implements LibroEventListener {
+
+  private final LibroEventBus eventBus;
+  private final CatalogoSnapshotService catalogoSnapshot;
+  private final CatalogoOffHeap catalogo = new CatalogoOffHeap();
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(CatalogoSnapshotService.ORDEN_CONSUMIDORES)
+  public void alIniciar() {
+    // Lo recibido por eventos es más reciente que el catálogo de arranque
+    catalogoSnapshot.getCatalogo().forEach(catalogo::agregarSiFalta);
+    log.debug("🔍 Catálogo de búsqueda inicializado: {} libros, {} KB fuera del heap",
+        catalogo.tamano(), catalogo.bytesReservados() / 1024);
+  }
+
+  @PreDestroy
+  public void alDetener() {
+    eventBus.desuscribir(this);
+    catalogo.close();
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    var libro = event.getLibroInfo();
+    switch (event) {
+      case LibroEvent.LibroAgregado agregado -> catalogo.agregar(libro);
+      case LibroEvent.LibroPrestado prestado -> catalogo.actualizarEstado(libro.id(), EstadoLibro.PRESTADO);
+      case LibroEvent.LibroDevuelto devuelto -> catalogo.actualizarEstado(libro.id(), EstadoLibro.DISPONIBLE);
+      case LibroEvent.LibroReservado reservado -> catalogo.actualizarEstado(libro.id(), EstadoLibro.RESERVADO);
+      case LibroEvent.ReservaFinalizada finalizada -> catalogo.actualizarEstado(libro.id(), EstadoLibro.DISPONIBLE);
+      case LibroEvent.EstadoCambiado cambio -> catalogo.actualizarEstado(libro.id(), cambio.getTransicion().getHacia());
+      default -> {
+        // Los demás eventos no cambian el catálogo
+      }
+    }
+  }
+
+  /**
+   * Ids de los libros que cumplen la estrategia, en el orden en que la estrategia los devuelve.
+   */
+  public List<Long> buscar(String criterio, SearchStrategy estrategia) {
+    return estrategia.buscar(catalogo.vistas(), criterio)
+        .map(ILibro::getId)
+        .distinct()
+        .toList();
+  }
+
+  public Optional<LibroInfo> buscarPorId(Long id) {
+    return catalogo.buscarPorId(id).map(LibroInfo::fromLibro);
+  }
+
+  public int tamano() {
+    return catalogo.tamano();
+  }
+}
\ No newline at end of file
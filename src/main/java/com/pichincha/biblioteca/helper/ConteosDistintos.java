@@ -0,0 +1,136 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.CatalogoSnapshotService;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.HyperLogLog;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Conteos aproximados de autores, títulos y usuarios distintos con {@link HyperLogLog}.
+ * Autores y títulos se alimentan de {@link LibroEvent.LibroAgregado} (más el catálogo de
+ * arranque de {@link CatalogoSnapshotService}); los usuarios, de {@link LibroEvent.LibroPrestado}, con un contador por día
+ * para consultar los últimos N días uniendo los contadores diarios.
+ * La memoria es fija (16 KB por contador) sin importar el tamaño del catálogo.
+ */
+@Component
+@Slf4j
+public class ConteosDistintos implements LibroEventListener {
+
+  private final CatalogoSnapshotService catalogoSnapshot;
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+
+  private final HyperLogLog autores = new HyperLogLog();
+  private final HyperLogLog titulos = new HyperLogLog();
+  private final HyperLogLog usuarios = new HyperLogLog();
+  private final HyperLogLog[] usuariosPorDia;
+  private final long[] diaDeContador;
+
+  public ConteosDistintos(CatalogoSnapshotService catalogoSnapshot, LibroEventBus eventBus,
+                          @Value("${biblioteca.distintos.dias:30}") int dias) {
+    this(catalogoSnapshot, eventBus, Clock.systemDefaultZone(), dias);
+  }
+
+  ConteosDistintos(CatalogoSnapshotService catalogoSnapshot, LibroEventBus eventBus, Clock clock, int dias) {
+    this.catalogoSnapshot = catalogoSnapshot;
+    this.eventBus = eventBus;
+    this.clock = clock;
+    this.usuariosPorDia = new HyperLogLog[dias];
+    this.diaDeContador = new long[dias];
+    for (int i = 0; i < dias; i++) {
+      usuariosPorDia[i] = new HyperLogLog();
+      diaDeContador[i] = Long.MIN_VALUE;
+    }
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(CatalogoSnapshotService.ORDEN_CONSUMIDORES)
+  public void alIniciar() {
+    // Agregar un elemento repetido no altera el conteo, así que no importa solapar con eventos
+    catalogoSnapshot.getCatalogo().forEach(libro -> {
+      autores.agregar(libro.autor());
+      titulos.agregar(libro.titulo());
+    });
+    log.debug("🔢 Conteos distintos inicializados: ~{} autores, ~{} títulos",
+        autores.estimar(), titulos.estimar());
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    switch (event) {
+      case LibroEvent.LibroAgregado agregado -> {
+        autores.agregar(agregado.getLibroInfo().autor());
+        titulos.agregar(agregado.getLibroInfo().titulo());
+      }
+      case LibroEvent.LibroPrestado prestado -> {
+        usuarios.agregar(prestado.getUsuario());
+        registrarUsuarioDelDia(prestado.getTimestamp().toLocalDate(), prestado.getUsuario());
+      }
+      default -> {
+        // Otros eventos no aportan elementos nuevos
+      }
+    }
+  }
+
+  public long autoresDistintos() {
+    return autores.estimar();
+  }
+
+  public long titulosDistintos() {
+    return titulos.estimar();
+  }
+
+  public long usuariosDistintos() {
+    return usuarios.estimar();
+  }
+
+  /**
+   * Usuarios distintos que pidieron préstamos en los últimos {@code dias} días (incluido hoy).
+   */
+  public long usuariosDistintos(int dias) {
+    if (dias <= 0 || dias > usuariosPorDia.length) {
+      throw new IllegalArgumentException("Se pueden consultar entre 1 y %d días".formatted(usuariosPorDia.length));
+    }
+    var hoy = LocalDate.now(clock).toEpochDay();
+    var union = new HyperLogLog();
+    synchronized (usuariosPorDia) {
+      for (int i = 0; i < usuariosPorDia.length; i++) {
+        if (diaDeContador[i] > hoy - dias && diaDeContador[i] <= hoy) {
+          union.combinar(usuariosPorDia[i]);
+        }
+      }
+    }
+    return union.estimar();
+  }
+
+  private void registrarUsuarioDelDia(LocalDate fecha, String usuario) {
+    var dia = fecha.toEpochDay();
+    var posicion = (int) Math.floorMod(dia, (long) usuariosPorDia.length);
+    synchronized (usuariosPorDia) {
+      if (diaDeContador[posicion] != dia) {
+        if (dia < diaDeContador[posicion]) {
+          return; // Día ya reciclado: fuera de cualquier ventana consultable
+        }
+        usuariosPorDia[posicion].limpiar();
+        diaDeContador[posicion] = dia;
+      }
+      usuariosPorDia[posicion].agregar(usuario);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,295 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.ConsultaCubo;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.repository.LibroRepository;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.ConteoCatalogo;
+import com.pichincha.biblioteca.util.CuboMensual;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Cubo pre-agregado de la biblioteca para tableros: contadores por medida × tipo × formato
+ * × estado × mes calendario en un {@link CuboMensual}, mantenidos a partir de los eventos.
+ * Cualquier corte o roll-up ({@link ConsultaCubo}) se responde sumando unas pocas decenas de
+ * contadores por mes, sin recorrer el catálogo ni el historial.
+ *
+ * <p>Las medidas de flujo cuentan eventos del mes con el estado en que queda el libro;
+ * {@link Medida#EXISTENCIAS} guarda la variación neta de libros por estado, de modo que
+ * {@link #existencias(YearMonth, ConsultaCubo)} acumula hasta el cierre de un mes. Al iniciar,
+ * las existencias se ajustan contra la base de datos en el mes actual.
+ *
+ * <p>Con {@code biblioteca.cubo.habilitado} el cubo se guarda en un archivo compacto cada
+ * {@code biblioteca.cubo.guardado} y al detener la aplicación, y se carga al iniciar; sin él,
+ * los flujos empiezan desde cero. Si el proceso cae sin detenerse, se pierden los flujos
+ * registrados desde el último guardado; las existencias se vuelven a ajustar al iniciar.
+ */
+@Component
+@Slf4j
+public class CuboBiblioteca implements LibroEventListener {
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  public enum Medida {
+    EXISTENCIAS, ALTAS, PRESTAMOS, DEVOLUCIONES, VENCIDOS
+  }
+
+  private static final int[] DIMENSIONES = {Medida.values().length, TIPOS.length, FORMATOS.length, ESTADOS.length};
+  private static final int DIMENSION_TIPO = 1;
+  private static final int DIMENSION_FORMATO = 2;
+  private static final int DIMENSION_ESTADO = 3;
+
+  private final LibroEventBus eventBus;
+  private final LibroRepository libroRepository;
+  private final Clock clock;
+  private final Path ruta;
+  private final boolean persistente;
+  private volatile CuboMensual cubo = new CuboMensual(DIMENSIONES);
+
+  @Autowired
+  public CuboBiblioteca(LibroEventBus eventBus, LibroRepository libroRepository,
+                        @Value("${biblioteca.cubo.ruta:data/cubo.bin}") String ruta,
+                        @Value("${biblioteca.cubo.habilitado:false}") boolean persistente) {
+    this(eventBus, libroRepository, Clock.systemDefaultZone(), Path.of(ruta), persistente);
+  }
+
+  CuboBiblioteca(LibroEventBus eventBus, LibroRepository libroRepository, Clock clock, Path ruta,
+                 boolean persistente) {
+    this.eventBus = eventBus;
+    this.libroRepository = libroRepository;
+    this.clock = clock;
+    this.ruta = ruta;
+    this.persistente = persistente;
+  }
+
+  @PostConstruct
+  void registrar() {
+    // Se carga antes de suscribirse para no pisar eventos de la carga inicial
+    if (persistente) {
+      cargar();
+    }
+    eventBus.suscribir(this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void alIniciar() {
+    ajustarExistencias();
+  }
+
+  @Scheduled(fixedDelayString = "${biblioteca.cubo.guardado:PT5M}",
+      initialDelayString = "${biblioteca.cubo.guardado:PT5M}")
+  public void guardarPeriodicamente() {
+    if (persistente) {
+      guardarSinFallar();
+    }
+  }
+
+  @PreDestroy
+  public void alDetener() {
+    if (persistente) {
+      guardarSinFallar();
+    }
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    var libro = event.getLibroInfo();
+    var mes = YearMonth.from(event.getTimestamp());
+    switch (event) {
+      case LibroEvent.LibroAgregado agregado -> {
+        sumar(Medida.ALTAS, libro, libro.estado(), mes, 1);
+        sumar(Medida.EXISTENCIAS, libro, libro.estado(), mes, 1);
+      }
+      case LibroEvent.LibroPrestado prestado -> {
+        sumar(Medida.PRESTAMOS, libro, EstadoLibro.PRESTADO, mes, 1);
+        mover(libro, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO, mes);
+      }
+      case LibroEvent.LibroDevuelto devuelto -> {
+        sumar(Medida.DEVOLUCIONES, libro, EstadoLibro.DISPONIBLE, mes, 1);
+        mover(libro, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE, mes);
+      }
+      case LibroEvent.LibroReservado reservado -> mover(libro, EstadoLibro.DISPONIBLE, EstadoLibro.RESERVADO, mes);
+      case LibroEvent.ReservaFinalizada finalizada -> mover(libro, EstadoLibro.RESERVADO, EstadoLibro.DISPONIBLE, mes);
+      case LibroEvent.PrestamoVencido vencido -> sumar(Medida.VENCIDOS, libro, EstadoLibro.PRESTADO, mes, 1);
+      case LibroEvent.EstadoCambiado cambio ->
+          mover(libro, cambio.getTransicion().getDesde(), cambio.getTransicion().getHacia(), mes);
+      default -> {
+        // Renovaciones y recordatorios no cambian los contadores
+      }
+    }
+  }
+
+  public long contar(Medida medida, ConsultaCubo consulta) {
+    return cubo.total(mascaras(medida, consulta), consulta.desde(), consulta.hasta());
+  }
+
+  public Map<TipoLibro, Long> porTipo(Medida medida, ConsultaCubo consulta) {
+    return aMapa(TipoLibro.class, TIPOS, agrupar(DIMENSION_TIPO, medida, consulta));
+  }
+
+  public Map<FormatoLibro, Long> porFormato(Medida medida, ConsultaCubo consulta) {
+    return aMapa(FormatoLibro.class, FORMATOS, agrupar(DIMENSION_FORMATO, medida, consulta));
+  }
+
+  public Map<EstadoLibro, Long> porEstado(Medida medida, ConsultaCubo consulta) {
+    return aMapa(EstadoLibro.class, ESTADOS, agrupar(DIMENSION_ESTADO, medida, consulta));
+  }
+
+  /**
+   * Totales por mes (solo meses con datos); para {@link Medida#EXISTENCIAS} son variaciones netas.
+   */
+  public SortedMap<YearMonth, Long> porMes(Medida medida, ConsultaCubo consulta) {
+    return cubo.porMes(mascaras(medida, consulta), consulta.desde(), consulta.hasta());
+  }
+
+  /**
+   * Libros por estado al cierre de {@code mes}; el rango de meses de la consulta se ignora.
+   */
+  public Map<EstadoLibro, Long> existencias(YearMonth mes, ConsultaCubo consulta) {
+    return porEstado(Medida.EXISTENCIAS, consulta.entre(null, mes));
+  }
+
+  /**
+   * Corrige las existencias acumuladas de cada tipo × formato × estado con los conteos de la
+   * base de datos, imputando la diferencia al mes actual.
+   *
+   * @return número de combinaciones corregidas
+   */
+  public int ajustarExistencias() {
+    var real = ConteoCatalogo.desde(libroRepository.contarPorTipoFormatoEstado());
+    var mes = YearMonth.now(clock);
+    var corregidas = 0;
+    for (var tipo : TIPOS) {
+      for (var formato : FORMATOS) {
+        for (var estado : ESTADOS) {
+          var consulta = ConsultaCubo.TODO.conTipos(tipo).conFormatos(formato).conEstados(estado);
+          var diferencia = real.cantidad(tipo, formato, estado) - contar(Medida.EXISTENCIAS, consulta);
+          if (diferencia != 0) {
+            cubo.sumar(celda(Medida.EXISTENCIAS, tipo, formato, estado), mes, diferencia);
+            corregidas++;
+          }
+        }
+      }
+    }
+    if (corregidas > 0) {
+      log.info("🧊 Existencias del cubo ajustadas: {} combinaciones corregidas", corregidas);
+    }
+    return corregidas;
+  }
+
+  /**
+   * Escribe el cubo en un archivo temporal y lo reemplaza de forma atómica.
+   */
+  public void guardar() {
+    try {
+      var directorio = ruta.toAbsolutePath().getParent();
+      Files.createDirectories(directorio);
+      var temporal = Files.createTempFile(directorio, "cubo", ".tmp");
+      Files.write(temporal, cubo.serializar());
+      Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("💾 Cubo de la biblioteca guardado en {}", ruta);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error guardando el cubo de la biblioteca", e);
+    }
+  }
+
+  /**
+   * Reemplaza el cubo por el guardado; si el archivo no existe o está corrupto se conserva
+   * el actual. Devuelve {@code true} si se cargó.
+   */
+  public boolean cargar() {
+    if (!Files.isRegularFile(ruta)) {
+      return false;
+    }
+    try {
+      cubo = CuboMensual.deserializar(Files.readAllBytes(ruta), DIMENSIONES);
+      log.info("🧊 Cubo de la biblioteca cargado desde {}", ruta);
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("⚠️ No se pudo leer el cubo de la biblioteca, se ignora: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  public void limpiar() {
+    cubo.limpiar();
+  }
+
+  private void guardarSinFallar() {
+    try {
+      guardar();
+    } catch (UncheckedIOException e) {
+      log.error("❌ No se pudo guardar el cubo de la biblioteca: {}", e.getMessage());
+    }
+  }
+
+  private void mover(LibroInfo libro, EstadoLibro desde, EstadoLibro hacia, YearMonth mes) {
+    sumar(Medida.EXISTENCIAS, libro, desde, mes, -1);
+    sumar(Medida.EXISTENCIAS, libro, hacia, mes, 1);
+  }
+
+  private void sumar(Medida medida, LibroInfo libro, EstadoLibro estado, YearMonth mes, long delta) {
+    cubo.sumar(celda(medida, libro.tipo(), libro.formato(), estado), mes, delta);
+  }
+
+  private int celda(Medida medida, TipoLibro tipo, FormatoLibro formato, EstadoLibro estado) {
+    return cubo.celda(medida.ordinal(), tipo.ordinal(), formato.ordinal(), estado.ordinal());
+  }
+
+  private long[] agrupar(int dimension, Medida medida, ConsultaCubo consulta) {
+    return cubo.agrupar(dimension, mascaras(medida, consulta), consulta.desde(), consulta.hasta());
+  }
+
+  private static long[] mascaras(Medida medida, ConsultaCubo consulta) {
+    return new long[]{1L << medida.ordinal(), mascara(consulta.tipos()), mascara(consulta.formatos()),
+        mascara(consulta.estados())};
+  }
+
+  private static long mascara(Set<? extends Enum<?>> valores) {
+    if (valores.isEmpty()) {
+      return CuboMensual.TODOS;
+    }
+    var mascara = 0L;
+    for (var valor : valores) {
+      mascara |= 1L << valor.ordinal();
+    }
+    return mascara;
+  }
+
+  private static <E extends Enum<E>> Map<E, Long> aMapa(Class<E> clase, E[] valores, long[] cantidades) {
+    var mapa = new EnumMap<E, Long>(clase);
+    for (int i = 0; i < valores.length; i++) {
+      if (cantidades[i] != 0) {
+        mapa.put(valores[i], cantidades[i]);
+      }
+    }
+    return mapa;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.LongLongHashMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumuladores de duración de préstamos (suma de días y cantidad) por {@link TipoLibro}
+ * y por {@link FormatoLibro}, actualizados con cada {@link LibroEvent.LibroDevuelto} con los
+ * días que el libro estuvo realmente prestado, igual que {@link HistogramasPrestamo}.
+ * El promedio es una lectura en tiempo constante. El historial no guarda la fecha de entrega,
+ * así que {@link #reconstruir} usa el plazo del préstamo, con el mismo criterio que
+ * {@link EstadisticasHelper#calcularTiempoPromediosPrestamo(List, List)}.
+ */
+@Component
+public class DuracionPrestamos implements LibroEventListener {
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+
+  private final long[] diasPorTipo = new long[TIPOS.length];
+  private final long[] prestamosPorTipo = new long[TIPOS.length];
+  private final long[] diasPorFormato = new long[FORMATOS.length];
+  private final long[] prestamosPorFormato = new long[FORMATOS.length];
+
+  @Autowired
+  public DuracionPrestamos(LibroEventBus eventBus) {
+    this(eventBus, Clock.systemDefaultZone());
+  }
+
+  DuracionPrestamos(LibroEventBus eventBus, Clock clock) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    if (event instanceof LibroEvent.LibroDevuelto devuelto && devuelto.getPrestamo() != null) {
+      var libro = devuelto.getLibroInfo();
+      var fechaEntrega = devuelto.getTimestamp().atZone(clock.getZone()).toLocalDate();
+      acumular(libro.tipo().ordinal(), libro.formato().ordinal(),
+          devuelto.getPrestamo().diasTranscurridos(fechaEntrega));
+    }
+  }
+
+  /**
+   * Promedio de días por tipo; solo incluye los tipos con préstamos completados.
+   */
+  public synchronized Map<TipoLibro, Double> promediosPorTipo() {
+    return promedios(TipoLibro.class, TIPOS, diasPorTipo, prestamosPorTipo);
+  }
+
+  public synchronized Map<FormatoLibro, Double> promediosPorFormato() {
+    return promedios(FormatoLibro.class, FORMATOS, diasPorFormato, prestamosPorFormato);
+  }
+
+  /**
+   * Reemplaza los acumuladores con los préstamos completados del historial.
+   * Los préstamos de libros que no están en {@code libros} se ignoran.
+   */
+  public void reconstruir(List<InfoPrestamo> historialPrestamos, List<ILibro> libros) {
+    // id -> tipo y formato empaquetados en un long
+    var clasificacion = new LongLongHashMap(libros.size());
+    for (var libro : libros) {
+      if (libro.getId() != null) {
+        clasificacion.put(libro.getId(), (long) libro.getTipo().ordinal() << 32 | libro.getFormato().ordinal());
+      }
+    }
+
+    synchronized (this) {
+      limpiar();
+      for (var prestamo : historialPrestamos) {
+        var clase = clasificacion.get(prestamo.libroId(), -1);
+        if (!prestamo.activo() && clase >= 0) {
+          acumular((int) (clase >>> 32), (int) clase, prestamo.diasPrestamo());
+        }
+      }
+    }
+  }
+
+  public synchronized void limpiar() {
+    Arrays.fill(diasPorTipo, 0);
+    Arrays.fill(prestamosPorTipo, 0);
+    Arrays.fill(diasPorFormato, 0);
+    Arrays.fill(prestamosPorFormato, 0);
+  }
+
+  private synchronized void acumular(int tipo, int formato, long dias) {
+    diasPorTipo[tipo] += dias;
+    prestamosPorTipo[tipo]++;
+    diasPorFormato[formato] += dias;
+    prestamosPorFormato[formato]++;
+  }
+
+  private static <E extends Enum<E>> Map<E, Double> promedios(Class<E> clase, E[] valores,
+                                                               long[] dias, long[] prestamos) {
+    var promedios = new EnumMap<E, Double>(clase);
+    for (int i = 0; i < valores.length; i++) {
+      if (prestamos[i] > 0) {
+        promedios.put(valores[i], (double) dias[i] / prestamos[i]);
+      }
+    }
+    return promedios;
+  }
+}
\ No newline at end of file
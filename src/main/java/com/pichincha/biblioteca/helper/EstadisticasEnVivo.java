@@ -0,0 +1,242 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.EstadisticasBiblioteca;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.repository.LibroRepository;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.CatalogoVersion;
+import com.pichincha.biblioteca.service.impl.EstadosLibroService;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.CacheVersionada;
+import com.pichincha.biblioteca.util.ConteoCatalogo;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Estadísticas de la biblioteca mantenidas de forma incremental a partir de los eventos.
+ * Guarda un contador con striping ({@link LongAdder}) por cada combinación tipo × formato × estado
+ * y otro para préstamos activos, de modo que {@link #obtenerEstadisticas()} no recorre el catálogo.
+ * Cada contador es exacto por separado; una lectura concurrente con eventos puede combinar
+ * contadores de instantes ligeramente distintos.
+ *
+ * <p>Un job programado reconcilia los contadores contra la base de datos y corrige
+ * cualquier desviación (por ejemplo, cambios hechos fuera de {@code ModernBibliotecaService}).
+ * Antes de consultar escribe los estados de mantenimiento pendientes de {@link EstadosLibroService},
+ * que ya se contaron por su {@link LibroEvent.EstadoCambiado} pero aún no están en la base de datos.
+ * Los eventos se aplican con el lado de lectura de un {@link ReentrantReadWriteLock} y la
+ * reconciliación toma el de escritura desde la consulta hasta la corrección, así que ningún evento
+ * se cuenta dos veces ni se pierde entre ambas. Un cambio ya guardado cuyo evento aún no se
+ * publicó al consultar sí queda contado de más, y lo corrige la reconciliación siguiente.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasEnVivo implements LibroEventListener {
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  private final LibroRepository libroRepository;
+  private final LibroEventBus eventBus;
+  private final CatalogoVersion catalogoVersion;
+  private final EstadosLibroService estadosLibro;
+  private final CacheVersionada<EstadisticasBiblioteca> estadisticas = new CacheVersionada<>();
+
+  private final LongAdder[] conteos = crearContadores(TIPOS.length * FORMATOS.length * ESTADOS.length);
+  private final LongAdder prestamosActivos = new LongAdder();
+  private final ReentrantReadWriteLock reconciliacion = new ReentrantReadWriteLock();
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void alIniciar() {
+    reconciliar();
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    // Varios eventos se aplican a la vez; solo la reconciliación los detiene
+    reconciliacion.readLock().lock();
+    try {
+      aplicar(event);
+    } finally {
+      reconciliacion.readLock().unlock();
+    }
+  }
+
+  private void aplicar(LibroEvent event) {
+    var libro = event.getLibroInfo();
+    switch (event) {
+      case LibroEvent.LibroAgregado agregado -> contador(libro, libro.estado()).increment();
+      case LibroEvent.LibroPrestado prestado -> {
+        mover(libro, EstadoLibro.DISPONIBLE, EstadoLibro.PRESTADO);
+        prestamosActivos.increment();
+      }
+      case LibroEvent.LibroDevuelto devuelto -> {
+        mover(libro, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+        prestamosActivos.decrement();
+      }
+      case LibroEvent.LibroReservado reservado -> mover(libro, EstadoLibro.DISPONIBLE, EstadoLibro.RESERVADO);
+      case LibroEvent.ReservaFinalizada finalizada -> mover(libro, EstadoLibro.RESERVADO, EstadoLibro.DISPONIBLE);
+      case LibroEvent.EstadoCambiado cambio -> {
+        var transicion = cambio.getTransicion();
+        mover(libro, transicion.getDesde(), transicion.getHacia());
+        // Como en la reconciliación, los préstamos activos son los libros en PRESTADO
+        if (transicion.getDesde() == EstadoLibro.PRESTADO) {
+          prestamosActivos.decrement();
+        } else if (transicion.getHacia() == EstadoLibro.PRESTADO) {
+          prestamosActivos.increment();
+        }
+      }
+      default -> {
+        // Otros eventos no alteran los contadores
+      }
+    }
+  }
+
+  /**
+   * Devuelve las estadísticas actuales en tiempo constante; la misma instancia se reutiliza
+   * mientras no cambie la versión del catálogo.
+   */
+  public EstadisticasBiblioteca obtenerEstadisticas() {
+    return estadisticas.obtener(catalogoVersion.actual(), this::calcularEstadisticas);
+  }
+
+  private EstadisticasBiblioteca calcularEstadisticas() {
+    var actuales = new int[conteos.length];
+    var total = 0;
+    for (int i = 0; i < conteos.length; i++) {
+      actuales[i] = Math.max(0, conteos[i].intValue());
+      total += actuales[i];
+    }
+    if (total == 0) {
+      return new EstadisticasBiblioteca(0, Map.of(), Map.of(), Map.of(), 0, 0.0);
+    }
+
+    var porTipo = new int[TIPOS.length];
+    var porFormato = new int[FORMATOS.length];
+    var porEstado = new int[ESTADOS.length];
+    for (int t = 0; t < TIPOS.length; t++) {
+      for (int f = 0; f < FORMATOS.length; f++) {
+        for (int e = 0; e < ESTADOS.length; e++) {
+          var cantidad = actuales[indice(t, f, e)];
+          porTipo[t] += cantidad;
+          porFormato[f] += cantidad;
+          porEstado[e] += cantidad;
+        }
+      }
+    }
+
+    var disponibles = porEstado[EstadoLibro.DISPONIBLE.ordinal()];
+    return new EstadisticasBiblioteca(
+        total,
+        aMapa(TipoLibro.class, TIPOS, porTipo),
+        aMapa(FormatoLibro.class, FORMATOS, porFormato),
+        aMapa(EstadoLibro.class, ESTADOS, porEstado),
+        Math.max(0, prestamosActivos.intValue()),
+        (double) disponibles / total * 100
+    );
+  }
+
+  /**
+   * Compara los contadores con la base de datos y corrige las diferencias.
+   * Los préstamos activos se contrastan con los libros en estado PRESTADO.
+   *
+   * @return número de contadores corregidos
+   */
+  @Scheduled(fixedDelayString = "${biblioteca.estadisticas.reconciliacion.intervalo:PT5M}",
+      initialDelayString = "${biblioteca.estadisticas.reconciliacion.intervalo:PT5M}")
+  public int reconciliar() {
+    estadosLibro.sincronizar();
+    int corregidos;
+    reconciliacion.writeLock().lock();
+    try {
+      corregidos = corregir(ConteoCatalogo.desde(libroRepository.contarPorTipoFormatoEstado()));
+    } finally {
+      reconciliacion.writeLock().unlock();
+    }
+
+    if (corregidos > 0) {
+      // Las estadísticas memorizadas salieron de contadores desviados
+      catalogoVersion.incrementar();
+      log.warn("⚠️ Estadísticas en vivo reconciliadas: {} contadores corregidos", corregidos);
+    } else {
+      log.debug("📊 Estadísticas en vivo consistentes con la base de datos");
+    }
+    return corregidos;
+  }
+
+  // Sin eventos en curso: la diferencia calculada es exactamente la que hay que sumar
+  private int corregir(ConteoCatalogo real) {
+    var corregidos = 0;
+
+    for (int t = 0; t < TIPOS.length; t++) {
+      for (int f = 0; f < FORMATOS.length; f++) {
+        for (int e = 0; e < ESTADOS.length; e++) {
+          var contador = conteos[indice(t, f, e)];
+          var diferencia = real.cantidad(TIPOS[t], FORMATOS[f], ESTADOS[e]) - contador.sum();
+          if (diferencia != 0) {
+            contador.add(diferencia);
+            corregidos++;
+          }
+        }
+      }
+    }
+
+    var diferenciaPrestamos = real.cantidad(EstadoLibro.PRESTADO) - prestamosActivos.sum();
+    if (diferenciaPrestamos != 0) {
+      prestamosActivos.add(diferenciaPrestamos);
+      corregidos++;
+    }
+    return corregidos;
+  }
+
+  private void mover(LibroInfo libro, EstadoLibro desde, EstadoLibro hacia) {
+    contador(libro, desde).decrement();
+    contador(libro, hacia).increment();
+  }
+
+  private LongAdder contador(LibroInfo libro, EstadoLibro estado) {
+    return conteos[indice(libro.tipo().ordinal(), libro.formato().ordinal(), estado.ordinal())];
+  }
+
+  private static int indice(int tipo, int formato, int estado) {
+    return (tipo * FORMATOS.length + formato) * ESTADOS.length + estado;
+  }
+
+  private static LongAdder[] crearContadores(int cantidad) {
+    var contadores = new LongAdder[cantidad];
+    for (int i = 0; i < cantidad; i++) {
+      contadores[i] = new LongAdder();
+    }
+    return contadores;
+  }
+
+  private static <E extends Enum<E>> Map<E, Integer> aMapa(Class<E> clase, E[] valores, int[] cantidades) {
+    var mapa = new EnumMap<E, Integer>(clase);
+    for (int i = 0; i < valores.length; i++) {
+      if (cantidades[i] > 0) {
+        mapa.put(valores[i], cantidades[i]);
+      }
+    }
+    return mapa;
+  }
+}
\ No newline at end of file
@@ -1,16 +1,26 @@
 package com.pichincha.biblioteca.helper;
 
+import com.pichincha.biblioteca.domain.ConteosAproximados;
 import com.pichincha.biblioteca.domain.EstadisticasBiblioteca;
 import com.pichincha.biblioteca.domain.ILibro;
 import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.Percentiles;
+import com.pichincha.biblioteca.domain.ResumenTendencia;
 import com.pichincha.biblioteca.domain.enums.EstadoLibro;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.util.ConteoCatalogo;
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
+import com.pichincha.biblioteca.util.LongLongHashMap;
+import com.pichincha.biblioteca.util.ReporteWriter;
+import com.pichincha.biblioteca.util.ReporteWriter.Plantilla;
+import com.pichincha.biblioteca.util.SpaceSaving;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -18,45 +28,47 @@ import java.util.stream.Collectors;
  * Utiliza programación funcional moderna de Java 21.
  */
 @Component
+@RequiredArgsConstructor
 public class EstadisticasHelper {
 
+  private static final Plantilla VINETA = Plantilla.de("• %s\n");
+  private static final Plantilla TITULO_VENCIDOS = Plantilla.de("\n--- Préstamos Vencidos (%d) ---\n");
+  private static final Plantilla TIEMPO_PROMEDIO = Plantilla.de("• %s: %.1f días\n");
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+
+  private final DuracionPrestamos duracionPrestamos;
+  private final HistogramasPrestamo histogramasPrestamo;
+  private final PrestamosPopulares prestamosPopulares;
+  private final ConteosDistintos conteosDistintos;
+  private final TendenciaPrestamos tendenciaPrestamos;
+  private final PrestamosPorVencimiento prestamosPorVencimiento;
+
   public EstadisticasBiblioteca generarEstadisticas(List<ILibro> libros, 
                                                    List<InfoPrestamo> prestamos) {
     if (libros.isEmpty()) {
       return new EstadisticasBiblioteca(0, Map.of(), Map.of(), Map.of(), 0, 0.0);
     }
 
-    var librosPorTipo = libros.stream()
-        .collect(Collectors.groupingBy(
-            ILibro::getTipo,
-            Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-        ));
-
-    var librosPorFormato = libros.stream()
-        .collect(Collectors.groupingBy(
-            ILibro::getFormato,
-            Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-        ));
+    // Una sola pasada para tipo, formato y estado
+    var conteo = ConteoCatalogo.de(libros);
 
-    var librosPorEstado = libros.stream()
-        .collect(Collectors.groupingBy(
-            ILibro::getEstado,
-            Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-        ));
-
-    int prestamosActivos = (int) prestamos.stream()
-        .filter(InfoPrestamo::activo)
-        .count();
+    int prestamosActivos = 0;
+    for (var prestamo : prestamos) {
+      if (prestamo.activo()) {
+        prestamosActivos++;
+      }
+    }
 
-    int librosDisponibles = librosPorEstado.getOrDefault(EstadoLibro.DISPONIBLE, 0);
+    int librosDisponibles = conteo.cantidad(EstadoLibro.DISPONIBLE);
     double porcentajeDisponibilidad = libros.isEmpty() ? 0.0 : 
         (double) librosDisponibles / libros.size() * 100;
 
     return new EstadisticasBiblioteca(
         libros.size(),
-        librosPorTipo,
-        librosPorFormato,
-        librosPorEstado,
+        conteo.porTipo(),
+        conteo.porFormato(),
+        conteo.porEstado(),
         prestamosActivos,
         porcentajeDisponibilidad
     );
@@ -65,31 +77,91 @@ public class EstadisticasHelper {
   public List<ILibro> obtenerLibrosMasPopulares(List<ILibro> libros, 
                                                List<InfoPrestamo> historialPrestamos,
                                                int limite) {
-    var contadorPrestamos = historialPrestamos.stream()
-        .collect(Collectors.groupingBy(
-            InfoPrestamo::libroId,
-            Collectors.counting()
-        ));
+    validarLimite(limite);
+    if (limite == 0 || libros.isEmpty()) {
+      return List.of();
+    }
+
+    // Conteo en un mapa primitivo: sin Long por clave ni por contador
+    var contadorPrestamos = new LongLongHashMap(historialPrestamos.size());
+    for (var prestamo : historialPrestamos) {
+      contadorPrestamos.incrementar(prestamo.libroId(), 1);
+    }
+
+    // Heap acotado de tamaño 'limite' en lugar de ordenar todo el catálogo.
+    // Empates por orden de aparición, igual que un ordenamiento estable descendente.
+    var peorPrimero = Comparator.comparingLong(Candidato::prestamos)
+        .thenComparing(Comparator.comparingInt(Candidato::posicion).reversed());
+    var mejores = new PriorityQueue<Candidato>(Math.min(limite, libros.size()), peorPrimero);
+    for (int posicion = 0; posicion < libros.size(); posicion++) {
+      var libro = libros.get(posicion);
+      var prestamos = contarPrestamos(contadorPrestamos, libro);
+      if (mejores.size() < limite) {
+        mejores.add(new Candidato(libro, prestamos, posicion));
+      } else if (prestamos > mejores.peek().prestamos()) {
+        mejores.poll();
+        mejores.add(new Candidato(libro, prestamos, posicion));
+      }
+    }
 
-    return libros.stream()
-        .sorted((libro1, libro2) -> {
-          long prestamos1 = contadorPrestamos.getOrDefault(libro1.getId(), 0L);
-          long prestamos2 = contadorPrestamos.getOrDefault(libro2.getId(), 0L);
-          return Long.compare(prestamos2, prestamos1); // Orden descendente
-        })
-        .limit(limite)
+    return mejores.stream()
+        .sorted(peorPrimero.reversed())
+        .map(Candidato::libro)
         .toList();
   }
 
+  private record Candidato(ILibro libro, long prestamos, int posicion) {
+  }
+
+  private static long contarPrestamos(LongLongHashMap contadorPrestamos, ILibro libro) {
+    return libro.getId() == null ? 0 : contadorPrestamos.get(libro.getId(), 0);
+  }
+
+  /**
+   * Préstamos de todos los autores del historial, de mayor a menor.
+   */
   public Map<String, Integer> obtenerAutoresMasLeidos(List<InfoPrestamo> historialPrestamos) {
-    return historialPrestamos.stream()
-        .collect(Collectors.groupingBy(
-            prestamo -> extractAutorFromTitle(prestamo.tituloLibro()),
-            Collectors.collectingAndThen(Collectors.counting(), Math::toIntExact)
-        ))
-        .entrySet()
-        .stream()
-        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+    return obtenerAutoresMasLeidos(historialPrestamos, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Los {@code limite} autores con más préstamos en el historial, de mayor a menor.
+   * Solo los mejores pasan por un heap acotado; el resto de autores no se ordena.
+   */
+  public Map<String, Integer> obtenerAutoresMasLeidos(List<InfoPrestamo> historialPrestamos, int limite) {
+    validarLimite(limite);
+    // Se cuenta por código de título y el autor se deriva una sola vez por título distinto
+    var titulos = new DiccionarioCadenas();
+    var conteos = new int[16];
+    for (var prestamo : historialPrestamos) {
+      var codigo = titulos.codificar(prestamo.tituloLibro());
+      if (codigo == conteos.length) {
+        conteos = Arrays.copyOf(conteos, codigo * 2);
+      }
+      conteos[codigo]++;
+    }
+
+    var conteoPorAutor = new HashMap<String, Integer>();
+    for (int codigo = 0; codigo < titulos.tamano(); codigo++) {
+      conteoPorAutor.merge(extractAutorFromTitle(titulos.decodificar(codigo)), conteos[codigo], Integer::sum);
+    }
+    if (limite == 0 || conteoPorAutor.isEmpty()) {
+      return Map.of();
+    }
+
+    var peorPrimero = Map.Entry.<String, Integer>comparingByValue();
+    var mejores = new PriorityQueue<Map.Entry<String, Integer>>(Math.min(limite, conteoPorAutor.size()), peorPrimero);
+    for (var autor : conteoPorAutor.entrySet()) {
+      if (mejores.size() < limite) {
+        mejores.add(autor);
+      } else if (autor.getValue() > mejores.peek().getValue()) {
+        mejores.poll();
+        mejores.add(autor);
+      }
+    }
+
+    return mejores.stream()
+        .sorted(peorPrimero.reversed())
         .collect(Collectors.toMap(
             Map.Entry::getKey,
             Map.Entry::getValue,
@@ -98,72 +170,238 @@ public class EstadisticasHelper {
         ));
   }
 
+  /**
+   * Libros más prestados desde el arranque, estimados en streaming sin historial
+   * ({@link PrestamosPopulares}); cada estimación trae su cota de error.
+   */
+  public List<SpaceSaving.Estimacion<Long>> obtenerLibrosMasPrestados(int limite) {
+    validarLimite(limite);
+    return prestamosPopulares.topLibros(limite);
+  }
+
+  /** Como {@link #obtenerLibrosMasPrestados(int)}, pero solo en la ventana reciente indicada. */
+  public List<SpaceSaving.Estimacion<Long>> obtenerLibrosMasPrestados(int limite, Duration ventana) {
+    validarLimite(limite);
+    return prestamosPopulares.topLibros(limite, ventana);
+  }
+
+  public List<SpaceSaving.Estimacion<String>> obtenerAutoresMasPrestados(int limite) {
+    validarLimite(limite);
+    return prestamosPopulares.topAutores(limite);
+  }
+
+  public List<SpaceSaving.Estimacion<String>> obtenerAutoresMasPrestados(int limite, Duration ventana) {
+    validarLimite(limite);
+    return prestamosPopulares.topAutores(limite, ventana);
+  }
+
+  /**
+   * Autores, títulos y usuarios distintos en memoria constante ({@link ConteosDistintos}),
+   * en lugar de agrupar todo el catálogo o el historial; los usuarios también en los últimos {@code dias} días.
+   */
+  public ConteosAproximados obtenerConteosDistintos(int dias) {
+    return new ConteosAproximados(
+        conteosDistintos.autoresDistintos(),
+        conteosDistintos.titulosDistintos(),
+        conteosDistintos.usuariosDistintos(),
+        dias,
+        conteosDistintos.usuariosDistintos(dias));
+  }
+
+  /**
+   * Tendencia de la métrica en las últimas {@code ventanas} ventanas desde los buffers circulares de
+   * {@link TendenciaPrestamos}, sin recorrer el historial. La variación compara con las {@code ventanas}
+   * anteriores y es {@code NaN} si el buffer no conserva el doble de ventanas.
+   */
+  public ResumenTendencia obtenerTendencia(TendenciaPrestamos.Metrica metrica,
+                                           TendenciaPrestamos.Granularidad granularidad,
+                                           int ventanas) {
+    var serie = tendenciaPrestamos.serie(metrica, granularidad, ventanas);
+    var total = 0L;
+    for (var valor : serie) {
+      total += valor;
+    }
+    var variacion = ventanas * 2 <= granularidad.getIntervalos()
+        ? tendenciaPrestamos.variacion(metrica, granularidad, ventanas)
+        : Double.NaN;
+    return new ResumenTendencia(Arrays.stream(serie).boxed().toList(), total,
+        tendenciaPrestamos.tasaPorTipo(metrica, granularidad, ventanas), variacion);
+  }
+
+  private static void validarLimite(int limite) {
+    if (limite < 0) {
+      throw new IllegalArgumentException("El límite no puede ser negativo: " + limite);
+    }
+  }
+
   private String extractAutorFromTitle(String titulo) {
     // Simulación simple - en la realidad necesitaríamos más información
     return "Autor de " + titulo;
   }
 
+  /**
+   * Préstamos activos vencidos hoy, ordenados por fecha de devolución, desde el índice de
+   * {@link PrestamosPorVencimiento}: cuesta en proporción a los vencidos, no a los activos.
+   */
+  public List<InfoPrestamo> obtenerPrestamosVencidos() {
+    return prestamosPorVencimiento.obtenerVencidos();
+  }
+
+  /**
+   * Vencidos a una fecha fija: todos los préstamos se evalúan contra la misma fecha,
+   * aunque la consulta cruce la medianoche.
+   */
+  public List<InfoPrestamo> obtenerPrestamosVencidos(LocalDate fechaReferencia) {
+    return prestamosPorVencimiento.obtenerVencidos(fechaReferencia);
+  }
+
+  public Optional<InfoPrestamo> obtenerPrestamoMasAntiguo() {
+    return prestamosPorVencimiento.obtenerMasAntiguo();
+  }
+
+  /**
+   * Vencidos hoy dentro de una lista de préstamos propia del llamador (por ejemplo, un historial
+   * de muestra). Recorre toda la lista; para los préstamos activos de la biblioteca conviene el
+   * índice de {@link #obtenerPrestamosVencidos()}.
+   */
   public List<InfoPrestamo> obtenerPrestamosVencidos(List<InfoPrestamo> prestamos) {
+    return obtenerPrestamosVencidos(prestamos, LocalDate.now());
+  }
+
+  /**
+   * Vencidos de la lista a una fecha fija, en el mismo orden que el índice: por fecha de
+   * devolución y, a igual fecha, por id de libro.
+   */
+  public List<InfoPrestamo> obtenerPrestamosVencidos(List<InfoPrestamo> prestamos, LocalDate fechaReferencia) {
     return prestamos.stream()
         .filter(InfoPrestamo::activo)
-        .filter(InfoPrestamo::estaVencido)
-        .sorted(Comparator.comparing(InfoPrestamo::fechaDevolucion))
+        .filter(prestamo -> prestamo.estaVencido(fechaReferencia))
+        .sorted(Comparator.comparing(InfoPrestamo::fechaDevolucion).thenComparing(InfoPrestamo::libroId))
         .toList();
   }
 
   public Optional<InfoPrestamo> obtenerPrestamoMasAntiguo(List<InfoPrestamo> prestamos) {
     return prestamos.stream()
         .filter(InfoPrestamo::activo)
-        .min(Comparator.comparing(InfoPrestamo::fechaPrestamo));
+        .min(Comparator.comparing(InfoPrestamo::fechaPrestamo).thenComparing(InfoPrestamo::libroId));
   }
 
   public Map<TipoLibro, Double> calcularTiempoPromediosPrestamo(List<InfoPrestamo> historialPrestamos,
                                                                List<ILibro> libros) {
-    var librosPorId = libros.stream()
-        .collect(Collectors.toMap(ILibro::getId, Function.identity()));
-
-    return historialPrestamos.stream()
-        .filter(prestamo -> !prestamo.activo()) // Solo préstamos completados
-        .filter(prestamo -> librosPorId.containsKey(prestamo.libroId()))
-        .collect(Collectors.groupingBy(
-            prestamo -> librosPorId.get(prestamo.libroId()).getTipo(),
-            Collectors.averagingLong(prestamo -> 
-                prestamo.fechaDevolucion().toEpochDay() - prestamo.fechaPrestamo().toEpochDay())
-        ));
+    // id -> ordinal del tipo, y acumuladores por tipo en arreglos primitivos
+    var tipoPorId = new LongLongHashMap(libros.size());
+    for (var libro : libros) {
+      if (libro.getId() == null) {
+        continue;
+      }
+      if (tipoPorId.contiene(libro.getId())) {
+        throw new IllegalStateException("Id de libro duplicado: " + libro.getId());
+      }
+      tipoPorId.put(libro.getId(), libro.getTipo().ordinal());
+    }
+
+    var diasPorTipo = new long[TIPOS.length];
+    var prestamosPorTipo = new long[TIPOS.length];
+    for (var prestamo : historialPrestamos) {
+      if (prestamo.activo()) {
+        continue; // Solo préstamos completados
+      }
+      var tipo = (int) tipoPorId.get(prestamo.libroId(), -1);
+      if (tipo >= 0) {
+        diasPorTipo[tipo] += prestamo.diasPrestamo();
+        prestamosPorTipo[tipo]++;
+      }
+    }
+
+    var promedios = new EnumMap<TipoLibro, Double>(TipoLibro.class);
+    for (int tipo = 0; tipo < TIPOS.length; tipo++) {
+      if (prestamosPorTipo[tipo] > 0) {
+        promedios.put(TIPOS[tipo], (double) diasPorTipo[tipo] / prestamosPorTipo[tipo]);
+      }
+    }
+    return promedios;
+  }
+
+  /**
+   * Promedios por tipo de los acumuladores alimentados en cada devolución, en tiempo constante.
+   */
+  public Map<TipoLibro, Double> obtenerTiempoPromedioPorTipo() {
+    return duracionPrestamos.promediosPorTipo();
+  }
+
+  public Map<FormatoLibro, Double> obtenerTiempoPromedioPorFormato() {
+    return duracionPrestamos.promediosPorFormato();
+  }
+
+  /**
+   * Percentiles (p50/p90/p99) de días de préstamo o de retraso por tipo, desde los histogramas
+   * alimentados en cada devolución.
+   */
+  public Map<TipoLibro, Percentiles> obtenerPercentilesPorTipo(HistogramasPrestamo.Medida medida) {
+    var resultado = new EnumMap<TipoLibro, Percentiles>(TipoLibro.class);
+    histogramasPrestamo.porTipo(medida)
+        .forEach((tipo, histograma) -> resultado.put(tipo, HistogramasPrestamo.percentiles(histograma)));
+    return resultado;
+  }
+
+  public Map<FormatoLibro, Percentiles> obtenerPercentilesPorFormato(HistogramasPrestamo.Medida medida) {
+    var resultado = new EnumMap<FormatoLibro, Percentiles>(FormatoLibro.class);
+    histogramasPrestamo.porFormato(medida)
+        .forEach((formato, histograma) -> resultado.put(formato, HistogramasPrestamo.percentiles(histograma)));
+    return resultado;
+  }
+
+  public Percentiles obtenerPercentiles(HistogramasPrestamo.Medida medida) {
+    return HistogramasPrestamo.percentiles(histogramasPrestamo.instantanea(medida));
+  }
+
+  /**
+   * Recalcula los acumuladores a partir del historial (por ejemplo, al arrancar).
+   */
+  public void reconstruirTiemposPromedio(List<InfoPrestamo> historialPrestamos, List<ILibro> libros) {
+    duracionPrestamos.reconstruir(historialPrestamos, libros);
   }
 
   public String generarReporteCompleto(List<ILibro> libros, 
                                      List<InfoPrestamo> historialPrestamos) {
-    var estadisticas = generarEstadisticas(libros, 
+    var sb = new StringBuilder();
+    escribirReporteCompleto(libros, historialPrestamos, sb);
+    return sb.toString();
+  }
+
+  /**
+   * Escribe el reporte completo en {@code destino} a medida que se calcula cada sección.
+   * Todas las secciones salen de {@code libros} e {@code historialPrestamos}; los vencidos se
+   * evalúan contra una sola fecha, la del inicio del reporte.
+   */
+  public void escribirReporteCompleto(List<ILibro> libros,
+                                      List<InfoPrestamo> historialPrestamos,
+                                      Appendable destino) {
+    var fechaReferencia = LocalDate.now();
+    var estadisticas = generarEstadisticas(libros,
         historialPrestamos.stream().filter(InfoPrestamo::activo).toList());
-    
-    var librosPopulares = obtenerLibrosMasPopulares(libros, historialPrestamos, 5);
-    var prestamosVencidos = obtenerPrestamosVencidos(historialPrestamos);
-    var tiemposPromedio = calcularTiempoPromediosPrestamo(historialPrestamos, libros);
 
-    var sb = new StringBuilder();
-    sb.append(estadisticas.generarReporte());
-    sb.append("\n=== ANÁLISIS ADICIONAL ===\n");
-    
-    sb.append("\n--- Top 5 Libros Más Populares ---\n");
-    librosPopulares.forEach(libro -> 
-        sb.append("• %s\n".formatted(libro.getInfo())));
-    
-    if (!prestamosVencidos.isEmpty()) {
-      sb.append("\n--- Préstamos Vencidos (%d) ---\n".formatted(prestamosVencidos.size()));
-      prestamosVencidos.forEach(prestamo -> 
-          sb.append("• %s\n".formatted(prestamo)));
+    var writer = new ReporteWriter(destino);
+    estadisticas.escribirReporte(writer);
+    writer.linea("\n=== ANÁLISIS ADICIONAL ===");
+
+    writer.linea("\n--- Top 5 Libros Más Populares ---");
+    obtenerLibrosMasPopulares(libros, historialPrestamos, 5)
+        .forEach(libro -> writer.escribir(VINETA, libro.getInfo()));
+
+    var vencidos = obtenerPrestamosVencidos(historialPrestamos, fechaReferencia);
+    if (!vencidos.isEmpty()) {
+      writer.escribir(TITULO_VENCIDOS, vencidos.size());
+      vencidos.forEach(prestamo -> writer.escribir(VINETA, prestamo));
     }
 
+    var tiemposPromedio = calcularTiempoPromediosPrestamo(historialPrestamos, libros);
     if (!tiemposPromedio.isEmpty()) {
-      sb.append("\n--- Tiempo Promedio de Préstamo por Tipo ---\n");
-      tiemposPromedio.forEach((tipo, promedio) -> 
-          sb.append("• %s: %.1f días\n".formatted(tipo.getDescripcion(), promedio)));
+      writer.linea("\n--- Tiempo Promedio de Préstamo por Tipo ---");
+      tiemposPromedio.forEach((tipo, promedio) -> writer.escribir(TIEMPO_PROMEDIO, tipo.getDescripcion(), promedio));
     }
 
-    sb.append("\n--- Recomendación ---\n");
-    sb.append(estadisticas.getRecomendacion());
-
-    return sb.toString();
+    writer.linea("\n--- Recomendación ---");
+    writer.texto(estadisticas.getRecomendacion());
   }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.Percentiles;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.HistogramaLogLineal;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Histogramas de días de préstamo y de días de retraso, registrados sin bloqueos en cada
+ * {@link LibroEvent.LibroDevuelto}. Se guarda uno por combinación tipo × formato y las
+ * vistas por tipo, por formato o globales se obtienen combinando instantáneas, así que la
+ * memoria es fija sin importar la cantidad de préstamos.
+ */
+@Component
+public class HistogramasPrestamo implements LibroEventListener {
+
+  /** Con precisión de 7 bits, los valores hasta 127 días son exactos. */
+  static final long DIAS_MAXIMOS = 36_500;
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+
+  public enum Medida {
+    DURACION, RETRASO
+  }
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+  private final Map<Medida, HistogramaLogLineal[]> histogramas = new EnumMap<>(Medida.class);
+
+  @Autowired
+  public HistogramasPrestamo(LibroEventBus eventBus) {
+    this(eventBus, Clock.systemDefaultZone());
+  }
+
+  HistogramasPrestamo(LibroEventBus eventBus, Clock clock) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+    for (var medida : Medida.values()) {
+      var porCombinacion = new HistogramaLogLineal[TIPOS.length * FORMATOS.length];
+      for (int i = 0; i < porCombinacion.length; i++) {
+        porCombinacion[i] = new HistogramaLogLineal(DIAS_MAXIMOS);
+      }
+      histogramas.put(medida, porCombinacion);
+    }
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    if (event instanceof LibroEvent.LibroDevuelto devuelto && devuelto.getPrestamo() != null) {
+      var libro = devuelto.getLibroInfo();
+      var prestamo = devuelto.getPrestamo();
+      var fechaEntrega = devuelto.getTimestamp().atZone(clock.getZone()).toLocalDate();
+      var indice = indice(libro.tipo().ordinal(), libro.formato().ordinal());
+      histogramas.get(Medida.DURACION)[indice].registrar(prestamo.diasTranscurridos(fechaEntrega));
+      histogramas.get(Medida.RETRASO)[indice].registrar(prestamo.diasRetraso(fechaEntrega));
+    }
+  }
+
+  public HistogramaLogLineal.Instantanea instantanea(Medida medida) {
+    return combinar(medida, i -> true);
+  }
+
+  public Map<TipoLibro, HistogramaLogLineal.Instantanea> porTipo(Medida medida) {
+    var resultado = new EnumMap<TipoLibro, HistogramaLogLineal.Instantanea>(TipoLibro.class);
+    for (var tipo : TIPOS) {
+      resultado.put(tipo, combinar(medida, i -> i / FORMATOS.length == tipo.ordinal()));
+    }
+    return resultado;
+  }
+
+  public Map<FormatoLibro, HistogramaLogLineal.Instantanea> porFormato(Medida medida) {
+    var resultado = new EnumMap<FormatoLibro, HistogramaLogLineal.Instantanea>(FormatoLibro.class);
+    for (var formato : FORMATOS) {
+      resultado.put(formato, combinar(medida, i -> i % FORMATOS.length == formato.ordinal()));
+    }
+    return resultado;
+  }
+
+  /**
+   * Lo registrado desde la extracción anterior, combinado para todos los tipos y formatos.
+   * Las instantáneas de intervalos sucesivos se pueden combinar entre sí.
+   */
+  public HistogramaLogLineal.Instantanea extraerIntervalo(Medida medida) {
+    HistogramaLogLineal.Instantanea resultado = null;
+    for (var histograma : histogramas.get(medida)) {
+      var intervalo = histograma.extraerIntervalo();
+      resultado = resultado == null ? intervalo : resultado.combinar(intervalo);
+    }
+    return resultado;
+  }
+
+  public static Percentiles percentiles(HistogramaLogLineal.Instantanea instantanea) {
+    if (instantanea.total() == 0) {
+      return Percentiles.VACIO;
+    }
+    return new Percentiles(instantanea.total(), instantanea.percentil(50), instantanea.percentil(90),
+        instantanea.percentil(99), instantanea.maximo());
+  }
+
+  private HistogramaLogLineal.Instantanea combinar(Medida medida, IntPredicate incluir) {
+    var porCombinacion = histogramas.get(medida);
+    HistogramaLogLineal.Instantanea resultado = null;
+    for (int i = 0; i < porCombinacion.length; i++) {
+      if (incluir.test(i)) {
+        var instantanea = porCombinacion[i].instantanea();
+        resultado = resultado == null ? instantanea : resultado.combinar(instantanea);
+      }
+    }
+    return resultado;
+  }
+
+  private static int indice(int tipo, int formato) {
+    return tipo * FORMATOS.length + formato;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.SpaceSaving;
+import com.pichincha.biblioteca.util.SpaceSavingPorVentanas;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Libros y autores más prestados calculados en streaming a partir de los eventos
+ * {@link LibroEvent.LibroPrestado}, sin conservar el historial de préstamos.
+ * Usa {@link SpaceSaving} para el histórico y {@link SpaceSavingPorVentanas} para
+ * ventanas recientes; las estimaciones incluyen su cota de error.
+ */
+@Component
+public class PrestamosPopulares implements LibroEventListener {
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+
+  private final SpaceSaving<Long> librosHistorico;
+  private final SpaceSaving<String> autoresHistorico;
+  private final SpaceSavingPorVentanas<Long> librosRecientes;
+  private final SpaceSavingPorVentanas<String> autoresRecientes;
+
+  public PrestamosPopulares(LibroEventBus eventBus,
+                            @Value("${biblioteca.populares.capacidad:1000}") int capacidad,
+                            @Value("${biblioteca.populares.intervalo:PT1H}") Duration intervalo,
+                            @Value("${biblioteca.populares.intervalos:169}") int intervalos) {
+    this(eventBus, Clock.systemDefaultZone(), capacidad, intervalo, intervalos);
+  }
+
+  PrestamosPopulares(LibroEventBus eventBus, Clock clock, int capacidad, Duration intervalo, int intervalos) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+    this.librosHistorico = new SpaceSaving<>(capacidad);
+    this.autoresHistorico = new SpaceSaving<>(capacidad);
+    this.librosRecientes = new SpaceSavingPorVentanas<>(capacidad, intervalo, intervalos);
+    this.autoresRecientes = new SpaceSavingPorVentanas<>(capacidad, intervalo, intervalos);
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    if (event instanceof LibroEvent.LibroPrestado prestado) {
+      var libro = prestado.getLibroInfo();
+      var instante = prestado.getTimestamp().atZone(clock.getZone()).toInstant();
+      librosHistorico.agregar(libro.id());
+      autoresHistorico.agregar(libro.autor());
+      librosRecientes.agregar(libro.id(), instante);
+      autoresRecientes.agregar(libro.autor(), instante);
+    }
+  }
+
+  /** Ids de los libros más prestados desde el arranque. */
+  public List<SpaceSaving.Estimacion<Long>> topLibros(int n) {
+    return librosHistorico.top(n);
+  }
+
+  /** Ids de los libros más prestados en la ventana reciente indicada. */
+  public List<SpaceSaving.Estimacion<Long>> topLibros(int n, Duration ventana) {
+    return librosRecientes.top(n, ventana, clock.instant());
+  }
+
+  public List<SpaceSaving.Estimacion<String>> topAutores(int n) {
+    return autoresHistorico.top(n);
+  }
+
+  public List<SpaceSaving.Estimacion<String>> topAutores(int n, Duration ventana) {
+    return autoresRecientes.top(n, ventana, clock.instant());
+  }
+
+  /** Cota superior del error de las estimaciones históricas de libros. */
+  public long errorMaximoLibros() {
+    return librosHistorico.errorMaximo();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.IndiceVencimientos;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Préstamos activos indexados por fecha de devolución, alimentados por los eventos de
+ * préstamo y devolución. Las consultas de vencidos cuestan en proporción al número de
+ * resultados y se evalúan contra una única fecha de referencia por consulta.
+ */
+@Component
+public class PrestamosPorVencimiento implements LibroEventListener {
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+  private final IndiceVencimientos indice = new IndiceVencimientos();
+
+  @Autowired
+  public PrestamosPorVencimiento(LibroEventBus eventBus) {
+    this(eventBus, Clock.systemDefaultZone());
+  }
+
+  PrestamosPorVencimiento(LibroEventBus eventBus, Clock clock) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    switch (event) {
+      case LibroEvent.LibroPrestado prestado when prestado.getPrestamo() != null ->
+          indice.registrar(prestado.getPrestamo());
+      case LibroEvent.PrestamoRenovado renovado -> indice.registrar(renovado.getPrestamo());
+      case LibroEvent.LibroDevuelto devuelto -> indice.eliminar(devuelto.getLibroInfo().id());
+      default -> {
+        // Los demás eventos no cambian los préstamos activos
+      }
+    }
+  }
+
+  public List<InfoPrestamo> obtenerVencidos() {
+    return obtenerVencidos(LocalDate.now(clock));
+  }
+
+  public List<InfoPrestamo> obtenerVencidos(LocalDate fechaReferencia) {
+    return indice.vencidos(fechaReferencia);
+  }
+
+  /** Préstamos que vencen en los próximos {@code dias} días, incluido hoy. */
+  public List<InfoPrestamo> obtenerProximosAVencer(int dias) {
+    var hoy = LocalDate.now(clock);
+    return indice.vencenEntre(hoy, hoy.plusDays(dias));
+  }
+
+  public Optional<InfoPrestamo> obtenerMasAntiguo() {
+    return indice.masAntiguo();
+  }
+
+  public int cantidadActivos() {
+    return indice.tamano();
+  }
+}
\ No newline at end of file
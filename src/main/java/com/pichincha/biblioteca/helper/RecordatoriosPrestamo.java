@@ -0,0 +1,142 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.RuedaTemporizadores;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recordatorios de devolución y marcado de vencidos con una {@link RuedaTemporizadores}.
+ * Cada préstamo programa dos temporizadores (recordatorio antes de la fecha de devolución
+ * y vencimiento al terminar ese día) que se reprograman al renovar y se cancelan al
+ * devolver, en O(1) y sin consultar los préstamos activos periódicamente.
+ * En cada tick los avisos vencidos se publican juntos como
+ * {@link LibroEvent.RecordatorioDevolucion} y {@link LibroEvent.PrestamoVencido}.
+ */
+@Component
+@Slf4j
+public class RecordatoriosPrestamo implements LibroEventListener {
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+  private final Duration anticipacion;
+  private final RuedaTemporizadores<Aviso> rueda;
+  private final Map<Long, Programados> porLibro = new ConcurrentHashMap<>();
+
+  public RecordatoriosPrestamo(LibroEventBus eventBus,
+                               @Value("${biblioteca.recordatorios.tick:PT1M}") Duration tick,
+                               @Value("${biblioteca.recordatorios.anticipacion:P1D}") Duration anticipacion) {
+    this(eventBus, Clock.systemDefaultZone(), tick, anticipacion);
+  }
+
+  RecordatoriosPrestamo(LibroEventBus eventBus, Clock clock, Duration tick, Duration anticipacion) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+    this.anticipacion = anticipacion;
+    this.rueda = new RuedaTemporizadores<>(tick, clock.instant());
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    switch (event) {
+      case LibroEvent.LibroPrestado prestado when prestado.getPrestamo() != null ->
+          programar(prestado.getLibroInfo(), prestado.getPrestamo());
+      case LibroEvent.PrestamoRenovado renovado -> programar(renovado.getLibroInfo(), renovado.getPrestamo());
+      case LibroEvent.LibroDevuelto devuelto -> cancelar(devuelto.getLibroInfo().id());
+      default -> {
+        // Los avisos que publica este componente y los demás eventos no programan nada
+      }
+    }
+  }
+
+  /**
+   * Dispara los avisos vencidos hasta ahora y los publica en un solo lote.
+   * Devuelve la cantidad de eventos publicados.
+   */
+  @Scheduled(fixedDelayString = "${biblioteca.recordatorios.tick:PT1M}",
+      initialDelayString = "${biblioteca.recordatorios.tick:PT1M}")
+  public int procesarAvisos() {
+    var avisos = rueda.avanzar(clock.instant());
+    var eventos = avisos.stream()
+        .map(aviso -> {
+          if (aviso.tipo() == TipoAviso.VENCIMIENTO) {
+            // El préstamo sigue activo pero ya no tiene temporizadores pendientes
+            porLibro.computeIfPresent(aviso.prestamo().libroId(),
+                (id, programados) -> programados.vencimiento().valor() == aviso ? null : programados);
+          }
+          return aviso.aEvento(this);
+        })
+        .toList();
+    eventBus.publicarTodos(eventos);
+    if (!eventos.isEmpty()) {
+      log.debug("⏰ {} avisos de préstamo publicados ({} pendientes)", eventos.size(), rueda.pendientes());
+    }
+    return eventos.size();
+  }
+
+  public int pendientes() {
+    return rueda.pendientes();
+  }
+
+  private void programar(LibroInfo libro, InfoPrestamo prestamo) {
+    var zona = clock.getZone();
+    var vence = prestamo.fechaDevolucion().plusDays(1).atStartOfDay(zona).toInstant();
+    var recuerda = prestamo.fechaDevolucion().atStartOfDay(zona).toInstant().minus(anticipacion);
+    porLibro.compute(prestamo.libroId(), (id, anteriores) -> {
+      if (anteriores != null) {
+        anteriores.cancelar(rueda);
+      }
+      var recordatorio = recuerda.isAfter(clock.instant())
+          ? rueda.programar(new Aviso(TipoAviso.RECORDATORIO, libro, prestamo), recuerda)
+          : null;
+      return new Programados(recordatorio,
+          rueda.programar(new Aviso(TipoAviso.VENCIMIENTO, libro, prestamo), vence));
+    });
+  }
+
+  private void cancelar(Long libroId) {
+    var programados = porLibro.remove(libroId);
+    if (programados != null) {
+      programados.cancelar(rueda);
+    }
+  }
+
+  private enum TipoAviso {
+    RECORDATORIO, VENCIMIENTO
+  }
+
+  private record Aviso(TipoAviso tipo, LibroInfo libro, InfoPrestamo prestamo) {
+    LibroEvent aEvento(Object source) {
+      return tipo == TipoAviso.RECORDATORIO
+          ? new LibroEvent.RecordatorioDevolucion(source, libro, prestamo)
+          : new LibroEvent.PrestamoVencido(source, libro, prestamo);
+    }
+  }
+
+  private record Programados(RuedaTemporizadores.Temporizador<Aviso> recordatorio,
+                             RuedaTemporizadores.Temporizador<Aviso> vencimiento) {
+    void cancelar(RuedaTemporizadores<Aviso> rueda) {
+      if (recordatorio != null) {
+        rueda.cancelar(recordatorio);
+      }
+      rueda.cancelar(vencimiento);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.pichincha.biblioteca.helper;
+
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
+import com.pichincha.biblioteca.util.SerieTemporalCircular;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Métricas de tendencia de préstamos por ventanas deslizantes, alimentadas por eventos.
+ * Mantiene buffers circulares por minuto, hora y día con contadores de préstamos,
+ * devoluciones y vencimientos por {@link TipoLibro}; las consultas sobre las últimas
+ * N ventanas no recorren el historial de préstamos.
+ */
+@Component
+public class TendenciaPrestamos implements LibroEventListener {
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final Metrica[] METRICAS = Metrica.values();
+
+  public enum Granularidad {
+    MINUTO(Duration.ofMinutes(1), 120),
+    HORA(Duration.ofHours(1), 96),
+    DIA(Duration.ofDays(1), 90);
+
+    private final Duration duracion;
+    private final int intervalos;
+
+    Granularidad(Duration duracion, int intervalos) {
+      this.duracion = duracion;
+      this.intervalos = intervalos;
+    }
+
+    public Duration getDuracion() {
+      return duracion;
+    }
+
+    /** Cantidad de ventanas que se conservan (máximo consultable). */
+    public int getIntervalos() {
+      return intervalos;
+    }
+  }
+
+  public enum Metrica {
+    PRESTAMOS, DEVOLUCIONES, VENCIDOS
+  }
+
+  private final LibroEventBus eventBus;
+  private final Clock clock;
+  private final Map<Granularidad, SerieTemporalCircular> series = new EnumMap<>(Granularidad.class);
+
+  @Autowired
+  public TendenciaPrestamos(LibroEventBus eventBus) {
+    this(eventBus, Clock.systemDefaultZone());
+  }
+
+  TendenciaPrestamos(LibroEventBus eventBus, Clock clock) {
+    this.eventBus = eventBus;
+    this.clock = clock;
+    for (var granularidad : Granularidad.values()) {
+      series.put(granularidad, new SerieTemporalCircular(
+          granularidad.getDuracion(), granularidad.getIntervalos(), METRICAS.length * TIPOS.length));
+    }
+  }
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    switch (event) {
+      case LibroEvent.LibroPrestado prestado ->
+          registrar(Metrica.PRESTAMOS, prestado.getLibroInfo().tipo(), prestado.getTimestamp());
+      case LibroEvent.LibroDevuelto devuelto ->
+          registrar(Metrica.DEVOLUCIONES, devuelto.getLibroInfo().tipo(), devuelto.getTimestamp());
+      case LibroEvent.PrestamoVencido vencido ->
+          registrarVencido(vencido.getLibroInfo().tipo(), vencido.getTimestamp());
+      default -> {
+        // Otros eventos no afectan la tendencia
+      }
+    }
+  }
+
+  /**
+   * Registra la transición de un préstamo a vencido.
+   */
+  public void registrarVencido(TipoLibro tipo, LocalDateTime momento) {
+    registrar(Metrica.VENCIDOS, tipo, momento);
+  }
+
+  /**
+   * Conteos de la métrica en las últimas {@code ventanas} ventanas, de la más antigua a la actual.
+   */
+  public long[] serie(Metrica metrica, Granularidad granularidad, int ventanas) {
+    var ahora = clock.instant();
+    var serie = series.get(granularidad);
+    var total = new long[ventanas];
+    for (var tipo : TIPOS) {
+      var porTipo = serie.serie(dimension(metrica, tipo), ventanas, ahora);
+      for (int i = 0; i < ventanas; i++) {
+        total[i] += porTipo[i];
+      }
+    }
+    return total;
+  }
+
+  public long total(Metrica metrica, Granularidad granularidad, int ventanas) {
+    var ahora = clock.instant();
+    var serie = series.get(granularidad);
+    var total = 0L;
+    for (var tipo : TIPOS) {
+      total += serie.sumar(dimension(metrica, tipo), ventanas, ahora);
+    }
+    return total;
+  }
+
+  /**
+   * Tasa promedio por ventana (por ejemplo, préstamos por hora) de cada tipo de libro.
+   */
+  public Map<TipoLibro, Double> tasaPorTipo(Metrica metrica, Granularidad granularidad, int ventanas) {
+    var ahora = clock.instant();
+    var serie = series.get(granularidad);
+    var tasas = new EnumMap<TipoLibro, Double>(TipoLibro.class);
+    for (var tipo : TIPOS) {
+      tasas.put(tipo, (double) serie.sumar(dimension(metrica, tipo), ventanas, ahora) / ventanas);
+    }
+    return tasas;
+  }
+
+  /**
+   * Variación relativa entre las últimas {@code ventanas} ventanas y las {@code ventanas} anteriores
+   * (0.25 = +25 %). Devuelve {@code NaN} si el periodo anterior no tiene actividad.
+   */
+  public double variacion(Metrica metrica, Granularidad granularidad, int ventanas) {
+    var serie = serie(metrica, granularidad, ventanas * 2);
+    long anterior = 0;
+    long reciente = 0;
+    for (int i = 0; i < serie.length; i++) {
+      if (i < ventanas) {
+        anterior += serie[i];
+      } else {
+        reciente += serie[i];
+      }
+    }
+    return anterior == 0 ? Double.NaN : (double) (reciente - anterior) / anterior;
+  }
+
+  private void registrar(Metrica metrica, TipoLibro tipo, LocalDateTime momento) {
+    var instante = momento.atZone(clock.getZone()).toInstant();
+    var dimension = dimension(metrica, tipo);
+    series.values().forEach(serie -> serie.registrar(instante, dimension, 1));
+  }
+
+  private static int dimension(Metrica metrica, TipoLibro tipo) {
+    return metrica.ordinal() * TIPOS.length + tipo.ordinal();
+  }
+}
\ No newline at end of file
@@ -1,9 +1,21 @@
 package com.pichincha.biblioteca.repository;
 
+import com.pichincha.biblioteca.domain.ConteoLibros;
 import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LibroRepository extends JpaRepository<Libro, Long> {
@@ -13,4 +25,29 @@ public interface LibroRepository extends JpaRepository<Libro, Long> {
   List<Libro> findByTipo(String tipo);
   List<Libro> findByFormato(String formato);
   List<Libro> findByEstado(String estado);
+  List<Libro> findByFechaCreacionGreaterThanEqualOrFechaActualizacionGreaterThanEqual(
+      LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion);
+
+  // Agregados calculados en la base de datos: a lo sumo una fila por combinación
+  @Query("SELECT new com.pichincha.biblioteca.domain.ConteoLibros(l.tipo, l.formato, l.estado, COUNT(l)) "
+      + "FROM Libro l GROUP BY l.tipo, l.formato, l.estado")
+  List<ConteoLibros> contarPorTipoFormatoEstado();
+
+  // Lectura del catálogo por páginas de ids crecientes, proyectada sin cargar las entidades
+  @Query("SELECT new com.pichincha.biblioteca.domain.LibroInfo(l.id, l.titulo, l.autor, l.tipo, l.formato, l.estado) "
+      + "FROM Libro l WHERE l.id > :desde ORDER BY l.id")
+  List<LibroInfo> buscarInfoDesde(@Param("desde") Long desde, Pageable pagina);
+
+  @Query("SELECT MAX(l.fechaCreacion) FROM Libro l")
+  Optional<LocalDateTime> ultimaFechaCreacion();
+
+  @Query("SELECT MAX(l.fechaActualizacion) FROM Libro l")
+  Optional<LocalDateTime> ultimaFechaActualizacion();
+
+  // Actualización masiva sin cargar las entidades; fija fechaActualizacion como haría @PreUpdate
+  @Modifying(clearAutomatically = true)
+  @Transactional
+  @Query("UPDATE Libro l SET l.estado = :estado, l.fechaActualizacion = :fecha WHERE l.id IN :ids")
+  int actualizarEstado(@Param("estado") EstadoLibro estado, @Param("fecha") LocalDateTime fecha,
+                       @Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,13 +1,18 @@
 package com.pichincha.biblioteca.service;
 
 import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
 import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.Reserva;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
 
 import java.time.LocalDateTime;
 import java.util.EventObject;
 
 public sealed class LibroEvent extends EventObject 
-    permits LibroEvent.LibroPrestado, LibroEvent.LibroDevuelto, LibroEvent.LibroAgregado {
+    permits LibroEvent.LibroPrestado, LibroEvent.LibroDevuelto, LibroEvent.LibroAgregado,
+    LibroEvent.PrestamoRenovado, LibroEvent.RecordatorioDevolucion, LibroEvent.PrestamoVencido,
+    LibroEvent.LibroReservado, LibroEvent.ReservaFinalizada, LibroEvent.EstadoCambiado {
 
   private final LocalDateTime timestamp;
   private final LibroInfo libroInfo;
@@ -28,16 +33,27 @@ public sealed class LibroEvent extends EventObject
 
   public static final class LibroPrestado extends LibroEvent {
     private final String usuario;
+    private final InfoPrestamo prestamo;
 
     public LibroPrestado(Object source, LibroInfo libroInfo, String usuario) {
+      this(source, libroInfo, usuario, null);
+    }
+
+    public LibroPrestado(Object source, LibroInfo libroInfo, String usuario, InfoPrestamo prestamo) {
       super(source, libroInfo);
       this.usuario = usuario;
+      this.prestamo = prestamo;
     }
 
     public String getUsuario() {
       return usuario;
     }
 
+    /** Préstamo creado, si el origen lo registra (puede ser {@code null}). */
+    public InfoPrestamo getPrestamo() {
+      return prestamo;
+    }
+
     @Override
     public String toString() {
       return "📖 Libro prestado: '%s' a %s el %s"
@@ -47,16 +63,27 @@ public sealed class LibroEvent extends EventObject
 
   public static final class LibroDevuelto extends LibroEvent {
     private final String usuario;
+    private final InfoPrestamo prestamo;
 
     public LibroDevuelto(Object source, LibroInfo libroInfo, String usuario) {
+      this(source, libroInfo, usuario, null);
+    }
+
+    public LibroDevuelto(Object source, LibroInfo libroInfo, String usuario, InfoPrestamo prestamo) {
       super(source, libroInfo);
       this.usuario = usuario;
+      this.prestamo = prestamo;
     }
 
     public String getUsuario() {
       return usuario;
     }
 
+    /** Préstamo cerrado, ya marcado como devuelto (puede ser {@code null}). */
+    public InfoPrestamo getPrestamo() {
+      return prestamo;
+    }
+
     @Override
     public String toString() {
       return "📚 Libro devuelto: '%s' por %s el %s"
@@ -75,4 +102,155 @@ public sealed class LibroEvent extends EventObject
           .formatted(getLibroInfo().titulo(), getLibroInfo().autor(), getTimestamp());
     }
   }
+
+  public static final class PrestamoRenovado extends LibroEvent {
+    private final String usuario;
+    private final InfoPrestamo prestamo;
+
+    public PrestamoRenovado(Object source, LibroInfo libroInfo, String usuario, InfoPrestamo prestamo) {
+      super(source, libroInfo);
+      this.usuario = usuario;
+      this.prestamo = prestamo;
+    }
+
+    public String getUsuario() {
+      return usuario;
+    }
+
+    /** Préstamo con la nueva fecha de devolución. */
+    public InfoPrestamo getPrestamo() {
+      return prestamo;
+    }
+
+    @Override
+    public String toString() {
+      return "🔁 Préstamo renovado: '%s' de %s hasta el %s"
+          .formatted(getLibroInfo().titulo(), usuario, prestamo.fechaDevolucion());
+    }
+  }
+
+  /** Aviso emitido poco antes de la fecha de devolución de un préstamo activo. */
+  public static final class RecordatorioDevolucion extends LibroEvent {
+    private final InfoPrestamo prestamo;
+
+    public RecordatorioDevolucion(Object source, LibroInfo libroInfo, InfoPrestamo prestamo) {
+      super(source, libroInfo);
+      this.prestamo = prestamo;
+    }
+
+    public InfoPrestamo getPrestamo() {
+      return prestamo;
+    }
+
+    @Override
+    public String toString() {
+      return "⏰ Recordatorio de devolución: '%s' de %s vence el %s"
+          .formatted(getLibroInfo().titulo(), prestamo.usuario(), prestamo.fechaDevolucion());
+    }
+  }
+
+  /** Emitido cuando un libro pasa a RESERVADO, retenido para el usuario de la reserva. */
+  public static final class LibroReservado extends LibroEvent {
+    private final Reserva reserva;
+
+    public LibroReservado(Object source, LibroInfo libroInfo, Reserva reserva) {
+      super(source, libroInfo);
+      this.reserva = reserva;
+    }
+
+    public String getUsuario() {
+      return reserva.usuario();
+    }
+
+    public Reserva getReserva() {
+      return reserva;
+    }
+
+    @Override
+    public String toString() {
+      return "🔖 Libro reservado: '%s' para %s hasta %s"
+          .formatted(getLibroInfo().titulo(), reserva.usuario(), reserva.vence());
+    }
+  }
+
+  /**
+   * Emitido cuando termina la retención de un libro reservado y deja el estado RESERVADO;
+   * si pasa al siguiente de la lista de espera, le sigue un {@link LibroReservado}.
+   */
+  public static final class ReservaFinalizada extends LibroEvent {
+
+    public enum Motivo {
+      RETIRADA, CANCELADA, VENCIDA
+    }
+
+    private final Reserva reserva;
+    private final Motivo motivo;
+
+    public ReservaFinalizada(Object source, LibroInfo libroInfo, Reserva reserva, Motivo motivo) {
+      super(source, libroInfo);
+      this.reserva = reserva;
+      this.motivo = motivo;
+    }
+
+    public String getUsuario() {
+      return reserva.usuario();
+    }
+
+    public Reserva getReserva() {
+      return reserva;
+    }
+
+    public Motivo getMotivo() {
+      return motivo;
+    }
+
+    @Override
+    public String toString() {
+      return "🔓 Reserva finalizada: '%s' de %s (%s) el %s"
+          .formatted(getLibroInfo().titulo(), reserva.usuario(), motivo, getTimestamp());
+    }
+  }
+
+  /**
+   * Emitido por las transiciones que no tienen un evento propio, como enviar un libro a
+   * mantenimiento o completarlo. El {@link LibroInfo} ya tiene el estado de destino.
+   */
+  public static final class EstadoCambiado extends LibroEvent {
+    private final TransicionLibro transicion;
+
+    public EstadoCambiado(Object source, LibroInfo libroInfo, TransicionLibro transicion) {
+      super(source, libroInfo);
+      this.transicion = transicion;
+    }
+
+    public TransicionLibro getTransicion() {
+      return transicion;
+    }
+
+    @Override
+    public String toString() {
+      return "🛠️ %s: '%s' pasa de %s a %s el %s".formatted(transicion.getDescripcion(),
+          getLibroInfo().titulo(), transicion.getDesde(), transicion.getHacia(), getTimestamp());
+    }
+  }
+
+  /** Emitido cuando un préstamo activo pasa su fecha de devolución sin ser devuelto. */
+  public static final class PrestamoVencido extends LibroEvent {
+    private final InfoPrestamo prestamo;
+
+    public PrestamoVencido(Object source, LibroInfo libroInfo, InfoPrestamo prestamo) {
+      super(source, libroInfo);
+      this.prestamo = prestamo;
+    }
+
+    public InfoPrestamo getPrestamo() {
+      return prestamo;
+    }
+
+    @Override
+    public String toString() {
+      return "⚠️ Préstamo vencido: '%s' de %s venció el %s"
+          .formatted(getLibroInfo().titulo(), prestamo.usuario(), prestamo.fechaDevolucion());
+    }
+  }
 }
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.pichincha.biblioteca.service;
 
 import java.util.EventListener;
+import java.util.List;
 
+/**
+ * Listener de eventos de libros. Se invoca de forma síncrona en el hilo que publica, que en los
+ * préstamos, devoluciones y reservas todavía tiene el libro bloqueado en el
+ * {@link com.pichincha.biblioteca.util.RegistroPrestamos}: no debe bloquear ni operar sobre otros libros.
+ */
 @FunctionalInterface
 public interface LibroEventListener extends EventListener {
   void onLibroEvent(LibroEvent event);
@@ -18,4 +24,9 @@ public interface LibroEventListener extends EventListener {
   default void onLibroAgregado(LibroEvent.LibroAgregado event) {
     onLibroEvent(event);
   }
+
+  // Lotes de eventos generados juntos (por ejemplo, temporizadores que vencen en el mismo tick)
+  default void onLibroEvents(List<? extends LibroEvent> events) {
+    events.forEach(this::onLibroEvent);
+  }
 }
\ No newline at end of file
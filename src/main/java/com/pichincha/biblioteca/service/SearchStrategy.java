@@ -1,6 +1,7 @@
 package com.pichincha.biblioteca.service;
 
 import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
 
 import java.util.List;
 import java.util.function.BiPredicate;
@@ -18,9 +19,13 @@ public interface SearchStrategy {
         .filter(libro -> libro.getTitulo().toLowerCase().contains(criterio.toLowerCase()));
   }
 
+  // Las condiciones sobre el autor se evalúan una vez por autor distinto (ver DiccionarioCadenas)
   static SearchStrategy porAutor() {
-    return (libros, criterio) -> libros.stream()
-        .filter(libro -> libro.getAutor().toLowerCase().contains(criterio.toLowerCase()));
+    return (libros, criterio) -> {
+      var coincideAutor = autorContiene(criterio);
+      return libros.stream()
+          .filter(libro -> coincideAutor.test(libro.getAutor()));
+    };
   }
 
   static SearchStrategy porTituloExacto() {
@@ -29,25 +34,41 @@ public interface SearchStrategy {
   }
 
   static SearchStrategy porAutorExacto() {
-    return (libros, criterio) -> libros.stream()
-        .filter(libro -> libro.getAutor().equalsIgnoreCase(criterio));
+    return (libros, criterio) -> {
+      var coincideAutor = DiccionarioCadenas.memorizar(autor -> autor.equalsIgnoreCase(criterio));
+      return libros.stream()
+          .filter(libro -> coincideAutor.test(libro.getAutor()));
+    };
   }
 
   static SearchStrategy combinada() {
-    return (libros, criterio) -> libros.stream()
-        .filter(libro -> 
-            libro.getTitulo().toLowerCase().contains(criterio.toLowerCase()) ||
-            libro.getAutor().toLowerCase().contains(criterio.toLowerCase())
-        );
+    return (libros, criterio) -> {
+      var termino = criterio.toLowerCase();
+      var coincideAutor = autorContiene(criterio);
+      return libros.stream()
+          .filter(libro -> 
+              libro.getTitulo().toLowerCase().contains(termino) ||
+              coincideAutor.test(libro.getAutor())
+          );
+    };
   }
 
   static SearchStrategy conPredicate(Predicate<ILibro> filtro) {
-    return (libros, criterio) -> libros.stream()
-        .filter(filtro)
-        .filter(libro -> 
-            libro.getTitulo().toLowerCase().contains(criterio.toLowerCase()) ||
-            libro.getAutor().toLowerCase().contains(criterio.toLowerCase())
-        );
+    return (libros, criterio) -> {
+      var termino = criterio.toLowerCase();
+      var coincideAutor = autorContiene(criterio);
+      return libros.stream()
+          .filter(filtro)
+          .filter(libro -> 
+              libro.getTitulo().toLowerCase().contains(termino) ||
+              coincideAutor.test(libro.getAutor())
+          );
+    };
+  }
+
+  private static Predicate<String> autorContiene(String criterio) {
+    var termino = criterio.toLowerCase();
+    return DiccionarioCadenas.memorizar(autor -> autor.toLowerCase().contains(termino));
   }
 
   static SearchStrategy conComparador(BiPredicate<ILibro, String> comparador) {
@@ -3,15 +3,16 @@ package com.pichincha.biblioteca.service.impl;
 import com.pichincha.biblioteca.domain.*;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
 import com.pichincha.biblioteca.repository.LibroRepository;
 import com.pichincha.biblioteca.service.BibliotecaService;
+import com.pichincha.biblioteca.service.LibroEvent;
 import com.pichincha.biblioteca.service.Observer;
+import com.pichincha.biblioteca.util.RegistroPrestamos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,7 +20,10 @@ import java.util.Map;
 public class BibliotecaServiceImpl implements BibliotecaService {
 
   private final LibroRepository libroRepository;
-  private final Map<Long, PrestamoDecorator> librosConPrestamo = new HashMap<>();
+  private final CatalogoVersion catalogoVersion;
+  private final LibroEventBus eventBus;
+  private final RegistroPrestamos<InfoPrestamo> librosConPrestamo;
+  private final EstadosLibroService estadosLibro;
   private final Observer prestamoObserver = new PrestamoObserver();
   private final Validador cadenaValidacion = configurarCadenaValidacion();
 
@@ -43,6 +47,8 @@ public class BibliotecaServiceImpl implements BibliotecaService {
           .build();
       
       Libro libroGuardado = libroRepository.save(libro);
+      eventBus.publicar(new LibroEvent.LibroAgregado(this, LibroInfo.fromLibro(libroGuardado)));
+      catalogoVersion.incrementar();
       log.info("Libro agregado exitosamente: {}", libroGuardado.getInfo());
       return libroGuardado;
       
@@ -73,15 +79,25 @@ public class BibliotecaServiceImpl implements BibliotecaService {
   @Override
   public void prestarLibro(Long id, String usuario) {
     try {
-      Libro libro = libroRepository.findById(id)
-          .orElseThrow(() -> new IllegalArgumentException("Libro no encontrado"));
-      
-      PrestamoDecorator prestamoDecorator = new PrestamoDecorator(libro);
-      prestamoDecorator.agregarObservador(prestamoObserver);
-      prestamoDecorator.prestar(usuario);
-      
-      libroRepository.save(libro);
-      librosConPrestamo.put(id, prestamoDecorator);
+      // El libro queda bloqueado en el registro desde la lectura hasta registrar el préstamo
+      PrestamoDecorator prestamoDecorator = librosConPrestamo.conLibro(id, () -> {
+        Libro libro = libroRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Libro no encontrado"));
+        if (!estadosLibro.transicionar(libro, TransicionLibro.PRESTAR)) {
+          throw new IllegalStateException("El libro no está disponible para préstamo");
+        }
+        
+        PrestamoDecorator decorator = new PrestamoDecorator(libro);
+        decorator.agregarObservador(prestamoObserver);
+        guardarORevertir(libro, () -> decorator.prestar(usuario), TransicionLibro.PRESTAR);
+        var prestamo = new InfoPrestamo(id, libro.getTitulo(), usuario,
+            decorator.getFechaPrestamo(), decorator.getFechaDevolucion(), true);
+        
+        librosConPrestamo.registrar(id, usuario, prestamo);
+        eventBus.publicar(new LibroEvent.LibroPrestado(this, LibroInfo.fromLibro(libro), usuario, prestamo));
+        catalogoVersion.incrementar();
+        return decorator;
+      });
       
       log.info("Libro prestado exitosamente: {}", prestamoDecorator.getInfo());
       
@@ -94,17 +110,34 @@ public class BibliotecaServiceImpl implements BibliotecaService {
   @Override
   public void devolverLibro(Long id) {
     try {
-      PrestamoDecorator prestamoDecorator = librosConPrestamo.get(id);
-      if (prestamoDecorator == null) {
-        throw new IllegalArgumentException("No se encontró préstamo para el libro con ID: " + id);
-      }
-      
-      prestamoDecorator.devolver();
-      Libro libro = libroRepository.findById(id)
-          .orElseThrow(() -> new IllegalArgumentException("Libro no encontrado"));
-      libroRepository.save(libro);
-      
-      librosConPrestamo.remove(id);
+      PrestamoDecorator prestamoDecorator = librosConPrestamo.conLibro(id, () -> {
+        // El préstamo puede venir de cualquiera de los servicios: el registro es compartido
+        InfoPrestamo prestamo = librosConPrestamo.buscar(id)
+            .orElseThrow(() -> new IllegalArgumentException("No se encontró préstamo para el libro con ID: " + id));
+        Libro libro = libroRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Libro no encontrado"));
+        if (!estadosLibro.transicionar(libro, TransicionLibro.DEVOLVER)) {
+          throw new IllegalStateException("El libro no está prestado");
+        }
+        
+        // Con lista de espera el libro queda retenido para el primero, como en ModernBibliotecaService
+        List<TransicionLibro> transiciones = estadosLibro.transicionesAlDevolver(libro);
+        
+        PrestamoDecorator decorator = new PrestamoDecorator(libro);
+        decorator.agregarObservador(prestamoObserver);
+        guardarORevertir(libro, () -> {
+          decorator.devolver();
+          libro.setEstado(transiciones.getLast().getHacia());
+        }, transiciones.toArray(TransicionLibro[]::new));
+        
+        librosConPrestamo.liberar(id);
+        eventBus.publicar(new LibroEvent.LibroDevuelto(this, LibroInfo.fromLibro(libro),
+            prestamo.usuario(), prestamo.marcarComoDevuelto()));
+        estadosLibro.entregarAlSiguiente(libro).ifPresent(reserva ->
+            eventBus.publicar(new LibroEvent.LibroReservado(this, LibroInfo.fromLibro(libro), reserva)));
+        catalogoVersion.incrementar();
+        return decorator;
+      });
       log.info("Libro devuelto exitosamente: {}", prestamoDecorator.getInfo());
       
     } catch (Exception e) {
@@ -118,4 +151,18 @@ public class BibliotecaServiceImpl implements BibliotecaService {
     return libroRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Libro no encontrado con ID: " + id));
   }
+
+  // La tabla de estados ya aplicó las transiciones: si el decorador o la escritura fallan, se
+  // deshacen en orden inverso
+  private void guardarORevertir(Libro libro, Runnable cambio, TransicionLibro... transiciones) {
+    try {
+      cambio.run();
+      libroRepository.save(libro);
+    } catch (RuntimeException e) {
+      for (int i = transiciones.length - 1; i >= 0; i--) {
+        estadosLibro.revertir(libro.getId(), transiciones[i]);
+      }
+      throw e;
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package com.pichincha.biblioteca.service.impl;
+
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.repository.LibroRepository;
+import com.pichincha.biblioteca.util.LibroCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binario del catálogo para acelerar el arranque.
+ * Los registros se codifican con {@link LibroCodec}; el archivo lleva versión, checksum CRC32
+ * y la marca de agua ({@code fechaActualizacion} más reciente); al cargar se lee mapeado en
+ * memoria y solo se consultan al repositorio las filas creadas o modificadas después de esa marca.
+ *
+ * <p>{@link #getCatalogo()} es el catálogo de arranque que usan la tabla de estados, los conteos
+ * distintos y el catálogo de búsqueda en lugar de leer cada uno todo el repositorio; sin snapshot
+ * habilitado se carga con una sola lectura completa compartida. Esos consumidores lo leen en
+ * {@link ApplicationReadyEvent} con el orden {@link #ORDEN_CONSUMIDORES} y después se libera, para
+ * que la lista no quede en el heap mientras la aplicación corre.
+ */
+@Service
+@Slf4j
+public class CatalogoSnapshotService {
+
+  static final int MAGIC = 0x42534E50; // "BSNP"
+  static final short VERSION = 2;
+  static final int TAMANO_CABECERA = 4 + 2 + 8 + 4 + 4 + 8; // magic, versión, marca, nanos, registros, crc
+
+  /**
+   * Orden de los listeners de {@link ApplicationReadyEvent} que leen el catálogo de arranque;
+   * el catálogo se libera después de todos ellos.
+   */
+  public static final int ORDEN_CONSUMIDORES = Ordered.HIGHEST_PRECEDENCE;
+
+  private static final int TAMANO_BUFFER = 64 * 1024;
+  private static final int TAMANO_PAGINA = 1_000;
+  private static final LocalDateTime SIN_MARCA = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+  private final LibroRepository libroRepository;
+  private final Path ruta;
+  private final boolean habilitado;
+  private volatile List<LibroInfo> catalogo;
+  private boolean liberado;
+
+  public CatalogoSnapshotService(LibroRepository libroRepository,
+                                 @Value("${biblioteca.snapshot.ruta:data/catalogo.snap}") String ruta,
+                                 @Value("${biblioteca.snapshot.habilitado:false}") boolean habilitado) {
+    this.libroRepository = libroRepository;
+    this.ruta = Path.of(ruta);
+    this.habilitado = habilitado;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(ORDEN_CONSUMIDORES - 1)
+  public void alIniciar() {
+    if (habilitado) {
+      getCatalogo();
+    }
+  }
+
+  /**
+   * Suelta el catálogo de arranque una vez que sus consumidores lo leyeron; desde aquí los
+   * cambios solo llegan por eventos.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public synchronized void liberarCatalogo() {
+    catalogo = null;
+    liberado = true;
+  }
+
+  @PreDestroy
+  public void alDetener() {
+    if (!habilitado) {
+      return;
+    }
+    try {
+      guardarSnapshot();
+    } catch (UncheckedIOException e) {
+      log.error("❌ No se pudo guardar el snapshot del catálogo: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Catálogo tal como estaba al arrancar. La primera llamada lo carga y las siguientes devuelven
+   * la misma lista; los cambios posteriores llegan a los consumidores por eventos.
+   *
+   * @throws IllegalStateException si se llama después de {@link #liberarCatalogo()}
+   */
+  public List<LibroInfo> getCatalogo() {
+    var actual = catalogo;
+    if (actual == null) {
+      synchronized (this) {
+        if (liberado) {
+          throw new IllegalStateException("El catálogo de arranque ya fue liberado");
+        }
+        if (catalogo == null) {
+          catalogo = habilitado ? cargarCatalogo() : leerRepositorio();
+        }
+        actual = catalogo;
+      }
+    }
+    return actual;
+  }
+
+  /**
+   * Carga el catálogo desde el snapshot más las filas modificadas después de su marca de agua.
+   * Si el snapshot no existe o está corrupto se recurre a una lectura completa del repositorio.
+   */
+  public List<LibroInfo> cargarCatalogo() {
+    var inicio = System.nanoTime();
+    var snapshot = leerSnapshot();
+
+    List<LibroInfo> resultado;
+    if (snapshot.isEmpty()) {
+      resultado = leerRepositorio();
+    } else {
+      var porId = new LinkedHashMap<Long, LibroInfo>(snapshot.get().libros().size() * 4 / 3 + 1);
+      snapshot.get().libros().forEach(libro -> porId.put(libro.id(), libro));
+      var marca = snapshot.get().marcaDeAgua();
+      libroRepository.findByFechaCreacionGreaterThanEqualOrFechaActualizacionGreaterThanEqual(marca, marca)
+          .forEach(libro -> porId.put(libro.getId(), LibroInfo.fromLibro(libro)));
+      resultado = List.copyOf(porId.values());
+    }
+
+    log.info("📦 Catálogo cargado: {} libros en {} ms", resultado.size(),
+        (System.nanoTime() - inicio) / 1_000_000);
+    return resultado;
+  }
+
+  /**
+   * Escribe el catálogo actual del repositorio en el snapshot, leyéndolo por páginas.
+   * Se escribe primero en un archivo temporal y luego se reemplaza de forma atómica.
+   */
+  public void guardarSnapshot() {
+    // La marca se toma antes de leer: lo que cambie durante la lectura se relee en el próximo arranque
+    var marca = marcaDeAgua();
+
+    try {
+      var directorio = ruta.toAbsolutePath().getParent();
+      Files.createDirectories(directorio);
+      var temporal = Files.createTempFile(directorio, "catalogo", ".tmp");
+      int registros;
+
+      try (var canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+        var escritor = new Escritor(canal);
+        canal.position(TAMANO_CABECERA);
+        recorrerRepositorio(escritor);
+        escritor.vaciar();
+        registros = escritor.registros;
+
+        var cabecera = ByteBuffer.allocate(TAMANO_CABECERA).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(MAGIC)
+            .putShort(VERSION)
+            .putLong(marca.toEpochSecond(ZoneOffset.UTC))
+            .putInt(marca.getNano())
+            .putInt(registros)
+            .putLong(escritor.crc.getValue())
+            .flip();
+        canal.write(cabecera, 0);
+        canal.force(true);
+      }
+
+      Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      log.info("💾 Snapshot del catálogo guardado: {} libros en {}", registros, ruta);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error guardando snapshot del catálogo", e);
+    }
+  }
+
+  Optional<Snapshot> leerSnapshot() {
+    if (!Files.isRegularFile(ruta)) {
+      return Optional.empty();
+    }
+
+    try (var canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+      var datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size())
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      if (datos.remaining() < TAMANO_CABECERA || datos.getInt() != MAGIC) {
+        log.warn("⚠️ Snapshot del catálogo inválido, se ignora: {}", ruta);
+        return Optional.empty();
+      }
+      var version = datos.getShort();
+      if (version != VERSION) {
+        log.warn("⚠️ Versión de snapshot no soportada ({}), se ignora", version);
+        return Optional.empty();
+      }
+      var marca = LocalDateTime.ofEpochSecond(datos.getLong(), datos.getInt(), ZoneOffset.UTC);
+      var registros = datos.getInt();
+      var crcEsperado = datos.getLong();
+
+      var crc = new CRC32();
+      crc.update(datos.slice());
+      if (crc.getValue() != crcEsperado) {
+        log.warn("⚠️ Checksum del snapshot no coincide, se ignora: {}", ruta);
+        return Optional.empty();
+      }
+
+      var libros = new ArrayList<LibroInfo>(registros);
+      for (int i = 0; i < registros; i++) {
+        libros.add(LibroCodec.leerLibroInfo(datos));
+      }
+      return Optional.of(new Snapshot(marca, libros));
+
+    } catch (IOException | RuntimeException e) {
+      log.warn("⚠️ No se pudo leer el snapshot del catálogo: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private List<LibroInfo> leerRepositorio() {
+    var libros = new ArrayList<LibroInfo>();
+    recorrerRepositorio(libros::add);
+    return List.copyOf(libros);
+  }
+
+  // Páginas por id creciente proyectadas a LibroInfo: ni el contexto de persistencia ni
+  // una lista completa de entidades crecen con el tamaño del catálogo
+  private void recorrerRepositorio(Consumer<LibroInfo> destino) {
+    var desde = Long.MIN_VALUE;
+    List<LibroInfo> pagina;
+    do {
+      pagina = libroRepository.buscarInfoDesde(desde, PageRequest.ofSize(TAMANO_PAGINA));
+      pagina.forEach(destino);
+      if (!pagina.isEmpty()) {
+        desde = pagina.getLast().id();
+      }
+    } while (pagina.size() == TAMANO_PAGINA);
+  }
+
+  // La fila modificada más recientemente, por creación o por actualización
+  private LocalDateTime marcaDeAgua() {
+    var creacion = libroRepository.ultimaFechaCreacion().orElse(SIN_MARCA);
+    var actualizacion = libroRepository.ultimaFechaActualizacion().orElse(SIN_MARCA);
+    return actualizacion.isAfter(creacion) ? actualizacion : creacion;
+  }
+
+  // Codifica registros en un buffer que se vuelca al canal al llenarse, acumulando el CRC
+  private static final class Escritor implements Consumer<LibroInfo> {
+
+    private final FileChannel canal;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+    private int registros;
+
+    Escritor(FileChannel canal) {
+      this.canal = canal;
+    }
+
+    @Override
+    public void accept(LibroInfo info) {
+      var tamano = LibroCodec.tamanoMaximo(info);
+      if (buffer.remaining() < tamano) {
+        vaciar();
+      }
+      if (buffer.capacity() < tamano) {
+        buffer = ByteBuffer.allocate(tamano).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      LibroCodec.escribir(buffer, info);
+      registros++;
+    }
+
+    void vaciar() {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      try {
+        while (buffer.hasRemaining()) {
+          canal.write(buffer);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error guardando snapshot del catálogo", e);
+      }
+      buffer.clear();
+    }
+  }
+
+  record Snapshot(LocalDateTime marcaDeAgua, List<LibroInfo> libros) {
+  }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.pichincha.biblioteca.service.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versión del catálogo: cada mutación de los servicios lo incrementa
+ * (después de guardar y notificar), así que un valor calculado con la versión {@code v}
+ * sigue siendo válido mientras la versión no cambie.
+ */
+@Component
+public class CatalogoVersion {
+
+  private final AtomicLong version = new AtomicLong();
+
+  public long actual() {
+    return version.get();
+  }
+
+  public long incrementar() {
+    return version.incrementAndGet();
+  }
+}
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.pichincha.biblioteca.service.impl;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.Reserva;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
+import com.pichincha.biblioteca.helper.CatalogoBusqueda;
+import com.pichincha.biblioteca.repository.LibroRepository;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.util.RegistroPrestamos;
+import com.pichincha.biblioteca.util.TablaEstados;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de cada libro en una {@link TablaEstados} en memoria, que decide todas las transiciones:
+ * un préstamo, devolución o reserva solo sigue adelante si su compare-and-set en la tabla gana.
+ *
+ * <p>Las transiciones no son libres de bloqueos: todas se aplican con el libro bloqueado en el
+ * {@link RegistroPrestamos}, que las serializa por libro junto con el registro de préstamos y la
+ * escritura en la base de datos. El compare-and-set solo rechaza la transición inválida.
+ *
+ * <p>Hay dos caminos de escritura. Los servicios de préstamos y reservas aplican la transición
+ * con {@link #transicionar} y escriben la base de datos ellos mismos, de forma síncrona dentro
+ * del bloqueo; si la escritura falla la deshacen con {@link #revertir}. Las transiciones de mantenimiento de este servicio no tienen préstamo ni reserva que
+ * registrar: publican un {@link LibroEvent.EstadoCambiado} y la base de datos se actualiza
+ * después, en lotes, con el último estado de cada libro ({@link #sincronizar()}).
+ *
+ * <p>La tabla se carga al iniciar con el catálogo de arranque ({@link CatalogoSnapshotService})
+ * sin pisar los libros que ya conoce, y un libro que aún no conoce se registra con el estado
+ * de su entidad la primera vez que un servicio lo usa.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadosLibroService implements LibroEventListener {
+
+  private static final int TAMANO_LOTE = 1_000;
+
+  private final LibroRepository libroRepository;
+  private final LibroEventBus eventBus;
+  private final CatalogoVersion catalogoVersion;
+  private final CatalogoSnapshotService catalogoSnapshot;
+  private final CatalogoBusqueda catalogoBusqueda;
+  private final RegistroPrestamos<InfoPrestamo> registro;
+  private final ReservasLibro reservas;
+  private final TablaEstados tabla = new TablaEstados();
+  // Último estado aún no escrito de cada libro: varias transiciones se combinan en una escritura
+  private final Map<Long, EstadoLibro> pendientes = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void registrar() {
+    eventBus.suscribir(this);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(CatalogoSnapshotService.ORDEN_CONSUMIDORES)
+  public void alIniciar() {
+    // Lo que la tabla ya conoce (eventos o transiciones previas) es más reciente que el arranque
+    catalogoSnapshot.getCatalogo().forEach(libro -> tabla.registrarSiFalta(libro.id(), libro.estado()));
+  }
+
+  @PreDestroy
+  public void alDetener() {
+    sincronizar();
+  }
+
+  @Override
+  public void onLibroEvent(LibroEvent event) {
+    var libro = event.getLibroInfo();
+    switch (event) {
+      case LibroEvent.LibroAgregado agregado -> tabla.registrar(libro.id(), libro.estado());
+      default -> {
+        // Los demás cambios de estado ya pasaron por la tabla antes de publicarse
+      }
+    }
+  }
+
+  /**
+   * Aplica la transición en la tabla para un camino que escribe la base de datos por su cuenta,
+   * con el libro ya bloqueado en el registro. Si la tabla no conoce el libro, parte del estado
+   * de la entidad. Devuelve {@code false} si el libro está en otro estado.
+   */
+  boolean transicionar(Libro libro, TransicionLibro transicion) {
+    tabla.registrarSiFalta(libro.getId(), libro.getEstado());
+    return tabla.aplicar(libro.getId(), transicion);
+  }
+
+  /** Deshace una transición de {@link #transicionar} cuya escritura falló. */
+  void revertir(Long libroId, TransicionLibro transicion) {
+    if (!tabla.cambiar(libroId, transicion.getHacia(), transicion.getDesde())) {
+      log.warn("⚠️ No se pudo revertir '{}' del libro {}: su estado ya cambió", transicion.getDescripcion(), libroId);
+    }
+  }
+
+  /**
+   * Con la devolución ya aplicada por {@link #transicionar}: si el libro tiene lista de espera
+   * pasa directo a RESERVADO para el primero de la lista. Devuelve las transiciones aplicadas
+   * en orden, para revertirlas si la escritura falla.
+   */
+  List<TransicionLibro> transicionesAlDevolver(Libro libro) {
+    return reservas.hayEspera(libro.getId()) && transicionar(libro, TransicionLibro.RESERVAR)
+        ? List.of(TransicionLibro.DEVOLVER, TransicionLibro.RESERVAR)
+        : List.of(TransicionLibro.DEVOLVER);
+  }
+
+  /** Si el libro quedó RESERVADO al devolverse, se lo retiene al primero de la lista de espera. */
+  Optional<Reserva> entregarAlSiguiente(Libro libro) {
+    if (libro.getEstado() != EstadoLibro.RESERVADO) {
+      return Optional.empty();
+    }
+    return reservas.retenerSiguiente(libro.getId());
+  }
+
+  public boolean enviarAMantenimiento(Long libroId) {
+    return aplicar(libroId, TransicionLibro.ENVIAR_A_MANTENIMIENTO);
+  }
+
+  public boolean completarMantenimiento(Long libroId) {
+    return aplicar(libroId, TransicionLibro.COMPLETAR_MANTENIMIENTO);
+  }
+
+  public Optional<EstadoLibro> obtenerEstado(Long libroId) {
+    return tabla.estado(libroId);
+  }
+
+  public int cantidadPendientes() {
+    return pendientes.size();
+  }
+
+  // Con el libro bloqueado, como los préstamos: los eventos se publican en el orden de las transiciones
+  private boolean aplicar(Long libroId, TransicionLibro transicion) {
+    return registro.conLibro(libroId, () -> {
+      if (!tabla.aplicar(libroId, transicion)) {
+        return false;
+      }
+      pendientes.put(libroId, transicion.getHacia());
+      catalogoBusqueda.buscarPorId(libroId)
+          .or(() -> libroRepository.findById(libroId).map(LibroInfo::fromLibro))
+          .map(libro -> new LibroInfo(libro.id(), libro.titulo(), libro.autor(), libro.tipo(),
+              libro.formato(), transicion.getHacia()))
+          .ifPresent(libro -> eventBus.publicar(new LibroEvent.EstadoCambiado(this, libro, transicion)));
+      // Lo memorizado por versión (estadísticas en vivo) ya cambió aunque la base de datos aún no
+      catalogoVersion.incrementar();
+      return true;
+    });
+  }
+
+  /**
+   * Escribe los estados pendientes con un {@code UPDATE} por estado y lote de ids. Cada lote se
+   * escribe con sus libros bloqueados y solo con los estados que la tabla todavía tiene: si un
+   * préstamo o una devolución cambió el libro después, ya escribió un estado más reciente.
+   *
+   * @return cantidad de libros actualizados
+   */
+  @Scheduled(fixedDelayString = "${biblioteca.estados.sincronizacion:PT1S}")
+  public synchronized int sincronizar() {
+    if (pendientes.isEmpty()) {
+      return 0;
+    }
+    var ids = List.copyOf(pendientes.keySet());
+    var actualizados = 0;
+    var ahora = LocalDateTime.now();
+    for (int desde = 0; desde < ids.size(); desde += TAMANO_LOTE) {
+      var lote = ids.subList(desde, Math.min(ids.size(), desde + TAMANO_LOTE));
+      actualizados += registro.conLibros(lote, () -> escribirLote(lote, ahora));
+    }
+    if (actualizados > 0) {
+      catalogoVersion.incrementar();
+      log.debug("🔄 Estados sincronizados con la base de datos: {} libros", actualizados);
+    }
+    return actualizados;
+  }
+
+  private int escribirLote(List<Long> lote, LocalDateTime ahora) {
+    var porEstado = new EnumMap<EstadoLibro, List<Long>>(EstadoLibro.class);
+    for (var id : lote) {
+      var estado = pendientes.remove(id);
+      if (estado != null && tabla.estado(id).filter(estado::equals).isPresent()) {
+        porEstado.computeIfAbsent(estado, clave -> new ArrayList<>()).add(id);
+      }
+    }
+
+    var actualizados = 0;
+    for (var entrada : porEstado.entrySet()) {
+      try {
+        actualizados += libroRepository.actualizarEstado(entrada.getKey(), ahora, entrada.getValue());
+      } catch (RuntimeException e) {
+        entrada.getValue().forEach(id -> pendientes.putIfAbsent(id, entrada.getKey()));
+        log.error("❌ No se pudo sincronizar el estado de {} libros: {}", entrada.getValue().size(), e.getMessage());
+      }
+    }
+    return actualizados;
+  }
+}
\ No newline at end of file
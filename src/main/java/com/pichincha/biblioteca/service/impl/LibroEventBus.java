@@ -0,0 +1,55 @@
+package com.pichincha.biblioteca.service.impl;
+
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registro compartido de listeners de eventos de libros.
+ * Permite que otros componentes (estadísticas, índices) se suscriban al arrancar
+ * sin depender de {@link ModernBibliotecaService}.
+ */
+@Component
+@Slf4j
+public class LibroEventBus {
+
+  private final List<LibroEventListener> eventListeners = new CopyOnWriteArrayList<>();
+
+  public void suscribir(LibroEventListener listener) {
+    eventListeners.add(listener);
+  }
+
+  public void desuscribir(LibroEventListener listener) {
+    eventListeners.remove(listener);
+  }
+
+  public void publicar(LibroEvent event) {
+    eventListeners.forEach(listener -> {
+      try {
+        listener.onLibroEvent(event);
+      } catch (Exception e) {
+        log.error("Error notificando evento: {}", e.getMessage(), e);
+      }
+    });
+  }
+
+  /**
+   * Entrega el lote completo a cada listener en una sola llamada.
+   */
+  public void publicarTodos(List<? extends LibroEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    eventListeners.forEach(listener -> {
+      try {
+        listener.onLibroEvents(events);
+      } catch (Exception e) {
+        log.error("Error notificando lote de {} eventos: {}", events.size(), e.getMessage(), e);
+      }
+    });
+  }
+}
\ No newline at end of file
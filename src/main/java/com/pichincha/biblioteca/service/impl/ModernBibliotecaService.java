@@ -4,15 +4,24 @@ import com.pichincha.biblioteca.domain.*;
 import com.pichincha.biblioteca.domain.enums.EstadoLibro;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
+import com.pichincha.biblioteca.helper.CatalogoBusqueda;
 import com.pichincha.biblioteca.repository.LibroRepository;
 import com.pichincha.biblioteca.service.*;
+import com.pichincha.biblioteca.util.CacheVersionada;
+import com.pichincha.biblioteca.util.ConteoCatalogo;
 import com.pichincha.biblioteca.util.LibroUtil;
+import com.pichincha.biblioteca.util.RegistroPrestamos;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -21,8 +30,23 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ModernBibliotecaService {
 
+  private static final int DIAS_PRESTAMO = 14;
+
   private final LibroRepository libroRepository;
-  private final List<LibroEventListener> eventListeners = new CopyOnWriteArrayList<>();
+  private final LibroEventBus eventBus;
+  private final CatalogoVersion catalogoVersion;
+  private final TransactionTemplate transactionTemplate;
+  private final ReservasLibro reservas;
+  private final CatalogoBusqueda catalogoBusqueda;
+  private final EstadosLibroService estados;
+  private final RegistroPrestamos<InfoPrestamo> prestamosActivos;
+  private final CacheVersionada<ConteoCatalogo> conteoCatalogo = new CacheVersionada<>();
+  private final CacheVersionada<String> reporteCompleto = new CacheVersionada<>();
+  private final Executor revalidacion = tarea -> Thread.ofVirtual().name("reporte-revalidacion").start(tarea);
+
+  // Sirve el último reporte mientras se recalcula en segundo plano (stale-while-revalidate)
+  @Value("${biblioteca.reportes.revalidar-en-segundo-plano:false}")
+  private boolean revalidarEnSegundoPlano;
   private final Validador cadenaValidacion = configurarCadenaValidacion();
 
   // Configuración de la cadena de validación
@@ -35,21 +59,24 @@ public class ModernBibliotecaService {
 
   // Gestión de eventos
   public void addEventListener(LibroEventListener listener) {
-    eventListeners.add(listener);
+    eventBus.suscribir(listener);
   }
 
   public void removeEventListener(LibroEventListener listener) {
-    eventListeners.remove(listener);
+    eventBus.desuscribir(listener);
   }
 
+  // Toda mutación notifica un evento; la versión sube después, cuando el cambio ya es visible
   private void notificarEvento(LibroEvent event) {
-    eventListeners.forEach(listener -> {
-      try {
-        listener.onLibroEvent(event);
-      } catch (Exception e) {
-        log.error("Error notificando evento: {}", e.getMessage(), e);
-      }
-    });
+    eventBus.publicar(event);
+    catalogoVersion.incrementar();
+  }
+
+  private void notificarEventos(List<LibroEvent> eventos) {
+    if (!eventos.isEmpty()) {
+      eventBus.publicarTodos(eventos);
+      catalogoVersion.incrementar();
+    }
   }
 
   // Operaciones CRUD modernas
@@ -67,13 +94,15 @@ public class ModernBibliotecaService {
     });
   }
 
+  // La estrategia se evalúa sobre el catálogo fuera del heap; solo se leen las entidades encontradas
   public List<ILibro> buscarLibros(String criterio, SearchStrategy estrategia) {
-    var todosLosLibros = libroRepository.findAll()
-        .stream()
+    var ids = catalogoBusqueda.buscar(criterio, estrategia);
+    var porId = libroRepository.findAllById(ids).stream()
+        .collect(Collectors.toMap(Libro::getId, libro -> libro));
+    return ids.stream()
+        .map(porId::get)
+        .filter(Objects::nonNull)
         .<ILibro>map(libro -> libro)
-        .toList();
-    
-    return estrategia.buscar(todosLosLibros, criterio)
         .collect(Collectors.toList());
   }
 
@@ -92,34 +121,253 @@ public class ModernBibliotecaService {
         .toList();
   }
 
+  // La transición en la tabla de estados, guardar, registrar y publicar ocurren con el libro
+  // bloqueado en el registro. Un libro reservado solo se presta al usuario para el que está retenido.
   public Optional<ILibro> prestarLibro(Long libroId, String usuario) {
-    return libroRepository.findById(libroId)
-        .filter(libro -> libro.getEstado() == EstadoLibro.DISPONIBLE)
-        .map(libro -> {
+    return prestamosActivos.conLibro(libroId, () -> libroRepository.findById(libroId)
+        .flatMap(libro -> transicionDePrestamo(libro, usuario).map(transicion -> {
+          var eventos = new ArrayList<LibroEvent>(2);
+          if (transicion == TransicionLibro.PRESTAR_RESERVADO) {
+            // Sin retención vigente la reserva termina igual: quien sigue los estados espera el evento
+            var reserva = reservas.retencion(libroId).filter(reservas::terminar)
+                .orElseGet(() -> Reserva.retenida(libroId, usuario, LocalDateTime.now()));
+            eventos.add(new LibroEvent.ReservaFinalizada(this, LibroInfo.fromLibro(libro), reserva,
+                LibroEvent.ReservaFinalizada.Motivo.RETIRADA));
+          }
           libro.setEstado(EstadoLibro.PRESTADO);
-          var libroActualizado = libroRepository.save(libro);
+          var libroActualizado = guardar(libro, transicion);
+          var prestamo = InfoPrestamo.crear(libroActualizado.getId(), libroActualizado.getTitulo(),
+              usuario, DIAS_PRESTAMO);
+          prestamosActivos.registrar(libroActualizado.getId(), usuario, prestamo);
           
-          var event = new LibroEvent.LibroPrestado(this, LibroInfo.fromLibro(libroActualizado), usuario);
-          notificarEvento(event);
+          eventos.add(new LibroEvent.LibroPrestado(this, LibroInfo.fromLibro(libroActualizado), usuario, prestamo));
+          notificarEventos(eventos);
           
           log.info("📖 Libro prestado a {}: {}", usuario, libroActualizado.getInfo());
           return (ILibro) libroActualizado;
-        });
+        })));
   }
 
   public Optional<ILibro> devolverLibro(Long libroId, String usuario) {
-    return libroRepository.findById(libroId)
-        .filter(libro -> libro.getEstado() == EstadoLibro.PRESTADO)
+    return prestamosActivos.conLibro(libroId, () -> libroRepository.findById(libroId)
+        .filter(libro -> estados.transicionar(libro, TransicionLibro.DEVOLVER))
         .map(libro -> {
-          libro.setEstado(EstadoLibro.DISPONIBLE);
-          var libroActualizado = libroRepository.save(libro);
+          var transiciones = estados.transicionesAlDevolver(libro);
+          libro.setEstado(transiciones.getLast().getHacia());
+          var libroActualizado = guardar(libro, transiciones.toArray(TransicionLibro[]::new));
+          var prestamo = prestamosActivos.liberar(libroActualizado.getId())
+              .map(InfoPrestamo::marcarComoDevuelto)
+              .orElse(null);
           
-          var event = new LibroEvent.LibroDevuelto(this, LibroInfo.fromLibro(libroActualizado), usuario);
-          notificarEvento(event);
+          var eventos = new ArrayList<LibroEvent>(2);
+          eventos.add(new LibroEvent.LibroDevuelto(this, LibroInfo.fromLibro(libroActualizado), usuario, prestamo));
+          entregarAlSiguiente(libroActualizado).ifPresent(eventos::add);
+          notificarEventos(eventos);
           
           log.info("📚 Libro devuelto por {}: {}", usuario, libroActualizado.getInfo());
           return (ILibro) libroActualizado;
-        });
+        }));
+  }
+
+  // Operaciones en lote: una consulta IN y un solo flush (UPDATE con batching JDBC) por lote.
+  // Los libros del lote quedan bloqueados en el registro hasta publicar los eventos.
+  public List<ResultadoOperacion> prestarLibros(List<OperacionLibro> operaciones) {
+    var ids = idsDe(operaciones);
+    return prestamosActivos.conLibros(ids, () -> {
+      var eventos = new ArrayList<LibroEvent>();
+      var resultados = aplicarEnLote(operaciones, ids, TransicionLibro.PRESTAR).stream()
+          .map(cambio -> {
+            if (cambio.resultado() != ResultadoOperacion.Resultado.EXITOSO) {
+              return ResultadoOperacion.fallido(cambio.operacion(), cambio.resultado());
+            }
+            var libro = cambio.libro();
+            var usuario = cambio.operacion().usuario();
+            var prestamo = InfoPrestamo.crear(libro.getId(), libro.getTitulo(), usuario, DIAS_PRESTAMO);
+            prestamosActivos.registrar(libro.getId(), usuario, prestamo);
+            eventos.add(new LibroEvent.LibroPrestado(this, LibroInfo.fromLibro(libro), usuario, prestamo));
+            return ResultadoOperacion.exitoso(cambio.operacion(), prestamo);
+          })
+          .toList();
+      notificarEventos(eventos);
+
+      log.info("📖 Lote de préstamos: {} de {} operaciones exitosas", eventos.size(), operaciones.size());
+      return resultados;
+    });
+  }
+
+  public List<ResultadoOperacion> devolverLibros(List<OperacionLibro> operaciones) {
+    var ids = idsDe(operaciones);
+    return prestamosActivos.conLibros(ids, () -> {
+      var eventos = new ArrayList<LibroEvent>();
+      var resultados = aplicarEnLote(operaciones, ids, TransicionLibro.DEVOLVER).stream()
+          .map(cambio -> {
+            if (cambio.resultado() != ResultadoOperacion.Resultado.EXITOSO) {
+              return ResultadoOperacion.fallido(cambio.operacion(), cambio.resultado());
+            }
+            var libro = cambio.libro();
+            var prestamo = prestamosActivos.liberar(libro.getId())
+                .map(InfoPrestamo::marcarComoDevuelto)
+                .orElse(null);
+            eventos.add(new LibroEvent.LibroDevuelto(this, LibroInfo.fromLibro(libro),
+                cambio.operacion().usuario(), prestamo));
+            entregarAlSiguiente(libro).ifPresent(eventos::add);
+            return ResultadoOperacion.exitoso(cambio.operacion(), prestamo);
+          })
+          .toList();
+      notificarEventos(eventos);
+
+      log.info("📚 Lote de devoluciones: {} de {} operaciones exitosas", eventos.size(), operaciones.size());
+      return resultados;
+    });
+  }
+
+  /**
+   * Reserva el libro para el usuario. Si está disponible queda retenido para él de inmediato;
+   * si está prestado o reservado, el usuario entra al final de la lista de espera y el libro
+   * le queda retenido al devolverse, sin reintentar el préstamo. Vacío si el libro no existe,
+   * no admite reservas o ya está prestado al mismo usuario.
+   */
+  public Optional<Reserva> reservarLibro(Long libroId, String usuario) {
+    return prestamosActivos.conLibro(libroId, () -> libroRepository.findById(libroId)
+        .flatMap(libro -> {
+          if (!estados.transicionar(libro, TransicionLibro.RESERVAR)) {
+            return ponerEnEspera(libro, usuario);
+          }
+          libro.setEstado(EstadoLibro.RESERVADO);
+          var libroActualizado = guardar(libro, TransicionLibro.RESERVAR);
+          var reserva = reservas.retener(libroId, usuario);
+          notificarEvento(new LibroEvent.LibroReservado(this, LibroInfo.fromLibro(libroActualizado), reserva));
+          log.info("🔖 Libro reservado para {} hasta {}: {}", usuario, reserva.vence(), libroActualizado.getInfo());
+          return Optional.of(reserva);
+        }));
+  }
+
+  // El libro no estaba disponible: si está prestado o reservado, el usuario entra a la lista de espera
+  private Optional<Reserva> ponerEnEspera(Libro libro, String usuario) {
+    var libroId = libro.getId();
+    return switch (estados.obtenerEstado(libroId).orElse(libro.getEstado())) {
+      case PRESTADO, RESERVADO -> {
+        var retenida = reservas.retencion(libroId).filter(reserva -> reserva.usuario().equals(usuario));
+        if (retenida.isPresent()) {
+          yield retenida;
+        }
+        if (prestamosActivos.buscar(libroId).filter(prestamo -> prestamo.usuario().equals(usuario)).isPresent()) {
+          yield Optional.empty();
+        }
+        var posicion = reservas.encolar(libroId, usuario);
+        log.info("⏳ {} en lista de espera (posición {}): {}", usuario, posicion, libro.getInfo());
+        yield Optional.of(Reserva.enEspera(libroId, usuario, posicion));
+      }
+      default -> Optional.empty();
+    };
+  }
+
+  /**
+   * Saca al usuario de la lista de espera o, si el libro está retenido para él, termina la
+   * retención y lo pasa al siguiente de la lista. Devuelve {@code false} si no tenía reserva.
+   */
+  public boolean cancelarReserva(Long libroId, String usuario) {
+    return prestamosActivos.conLibro(libroId, () -> {
+      if (reservas.quitar(libroId, usuario)) {
+        return true;
+      }
+      var retenida = reservas.retencion(libroId)
+          .filter(reserva -> reserva.usuario().equals(usuario))
+          .filter(reservas::terminar);
+      retenida.ifPresent(reserva -> libroRepository.findById(libroId).ifPresent(libro ->
+          notificarEventos(finalizarRetencion(libro, reserva, LibroEvent.ReservaFinalizada.Motivo.CANCELADA))));
+      return retenida.isPresent();
+    });
+  }
+
+  public Optional<Reserva> obtenerReserva(Long libroId, String usuario) {
+    return reservas.retencion(libroId)
+        .filter(reserva -> reserva.usuario().equals(usuario))
+        .or(() -> Optional.of(reservas.posicion(libroId, usuario))
+            .filter(posicion -> posicion > 0)
+            .map(posicion -> Reserva.enEspera(libroId, usuario, posicion)));
+  }
+
+  public List<String> obtenerListaDeEspera(Long libroId) {
+    return reservas.enEspera(libroId);
+  }
+
+  /**
+   * Termina las retenciones vencidas: cada libro pasa al siguiente de su lista de espera o
+   * vuelve a estar disponible. Devuelve la cantidad de retenciones vencidas.
+   */
+  @Scheduled(fixedDelayString = "${biblioteca.reservas.tick:PT1M}",
+      initialDelayString = "${biblioteca.reservas.tick:PT1M}")
+  public int procesarReservasVencidas() {
+    var vencidas = 0;
+    for (var reserva : reservas.vencidas()) {
+      // Con el libro bloqueado: si el usuario lo retiró o canceló antes, la retención ya no está vigente
+      vencidas += prestamosActivos.conLibro(reserva.libroId(), () -> {
+        if (!reservas.terminar(reserva)) {
+          return 0;
+        }
+        libroRepository.findById(reserva.libroId()).ifPresent(libro ->
+            notificarEventos(finalizarRetencion(libro, reserva, LibroEvent.ReservaFinalizada.Motivo.VENCIDA)));
+        return 1;
+      });
+    }
+    if (vencidas > 0) {
+      log.info("⌛ {} reservas vencidas", vencidas);
+    }
+    return vencidas;
+  }
+
+  public Optional<InfoPrestamo> renovarPrestamo(Long libroId, int diasAdicionales) {
+    return prestamosActivos.conLibro(libroId, () -> {
+      var renovado = prestamosActivos.actualizar(libroId, prestamo -> prestamo.renovar(diasAdicionales));
+      renovado.ifPresent(prestamo -> {
+        libroRepository.findById(libroId).ifPresent(libro -> notificarEvento(
+            new LibroEvent.PrestamoRenovado(this, LibroInfo.fromLibro(libro), prestamo.usuario(), prestamo)));
+        log.info("🔁 Préstamo renovado hasta {}: {}", prestamo.fechaDevolucion(), prestamo.tituloLibro());
+      });
+      return renovado;
+    });
+  }
+
+  /**
+   * Renueva los préstamos activos de los libros dados que cumplan el criterio y publica los
+   * {@link LibroEvent.PrestamoRenovado} en un solo lote. Cada libro queda bloqueado solo
+   * mientras se actualiza su préstamo; los datos del libro salen del catálogo de búsqueda,
+   * sin cargar entidades.
+   *
+   * <p>Los libros de {@code yaRenovados} se saltan, y cada libro renovado se agrega al conjunto
+   * con el libro todavía bloqueado: si la llamada falla a la mitad, el conjunto ya dice qué
+   * se renovó y repetirla con el mismo conjunto no renueva nada dos veces.
+   */
+  public List<InfoPrestamo> renovarPrestamos(List<Long> libroIds, CriterioRenovacion criterio, Set<Long> yaRenovados) {
+    var renovados = new ArrayList<InfoPrestamo>();
+    var eventos = new ArrayList<LibroEvent>();
+    for (var libroId : libroIds) {
+      prestamosActivos.conLibro(libroId, () -> prestamosActivos.buscar(libroId)
+              .filter(prestamo -> !yaRenovados.contains(libroId))
+              .filter(criterio::aplica)
+              .flatMap(prestamo -> prestamosActivos.actualizar(libroId,
+                  actual -> actual.renovar(criterio.diasAdicionales())))
+              .map(prestamo -> {
+                yaRenovados.add(libroId);
+                return prestamo;
+              }))
+          .ifPresent(prestamo -> {
+            renovados.add(prestamo);
+            catalogoBusqueda.buscarPorId(libroId).ifPresent(libro ->
+                eventos.add(new LibroEvent.PrestamoRenovado(this, libro, prestamo.usuario(), prestamo)));
+          });
+    }
+    notificarEventos(eventos);
+    return renovados;
+  }
+
+  public List<InfoPrestamo> obtenerPrestamosActivos() {
+    return prestamosActivos.valores();
+  }
+
+  public List<InfoPrestamo> obtenerPrestamosDeUsuario(String usuario) {
+    return prestamosActivos.porUsuario(usuario);
   }
 
   // Consultas avanzadas usando Streams y características modernas
@@ -132,22 +380,21 @@ public class ModernBibliotecaService {
     );
   }
 
+  // Conteos agregados en la base de datos: no se cargan los libros
+  public Map<TipoLibro, Long> contarLibrosPorTipo() {
+    return aLong(TipoLibro.class, contarCatalogo().porTipo());
+  }
+
   public Map<FormatoLibro, Long> obtenerEstadisticasPorFormato() {
-    return LibroUtil.contarPorFormato(
-        libroRepository.findAll()
-            .stream()
-            .<ILibro>map(libro -> libro)
-            .toList()
-    );
+    return aLong(FormatoLibro.class, contarCatalogo().porFormato());
   }
 
   public String generarReporteCompleto() {
-    var todosLosLibros = libroRepository.findAll()
-        .stream()
-        .<ILibro>map(libro -> libro)
-        .toList();
-    
-    return LibroUtil.generarReporteResumen(todosLosLibros);
+    if (revalidarEnSegundoPlano) {
+      return reporteCompleto.obtenerRevalidando(catalogoVersion::actual,
+          () -> LibroUtil.generarReporteResumen(contarCatalogo()), revalidacion);
+    }
+    return reporteCompleto.obtener(catalogoVersion.actual(), () -> LibroUtil.generarReporteResumen(contarCatalogo()));
   }
 
   public List<ILibro> obtenerLibrosDisponibles() {
@@ -159,6 +406,111 @@ public class ModernBibliotecaService {
   }
 
   // Métodos utilitarios
+  // Un libro reservado sin retención vigente (por ejemplo, tras reiniciar) se presta a cualquiera
+  private Optional<TransicionLibro> transicionDePrestamo(Libro libro, String usuario) {
+    if (estados.transicionar(libro, TransicionLibro.PRESTAR)) {
+      return Optional.of(TransicionLibro.PRESTAR);
+    }
+    var retenidoPara = reservas.retencion(libro.getId())
+        .map(reserva -> reserva.usuario().equals(usuario))
+        .orElse(true);
+    return retenidoPara && estados.transicionar(libro, TransicionLibro.PRESTAR_RESERVADO)
+        ? Optional.of(TransicionLibro.PRESTAR_RESERVADO)
+        : Optional.empty();
+  }
+
+  // Si la escritura falla, las transiciones se deshacen en la tabla en orden inverso
+  private Libro guardar(Libro libro, TransicionLibro... transiciones) {
+    try {
+      return libroRepository.save(libro);
+    } catch (RuntimeException e) {
+      for (int i = transiciones.length - 1; i >= 0; i--) {
+        estados.revertir(libro.getId(), transiciones[i]);
+      }
+      throw e;
+    }
+  }
+
+  private Optional<LibroEvent> entregarAlSiguiente(Libro libro) {
+    return estados.entregarAlSiguiente(libro)
+        .map(reserva -> new LibroEvent.LibroReservado(this, LibroInfo.fromLibro(libro), reserva));
+  }
+
+  // Con la retención ya terminada: el libro queda retenido para el siguiente o vuelve a estar disponible
+  private List<LibroEvent> finalizarRetencion(Libro libro, Reserva reserva, LibroEvent.ReservaFinalizada.Motivo motivo) {
+    var eventos = new ArrayList<LibroEvent>(2);
+    eventos.add(new LibroEvent.ReservaFinalizada(this, LibroInfo.fromLibro(libro), reserva, motivo));
+    var siguiente = reservas.retenerSiguiente(libro.getId());
+    if (siguiente.isPresent()) {
+      eventos.add(new LibroEvent.LibroReservado(this, LibroInfo.fromLibro(libro), siguiente.get()));
+    } else if (estados.transicionar(libro, TransicionLibro.CANCELAR_RESERVA)) {
+      libro.setEstado(EstadoLibro.DISPONIBLE);
+      guardar(libro, TransicionLibro.CANCELAR_RESERVA);
+    }
+    return eventos;
+  }
+
+  private static Set<Long> idsDe(List<OperacionLibro> operaciones) {
+    return operaciones.stream().map(OperacionLibro::libroId).collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Aplica la transición en la tabla de estados y en la entidad a cada operación del lote,
+   * dentro de una transacción; si la transacción falla, la tabla se deshace.
+   * Las entidades quedan gestionadas, así que sus UPDATE se envían juntos al confirmar;
+   * una operación repetida sobre el mismo libro falla por estado porque ve el cambio anterior.
+   */
+  private List<CambioLote> aplicarEnLote(List<OperacionLibro> operaciones, Set<Long> ids, TransicionLibro transicion) {
+    if (operaciones.isEmpty()) {
+      return List.of();
+    }
+    var aplicadas = new ArrayList<TransicionAplicada>();
+    try {
+      return transactionTemplate.execute(status -> {
+        var libros = libroRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Libro::getId, libro -> libro));
+        var cambios = new ArrayList<CambioLote>(operaciones.size());
+        for (var operacion : operaciones) {
+          var libro = libros.get(operacion.libroId());
+          if (libro == null) {
+            cambios.add(new CambioLote(operacion, null, ResultadoOperacion.Resultado.NO_ENCONTRADO));
+          } else if (!estados.transicionar(libro, transicion)) {
+            cambios.add(new CambioLote(operacion, libro, ResultadoOperacion.Resultado.ESTADO_INVALIDO));
+          } else {
+            var transiciones = transicion == TransicionLibro.DEVOLVER
+                ? estados.transicionesAlDevolver(libro)
+                : List.of(transicion);
+            transiciones.forEach(aplicada -> aplicadas.add(new TransicionAplicada(libro.getId(), aplicada)));
+            libro.setEstado(transiciones.getLast().getHacia());
+            cambios.add(new CambioLote(operacion, libro, ResultadoOperacion.Resultado.EXITOSO));
+          }
+        }
+        return cambios;
+      });
+    } catch (RuntimeException e) {
+      // La transacción no se confirmó: la tabla vuelve atrás en orden inverso
+      aplicadas.reversed().forEach(aplicada -> estados.revertir(aplicada.libroId(), aplicada.transicion()));
+      throw e;
+    }
+  }
+
+  private record TransicionAplicada(Long libroId, TransicionLibro transicion) {
+  }
+
+  private record CambioLote(OperacionLibro operacion, Libro libro, ResultadoOperacion.Resultado resultado) {
+  }
+
+  private ConteoCatalogo contarCatalogo() {
+    return conteoCatalogo.obtener(catalogoVersion.actual(),
+        () -> ConteoCatalogo.desde(libroRepository.contarPorTipoFormatoEstado()));
+  }
+
+  private static <E extends Enum<E>> Map<E, Long> aLong(Class<E> clase, Map<E, Integer> conteos) {
+    var resultado = new EnumMap<E, Long>(clase);
+    conteos.forEach((clave, cantidad) -> resultado.put(clave, cantidad.longValue()));
+    return resultado;
+  }
+
   private <T> T ejecutarConValidacion(String titulo, String autor, java.util.function.Supplier<T> operacion) {
     try {
       cadenaValidacion.validar(titulo, autor);
@@ -185,6 +537,8 @@ public class ModernBibliotecaService {
     var libroEntity = convertirAEntity(adapter);
     var libroGuardado = libroRepository.save(libroEntity);
     
+    notificarEvento(new LibroEvent.LibroAgregado(this, LibroInfo.fromLibro(libroGuardado)));
+    
     log.info("🔄 Libro legacy integrado: {}", libroGuardado.getInfo());
     return libroGuardado;
   }
@@ -0,0 +1,228 @@
+package com.pichincha.biblioteca.service.impl;
+
+import com.pichincha.biblioteca.domain.CriterioRenovacion;
+import com.pichincha.biblioteca.domain.EstadoRenovacion;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.ResultadoRenovacion;
+import com.pichincha.biblioteca.util.RegistroPrestamos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Renovación masiva de préstamos (grupo de usuarios, cierre por feriado) sobre millones de préstamos.
+ * Los préstamos activos viven en el {@link RegistroPrestamos}, así que el trabajo recorre el registro
+ * y no la base de datos: pide al registro los siguientes {@code biblioteca.renovaciones.tamano-lote}
+ * ids con préstamo después del punto de control (sin copiar todos los ids ni cargar entidades), los
+ * reparte entre {@code biblioteca.renovaciones.hilos} trabajadores y publica los eventos de
+ * renovación una vez por tramo. Un préstamo nuevo con id mayor que el punto de control también
+ * se revisa.
+ *
+ * <p>Tras cada lote se guarda en memoria un punto de control (último id procesado, conteos y huella
+ * del criterio). Volver a ejecutar un trabajo con el mismo nombre continúa después del último lote
+ * completo. Del lote en curso se anotan los libros ya renovados a medida que cada tramo avanza: si
+ * un tramo falla, los demás tramos ya renovaron los suyos, y al reanudar el lote se repite sin
+ * renovarlos otra vez. El punto de control corre la misma suerte que los préstamos: si el proceso se cae se
+ * pierden los dos, y un punto de control en disco apuntaría a préstamos que ya no existen.
+ *
+ * <p>{@link #iniciar} ejecuta el trabajo en un hilo virtual propio y {@link #consultar} informa su avance.
+ */
+@Service
+@Slf4j
+public class RenovacionMasivaService {
+
+  private static final Pattern NOMBRE_TRABAJO = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+  private final ModernBibliotecaService bibliotecaService;
+  private final RegistroPrestamos<InfoPrestamo> prestamosActivos;
+  private final int tamanoLote;
+  private final int hilos;
+  private final Map<String, Progreso> puntos = new ConcurrentHashMap<>();
+  // Libros ya renovados del lote en curso de cada trabajo, a lo sumo un lote por trabajo
+  private final Map<String, Set<Long>> renovadosDelLote = new ConcurrentHashMap<>();
+  private final Map<String, String> errores = new ConcurrentHashMap<>();
+  private final Set<String> enCurso = ConcurrentHashMap.newKeySet();
+
+  public RenovacionMasivaService(ModernBibliotecaService bibliotecaService,
+                                 RegistroPrestamos<InfoPrestamo> prestamosActivos,
+                                 @Value("${biblioteca.renovaciones.tamano-lote:1000}") int tamanoLote,
+                                 @Value("${biblioteca.renovaciones.hilos:4}") int hilos) {
+    if (tamanoLote < 1 || hilos < 1) {
+      throw new IllegalArgumentException("El tamaño de lote y los hilos deben ser positivos");
+    }
+    this.bibliotecaService = bibliotecaService;
+    this.prestamosActivos = prestamosActivos;
+    this.tamanoLote = tamanoLote;
+    this.hilos = hilos;
+  }
+
+  /**
+   * Lanza (o reanuda) el trabajo en segundo plano y devuelve su estado inicial. Vacío si el
+   * trabajo ya está en curso.
+   */
+  public Optional<EstadoRenovacion> iniciar(String trabajo, CriterioRenovacion criterio) {
+    if (!reclamar(trabajo, criterio)) {
+      return Optional.empty();
+    }
+    Thread.ofVirtual().name("renovacion-" + trabajo).start(() -> {
+      try {
+        ejecutar(trabajo, criterio);
+      } catch (RuntimeException e) {
+        errores.put(trabajo, String.valueOf(e.getMessage()));
+        log.error("❌ Renovación masiva '{}' interrumpida: {}", trabajo, e.getMessage());
+      } finally {
+        enCurso.remove(trabajo);
+      }
+    });
+    return consultar(trabajo);
+  }
+
+  /**
+   * Ejecuta (o reanuda) el trabajo en el hilo actual. Un trabajo ya completado no vuelve a renovar;
+   * para repetirlo hay que {@link #olvidar(String) olvidarlo} o usar otro nombre.
+   */
+  public ResultadoRenovacion renovar(String trabajo, CriterioRenovacion criterio) {
+    if (!reclamar(trabajo, criterio)) {
+      throw new IllegalStateException("El trabajo " + trabajo + " ya está en curso");
+    }
+    try {
+      return ejecutar(trabajo, criterio);
+    } finally {
+      enCurso.remove(trabajo);
+    }
+  }
+
+  public Optional<EstadoRenovacion> consultar(String trabajo) {
+    var progreso = puntos.get(trabajo);
+    var activo = enCurso.contains(trabajo);
+    if (progreso == null && !activo) {
+      return Optional.empty();
+    }
+    var actual = progreso != null ? progreso : Progreso.inicial(0);
+    return Optional.of(new EstadoRenovacion(trabajo, activo, actual.completado(), actual.ultimoId(),
+        actual.revisados(), actual.renovados(), actual.lotes(), errores.get(trabajo)));
+  }
+
+  /** Borra el punto de control del trabajo; la siguiente ejecución empieza de cero. */
+  public boolean olvidar(String trabajo) {
+    if (enCurso.contains(trabajo)) {
+      throw new IllegalStateException("El trabajo " + trabajo + " está en curso");
+    }
+    errores.remove(trabajo);
+    renovadosDelLote.remove(trabajo);
+    return puntos.remove(trabajo) != null;
+  }
+
+  // Marca el trabajo en curso; el criterio se valida después, para que nadie cambie el punto de control entre medio
+  private boolean reclamar(String trabajo, CriterioRenovacion criterio) {
+    if (trabajo == null || !NOMBRE_TRABAJO.matcher(trabajo).matches()) {
+      throw new IllegalArgumentException("Nombre de trabajo inválido: " + trabajo);
+    }
+    if (!enCurso.add(trabajo)) {
+      return false;
+    }
+    var punto = puntos.get(trabajo);
+    if (punto != null && punto.huella() != criterio.huella()) {
+      enCurso.remove(trabajo);
+      throw new IllegalArgumentException("El trabajo " + trabajo + " ya existe con otro criterio");
+    }
+    errores.remove(trabajo);
+    return true;
+  }
+
+  private ResultadoRenovacion ejecutar(String trabajo, CriterioRenovacion criterio) {
+    var inicio = System.nanoTime();
+    var progreso = puntos.getOrDefault(trabajo, Progreso.inicial(criterio.huella()));
+    var reanudadoDesde = progreso.ultimoId();
+    if (progreso.completado()) {
+      log.info("🔁 Renovación masiva '{}' ya completada ({} renovados), no se repite", trabajo, progreso.renovados());
+      return new ResultadoRenovacion(trabajo, 0, 0, 0, Duration.ZERO, reanudadoDesde);
+    }
+    if (reanudadoDesde > 0) {
+      log.info("🔁 Reanudando renovación masiva '{}' después del libro {}", trabajo, reanudadoDesde);
+    }
+
+    var yaRenovados = renovadosDelLote.computeIfAbsent(trabajo, nombre -> ConcurrentHashMap.newKeySet());
+    long revisados = 0;
+    long renovados = 0;
+    int lotes = 0;
+    try (var trabajadores = Executors.newFixedThreadPool(hilos)) {
+      long[] ids;
+      while ((ids = prestamosActivos.librosDesde(progreso.ultimoId(), tamanoLote)).length > 0) {
+        var lote = Arrays.stream(ids).boxed().toList();
+        var renovadosLote = renovarEnParalelo(lote, criterio, yaRenovados, trabajadores);
+        progreso = progreso.avanzar(lote.getLast(), lote.size(), renovadosLote);
+        puntos.put(trabajo, progreso);
+        // El lote quedó detrás del punto de control: ningún lote posterior vuelve a verlo
+        yaRenovados.clear();
+        revisados += lote.size();
+        renovados += renovadosLote;
+        lotes++;
+      }
+    }
+    puntos.put(trabajo, progreso.completar());
+    renovadosDelLote.remove(trabajo);
+
+    var resultado = new ResultadoRenovacion(trabajo, revisados, renovados, lotes,
+        Duration.ofNanos(System.nanoTime() - inicio), reanudadoDesde);
+    log.info("🔁 Renovación masiva '{}': {} de {} préstamos renovados en {} lotes, {} ms ({} préstamos/s)",
+        trabajo, renovados, revisados, lotes, resultado.duracion().toMillis(), Math.round(resultado.porSegundo()));
+    return resultado;
+  }
+
+  // Cada trabajador renueva un tramo contiguo del lote; el lote termina cuando terminan todos
+  private long renovarEnParalelo(List<Long> lote, CriterioRenovacion criterio, Set<Long> yaRenovados,
+                                 ExecutorService trabajadores) {
+    var tamanoTramo = Math.ceilDiv(lote.size(), hilos);
+    var tramos = new ArrayList<Future<Integer>>();
+    for (int desde = 0; desde < lote.size(); desde += tamanoTramo) {
+      var tramo = lote.subList(desde, Math.min(lote.size(), desde + tamanoTramo));
+      tramos.add(trabajadores.submit(() -> bibliotecaService.renovarPrestamos(tramo, criterio, yaRenovados).size()));
+    }
+    long renovados = 0;
+    for (var tramo : tramos) {
+      renovados += esperar(tramo);
+    }
+    return renovados;
+  }
+
+  private static int esperar(Future<Integer> tramo) {
+    try {
+      return tramo.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Renovación masiva interrumpida", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Error renovando un tramo del lote", e.getCause());
+    }
+  }
+
+  record Progreso(int huella, long ultimoId, long revisados, long renovados, int lotes, boolean completado) {
+
+    static Progreso inicial(int huella) {
+      return new Progreso(huella, 0, 0, 0, 0, false);
+    }
+
+    Progreso avanzar(long ultimoId, long revisados, long renovados) {
+      return new Progreso(huella, ultimoId, this.revisados + revisados, this.renovados + renovados, lotes + 1, false);
+    }
+
+    Progreso completar() {
+      return new Progreso(huella, ultimoId, revisados, renovados, lotes, true);
+    }
+  }
+}
\ No newline at end of file
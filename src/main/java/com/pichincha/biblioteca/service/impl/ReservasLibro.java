@@ -0,0 +1,145 @@
+package com.pichincha.biblioteca.service.impl;
+
+import com.pichincha.biblioteca.domain.Reserva;
+import com.pichincha.biblioteca.util.RuedaTemporizadores;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Listas de espera FIFO por libro y retenciones de los libros en estado RESERVADO.
+ * Cada lista es inmutable y se reemplaza con {@code compute}, así que consultar la posición
+ * de un usuario no bloquea. Las retenciones vencen con una {@link RuedaTemporizadores};
+ * {@link ModernBibliotecaService} las procesa y pasa el libro al siguiente de la lista.
+ *
+ * <p>Los cambios de un mismo libro (encolar, retener, terminar) se hacen con el libro
+ * bloqueado en el registro de préstamos, junto con el cambio de estado en la base de datos.
+ * Listas y retenciones viven en memoria, igual que los préstamos activos.
+ */
+@Component
+public class ReservasLibro {
+
+  private final Clock clock;
+  private final Duration retencion;
+  private final RuedaTemporizadores<Reserva> rueda;
+  private final Map<Long, List<String>> enEspera = new ConcurrentHashMap<>();
+  private final Map<Long, Retenida> retenidas = new ConcurrentHashMap<>();
+
+  @Autowired
+  public ReservasLibro(@Value("${biblioteca.reservas.tick:PT1M}") Duration tick,
+                       @Value("${biblioteca.reservas.retencion:P2D}") Duration retencion) {
+    this(Clock.systemDefaultZone(), tick, retencion);
+  }
+
+  ReservasLibro(Clock clock, Duration tick, Duration retencion) {
+    this.clock = clock;
+    this.retencion = retencion;
+    this.rueda = new RuedaTemporizadores<>(tick, clock.instant());
+  }
+
+  /**
+   * Agrega al usuario al final de la lista de espera del libro; si ya estaba, conserva su lugar.
+   * Devuelve su posición, contando desde 1.
+   */
+  public int encolar(Long libroId, String usuario) {
+    var cola = enEspera.compute(libroId, (id, actual) -> {
+      if (actual == null) {
+        return List.of(usuario);
+      }
+      if (actual.contains(usuario)) {
+        return actual;
+      }
+      var nueva = new ArrayList<>(actual);
+      nueva.add(usuario);
+      return List.copyOf(nueva);
+    });
+    return cola.indexOf(usuario) + 1;
+  }
+
+  public boolean quitar(Long libroId, String usuario) {
+    var quitado = new AtomicBoolean();
+    enEspera.computeIfPresent(libroId, (id, actual) -> {
+      var nueva = actual.stream().filter(enCola -> !enCola.equals(usuario)).toList();
+      quitado.set(nueva.size() < actual.size());
+      return nueva.isEmpty() ? null : nueva;
+    });
+    return quitado.get();
+  }
+
+  /** Posición del usuario en la lista de espera del libro, desde 1; 0 si no está. */
+  public int posicion(Long libroId, String usuario) {
+    return enEspera.getOrDefault(libroId, List.of()).indexOf(usuario) + 1;
+  }
+
+  public List<String> enEspera(Long libroId) {
+    return enEspera.getOrDefault(libroId, List.of());
+  }
+
+  public boolean hayEspera(Long libroId) {
+    return enEspera.containsKey(libroId);
+  }
+
+  /** Retiene el libro para el usuario durante el plazo de retención, reemplazando la anterior. */
+  public Reserva retener(Long libroId, String usuario) {
+    var reserva = Reserva.retenida(libroId, usuario, LocalDateTime.now(clock).plus(retencion));
+    var temporizador = rueda.programar(reserva, clock.instant().plus(retencion));
+    var anterior = retenidas.put(libroId, new Retenida(reserva, temporizador));
+    if (anterior != null) {
+      rueda.cancelar(anterior.temporizador());
+    }
+    return reserva;
+  }
+
+  /** Saca al primero de la lista de espera y le retiene el libro. */
+  public Optional<Reserva> retenerSiguiente(Long libroId) {
+    var siguiente = new AtomicReference<String>();
+    enEspera.computeIfPresent(libroId, (id, actual) -> {
+      siguiente.set(actual.getFirst());
+      return actual.size() == 1 ? null : List.copyOf(actual.subList(1, actual.size()));
+    });
+    return Optional.ofNullable(siguiente.get()).map(usuario -> retener(libroId, usuario));
+  }
+
+  public Optional<Reserva> retencion(Long libroId) {
+    return Optional.ofNullable(retenidas.get(libroId)).map(Retenida::reserva);
+  }
+
+  /**
+   * Termina la retención si sigue siendo la vigente del libro; devuelve {@code false} si ya
+   * había terminado (retirada, cancelada o reemplazada).
+   */
+  public boolean terminar(Reserva reserva) {
+    var actual = retenidas.get(reserva.libroId());
+    if (actual == null || actual.reserva() != reserva || !retenidas.remove(reserva.libroId(), actual)) {
+      return false;
+    }
+    rueda.cancelar(actual.temporizador());
+    return true;
+  }
+
+  /**
+   * Avanza la rueda y devuelve las retenciones vencidas hasta ahora. Siguen vigentes hasta
+   * que se terminen con {@link #terminar(Reserva)}.
+   */
+  public List<Reserva> vencidas() {
+    return rueda.avanzar(clock.instant());
+  }
+
+  public int retenciones() {
+    return retenidas.size();
+  }
+
+  private record Retenida(Reserva reserva, RuedaTemporizadores.Temporizador<Reserva> temporizador) {
+  }
+}
\ No newline at end of file
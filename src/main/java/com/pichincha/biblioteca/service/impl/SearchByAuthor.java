@@ -2,15 +2,18 @@ package com.pichincha.biblioteca.service.impl;
 
 import com.pichincha.biblioteca.domain.ILibro;
 import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
 import java.util.List;
 
 public class SearchByAuthor implements SearchStrategy {
 
   @Override
   public List<ILibro> buscar(List<ILibro> libros, String termino) {
+    var minusculas = termino.toLowerCase();
+    var coincideAutor = DiccionarioCadenas.memorizar(
+        autor -> autor.toLowerCase().contains(minusculas));
     return libros.stream()
-        .filter(libro -> libro.getAutor() != null && 
-                libro.getAutor().toLowerCase().contains(termino.toLowerCase()))
+        .filter(libro -> libro.getAutor() != null && coincideAutor.test(libro.getAutor()))
         .toList();
   }
 }
\ No newline at end of file
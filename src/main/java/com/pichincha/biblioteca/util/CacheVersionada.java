@@ -0,0 +1,74 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Memoriza un valor calculado junto con la versión de los datos de la que proviene.
+ * Mientras la versión no cambie, las lecturas devuelven el valor guardado sin recalcular.
+ *
+ * <p>{@link #obtenerRevalidando} implementa stale-while-revalidate: si la versión cambió
+ * devuelve de inmediato el último valor y lo recalcula en segundo plano (un solo cálculo
+ * a la vez). El valor se etiqueta con la versión leída <em>antes</em> de calcularlo, de modo
+ * que nunca queda marcado como más nuevo de lo que es. Es thread-safe.
+ */
+public final class CacheVersionada<V> {
+
+  private final AtomicReference<Entrada<V>> entrada = new AtomicReference<>();
+  private final AtomicBoolean revalidando = new AtomicBoolean();
+
+  public V obtener(long version, Supplier<V> calculo) {
+    var actual = entrada.get();
+    if (actual != null && actual.version() == version) {
+      return actual.valor();
+    }
+    var valor = calculo.get();
+    guardar(version, valor);
+    return valor;
+  }
+
+  /**
+   * Devuelve el último valor aunque esté desactualizado y, si lo está, programa su
+   * recálculo en {@code executor}. Solo la primera lectura (sin valor previo) espera el cálculo.
+   */
+  public V obtenerRevalidando(LongSupplier version, Supplier<V> calculo, Executor executor) {
+    var vigente = version.getAsLong();
+    var actual = entrada.get();
+    if (actual == null) {
+      return obtener(vigente, calculo);
+    }
+    if (actual.version() != vigente && revalidando.compareAndSet(false, true)) {
+      try {
+        executor.execute(() -> {
+          try {
+            var versionCalculo = version.getAsLong();
+            guardar(versionCalculo, calculo.get());
+          } finally {
+            revalidando.set(false);
+          }
+        });
+      } catch (RuntimeException e) {
+        revalidando.set(false);
+        throw e;
+      }
+    }
+    return actual.valor();
+  }
+
+  public void invalidar() {
+    entrada.set(null);
+  }
+
+  private void guardar(long version, V valor) {
+    var nueva = new Entrada<>(version, valor);
+    // Un cálculo lento no debe pisar uno hecho sobre una versión posterior
+    entrada.accumulateAndGet(nueva,
+        (anterior, candidata) -> anterior == null || candidata.version() >= anterior.version() ? candidata : anterior);
+  }
+
+  private record Entrada<V>(long version, V valor) {
+  }
+}
\ No newline at end of file
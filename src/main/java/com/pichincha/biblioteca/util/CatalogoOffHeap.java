@@ -0,0 +1,461 @@
+package com.pichincha.biblioteca.util;
+
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Catálogo fuera del heap usando la API Foreign Function & Memory (preview en Java 21).
+ * Cada libro ocupa un registro de ancho fijo en segmentos de memoria nativa y los textos
+ * se guardan en un heap de cadenas aparte. Las consultas devuelven vistas {@link ILibro}
+ * ligeras (flyweight) que leen directamente del segmento, de modo que el heap vivo
+ * no crece con el tamaño del catálogo.
+ *
+ * <p>Cada slot apunta a su registro actual a través de una tabla de slots, también nativa.
+ * Un registro publicado no se reescribe salvo el byte de estado: reemplazar un libro con otro
+ * contenido escribe un registro nuevo y después cambia el puntero del slot con semántica
+ * release/acquire, así que una lectura ve el registro anterior o el nuevo, nunca una mezcla.
+ * El registro y los textos reemplazados quedan sin uso hasta cerrar el catálogo
+ * ({@link #bytesDescartados()}); si el contenido no cambia solo se actualiza el estado.
+ *
+ * <p>Las escrituras se serializan internamente; las lecturas de slots no toman locks.
+ * Requiere ejecutar la JVM con {@code --enable-preview}.
+ */
+public final class CatalogoOffHeap implements AutoCloseable {
+
+  // Layout de un registro (40 bytes, alineado a 8)
+  private static final long OFFSET_ID = 0;
+  private static final long OFFSET_TITULO = 8;
+  private static final long OFFSET_AUTOR = 16;
+  private static final long OFFSET_LONGITUD_TITULO = 24;
+  private static final long OFFSET_LONGITUD_AUTOR = 28;
+  private static final long OFFSET_TIPO = 32;
+  private static final long OFFSET_FORMATO = 33;
+  private static final long OFFSET_ESTADO = 34;
+  private static final long TAMANO_REGISTRO = 40;
+
+  private static final int BITS_POR_BLOQUE = 16;
+  private static final int ELEMENTOS_POR_BLOQUE = 1 << BITS_POR_BLOQUE;
+  private static final int TAMANO_PAGINA_TEXTO = 1 << 20;
+
+  // Coordenadas (segmento, índice): registro actual de cada slot dentro de su bloque
+  private static final VarHandle REGISTRO_DE_SLOT = ValueLayout.JAVA_INT.arrayElementVarHandle();
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  private final Arena arena = Arena.ofShared();
+  private final LongLongHashMap indicePorId = new LongLongHashMap();
+  private final ReentrantReadWriteLock lockIndice = new ReentrantReadWriteLock();
+
+  private volatile MemorySegment[] bloquesSlots = new MemorySegment[0];
+  private volatile MemorySegment[] bloquesRegistros = new MemorySegment[0];
+  private volatile MemorySegment[] paginasTexto = new MemorySegment[0];
+  private volatile int tamano;
+  private volatile long bytesDescartados;
+  private int registrosUsados;
+  private MemorySegment paginaActual;
+  private long posicionPagina;
+
+  public static CatalogoOffHeap desde(List<? extends ILibro> libros) {
+    var catalogo = new CatalogoOffHeap();
+    libros.forEach(catalogo::agregar);
+    return catalogo;
+  }
+
+  public int tamano() {
+    return tamano;
+  }
+
+  /**
+   * Copia el libro al almacenamiento nativo y devuelve su número de slot.
+   * Si ya existe un libro con el mismo id se reemplaza en el mismo slot.
+   */
+  public int agregar(ILibro libro) {
+    return agregar(libro.getId(), libro.getTitulo(), libro.getAutor(),
+        libro.getTipo(), libro.getFormato(), libro.getEstado(), true);
+  }
+
+  public int agregar(LibroInfo libro) {
+    return agregar(libro.id(), libro.titulo(), libro.autor(), libro.tipo(), libro.formato(), libro.estado(), true);
+  }
+
+  /**
+   * Como {@link #agregar(LibroInfo)}, pero no toca un libro que ya está en el catálogo.
+   * Sirve para cargar una copia que puede ser más antigua que lo ya agregado.
+   */
+  public int agregarSiFalta(LibroInfo libro) {
+    return agregar(libro.id(), libro.titulo(), libro.autor(), libro.tipo(), libro.formato(), libro.estado(), false);
+  }
+
+  /**
+   * Cambia el estado del libro en su registro actual.
+   * Devuelve {@code false} si el libro no está en el catálogo.
+   */
+  public boolean actualizarEstado(long id, EstadoLibro estado) {
+    lockIndice.writeLock().lock();
+    try {
+      var slot = (int) indicePorId.get(id, -1);
+      if (slot < 0) {
+        return false;
+      }
+      escribirEstado(registroDe(slot), estado);
+      return true;
+    } finally {
+      lockIndice.writeLock().unlock();
+    }
+  }
+
+  public Optional<ILibro> buscarPorId(long id) {
+    int slot;
+    lockIndice.readLock().lock();
+    try {
+      slot = (int) indicePorId.get(id, -1);
+    } finally {
+      lockIndice.readLock().unlock();
+    }
+    return slot < 0 ? Optional.empty() : Optional.of(new Vista(slot));
+  }
+
+  public ILibro enSlot(int slot) {
+    if (slot < 0 || slot >= tamano) {
+      throw new IndexOutOfBoundsException("Slot fuera de rango: " + slot);
+    }
+    return new Vista(slot);
+  }
+
+  /**
+   * Recorre todo el catálogo reutilizando una única vista; el consumidor no debe
+   * conservar la referencia recibida más allá de cada llamada.
+   */
+  public void recorrer(Consumer<ILibro> consumidor) {
+    var cursor = new Vista(0);
+    var limite = tamano;
+    for (int slot = 0; slot < limite; slot++) {
+      cursor.slot = slot;
+      consumidor.accept(cursor);
+    }
+  }
+
+  /**
+   * Lista de solo lectura con los libros agregados hasta ahora, en orden de slot.
+   * Cada elemento es una vista nueva creada al pedirlo; la lista no copia el catálogo.
+   */
+  public List<ILibro> vistas() {
+    var limite = tamano;
+    return new Vistas(limite);
+  }
+
+  public long bytesReservados() {
+    return (long) bloquesSlots.length * ELEMENTOS_POR_BLOQUE * Integer.BYTES
+        + (long) bloquesRegistros.length * ELEMENTOS_POR_BLOQUE * TAMANO_REGISTRO
+        + Arrays.stream(paginasTexto).mapToLong(MemorySegment::byteSize).sum();
+  }
+
+  /** Bytes de registros y textos reemplazados que ya no son alcanzables desde ningún slot. */
+  public long bytesDescartados() {
+    return bytesDescartados;
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private int agregar(Long id, String titulo, String autor, TipoLibro tipo, FormatoLibro formato,
+                      EstadoLibro estado, boolean reemplazar) {
+    if (id == null) {
+      throw new IllegalArgumentException("Solo se pueden almacenar libros persistidos (con id)");
+    }
+    var bytesTitulo = titulo.getBytes(StandardCharsets.UTF_8);
+    var bytesAutor = autor.getBytes(StandardCharsets.UTF_8);
+
+    lockIndice.writeLock().lock();
+    try {
+      var existente = (int) indicePorId.get(id, -1);
+      if (existente < 0) {
+        var slot = tamano;
+        var registro = escribirRegistro(id, bytesTitulo, bytesAutor, tipo, formato, estado, -1);
+        asegurarCapacidadSlots(slot);
+        REGISTRO_DE_SLOT.setRelease(bloqueSlots(slot), (long) (slot & (ELEMENTOS_POR_BLOQUE - 1)), registro);
+        indicePorId.put(id, slot);
+        tamano = slot + 1;
+        return slot;
+      }
+      if (!reemplazar) {
+        return existente;
+      }
+
+      var anterior = registroDe(existente);
+      if (mismoContenido(anterior, bytesTitulo, bytesAutor, tipo, formato)) {
+        escribirEstado(anterior, estado);
+        return existente;
+      }
+      // El registro anterior queda intacto para quien lo esté leyendo; el slot pasa al nuevo
+      var registro = escribirRegistro(id, bytesTitulo, bytesAutor, tipo, formato, estado, anterior);
+      REGISTRO_DE_SLOT.setRelease(bloqueSlots(existente), (long) (existente & (ELEMENTOS_POR_BLOQUE - 1)), registro);
+      bytesDescartados += TAMANO_REGISTRO + textoDescartado(anterior, registro);
+      return existente;
+    } finally {
+      lockIndice.writeLock().unlock();
+    }
+  }
+
+  private void asegurarCapacidadSlots(int slot) {
+    var bloque = slot >>> BITS_POR_BLOQUE;
+    if (bloque < bloquesSlots.length) {
+      return;
+    }
+    var nuevos = Arrays.copyOf(bloquesSlots, bloque + 1);
+    nuevos[bloque] = arena.allocate((long) ELEMENTOS_POR_BLOQUE * Integer.BYTES, Integer.BYTES);
+    bloquesSlots = nuevos;
+  }
+
+  private void asegurarCapacidadRegistros(int registro) {
+    var bloque = registro >>> BITS_POR_BLOQUE;
+    if (bloque < bloquesRegistros.length) {
+      return;
+    }
+    var nuevos = Arrays.copyOf(bloquesRegistros, bloque + 1);
+    nuevos[bloque] = arena.allocate(ELEMENTOS_POR_BLOQUE * TAMANO_REGISTRO, Long.BYTES);
+    bloquesRegistros = nuevos;
+  }
+
+  /**
+   * Escribe un registro nuevo. Los textos iguales a los del registro {@code anterior}
+   * (si hay) se reutilizan en lugar de copiarse otra vez al heap de cadenas.
+   */
+  private int escribirRegistro(long id, byte[] titulo, byte[] autor, TipoLibro tipo, FormatoLibro formato,
+                               EstadoLibro estado, int anterior) {
+    var registro = registrosUsados;
+    asegurarCapacidadRegistros(registro);
+    var segmento = bloqueRegistros(registro);
+    var base = base(registro);
+
+    segmento.set(ValueLayout.JAVA_LONG, base + OFFSET_ID, id);
+    segmento.set(ValueLayout.JAVA_LONG, base + OFFSET_TITULO,
+        mismoTexto(anterior, OFFSET_TITULO, OFFSET_LONGITUD_TITULO, titulo)
+            ? bloqueRegistros(anterior).get(ValueLayout.JAVA_LONG, base(anterior) + OFFSET_TITULO)
+            : guardarTexto(titulo));
+    segmento.set(ValueLayout.JAVA_LONG, base + OFFSET_AUTOR,
+        mismoTexto(anterior, OFFSET_AUTOR, OFFSET_LONGITUD_AUTOR, autor)
+            ? bloqueRegistros(anterior).get(ValueLayout.JAVA_LONG, base(anterior) + OFFSET_AUTOR)
+            : guardarTexto(autor));
+    segmento.set(ValueLayout.JAVA_INT, base + OFFSET_LONGITUD_TITULO, titulo.length);
+    segmento.set(ValueLayout.JAVA_INT, base + OFFSET_LONGITUD_AUTOR, autor.length);
+    segmento.set(ValueLayout.JAVA_BYTE, base + OFFSET_TIPO, (byte) tipo.ordinal());
+    segmento.set(ValueLayout.JAVA_BYTE, base + OFFSET_FORMATO, (byte) formato.ordinal());
+    segmento.set(ValueLayout.JAVA_BYTE, base + OFFSET_ESTADO, (byte) estado.ordinal());
+    registrosUsados = registro + 1;
+    return registro;
+  }
+
+  private void escribirEstado(int registro, EstadoLibro estado) {
+    bloqueRegistros(registro).set(ValueLayout.JAVA_BYTE, base(registro) + OFFSET_ESTADO, (byte) estado.ordinal());
+  }
+
+  private boolean mismoContenido(int registro, byte[] titulo, byte[] autor, TipoLibro tipo, FormatoLibro formato) {
+    var segmento = bloqueRegistros(registro);
+    var base = base(registro);
+    return segmento.get(ValueLayout.JAVA_BYTE, base + OFFSET_TIPO) == tipo.ordinal()
+        && segmento.get(ValueLayout.JAVA_BYTE, base + OFFSET_FORMATO) == formato.ordinal()
+        && mismoTexto(registro, OFFSET_TITULO, OFFSET_LONGITUD_TITULO, titulo)
+        && mismoTexto(registro, OFFSET_AUTOR, OFFSET_LONGITUD_AUTOR, autor);
+  }
+
+  private boolean mismoTexto(int registro, long offsetTexto, long offsetLongitud, byte[] bytes) {
+    if (registro < 0) {
+      return false;
+    }
+    var segmento = bloqueRegistros(registro);
+    var base = base(registro);
+    if (segmento.get(ValueLayout.JAVA_INT, base + offsetLongitud) != bytes.length) {
+      return false;
+    }
+    return MemorySegment.mismatch(texto(segmento.get(ValueLayout.JAVA_LONG, base + offsetTexto), bytes.length),
+        0, bytes.length, MemorySegment.ofArray(bytes), 0, bytes.length) == -1;
+  }
+
+  private long textoDescartado(int anterior, int nuevo) {
+    var descartado = 0L;
+    if (referencia(anterior, OFFSET_TITULO) != referencia(nuevo, OFFSET_TITULO)) {
+      descartado += longitud(anterior, OFFSET_LONGITUD_TITULO);
+    }
+    if (referencia(anterior, OFFSET_AUTOR) != referencia(nuevo, OFFSET_AUTOR)) {
+      descartado += longitud(anterior, OFFSET_LONGITUD_AUTOR);
+    }
+    return descartado;
+  }
+
+  private long referencia(int registro, long offset) {
+    return bloqueRegistros(registro).get(ValueLayout.JAVA_LONG, base(registro) + offset);
+  }
+
+  private int longitud(int registro, long offset) {
+    return bloqueRegistros(registro).get(ValueLayout.JAVA_INT, base(registro) + offset);
+  }
+
+  /**
+   * Copia los bytes al heap de cadenas y devuelve su referencia: página en los 32 bits
+   * altos y posición dentro de la página en los bajos.
+   */
+  private long guardarTexto(byte[] bytes) {
+    if (paginaActual == null || posicionPagina + bytes.length > paginaActual.byteSize()) {
+      paginaActual = arena.allocate(Math.max(TAMANO_PAGINA_TEXTO, bytes.length), 1);
+      var paginas = Arrays.copyOf(paginasTexto, paginasTexto.length + 1);
+      paginas[paginas.length - 1] = paginaActual;
+      paginasTexto = paginas;
+      posicionPagina = 0;
+    }
+    MemorySegment.copy(bytes, 0, paginaActual, ValueLayout.JAVA_BYTE, posicionPagina, bytes.length);
+    var referencia = ((long) (paginasTexto.length - 1) << 32) | posicionPagina;
+    posicionPagina += bytes.length;
+    return referencia;
+  }
+
+  private MemorySegment texto(long referencia, int longitud) {
+    return paginasTexto[(int) (referencia >>> 32)].asSlice(referencia & 0xFFFF_FFFFL, longitud);
+  }
+
+  private String leerTexto(long referencia, int longitud) {
+    return new String(texto(referencia, longitud).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+  }
+
+  private int registroDe(int slot) {
+    return (int) REGISTRO_DE_SLOT.getAcquire(bloqueSlots(slot), (long) (slot & (ELEMENTOS_POR_BLOQUE - 1)));
+  }
+
+  private MemorySegment bloqueSlots(int slot) {
+    return bloquesSlots[slot >>> BITS_POR_BLOQUE];
+  }
+
+  private MemorySegment bloqueRegistros(int registro) {
+    return bloquesRegistros[registro >>> BITS_POR_BLOQUE];
+  }
+
+  private static long base(int registro) {
+    return (registro & (ELEMENTOS_POR_BLOQUE - 1)) * TAMANO_REGISTRO;
+  }
+
+  private final class Vistas extends AbstractList<ILibro> implements RandomAccess {
+    private final int tamano;
+
+    private Vistas(int tamano) {
+      this.tamano = tamano;
+    }
+
+    @Override
+    public ILibro get(int indice) {
+      if (indice < 0 || indice >= tamano) {
+        throw new IndexOutOfBoundsException("Slot fuera de rango: " + indice);
+      }
+      return new Vista(indice);
+    }
+
+    @Override
+    public int size() {
+      return tamano;
+    }
+  }
+
+  /**
+   * Vista flyweight sobre un slot: solo guarda el número de slot. Cada getter lee el
+   * registro vigente del slot, así que tras un reemplazo la vista muestra el contenido nuevo.
+   * Dos vistas son iguales si apuntan al mismo slot del mismo catálogo.
+   */
+  private final class Vista implements ILibro {
+    private int slot;
+
+    private Vista(int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public Long getId() {
+      var registro = registroDe(slot);
+      return bloqueRegistros(registro).get(ValueLayout.JAVA_LONG, base(registro) + OFFSET_ID);
+    }
+
+    @Override
+    public String getTitulo() {
+      var registro = registroDe(slot);
+      return leerTexto(referencia(registro, OFFSET_TITULO), longitud(registro, OFFSET_LONGITUD_TITULO));
+    }
+
+    @Override
+    public String getAutor() {
+      var registro = registroDe(slot);
+      return leerTexto(referencia(registro, OFFSET_AUTOR), longitud(registro, OFFSET_LONGITUD_AUTOR));
+    }
+
+    @Override
+    public TipoLibro getTipo() {
+      var registro = registroDe(slot);
+      return TIPOS[bloqueRegistros(registro).get(ValueLayout.JAVA_BYTE, base(registro) + OFFSET_TIPO)];
+    }
+
+    @Override
+    public FormatoLibro getFormato() {
+      var registro = registroDe(slot);
+      return FORMATOS[bloqueRegistros(registro).get(ValueLayout.JAVA_BYTE, base(registro) + OFFSET_FORMATO)];
+    }
+
+    @Override
+    public EstadoLibro getEstado() {
+      var registro = registroDe(slot);
+      return ESTADOS[bloqueRegistros(registro).get(ValueLayout.JAVA_BYTE, base(registro) + OFFSET_ESTADO)];
+    }
+
+    @Override
+    public void setEstado(EstadoLibro estado) {
+      lockIndice.writeLock().lock();
+      try {
+        escribirEstado(registroDe(slot), estado);
+      } finally {
+        lockIndice.writeLock().unlock();
+      }
+    }
+
+    @Override
+    public String getInfo() {
+      return "Libro[id=%d, titulo='%s', autor='%s', tipo=%s, formato=%s, estado=%s]"
+          .formatted(getId(), getTitulo(), getAutor(), getTipo().getDescripcion(),
+              getFormato().getDescripcion(), getEstado().getDescripcion());
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+      return otro instanceof Vista vista && vista.slot == slot && vista.catalogo() == catalogo();
+    }
+
+    @Override
+    public int hashCode() {
+      return slot;
+    }
+
+    @Override
+    public String toString() {
+      return getInfo();
+    }
+
+    private CatalogoOffHeap catalogo() {
+      return CatalogoOffHeap.this;
+    }
+  }
+}
\ No newline at end of file
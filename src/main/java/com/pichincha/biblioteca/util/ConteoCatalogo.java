@@ -0,0 +1,151 @@
+package com.pichincha.biblioteca.util;
+
+import com.pichincha.biblioteca.domain.ConteoLibros;
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Conteo del catálogo por tipo, formato y estado en una sola pasada.
+ * Internamente guarda un contador por cada combinación tipo × formato × estado,
+ * así cualquier distribución (o cruce) se deriva sin volver a recorrer los libros.
+ * Los acumuladores parciales se combinan sumando arreglos, por lo que el
+ * {@link #collector()} funciona igual en streams paralelos.
+ */
+public final class ConteoCatalogo {
+
+  /** A partir de este tamaño {@link #de(List)} recorre la lista en paralelo. */
+  public static final int UMBRAL_PARALELO = 50_000;
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  private final int[] conteos = new int[TIPOS.length * FORMATOS.length * ESTADOS.length];
+  private int total;
+
+  public static Collector<ILibro, ConteoCatalogo, ConteoCatalogo> collector() {
+    return Collector.of(
+        ConteoCatalogo::new,
+        ConteoCatalogo::agregar,
+        ConteoCatalogo::combinar,
+        Collector.Characteristics.UNORDERED,
+        Collector.Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  public static ConteoCatalogo de(List<? extends ILibro> libros) {
+    var stream = libros.size() >= UMBRAL_PARALELO ? libros.parallelStream() : libros.stream();
+    return stream.collect(collector());
+  }
+
+  /**
+   * Arma el conteo a partir de agregados ya calculados (por ejemplo, un {@code GROUP BY}
+   * en la base de datos), sin recorrer los libros.
+   */
+  public static ConteoCatalogo desde(List<ConteoLibros> agregados) {
+    var conteo = new ConteoCatalogo();
+    agregados.forEach(agregado -> conteo.agregar(
+        agregado.tipo(), agregado.formato(), agregado.estado(), Math.toIntExact(agregado.cantidad())));
+    return conteo;
+  }
+
+  public void agregar(ILibro libro) {
+    agregar(libro.getTipo(), libro.getFormato(), libro.getEstado(), 1);
+  }
+
+  public void agregar(TipoLibro tipo, FormatoLibro formato, EstadoLibro estado, int cantidad) {
+    conteos[indice(tipo.ordinal(), formato.ordinal(), estado.ordinal())] += cantidad;
+    total += cantidad;
+  }
+
+  public ConteoCatalogo combinar(ConteoCatalogo otro) {
+    for (int i = 0; i < conteos.length; i++) {
+      conteos[i] += otro.conteos[i];
+    }
+    total += otro.total;
+    return this;
+  }
+
+  public int total() {
+    return total;
+  }
+
+  public int cantidad(TipoLibro tipo, FormatoLibro formato, EstadoLibro estado) {
+    return conteos[indice(tipo.ordinal(), formato.ordinal(), estado.ordinal())];
+  }
+
+  public int cantidad(EstadoLibro estado) {
+    var suma = 0;
+    for (int t = 0; t < TIPOS.length; t++) {
+      for (int f = 0; f < FORMATOS.length; f++) {
+        suma += conteos[indice(t, f, estado.ordinal())];
+      }
+    }
+    return suma;
+  }
+
+  /**
+   * Distribución por tipo; como {@code groupingBy}, solo incluye los tipos presentes.
+   */
+  public Map<TipoLibro, Integer> porTipo() {
+    return porTipoExcluyendo(null);
+  }
+
+  /**
+   * Distribución por tipo sin contar los libros en el estado indicado.
+   */
+  public Map<TipoLibro, Integer> porTipoExcluyendo(EstadoLibro excluido) {
+    var porTipo = new int[TIPOS.length];
+    for (int t = 0; t < TIPOS.length; t++) {
+      for (int f = 0; f < FORMATOS.length; f++) {
+        for (int e = 0; e < ESTADOS.length; e++) {
+          if (excluido == null || e != excluido.ordinal()) {
+            porTipo[t] += conteos[indice(t, f, e)];
+          }
+        }
+      }
+    }
+    return aMapa(TipoLibro.class, TIPOS, porTipo);
+  }
+
+  public Map<FormatoLibro, Integer> porFormato() {
+    var porFormato = new int[FORMATOS.length];
+    for (int t = 0; t < TIPOS.length; t++) {
+      for (int f = 0; f < FORMATOS.length; f++) {
+        for (int e = 0; e < ESTADOS.length; e++) {
+          porFormato[f] += conteos[indice(t, f, e)];
+        }
+      }
+    }
+    return aMapa(FormatoLibro.class, FORMATOS, porFormato);
+  }
+
+  public Map<EstadoLibro, Integer> porEstado() {
+    var porEstado = new int[ESTADOS.length];
+    for (int e = 0; e < ESTADOS.length; e++) {
+      porEstado[e] = cantidad(ESTADOS[e]);
+    }
+    return aMapa(EstadoLibro.class, ESTADOS, porEstado);
+  }
+
+  private static int indice(int tipo, int formato, int estado) {
+    return (tipo * FORMATOS.length + formato) * ESTADOS.length + estado;
+  }
+
+  private static <E extends Enum<E>> Map<E, Integer> aMapa(Class<E> clase, E[] valores, int[] cantidades) {
+    var mapa = new EnumMap<E, Integer>(clase);
+    for (int i = 0; i < valores.length; i++) {
+      if (cantidades[i] > 0) {
+        mapa.put(valores[i], cantidades[i]);
+      }
+    }
+    return mapa;
+  }
+}
\ No newline at end of file
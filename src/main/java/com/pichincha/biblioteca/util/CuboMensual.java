@@ -0,0 +1,300 @@
+package com.pichincha.biblioteca.util;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+
+/**
+ * Cubo OLAP denso de contadores pre-agregados: una celda por combinación de coordenadas
+ * (normalmente ordinales de enums) y por mes calendario. Cada mes es un arreglo de
+ * {@code long} indexado por celda que se crea la primera vez que se usa; los meses se
+ * extienden hacia atrás o hacia adelante según llegan los datos.
+ *
+ * <p>Sumar es lock-free (un incremento atómico) salvo al estrenar un mes. Las consultas
+ * seleccionan valores por dimensión con máscaras de bits ({@link #TODOS} = sin filtro) y un
+ * rango de meses, y cuestan O(meses × celdas) sin tocar el catálogo. Cada contador es
+ * exacto; una consulta concurrente con escrituras puede ver algunas y otras no.
+ *
+ * <p>{@link #serializar()} produce un formato compacto (solo celdas distintas de cero, en
+ * varint) con checksum CRC32.
+ */
+public final class CuboMensual {
+
+  /** Máscara que selecciona todos los valores de una dimensión. */
+  public static final long TODOS = -1L;
+
+  static final int MAGIC = 0x4355424F; // "CUBO"
+  static final short VERSION = 1;
+  private static final int MAX_VARLONG = 10;
+
+  private final int[] dimensiones;
+  private final int celdas;
+  private volatile Meses meses;
+
+  public CuboMensual(int... dimensiones) {
+    var celdas = 1;
+    for (var tamano : dimensiones) {
+      if (tamano < 1 || tamano > Long.SIZE) {
+        throw new IllegalArgumentException("Cada dimensión debe tener entre 1 y 64 valores");
+      }
+      celdas = Math.multiplyExact(celdas, tamano);
+    }
+    this.dimensiones = dimensiones.clone();
+    this.celdas = celdas;
+    this.meses = new Meses(null, new AtomicLongArray[0]);
+  }
+
+  /** Índice de la celda con esas coordenadas, para reutilizarlo en {@link #sumar(int, YearMonth, long)}. */
+  public int celda(int... coordenadas) {
+    if (coordenadas.length != dimensiones.length) {
+      throw new IllegalArgumentException("Se esperaban %d coordenadas".formatted(dimensiones.length));
+    }
+    var celda = 0;
+    for (int d = 0; d < dimensiones.length; d++) {
+      if (coordenadas[d] < 0 || coordenadas[d] >= dimensiones[d]) {
+        throw new IndexOutOfBoundsException("Coordenada %d fuera de rango en la dimensión %d"
+            .formatted(coordenadas[d], d));
+      }
+      celda = celda * dimensiones[d] + coordenadas[d];
+    }
+    return celda;
+  }
+
+  public void sumar(int celda, YearMonth mes, long delta) {
+    Objects.checkIndex(celda, celdas);
+    var actuales = meses;
+    var posicion = actuales.posicion(mes);
+    var contadores = posicion >= 0 && posicion < actuales.contadores.length ? actuales.contadores[posicion] : null;
+    if (contadores == null) {
+      contadores = estrenar(mes);
+    }
+    contadores.addAndGet(celda, delta);
+  }
+
+  /** Suma de las celdas seleccionadas en los meses {@code desde}..{@code hasta} (null = sin límite). */
+  public long total(long[] mascaras, YearMonth desde, YearMonth hasta) {
+    var seleccionadas = seleccionar(mascaras);
+    var total = 0L;
+    var actuales = meses;
+    for (int m = actuales.inicio(desde); m < actuales.fin(hasta); m++) {
+      var contadores = actuales.contadores[m];
+      if (contadores != null) {
+        for (var celda : seleccionadas) {
+          total += contadores.get(celda);
+        }
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Roll-up sobre una dimensión: totales de las celdas seleccionadas agrupados por el valor
+   * de {@code dimension}.
+   */
+  public long[] agrupar(int dimension, long[] mascaras, YearMonth desde, YearMonth hasta) {
+    var seleccionadas = seleccionar(mascaras);
+    var divisor = 1;
+    for (int d = dimension + 1; d < dimensiones.length; d++) {
+      divisor *= dimensiones[d];
+    }
+    var grupos = new long[dimensiones[dimension]];
+    var actuales = meses;
+    for (int m = actuales.inicio(desde); m < actuales.fin(hasta); m++) {
+      var contadores = actuales.contadores[m];
+      if (contadores != null) {
+        for (var celda : seleccionadas) {
+          grupos[celda / divisor % dimensiones[dimension]] += contadores.get(celda);
+        }
+      }
+    }
+    return grupos;
+  }
+
+  /** Totales de las celdas seleccionadas por mes, solo para los meses con datos. */
+  public SortedMap<YearMonth, Long> porMes(long[] mascaras, YearMonth desde, YearMonth hasta) {
+    var seleccionadas = seleccionar(mascaras);
+    var porMes = new TreeMap<YearMonth, Long>();
+    var actuales = meses;
+    for (int m = actuales.inicio(desde); m < actuales.fin(hasta); m++) {
+      var contadores = actuales.contadores[m];
+      if (contadores != null) {
+        var total = 0L;
+        for (var celda : seleccionadas) {
+          total += contadores.get(celda);
+        }
+        porMes.put(actuales.origen.plusMonths(m), total);
+      }
+    }
+    return porMes;
+  }
+
+  public synchronized void limpiar() {
+    meses = new Meses(null, new AtomicLongArray[0]);
+  }
+
+  /**
+   * Formato: magic, versión, dimensiones, mes de origen y cantidad de meses; por cada mes la
+   * cantidad de celdas no nulas y pares (salto de celda, valor con zigzag) en varint; al
+   * final el CRC32 de todo lo anterior.
+   */
+  public byte[] serializar() {
+    var actuales = meses;
+    var buffer = ByteBuffer.allocate(4 + 2 + 4 + 4 + (1 + dimensiones.length + 3) * MAX_VARLONG
+            + actuales.contadores.length * (1 + celdas * 2) * MAX_VARLONG)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putShort(VERSION);
+    LibroCodec.escribirVarLong(buffer, dimensiones.length);
+    for (var tamano : dimensiones) {
+      LibroCodec.escribirVarLong(buffer, tamano);
+    }
+    LibroCodec.escribirVarLongConSigno(buffer, actuales.origen == null ? 0 : mesEpoch(actuales.origen));
+    LibroCodec.escribirVarLong(buffer, actuales.contadores.length);
+    for (var contadores : actuales.contadores) {
+      var valores = new long[celdas];
+      var noNulas = 0;
+      for (int c = 0; c < celdas; c++) {
+        valores[c] = contadores == null ? 0 : contadores.get(c);
+        if (valores[c] != 0) {
+          noNulas++;
+        }
+      }
+      LibroCodec.escribirVarLong(buffer, noNulas);
+      var anterior = -1;
+      for (int c = 0; c < celdas; c++) {
+        if (valores[c] != 0) {
+          LibroCodec.escribirVarLong(buffer, c - anterior - 1);
+          LibroCodec.escribirVarLongConSigno(buffer, valores[c]);
+          anterior = c;
+        }
+      }
+    }
+    var crc = new CRC32();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * Reconstruye un cubo serializado; falla con {@link IllegalArgumentException} si el
+   * contenido está corrupto o tiene otras dimensiones que las esperadas.
+   */
+  public static CuboMensual deserializar(byte[] datos, int... dimensionesEsperadas) {
+    if (datos.length < 4 + 2 + 4) {
+      throw new IllegalArgumentException("Cubo serializado incompleto");
+    }
+    var buffer = ByteBuffer.wrap(datos).order(ByteOrder.LITTLE_ENDIAN);
+    var crc = new CRC32();
+    crc.update(datos, 0, datos.length - 4);
+    if (buffer.getInt(datos.length - 4) != (int) crc.getValue()) {
+      throw new IllegalArgumentException("Checksum del cubo no coincide");
+    }
+    if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+      throw new IllegalArgumentException("Formato de cubo no soportado");
+    }
+    try {
+      var dimensiones = new int[Math.toIntExact(LibroCodec.leerVarLong(buffer))];
+      for (int d = 0; d < dimensiones.length; d++) {
+        dimensiones[d] = Math.toIntExact(LibroCodec.leerVarLong(buffer));
+      }
+      if (!Arrays.equals(dimensiones, dimensionesEsperadas)) {
+        throw new IllegalArgumentException("Dimensiones del cubo distintas: " + Arrays.toString(dimensiones));
+      }
+      var cubo = new CuboMensual(dimensiones);
+      var origen = YearMonth.of(1970, 1).plusMonths(LibroCodec.leerVarLongConSigno(buffer));
+      var cantidadMeses = Math.toIntExact(LibroCodec.leerVarLong(buffer));
+      var contadores = new AtomicLongArray[cantidadMeses];
+      for (int m = 0; m < cantidadMeses; m++) {
+        var noNulas = LibroCodec.leerVarLong(buffer);
+        if (noNulas == 0) {
+          continue;
+        }
+        var valores = new long[cubo.celdas];
+        var celda = -1;
+        for (long i = 0; i < noNulas; i++) {
+          celda += (int) LibroCodec.leerVarLong(buffer) + 1;
+          valores[celda] = LibroCodec.leerVarLongConSigno(buffer);
+        }
+        contadores[m] = new AtomicLongArray(valores);
+      }
+      cubo.meses = new Meses(cantidadMeses == 0 ? null : origen, contadores);
+      return cubo;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException | ArithmeticException e) {
+      throw new IllegalArgumentException("Cubo serializado corrupto", e);
+    }
+  }
+
+  private synchronized AtomicLongArray estrenar(YearMonth mes) {
+    var actuales = meses;
+    if (actuales.origen == null) {
+      actuales = new Meses(mes, new AtomicLongArray[1]);
+    }
+    var posicion = actuales.posicion(mes);
+    if (posicion < 0) {
+      // Mes anterior al origen: se desplazan los meses existentes
+      var contadores = new AtomicLongArray[actuales.contadores.length - posicion];
+      System.arraycopy(actuales.contadores, 0, contadores, -posicion, actuales.contadores.length);
+      actuales = new Meses(mes, contadores);
+      posicion = 0;
+    } else if (posicion >= actuales.contadores.length) {
+      actuales = new Meses(actuales.origen, Arrays.copyOf(actuales.contadores,
+          Math.max(posicion + 1, actuales.contadores.length + 12)));
+    }
+    if (actuales.contadores[posicion] == null) {
+      actuales.contadores[posicion] = new AtomicLongArray(celdas);
+    }
+    meses = actuales;
+    return actuales.contadores[posicion];
+  }
+
+  private int[] seleccionar(long[] mascaras) {
+    if (mascaras.length != dimensiones.length) {
+      throw new IllegalArgumentException("Se esperaba una máscara por dimensión");
+    }
+    var seleccionadas = new int[celdas];
+    var cantidad = 0;
+    for (int celda = 0; celda < celdas; celda++) {
+      var resto = celda;
+      var incluida = true;
+      for (int d = dimensiones.length - 1; d >= 0 && incluida; d--) {
+        incluida = (mascaras[d] & (1L << (resto % dimensiones[d]))) != 0;
+        resto /= dimensiones[d];
+      }
+      if (incluida) {
+        seleccionadas[cantidad++] = celda;
+      }
+    }
+    return Arrays.copyOf(seleccionadas, cantidad);
+  }
+
+  private static long mesEpoch(YearMonth mes) {
+    return (mes.getYear() - 1970L) * 12 + mes.getMonthValue() - 1;
+  }
+
+  /**
+   * Meses con datos desde {@code origen}; los arreglos de contadores se comparten entre
+   * versiones y solo cambian de referencia al crecer.
+   */
+  private record Meses(YearMonth origen, AtomicLongArray[] contadores) {
+
+    int posicion(YearMonth mes) {
+      return origen == null ? -1 : (int) (mesEpoch(mes) - mesEpoch(origen));
+    }
+
+    int inicio(YearMonth desde) {
+      return desde == null || origen == null ? 0 : Math.max(0, posicion(desde));
+    }
+
+    int fin(YearMonth hasta) {
+      return hasta == null || origen == null
+          ? contadores.length
+          : Math.min(contadores.length, posicion(hasta) + 1);
+    }
+  }
+}
\ No newline at end of file
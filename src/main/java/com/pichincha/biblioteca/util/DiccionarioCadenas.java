@@ -0,0 +1,101 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Diccionario que asigna un código {@code int} estable a cada cadena distinta.
+ * Permite compartir una única instancia por valor (por ejemplo, un autor repetido en
+ * miles de libros) y trabajar con códigos en lugar de cadenas en agrupaciones y búsquedas.
+ * Los códigos son densos (0, 1, 2...) y nunca se reasignan. Es thread-safe.
+ *
+ * <p>Un diccionario crece con cada valor distinto que se le pasa, así que no hay uno global:
+ * el de autores del catálogo es un bean que vive lo que el contexto de Spring, y lo que solo
+ * necesita códigos durante una consulta usa uno propio que se descarta con ella.
+ */
+public final class DiccionarioCadenas {
+
+  private final Map<String, Integer> codigos = new ConcurrentHashMap<>();
+  private volatile String[] valores = new String[64];
+  private volatile int tamano;
+
+  public int tamano() {
+    return tamano;
+  }
+
+  /**
+   * Devuelve el código de la cadena, registrándola si aún no existe.
+   */
+  public int codificar(String valor) {
+    var codigo = codigos.get(valor);
+    return codigo != null ? codigo : registrar(valor);
+  }
+
+  /**
+   * Devuelve el código de la cadena o -1 si nunca fue registrada.
+   */
+  public int codigoDe(String valor) {
+    var codigo = codigos.get(valor);
+    return codigo != null ? codigo : -1;
+  }
+
+  public String decodificar(int codigo) {
+    if (codigo < 0 || codigo >= tamano) {
+      throw new IndexOutOfBoundsException("Código fuera de rango: " + codigo);
+    }
+    return valores[codigo];
+  }
+
+  /**
+   * Devuelve la instancia compartida equivalente a {@code valor} ({@code null} si es nulo).
+   */
+  public String canonica(String valor) {
+    return valor == null ? null : decodificar(codificar(valor));
+  }
+
+  /**
+   * Envuelve una condición sobre cadenas para evaluarla una sola vez por código:
+   * con muchos libros y pocos autores distintos, el costo de la condición
+   * (minúsculas, contains...) deja de depender del número de libros.
+   * El predicado devuelto es válido para una sola consulta.
+   */
+  public Predicate<String> filtroMemorizado(Predicate<String> condicion) {
+    // Dos bits por código; los bitsets solo crecen hasta el mayor código consultado
+    var evaluados = new BitSet();
+    var cumplen = new BitSet();
+    return valor -> {
+      var codigo = codificar(valor);
+      if (!evaluados.get(codigo)) {
+        evaluados.set(codigo);
+        cumplen.set(codigo, condicion.test(valores[codigo]));
+      }
+      return cumplen.get(codigo);
+    };
+  }
+
+  /**
+   * {@link #filtroMemorizado(Predicate)} sobre un diccionario propio de la consulta: la memoria
+   * depende de los valores distintos que la consulta recorre y se libera con ella.
+   */
+  public static Predicate<String> memorizar(Predicate<String> condicion) {
+    return new DiccionarioCadenas().filtroMemorizado(condicion);
+  }
+
+  private synchronized int registrar(String valor) {
+    var existente = codigos.get(valor);
+    if (existente != null) {
+      return existente;
+    }
+    var codigo = tamano;
+    if (codigo == valores.length) {
+      valores = Arrays.copyOf(valores, codigo * 2);
+    }
+    valores[codigo] = valor;
+    tamano = codigo + 1;
+    codigos.put(valor, codigo);
+    return codigo;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de valores enteros no negativos en memoria fija, al estilo HdrHistogram.
+ * Los valores menores que {@code 2^bits} se cuentan exactos; por encima, cada potencia
+ * de dos se divide en {@code 2^(bits-1)} cubetas lineales, así que el error relativo de
+ * cualquier percentil es como máximo {@code 1 / 2^(bits-1)} (≈1.6 % con 7 bits).
+ * Los valores mayores que el máximo configurado se cuentan en la última cubeta.
+ *
+ * <p>Registrar es lock-free (un incremento atómico por valor). Las consultas trabajan
+ * sobre {@link Instantanea}s, que se combinan sumando cubetas; {@link #extraerIntervalo()}
+ * devuelve lo registrado desde la extracción anterior, de modo que cada valor cae en
+ * exactamente un intervalo aunque se registre de forma concurrente.
+ */
+public final class HistogramaLogLineal {
+
+  public static final int BITS_POR_DEFECTO = 7;
+
+  private final Escala escala;
+  private final AtomicLongArray cubetas;
+  private long[] base;
+
+  public HistogramaLogLineal(long valorMaximo) {
+    this(valorMaximo, BITS_POR_DEFECTO);
+  }
+
+  public HistogramaLogLineal(long valorMaximo, int bits) {
+    if (bits < 2 || bits > 16) {
+      throw new IllegalArgumentException("Los bits de precisión deben estar entre 2 y 16");
+    }
+    if (valorMaximo < 1) {
+      throw new IllegalArgumentException("El valor máximo debe ser positivo");
+    }
+    this.escala = new Escala(bits, valorMaximo);
+    this.cubetas = new AtomicLongArray(escala.indice(valorMaximo) + 1);
+    this.base = new long[cubetas.length()];
+  }
+
+  public void registrar(long valor) {
+    if (valor < 0) {
+      throw new IllegalArgumentException("Valor negativo: " + valor);
+    }
+    cubetas.incrementAndGet(escala.indice(Math.min(valor, escala.valorMaximo())));
+  }
+
+  /** Conteos acumulados desde la creación. */
+  public Instantanea instantanea() {
+    var conteos = new long[cubetas.length()];
+    for (int i = 0; i < conteos.length; i++) {
+      conteos[i] = cubetas.get(i);
+    }
+    return new Instantanea(escala, conteos);
+  }
+
+  /** Conteos registrados desde la extracción anterior. */
+  public synchronized Instantanea extraerIntervalo() {
+    var actual = instantanea();
+    var intervalo = new long[actual.conteos.length];
+    for (int i = 0; i < intervalo.length; i++) {
+      intervalo[i] = actual.conteos[i] - base[i];
+    }
+    base = actual.conteos;
+    return new Instantanea(escala, intervalo);
+  }
+
+  /**
+   * Copia inmutable de los conteos de un histograma.
+   */
+  public static final class Instantanea {
+
+    private final Escala escala;
+    private final long[] conteos;
+    private final long total;
+
+    private Instantanea(Escala escala, long[] conteos) {
+      this.escala = escala;
+      this.conteos = conteos;
+      var suma = 0L;
+      for (var conteo : conteos) {
+        suma += conteo;
+      }
+      this.total = suma;
+    }
+
+    public long total() {
+      return total;
+    }
+
+    /**
+     * Valor bajo el cual está el {@code percentil} % de las muestras (cota superior de su
+     * cubeta, exacta para valores pequeños); 0 si no hay muestras.
+     */
+    public long percentil(double percentil) {
+      if (percentil < 0 || percentil > 100) {
+        throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+      }
+      if (total == 0) {
+        return 0;
+      }
+      var rango = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+      var acumulado = 0L;
+      for (int i = 0; i < conteos.length; i++) {
+        acumulado += conteos[i];
+        if (acumulado >= rango) {
+          return escala.superior(i);
+        }
+      }
+      return escala.valorMaximo();
+    }
+
+    public long maximo() {
+      for (int i = conteos.length - 1; i >= 0; i--) {
+        if (conteos[i] > 0) {
+          return escala.superior(i);
+        }
+      }
+      return 0;
+    }
+
+    /** Media aproximada con el punto medio de cada cubeta. */
+    public double media() {
+      if (total == 0) {
+        return 0.0;
+      }
+      var suma = 0.0;
+      for (int i = 0; i < conteos.length; i++) {
+        if (conteos[i] > 0) {
+          suma += conteos[i] * (escala.inferior(i) + escala.superior(i)) / 2.0;
+        }
+      }
+      return suma / total;
+    }
+
+    public Instantanea combinar(Instantanea otra) {
+      if (!escala.equals(otra.escala)) {
+        throw new IllegalArgumentException("No se pueden combinar histogramas de distinta escala");
+      }
+      var suma = conteos.clone();
+      for (int i = 0; i < suma.length; i++) {
+        suma[i] += otra.conteos[i];
+      }
+      return new Instantanea(escala, suma);
+    }
+  }
+
+  private record Escala(int bits, long valorMaximo) {
+
+    int indice(long valor) {
+      var exactos = 1 << bits;
+      if (valor < exactos) {
+        return (int) valor;
+      }
+      var desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - bits + 1;
+      var mitad = exactos >>> 1;
+      var mantisa = (int) (valor >>> desplazamiento);
+      return exactos + (desplazamiento - 1) * mitad + (mantisa - mitad);
+    }
+
+    long inferior(int indice) {
+      var exactos = 1 << bits;
+      if (indice < exactos) {
+        return indice;
+      }
+      var mitad = exactos >>> 1;
+      var resto = indice - exactos;
+      return (long) (resto % mitad + mitad) << (resto / mitad + 1);
+    }
+
+    long superior(int indice) {
+      var exactos = 1 << bits;
+      if (indice < exactos) {
+        return indice;
+      }
+      var mitad = exactos >>> 1;
+      var resto = indice - exactos;
+      var desplazamiento = resto / mitad + 1;
+      return Math.min(((long) (resto % mitad + mitad + 1) << desplazamiento) - 1, valorMaximo);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.pichincha.biblioteca.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Contador aproximado de elementos distintos (HyperLogLog) en memoria constante.
+ * Con precisión {@code p} usa {@code 2^p} registros de un byte; con la precisión por defecto
+ * (14) son 16 KB y el error estándar es {@code 1.04 / sqrt(2^p)} ≈ 0.8 %, sin importar
+ * cuántos elementos se agreguen. La estimación usa el estimador mejorado de Ertl (2017),
+ * sin sesgo en todo el rango y prácticamente exacto para cardinalidades pequeñas.
+ *
+ * <p>Dos contadores con la misma precisión se combinan tomando el máximo por registro,
+ * así que se pueden calcular por partición o por intervalo de tiempo y unirse después.
+ * Es thread-safe.
+ */
+public final class HyperLogLog {
+
+  public static final int PRECISION_POR_DEFECTO = 14;
+
+  private final int precision;
+  private final byte[] registros;
+
+  public HyperLogLog() {
+    this(PRECISION_POR_DEFECTO);
+  }
+
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 18) {
+      throw new IllegalArgumentException("La precisión debe estar entre 4 y 18");
+    }
+    this.precision = precision;
+    this.registros = new byte[1 << precision];
+  }
+
+  public static HyperLogLog unir(Collection<HyperLogLog> contadores) {
+    var union = new HyperLogLog(contadores.isEmpty()
+        ? PRECISION_POR_DEFECTO : contadores.iterator().next().precision);
+    contadores.forEach(union::combinar);
+    return union;
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  /**
+   * Error estándar relativo de la estimación.
+   */
+  public double errorEstandar() {
+    return 1.04 / Math.sqrt(registros.length);
+  }
+
+  public void agregar(String valor) {
+    agregarHash(hash(valor));
+  }
+
+  public synchronized void agregarHash(long hash) {
+    var indice = (int) (hash >>> (64 - precision));
+    // Posición del primer bit 1 en los bits restantes (1-based)
+    var rango = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+    if (rango > registros[indice]) {
+      registros[indice] = rango;
+    }
+  }
+
+  public void combinar(HyperLogLog otro) {
+    if (otro.precision != precision) {
+      throw new IllegalArgumentException("No se pueden combinar contadores de distinta precisión");
+    }
+    byte[] copia;
+    synchronized (otro) {
+      copia = otro.registros.clone();
+    }
+    synchronized (this) {
+      for (int i = 0; i < registros.length; i++) {
+        if (copia[i] > registros[i]) {
+          registros[i] = copia[i];
+        }
+      }
+    }
+  }
+
+  public synchronized long estimar() {
+    var m = registros.length;
+    var q = 64 - precision;
+    var histograma = new int[q + 2];
+    for (var registro : registros) {
+      histograma[registro]++;
+    }
+
+    var z = m * tau(1.0 - (double) histograma[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + histograma[k]);
+    }
+    z += m * sigma((double) histograma[0] / m);
+    return Math.round((double) m * m / (2 * Math.log(2)) / z);
+  }
+
+  public synchronized void limpiar() {
+    Arrays.fill(registros, (byte) 0);
+  }
+
+  public synchronized byte[] toByteArray() {
+    return registros.clone();
+  }
+
+  public static HyperLogLog desde(byte[] registros) {
+    var precision = Integer.numberOfTrailingZeros(registros.length);
+    if (registros.length != 1 << precision) {
+      throw new IllegalArgumentException("Tamaño de registros inválido: " + registros.length);
+    }
+    var contador = new HyperLogLog(precision);
+    System.arraycopy(registros, 0, contador.registros, 0, registros.length);
+    return contador;
+  }
+
+  /**
+   * Hash de 64 bits (FNV-1a sobre UTF-8 seguido del mezclador final de MurmurHash3).
+   */
+  static long hash(String valor) {
+    var h = 0xcbf29ce484222325L;
+    for (var b : valor.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b & 0xFF;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private static double sigma(double x) {
+    if (x == 1.0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    var y = 1.0;
+    var z = x;
+    double anterior;
+    do {
+      x *= x;
+      anterior = z;
+      z += x * y;
+      y += y;
+    } while (z != anterior);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0.0 || x == 1.0) {
+      return 0.0;
+    }
+    var y = 1.0;
+    var z = 1 - x;
+    double anterior;
+    do {
+      x = Math.sqrt(x);
+      anterior = z;
+      y *= 0.5;
+      z -= Math.pow(1 - x, 2) * y;
+    } while (z != anterior);
+    return z / 3;
+  }
+}
\ No newline at end of file
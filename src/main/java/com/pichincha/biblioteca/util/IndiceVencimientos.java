@@ -0,0 +1,107 @@
+package com.pichincha.biblioteca.util;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de préstamos activos ordenado por fecha de devolución (y por fecha de préstamo).
+ * Sobre dos skip lists, los vencidos a una fecha se obtienen en {@code O(log n + k)}
+ * con {@code k} = número de resultados, y el préstamo más antiguo en {@code O(log n)},
+ * sin recorrer todos los préstamos activos.
+ *
+ * <p>Cada libro tiene como máximo un préstamo indexado: registrar otro para el mismo
+ * libro (por ejemplo, una renovación) reemplaza al anterior. Las escrituras se serializan
+ * para mantener los índices consistentes; las lecturas no bloquean. Es thread-safe.
+ */
+public final class IndiceVencimientos {
+
+  private final ConcurrentSkipListMap<Clave, InfoPrestamo> porVencimiento = new ConcurrentSkipListMap<>();
+  private final ConcurrentSkipListMap<Clave, InfoPrestamo> porFechaPrestamo = new ConcurrentSkipListMap<>();
+  private final Map<Long, InfoPrestamo> porLibro = new ConcurrentHashMap<>();
+
+  public int tamano() {
+    return porLibro.size();
+  }
+
+  /**
+   * Indexa el préstamo; si no está activo equivale a {@link #eliminar(Long)}.
+   */
+  public synchronized void registrar(InfoPrestamo prestamo) {
+    eliminar(prestamo.libroId());
+    if (!prestamo.activo()) {
+      return;
+    }
+    porLibro.put(prestamo.libroId(), prestamo);
+    porVencimiento.put(Clave.deVencimiento(prestamo), prestamo);
+    porFechaPrestamo.put(Clave.dePrestamo(prestamo), prestamo);
+  }
+
+  public synchronized Optional<InfoPrestamo> eliminar(Long libroId) {
+    var anterior = porLibro.remove(libroId);
+    if (anterior != null) {
+      porVencimiento.remove(Clave.deVencimiento(anterior));
+      porFechaPrestamo.remove(Clave.dePrestamo(anterior));
+    }
+    return Optional.ofNullable(anterior);
+  }
+
+  public Optional<InfoPrestamo> buscar(Long libroId) {
+    return Optional.ofNullable(porLibro.get(libroId));
+  }
+
+  /**
+   * Préstamos vencidos a {@code fechaReferencia} (devolución anterior a esa fecha),
+   * ordenados por fecha de devolución.
+   */
+  public List<InfoPrestamo> vencidos(LocalDate fechaReferencia) {
+    return List.copyOf(porVencimiento.headMap(new Clave(fechaReferencia.toEpochDay(), Long.MIN_VALUE)).values());
+  }
+
+  /**
+   * Préstamos que vencen entre ambas fechas (inclusive), ordenados por fecha de devolución.
+   */
+  public List<InfoPrestamo> vencenEntre(LocalDate desde, LocalDate hasta) {
+    if (hasta.isBefore(desde)) {
+      return List.of();
+    }
+    return List.copyOf(porVencimiento.subMap(
+        new Clave(desde.toEpochDay(), Long.MIN_VALUE), true,
+        new Clave(hasta.toEpochDay(), Long.MAX_VALUE), true).values());
+  }
+
+  public Optional<InfoPrestamo> masAntiguo() {
+    return Optional.ofNullable(porFechaPrestamo.firstEntry()).map(Map.Entry::getValue);
+  }
+
+  public synchronized void limpiar() {
+    porLibro.clear();
+    porVencimiento.clear();
+    porFechaPrestamo.clear();
+  }
+
+  /**
+   * Día (epoch day) más el id del libro para desempatar préstamos del mismo día.
+   */
+  private record Clave(long dia, long libroId) implements Comparable<Clave> {
+
+    static Clave deVencimiento(InfoPrestamo prestamo) {
+      return new Clave(prestamo.fechaDevolucion().toEpochDay(), prestamo.libroId());
+    }
+
+    static Clave dePrestamo(InfoPrestamo prestamo) {
+      return new Clave(prestamo.fechaPrestamo().toEpochDay(), prestamo.libroId());
+    }
+
+    @Override
+    public int compareTo(Clave otra) {
+      var porDia = Long.compare(dia, otra.dia);
+      return porDia != 0 ? porDia : Long.compare(libroId, otra.libroId);
+    }
+  }
+}
\ No newline at end of file
@@ -9,11 +9,17 @@ import com.pichincha.biblioteca.domain.enums.TipoLibro;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Utilidad que demuestra las características avanzadas de Java 21
@@ -21,8 +27,23 @@ import java.util.stream.Collectors;
  */
 public final class Java21FeaturesUtil {
 
+  /** A partir de este tamaño {@link #contarLibrosPorAutor(List)} reparte el conteo entre hilos. */
+  public static final int UMBRAL_CONTEO_PARALELO = 200_000;
+
   private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+  // Text block analizado una sola vez como plantilla
+  private static final ReporteWriter.Plantilla REPORTE_TEXT_BLOCK = ReporteWriter.Plantilla.de("""
+      ╔══════════════════════════════════════╗
+      ║     REPORTE DE BIBLIOTECA            ║
+      ║     Sistema Avanzado Java 21         ║
+      ╠══════════════════════════════════════╣
+      ║ Total de libros: %-18d ║
+      ║ Préstamos activos: %-16d ║
+      ║ Disponibilidad: %-19.1f%% ║
+      ╚══════════════════════════════════════╝
+      """);
+
   private Java21FeaturesUtil() {
     // Utility class - no instances allowed
   }
@@ -112,33 +133,86 @@ public final class Java21FeaturesUtil {
    * Demuestra el uso de text blocks para generar reportes
    */
   public static String generarReporteConTextBlocks(EstadisticasBiblioteca estadisticas) {
-    var reporte = """
-        ╔══════════════════════════════════════╗
-        ║     REPORTE DE BIBLIOTECA            ║
-        ║     Sistema Avanzado Java 21         ║
-        ╠══════════════════════════════════════╣
-        ║ Total de libros: %-18d ║
-        ║ Préstamos activos: %-16d ║
-        ║ Disponibilidad: %-19.1f%% ║
-        ╚══════════════════════════════════════╝
-        """.formatted(
-            estadisticas.totalLibros(),
-            estadisticas.prestamosActivos(),
-            estadisticas.porcentajeDisponibilidad()
-        );
-    
-    return reporte;
+    var sb = new StringBuilder();
+    escribirReporteConTextBlocks(estadisticas, sb);
+    return sb.toString();
+  }
+
+  public static void escribirReporteConTextBlocks(EstadisticasBiblioteca estadisticas, Appendable destino) {
+    new ReporteWriter(destino).escribir(REPORTE_TEXT_BLOCK,
+        estadisticas.totalLibros(),
+        estadisticas.prestamosActivos(),
+        estadisticas.porcentajeDisponibilidad());
   }
 
   /**
-   * Utiliza streams paralelos para procesamiento eficiente
+   * Cuenta libros por autor sobre códigos de un diccionario propio del conteo:
+   * se agrupa por {@code int} y solo se decodifica una vez por autor distinto.
+   * Desde {@link #UMBRAL_CONTEO_PARALELO} libros usa {@link #contarLibrosPorAutorParalelo(List)}.
    */
   public static Map<String, Long> contarLibrosPorAutor(List<ILibro> libros) {
-    return libros.parallelStream()
-        .collect(Collectors.groupingBy(
-            ILibro::getAutor,
-            Collectors.counting()
-        ));
+    if (libros.size() >= UMBRAL_CONTEO_PARALELO) {
+      return contarLibrosPorAutorParalelo(libros);
+    }
+    var diccionario = new DiccionarioCadenas();
+    var conteos = new LongLongHashMap();
+    for (var libro : libros) {
+      conteos.incrementar(diccionario.codificar(libro.getAutor()), 1);
+    }
+
+    var resultado = new HashMap<String, Long>(conteos.size() * 4 / 3 + 1);
+    conteos.forEach((codigo, cantidad) -> resultado.put(diccionario.decodificar((int) codigo), cantidad));
+    return resultado;
+  }
+
+  /**
+   * Conteo por autor repartido en tramos: cada tramo codifica los autores con su propio
+   * diccionario y cuenta en un arreglo del tamaño de los autores que vio (sin sincronización
+   * ni mapas compartidos). A diferencia de {@code groupingBy} en paralelo, no hay un {@code Long}
+   * por libro: solo se crea uno por autor distinto de cada tramo al combinar. La memoria es
+   * proporcional a los autores de cada tramo, no al producto de tramos por autores. Los tramos
+   * se reparten en el pool del llamador (o el común), unos cuatro por hilo.
+   */
+  public static Map<String, Long> contarLibrosPorAutorParalelo(List<ILibro> libros) {
+    var accesibles = libros instanceof RandomAccess ? libros : List.copyOf(libros);
+    var paralelismo = ForkJoinTask.inForkJoinPool()
+        ? ForkJoinTask.getPool().getParallelism()
+        : ForkJoinPool.getCommonPoolParallelism();
+    var tramos = Math.max(1, Math.min(accesibles.size() / 10_000, paralelismo * 4));
+    var tamanoTramo = (accesibles.size() + tramos - 1) / tramos;
+
+    return IntStream.range(0, tramos)
+        .parallel()
+        .mapToObj(tramo -> contarTramo(accesibles, tramo * tamanoTramo,
+            Math.min(accesibles.size(), (tramo + 1) * tamanoTramo)))
+        .reduce(Java21FeaturesUtil::sumarConteos)
+        .orElseGet(HashMap::new);
+  }
+
+  // Códigos locales al tramo: densos desde 0, así que el arreglo crece con los autores del tramo
+  private static HashMap<String, Long> contarTramo(List<ILibro> libros, int desde, int hasta) {
+    var diccionario = new DiccionarioCadenas();
+    var conteos = new long[16];
+    for (int i = desde; i < hasta; i++) {
+      var codigo = diccionario.codificar(libros.get(i).getAutor());
+      if (codigo == conteos.length) {
+        conteos = Arrays.copyOf(conteos, codigo * 2);
+      }
+      conteos[codigo]++;
+    }
+
+    var resultado = new HashMap<String, Long>(diccionario.tamano() * 4 / 3 + 1);
+    for (int codigo = 0; codigo < diccionario.tamano(); codigo++) {
+      resultado.put(diccionario.decodificar(codigo), conteos[codigo]);
+    }
+    return resultado;
+  }
+
+  private static HashMap<String, Long> sumarConteos(HashMap<String, Long> a, HashMap<String, Long> b) {
+    var mayor = a.size() >= b.size() ? a : b;
+    var menor = mayor == a ? b : a;
+    menor.forEach((autor, cantidad) -> mayor.merge(autor, cantidad, Long::sum));
+    return mayor;
   }
 
   /**
@@ -196,20 +270,27 @@ public final class Java21FeaturesUtil {
    * Demuestra el uso de var con tipos complejos
    */
   public static String generarResumenCompleto(List<ILibro> libros, List<InfoPrestamo> prestamos) {
-    var librosPorTipo = clasificarLibrosPorTipo(libros);
-    var conteoAutores = contarLibrosPorAutor(libros);
+    // Mismo criterio que clasificarLibrosPorTipo, pero contando sin construir listas
+    var librosPorTipo = ConteoCatalogo.de(libros).porTipoExcluyendo(EstadoLibro.PERDIDO);
     var tendencia = analizarTendenciaPrestamos(prestamos);
+
+    // Conteos distintos aproximados en memoria constante (HyperLogLog)
+    var autores = new HyperLogLog();
+    libros.forEach(libro -> autores.agregar(libro.getAutor()));
+    var usuarios = new HyperLogLog();
+    prestamos.forEach(prestamo -> usuarios.agregar(prestamo.usuario()));
     
     var resumen = new StringBuilder();
     resumen.append("=== RESUMEN EJECUTIVO ===\n");
     resumen.append("Fecha: %s\n".formatted(LocalDate.now().format(FORMATTER)));
     resumen.append("Total de libros: %d\n".formatted(libros.size()));
-    resumen.append("Total de autores únicos: %d\n".formatted(conteoAutores.size()));
+    resumen.append("Total de autores únicos: %d\n".formatted(autores.estimar()));
+    resumen.append("Total de usuarios únicos: %d\n".formatted(usuarios.estimar()));
     resumen.append("Tendencia de préstamos: %s\n".formatted(tendencia));
     
     resumen.append("\n--- Distribución por Tipo ---\n");
-    librosPorTipo.forEach((tipo, lista) -> 
-        resumen.append("%s: %d libros\n".formatted(tipo.getDescripcion(), lista.size())));
+    librosPorTipo.forEach((tipo, cantidad) -> 
+        resumen.append("%s: %d libros\n".formatted(tipo.getDescripcion(), cantidad)));
     
     return resumen.toString();
   }
@@ -0,0 +1,264 @@
+package com.pichincha.biblioteca.util;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codec binario compacto para {@link Libro}, {@link LibroInfo} e {@link InfoPrestamo}.
+ * Usa ids en varint, enums como un byte con su ordinal, fechas de préstamo en días
+ * desde epoch y textos UTF-8 precedidos por su longitud.
+ */
+public final class LibroCodec {
+
+  private static final TipoLibro[] TIPOS = TipoLibro.values();
+  private static final FormatoLibro[] FORMATOS = FormatoLibro.values();
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  // Bits de presencia para los campos opcionales de Libro
+  private static final int CON_ID = 1;
+  private static final int CON_FECHA_CREACION = 1 << 1;
+  private static final int CON_FECHA_ACTUALIZACION = 1 << 2;
+  private static final int CON_DESCRIPCION = 1 << 3;
+  private static final int CON_PAGINAS = 1 << 4;
+  private static final int CON_ISBN = 1 << 5;
+
+  private static final int MAX_VARLONG = 10;
+
+  private LibroCodec() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  // === LibroInfo ===
+
+  public static void escribir(ByteBuffer buffer, LibroInfo libro) {
+    escribirIdOpcional(buffer, libro.id());
+    buffer.put((byte) libro.tipo().ordinal());
+    buffer.put((byte) libro.formato().ordinal());
+    buffer.put((byte) libro.estado().ordinal());
+    escribirTexto(buffer, libro.titulo());
+    escribirTexto(buffer, libro.autor());
+  }
+
+  public static LibroInfo leerLibroInfo(ByteBuffer buffer) {
+    var id = leerIdOpcional(buffer);
+    var tipo = TIPOS[buffer.get()];
+    var formato = FORMATOS[buffer.get()];
+    var estado = ESTADOS[buffer.get()];
+    var titulo = leerTexto(buffer);
+    var autor = leerTexto(buffer);
+    return new LibroInfo(id, titulo, autor, tipo, formato, estado);
+  }
+
+  public static int tamanoMaximo(LibroInfo libro) {
+    return MAX_VARLONG + 3 + tamanoMaximo(libro.titulo()) + tamanoMaximo(libro.autor());
+  }
+
+  // === InfoPrestamo ===
+
+  public static void escribir(ByteBuffer buffer, InfoPrestamo prestamo) {
+    escribirVarLong(buffer, prestamo.libroId());
+    escribirTexto(buffer, prestamo.tituloLibro());
+    escribirTexto(buffer, prestamo.usuario());
+    var diaPrestamo = prestamo.fechaPrestamo().toEpochDay();
+    escribirVarLong(buffer, zigZag(diaPrestamo));
+    // La devolución nunca es anterior al préstamo: basta con el desplazamiento en días
+    escribirVarLong(buffer, prestamo.fechaDevolucion().toEpochDay() - diaPrestamo);
+    buffer.put((byte) (prestamo.activo() ? 1 : 0));
+  }
+
+  public static InfoPrestamo leerInfoPrestamo(ByteBuffer buffer) {
+    var libroId = leerVarLong(buffer);
+    var titulo = leerTexto(buffer);
+    var usuario = leerTexto(buffer);
+    var diaPrestamo = deshacerZigZag(leerVarLong(buffer));
+    var diaDevolucion = diaPrestamo + leerVarLong(buffer);
+    var activo = buffer.get() != 0;
+    return new InfoPrestamo(libroId, titulo, usuario,
+        LocalDate.ofEpochDay(diaPrestamo), LocalDate.ofEpochDay(diaDevolucion), activo);
+  }
+
+  public static int tamanoMaximo(InfoPrestamo prestamo) {
+    return MAX_VARLONG * 3 + 1 + tamanoMaximo(prestamo.tituloLibro()) + tamanoMaximo(prestamo.usuario());
+  }
+
+  // === Libro ===
+
+  public static void escribir(ByteBuffer buffer, Libro libro) {
+    int presentes = 0;
+    if (libro.getId() != null) presentes |= CON_ID;
+    if (libro.getFechaCreacion() != null) presentes |= CON_FECHA_CREACION;
+    if (libro.getFechaActualizacion() != null) presentes |= CON_FECHA_ACTUALIZACION;
+    if (libro.getDescripcion() != null) presentes |= CON_DESCRIPCION;
+    if (libro.getNumeroPaginas() != null) presentes |= CON_PAGINAS;
+    if (libro.getIsbn() != null) presentes |= CON_ISBN;
+    buffer.put((byte) presentes);
+
+    if (libro.getId() != null) {
+      escribirVarLong(buffer, libro.getId());
+    }
+    buffer.put((byte) libro.getTipo().ordinal());
+    buffer.put((byte) libro.getFormato().ordinal());
+    buffer.put((byte) libro.getEstado().ordinal());
+    escribirTexto(buffer, libro.getTitulo());
+    escribirTexto(buffer, libro.getAutor());
+    if (libro.getFechaCreacion() != null) {
+      escribirFechaHora(buffer, libro.getFechaCreacion());
+    }
+    if (libro.getFechaActualizacion() != null) {
+      escribirFechaHora(buffer, libro.getFechaActualizacion());
+    }
+    if (libro.getDescripcion() != null) {
+      escribirTexto(buffer, libro.getDescripcion());
+    }
+    if (libro.getNumeroPaginas() != null) {
+      escribirVarLong(buffer, zigZag(libro.getNumeroPaginas()));
+    }
+    if (libro.getIsbn() != null) {
+      escribirTexto(buffer, libro.getIsbn());
+    }
+  }
+
+  public static Libro leerLibro(ByteBuffer buffer) {
+    int presentes = buffer.get();
+    var id = (presentes & CON_ID) != 0 ? leerVarLong(buffer) : null;
+    var tipo = TIPOS[buffer.get()];
+    var formato = FORMATOS[buffer.get()];
+    var estado = ESTADOS[buffer.get()];
+    var titulo = leerTexto(buffer);
+    var autor = leerTexto(buffer);
+    var fechaCreacion = (presentes & CON_FECHA_CREACION) != 0 ? leerFechaHora(buffer) : null;
+    var fechaActualizacion = (presentes & CON_FECHA_ACTUALIZACION) != 0 ? leerFechaHora(buffer) : null;
+    var descripcion = (presentes & CON_DESCRIPCION) != 0 ? leerTexto(buffer) : null;
+    var numeroPaginas = (presentes & CON_PAGINAS) != 0
+        ? Math.toIntExact(deshacerZigZag(leerVarLong(buffer))) : null;
+    var isbn = (presentes & CON_ISBN) != 0 ? leerTexto(buffer) : null;
+
+    return new Libro(id, titulo, autor, tipo, formato, estado,
+        fechaCreacion, fechaActualizacion, descripcion, numeroPaginas, isbn);
+  }
+
+  public static int tamanoMaximo(Libro libro) {
+    return 1 + MAX_VARLONG + 3 + tamanoMaximo(libro.getTitulo()) + tamanoMaximo(libro.getAutor())
+        + 2 * (MAX_VARLONG + 5) + tamanoMaximo(libro.getDescripcion()) + MAX_VARLONG
+        + tamanoMaximo(libro.getIsbn());
+  }
+
+  // === Conveniencia sobre arreglos de bytes ===
+
+  public static byte[] codificar(LibroInfo libro) {
+    var buffer = ByteBuffer.allocate(tamanoMaximo(libro));
+    escribir(buffer, libro);
+    return copiar(buffer);
+  }
+
+  public static byte[] codificar(InfoPrestamo prestamo) {
+    var buffer = ByteBuffer.allocate(tamanoMaximo(prestamo));
+    escribir(buffer, prestamo);
+    return copiar(buffer);
+  }
+
+  public static byte[] codificar(Libro libro) {
+    var buffer = ByteBuffer.allocate(tamanoMaximo(libro));
+    escribir(buffer, libro);
+    return copiar(buffer);
+  }
+
+  // === Primitivas ===
+
+  public static void escribirVarLong(ByteBuffer buffer, long valor) {
+    while ((valor & ~0x7FL) != 0) {
+      buffer.put((byte) ((valor & 0x7F) | 0x80));
+      valor >>>= 7;
+    }
+    buffer.put((byte) valor);
+  }
+
+  public static long leerVarLong(ByteBuffer buffer) {
+    long resultado = 0;
+    for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+      var b = buffer.get();
+      resultado |= (long) (b & 0x7F) << desplazamiento;
+      if ((b & 0x80) == 0) {
+        return resultado;
+      }
+    }
+    throw new IllegalArgumentException("Varint mal formado");
+  }
+
+  /** Varint con codificación zigzag, para valores que pueden ser negativos. */
+  public static void escribirVarLongConSigno(ByteBuffer buffer, long valor) {
+    escribirVarLong(buffer, zigZag(valor));
+  }
+
+  public static long leerVarLongConSigno(ByteBuffer buffer) {
+    return deshacerZigZag(leerVarLong(buffer));
+  }
+
+  public static void escribirTexto(ByteBuffer buffer, String texto) {
+    var bytes = texto.getBytes(StandardCharsets.UTF_8);
+    escribirVarLong(buffer, bytes.length);
+    buffer.put(bytes);
+  }
+
+  public static String leerTexto(ByteBuffer buffer) {
+    var longitud = Math.toIntExact(leerVarLong(buffer));
+    if (buffer.hasArray()) {
+      var texto = new String(buffer.array(), buffer.arrayOffset() + buffer.position(),
+          longitud, StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + longitud);
+      return texto;
+    }
+    var bytes = new byte[longitud];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void escribirIdOpcional(ByteBuffer buffer, Long id) {
+    // 0 representa un id ausente; los ids persistidos son siempre positivos
+    escribirVarLong(buffer, id == null ? 0 : id + 1);
+  }
+
+  private static Long leerIdOpcional(ByteBuffer buffer) {
+    var valor = leerVarLong(buffer);
+    return valor == 0 ? null : valor - 1;
+  }
+
+  private static void escribirFechaHora(ByteBuffer buffer, LocalDateTime fechaHora) {
+    escribirVarLong(buffer, zigZag(fechaHora.toEpochSecond(ZoneOffset.UTC)));
+    escribirVarLong(buffer, fechaHora.getNano());
+  }
+
+  private static LocalDateTime leerFechaHora(ByteBuffer buffer) {
+    var segundos = deshacerZigZag(leerVarLong(buffer));
+    var nanos = (int) leerVarLong(buffer);
+    return LocalDateTime.ofEpochSecond(segundos, nanos, ZoneOffset.UTC);
+  }
+
+  private static long zigZag(long valor) {
+    return (valor << 1) ^ (valor >> 63);
+  }
+
+  private static long deshacerZigZag(long valor) {
+    return (valor >>> 1) ^ -(valor & 1);
+  }
+
+  private static int tamanoMaximo(String texto) {
+    return texto == null ? 0 : 5 + texto.length() * 3;
+  }
+
+  private static byte[] copiar(ByteBuffer buffer) {
+    var bytes = new byte[buffer.position()];
+    buffer.flip().get(bytes);
+    return bytes;
+  }
+}
\ No newline at end of file
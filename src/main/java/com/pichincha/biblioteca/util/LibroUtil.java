@@ -8,6 +8,7 @@ import com.pichincha.biblioteca.domain.enums.TipoLibro;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -17,6 +18,16 @@ public final class LibroUtil {
     throw new UnsupportedOperationException("Utility class");
   }
 
+  private static final ReporteWriter.Plantilla ENCABEZADO_RESUMEN = ReporteWriter.Plantilla.de("""
+      📚 REPORTE DE BIBLIOTECA
+      ========================
+      Total de libros: %d
+      Disponibles: %d
+      Prestados: %d
+
+      """);
+  private static final ReporteWriter.Plantilla CONTEO_RESUMEN = ReporteWriter.Plantilla.de("  %s: %d");
+
   public static final String PATRON_AUTOR_VALIDO = "^[a-zA-ZáéíóúÁÉÍÓÚñÑ\\s.'-]+$";
   public static final int LONGITUD_MINIMA_TITULO = 2;
   public static final int LONGITUD_MINIMA_AUTOR = 2;
@@ -63,39 +74,39 @@ public final class LibroUtil {
   }
 
   public static String generarReporteResumen(List<ILibro> libros) {
-    int totalLibros = libros.size();
-    long disponibles = libros.stream()
-        .mapToLong(libro -> libro.getEstado() == EstadoLibro.DISPONIBLE ? 1 : 0)
-        .sum();
+    return generarReporteResumen(ConteoCatalogo.de(libros));
+  }
+
+  public static String generarReporteResumen(ConteoCatalogo conteo) {
+    var sb = new StringBuilder();
+    escribirReporteResumen(conteo, sb);
+    return sb.toString();
+  }
+
+  public static void escribirReporteResumen(ConteoCatalogo conteo, Appendable destino) {
+    int totalLibros = conteo.total();
+    long disponibles = conteo.cantidad(EstadoLibro.DISPONIBLE);
     long prestados = totalLibros - disponibles;
 
-    var porTipo = agruparPorTipo(libros);
-    var porFormato = contarPorFormato(libros);
-
-    return """
-        📚 REPORTE DE BIBLIOTECA
-        ========================
-        Total de libros: %d
-        Disponibles: %d
-        Prestados: %d
-        
-        📖 Por tipo:
-        %s
-        
-        💾 Por formato:
-        %s
-        """.formatted(
-            totalLibros, disponibles, prestados,
-            porTipo.entrySet().stream()
-                .map(entry -> "  %s: %d".formatted(
-                    entry.getKey().getDescripcion(), 
-                    entry.getValue().size()))
-                .collect(Collectors.joining("\n")),
-            porFormato.entrySet().stream()
-                .map(entry -> "  %s: %d".formatted(
-                    entry.getKey().getDescripcion(), 
-                    entry.getValue()))
-                .collect(Collectors.joining("\n"))
-        );
+    var writer = new ReporteWriter(destino);
+    writer.escribir(ENCABEZADO_RESUMEN, totalLibros, disponibles, prestados);
+    writer.linea("📖 Por tipo:");
+    escribirConteos(writer, conteo.porTipo(), TipoLibro::getDescripcion);
+    writer.texto("\n\n").linea("💾 Por formato:");
+    escribirConteos(writer, conteo.porFormato(), FormatoLibro::getDescripcion);
+    writer.texto("\n");
+  }
+
+  // Una línea por entrada separadas por salto de línea, sin salto final
+  private static <E> void escribirConteos(ReporteWriter writer, Map<E, Integer> conteos,
+                                          Function<E, String> descripcion) {
+    var primera = true;
+    for (var entry : conteos.entrySet()) {
+      if (!primera) {
+        writer.texto("\n");
+      }
+      writer.escribir(CONTEO_RESUMEN, descripcion.apply(entry.getKey()), entry.getValue());
+      primera = false;
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa {@code long -> long} de direccionamiento abierto (sondeo lineal) sin objetos por entrada.
+ * Las claves y valores viven en dos arreglos primitivos, así que el trabajo del GC
+ * no depende del número de entradas. No es thread-safe.
+ */
+public final class LongLongHashMap {
+
+  private static final long VACIO = 0L;
+  private static final float FACTOR_CARGA = 0.5f;
+
+  private long[] claves;
+  private long[] valores;
+  private int mascara;
+  private int tamano;
+  private int umbral;
+
+  // La clave 0 se usa como marca de celda vacía, por eso se guarda aparte
+  private boolean tieneCero;
+  private long valorCero;
+
+  public LongLongHashMap() {
+    this(16);
+  }
+
+  public LongLongHashMap(int capacidadEsperada) {
+    var capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / FACTOR_CARGA)) - 1) << 1;
+    asignar(capacidad);
+  }
+
+  public int size() {
+    return tamano + (tieneCero ? 1 : 0);
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public boolean contiene(long clave) {
+    if (clave == VACIO) {
+      return tieneCero;
+    }
+    return claves[buscar(clave)] == clave;
+  }
+
+  public long get(long clave, long porDefecto) {
+    if (clave == VACIO) {
+      return tieneCero ? valorCero : porDefecto;
+    }
+    var posicion = buscar(clave);
+    return claves[posicion] == clave ? valores[posicion] : porDefecto;
+  }
+
+  public void put(long clave, long valor) {
+    if (clave == VACIO) {
+      tieneCero = true;
+      valorCero = valor;
+      return;
+    }
+    var posicion = buscar(clave);
+    if (claves[posicion] == clave) {
+      valores[posicion] = valor;
+      return;
+    }
+    insertarEn(posicion, clave, valor);
+  }
+
+  /**
+   * Suma {@code delta} al valor asociado (0 si no existía) y devuelve el nuevo valor.
+   */
+  public long incrementar(long clave, long delta) {
+    if (clave == VACIO) {
+      valorCero = (tieneCero ? valorCero : 0) + delta;
+      tieneCero = true;
+      return valorCero;
+    }
+    var posicion = buscar(clave);
+    if (claves[posicion] == clave) {
+      return valores[posicion] += delta;
+    }
+    insertarEn(posicion, clave, delta);
+    return delta;
+  }
+
+  public void clear() {
+    Arrays.fill(claves, VACIO);
+    tamano = 0;
+    tieneCero = false;
+  }
+
+  public void forEach(Consumidor consumidor) {
+    if (tieneCero) {
+      consumidor.aceptar(VACIO, valorCero);
+    }
+    for (int i = 0; i < claves.length; i++) {
+      if (claves[i] != VACIO) {
+        consumidor.aceptar(claves[i], valores[i]);
+      }
+    }
+  }
+
+  private int buscar(long clave) {
+    var posicion = mezclar(clave) & mascara;
+    while (claves[posicion] != VACIO && claves[posicion] != clave) {
+      posicion = (posicion + 1) & mascara;
+    }
+    return posicion;
+  }
+
+  private void insertarEn(int posicion, long clave, long valor) {
+    claves[posicion] = clave;
+    valores[posicion] = valor;
+    if (++tamano > umbral) {
+      redimensionar();
+    }
+  }
+
+  private void redimensionar() {
+    var clavesAnteriores = claves;
+    var valoresAnteriores = valores;
+    asignar(claves.length << 1);
+    for (int i = 0; i < clavesAnteriores.length; i++) {
+      if (clavesAnteriores[i] != VACIO) {
+        var posicion = buscar(clavesAnteriores[i]);
+        claves[posicion] = clavesAnteriores[i];
+        valores[posicion] = valoresAnteriores[i];
+      }
+    }
+  }
+
+  private void asignar(int capacidad) {
+    claves = new long[capacidad];
+    valores = new long[capacidad];
+    mascara = capacidad - 1;
+    umbral = (int) (capacidad * FACTOR_CARGA);
+  }
+
+  private static int mezclar(long clave) {
+    var h = clave * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  @FunctionalInterface
+  public interface Consumidor {
+    void aceptar(long clave, long valor);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registro concurrente de préstamos activos por libro, con índice secundario por usuario.
+ * Los libros se reparten en tramos (lock striping): cada tramo tiene su propio
+ * {@link ReentrantLock} y su mapa, así que operaciones sobre libros de tramos distintos no
+ * compiten entre sí y las del mismo libro quedan serializadas. Los mapas están ordenados por id
+ * para recorrer el registro por lotes ({@link #librosDesde}) sin copiarlo entero.
+ *
+ * <p>{@link #conLibro(Long, Supplier)} bloquea el tramo del libro durante una operación
+ * compuesta (leer el estado en la base de datos, guardar y registrar), lo que hace atómicos
+ * el préstamo y la devolución frente a otros hilos del mismo proceso. El índice por usuario
+ * se actualiza dentro del mismo bloqueo y puede leerse sin bloquear.
+ *
+ * <p>Los servicios publican sus eventos dentro de {@code conLibro}, así que los listeners
+ * síncronos corren con el tramo del libro bloqueado: deben ser breves y no operar sobre otros
+ * libros a través del registro, porque tomarían otro tramo fuera de orden y podrían
+ * interbloquearse con un hilo que hace lo inverso.
+ */
+public final class RegistroPrestamos<V> {
+
+  private static final int MAX_TRAMOS = 1 << 16;
+
+  private final ReentrantLock[] cerrojos;
+  private final NavigableMap<Long, Entrada<V>>[] tramos;
+  private final int mascara;
+  private final Map<String, Set<Long>> porUsuario = new ConcurrentHashMap<>();
+  private final AtomicInteger cantidad = new AtomicInteger();
+
+  public RegistroPrestamos() {
+    this(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  public RegistroPrestamos(int tramos) {
+    if (tramos < 1 || tramos > MAX_TRAMOS) {
+      throw new IllegalArgumentException("La cantidad de tramos debe estar entre 1 y " + MAX_TRAMOS);
+    }
+    var potencia = tramos == 1 ? 1 : Integer.highestOneBit(tramos - 1) << 1;
+    this.cerrojos = new ReentrantLock[potencia];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    NavigableMap<Long, Entrada<V>>[] mapas = new NavigableMap[potencia];
+    this.tramos = mapas;
+    this.mascara = potencia - 1;
+    for (int i = 0; i < potencia; i++) {
+      cerrojos[i] = new ReentrantLock();
+      this.tramos[i] = new TreeMap<>();
+    }
+  }
+
+  /**
+   * Ejecuta {@code operacion} con el libro bloqueado; las llamadas anidadas sobre el mismo
+   * libro (por ejemplo {@link #registrar}) reutilizan el bloqueo.
+   */
+  public <R> R conLibro(Long libroId, Supplier<R> operacion) {
+    var cerrojo = cerrojos[tramo(libroId)];
+    cerrojo.lock();
+    try {
+      return operacion.get();
+    } finally {
+      cerrojo.unlock();
+    }
+  }
+
+  /**
+   * Como {@link #conLibro(Long, Supplier)} para varios libros a la vez: bloquea sus tramos
+   * siempre en orden ascendente, así dos lotes que se solapan no pueden bloquearse entre sí.
+   */
+  public <R> R conLibros(Collection<Long> libroIds, Supplier<R> operacion) {
+    var indices = libroIds.stream().mapToInt(this::tramo).distinct().sorted().toArray();
+    var bloqueados = 0;
+    try {
+      for (var indice : indices) {
+        cerrojos[indice].lock();
+        bloqueados++;
+      }
+      return operacion.get();
+    } finally {
+      for (int i = bloqueados - 1; i >= 0; i--) {
+        cerrojos[indices[i]].unlock();
+      }
+    }
+  }
+
+  /**
+   * Registra el préstamo si el libro no tiene uno activo; devuelve {@code false} en caso contrario.
+   */
+  public boolean registrar(Long libroId, String usuario, V valor) {
+    return conLibro(libroId, () -> {
+      var mapa = tramos[tramo(libroId)];
+      if (mapa.containsKey(libroId)) {
+        return false;
+      }
+      mapa.put(libroId, new Entrada<>(usuario, valor));
+      // Alta y baja en el índice van dentro de compute para no perder ids de otros tramos
+      porUsuario.compute(usuario, (u, ids) -> {
+        var actuales = ids == null ? ConcurrentHashMap.<Long>newKeySet() : ids;
+        actuales.add(libroId);
+        return actuales;
+      });
+      cantidad.incrementAndGet();
+      return true;
+    });
+  }
+
+  /**
+   * Quita el préstamo activo del libro y lo devuelve, si existía.
+   */
+  public Optional<V> liberar(Long libroId) {
+    return conLibro(libroId, () -> {
+      var entrada = tramos[tramo(libroId)].remove(libroId);
+      if (entrada == null) {
+        return Optional.empty();
+      }
+      porUsuario.computeIfPresent(entrada.usuario(), (u, ids) -> ids.remove(libroId) && ids.isEmpty() ? null : ids);
+      cantidad.decrementAndGet();
+      return Optional.of(entrada.valor());
+    });
+  }
+
+  /**
+   * Reemplaza el préstamo activo del libro por {@code actualizacion(préstamo)}, si existe.
+   */
+  public Optional<V> actualizar(Long libroId, UnaryOperator<V> actualizacion) {
+    return conLibro(libroId, () -> {
+      var mapa = tramos[tramo(libroId)];
+      var entrada = mapa.get(libroId);
+      if (entrada == null) {
+        return Optional.empty();
+      }
+      var nuevo = actualizacion.apply(entrada.valor());
+      mapa.put(libroId, new Entrada<>(entrada.usuario(), nuevo));
+      return Optional.of(nuevo);
+    });
+  }
+
+  public Optional<V> buscar(Long libroId) {
+    return conLibro(libroId, () -> Optional.ofNullable(tramos[tramo(libroId)].get(libroId)).map(Entrada::valor));
+  }
+
+  public boolean estaPrestado(Long libroId) {
+    return conLibro(libroId, () -> tramos[tramo(libroId)].containsKey(libroId));
+  }
+
+  /** Préstamos activos del usuario. */
+  public List<V> porUsuario(String usuario) {
+    var ids = porUsuario.getOrDefault(usuario, Set.of());
+    var prestamos = new ArrayList<V>(ids.size());
+    for (var libroId : ids) {
+      // Entre leer el índice y el tramo el libro pudo devolverse o prestarse a otro usuario
+      conLibro(libroId, () -> Optional.ofNullable(tramos[tramo(libroId)].get(libroId)))
+          .filter(entrada -> entrada.usuario().equals(usuario))
+          .ifPresent(entrada -> prestamos.add(entrada.valor()));
+    }
+    return prestamos;
+  }
+
+  /** Copia de los préstamos activos, tramo por tramo. */
+  public List<V> valores() {
+    var valores = new ArrayList<V>(cantidad.get());
+    for (int i = 0; i < tramos.length; i++) {
+      cerrojos[i].lock();
+      try {
+        tramos[i].values().forEach(entrada -> valores.add(entrada.valor()));
+      } finally {
+        cerrojos[i].unlock();
+      }
+    }
+    return valores;
+  }
+
+  /**
+   * Hasta {@code limite} ids de libros con préstamo activo mayores que {@code desde}, en orden
+   * ascendente. Cada tramo se lee en orden a partir de {@code desde} y deja de leerse en cuanto
+   * sus ids ya no entran entre los menores, así que un lote cuesta del orden de su tamaño y no
+   * del registro. Los tramos se leen uno tras otro, no como una foto del registro entero.
+   */
+  public long[] librosDesde(long desde, int limite) {
+    if (limite < 1) {
+      throw new IllegalArgumentException("El límite debe ser positivo");
+    }
+    // Montículo de máximos: la cima es el mayor de los menores ids vistos hasta ahora
+    var menores = new PriorityQueue<Long>(Math.min(limite, 1024), Comparator.reverseOrder());
+    for (int i = 0; i < tramos.length; i++) {
+      cerrojos[i].lock();
+      try {
+        for (var libroId : tramos[i].tailMap(desde, false).keySet()) {
+          if (menores.size() < limite) {
+            menores.add(libroId);
+          } else if (libroId < menores.peek()) {
+            menores.poll();
+            menores.add(libroId);
+          } else {
+            break;
+          }
+        }
+      } finally {
+        cerrojos[i].unlock();
+      }
+    }
+    return menores.stream().mapToLong(Long::longValue).sorted().toArray();
+  }
+
+  public int cantidad() {
+    return cantidad.get();
+  }
+
+  public void limpiar() {
+    // Se bloquean todos los tramos en orden para vaciar el índice junto con ellos
+    for (var cerrojo : cerrojos) {
+      cerrojo.lock();
+    }
+    try {
+      for (var mapa : tramos) {
+        mapa.clear();
+      }
+      porUsuario.clear();
+      cantidad.set(0);
+    } finally {
+      for (var cerrojo : cerrojos) {
+        cerrojo.unlock();
+      }
+    }
+  }
+
+  private int tramo(Long libroId) {
+    var h = libroId.hashCode();
+    return (h ^ (h >>> 16)) * 0x9E3779B9 >>> 16 & mascara;
+  }
+
+  private record Entrada<V>(String usuario, V valor) {
+  }
+}
\ No newline at end of file
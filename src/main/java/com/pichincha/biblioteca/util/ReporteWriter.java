@@ -0,0 +1,179 @@
+package com.pichincha.biblioteca.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Escribe reportes sección por sección sobre cualquier {@link Appendable}
+ * ({@code StringBuilder}, {@code Writer}, {@code PrintStream}...), sin armar el reporte
+ * completo en memoria: las listas largas se pueden emitir fila por fila.
+ *
+ * <p>Las líneas con valores usan {@link Plantilla}s analizadas una sola vez (normalmente
+ * constantes) en lugar de {@code String.formatted} en cada fila. Las plantillas aceptan el
+ * subconjunto de {@link java.util.Formatter} que usan los reportes ({@code %s}, {@code %d},
+ * {@code %.Nf}, ancho y {@code -}) y producen el mismo texto. Los errores de E/S del
+ * destino se relanzan como {@link UncheckedIOException}.
+ */
+public final class ReporteWriter {
+
+  private final Appendable destino;
+
+  public ReporteWriter(Appendable destino) {
+    this.destino = destino;
+  }
+
+  public ReporteWriter texto(CharSequence texto) {
+    try {
+      destino.append(texto);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this;
+  }
+
+  public ReporteWriter linea(CharSequence texto) {
+    return texto(texto).texto("\n");
+  }
+
+  public ReporteWriter escribir(Plantilla plantilla, Object... valores) {
+    try {
+      plantilla.escribir(destino, valores);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Plantilla de texto con campos al estilo {@code printf}, analizada al construirla.
+   */
+  public static final class Plantilla {
+
+    private final List<Object> partes;
+    private final int campos;
+
+    private Plantilla(List<Object> partes) {
+      this.partes = partes;
+      this.campos = (int) partes.stream().filter(Campo.class::isInstance).count();
+    }
+
+    public static Plantilla de(String patron) {
+      var partes = new ArrayList<Object>();
+      var literal = new StringBuilder();
+      var i = 0;
+      while (i < patron.length()) {
+        var c = patron.charAt(i++);
+        if (c != '%') {
+          literal.append(c);
+          continue;
+        }
+        if (i < patron.length() && patron.charAt(i) == '%') {
+          literal.append('%');
+          i++;
+          continue;
+        }
+        var izquierda = i < patron.length() && patron.charAt(i) == '-';
+        if (izquierda) {
+          i++;
+        }
+        var inicio = i;
+        while (i < patron.length() && Character.isDigit(patron.charAt(i))) {
+          i++;
+        }
+        var ancho = i > inicio ? Integer.parseInt(patron, inicio, i, 10) : 0;
+        var precision = -1;
+        if (i < patron.length() && patron.charAt(i) == '.') {
+          inicio = ++i;
+          while (i < patron.length() && Character.isDigit(patron.charAt(i))) {
+            i++;
+          }
+          precision = Integer.parseInt(patron, inicio, i, 10);
+        }
+        if (i >= patron.length()) {
+          throw new IllegalArgumentException("Campo incompleto en la plantilla: " + patron);
+        }
+        var conversion = patron.charAt(i++);
+        if ("sdf".indexOf(conversion) < 0 || (conversion == 'f') != (precision >= 0)) {
+          throw new IllegalArgumentException("Campo no soportado '%" + conversion + "' en: " + patron);
+        }
+        if (!literal.isEmpty()) {
+          partes.add(literal.toString());
+          literal.setLength(0);
+        }
+        partes.add(new Campo(conversion, ancho, precision, izquierda));
+      }
+      if (!literal.isEmpty()) {
+        partes.add(literal.toString());
+      }
+      return new Plantilla(List.copyOf(partes));
+    }
+
+    /**
+     * Equivale a {@code patron.formatted(valores)}, útil donde se necesita un {@code String}.
+     */
+    public String formatear(Object... valores) {
+      var sb = new StringBuilder();
+      new ReporteWriter(sb).escribir(this, valores);
+      return sb.toString();
+    }
+
+    private void escribir(Appendable destino, Object[] valores) throws IOException {
+      if (valores.length < campos) {
+        throw new IllegalArgumentException("Se esperaban %d valores y se recibieron %d"
+            .formatted(campos, valores.length));
+      }
+      var siguiente = 0;
+      for (var parte : partes) {
+        if (parte instanceof Campo campo) {
+          campo.escribir(destino, valores[siguiente++]);
+        } else {
+          destino.append((String) parte);
+        }
+      }
+    }
+  }
+
+  private record Campo(char conversion, int ancho, int precision, boolean izquierda) {
+
+    void escribir(Appendable destino, Object valor) throws IOException {
+      var texto = switch (conversion) {
+        case 'f' -> decimal(((Number) valor).doubleValue());
+        case 'd' -> Long.toString(((Number) valor).longValue());
+        default -> String.valueOf(valor);
+      };
+      var relleno = ancho - texto.length();
+      if (!izquierda) {
+        espacios(destino, relleno);
+      }
+      destino.append(texto);
+      if (izquierda) {
+        espacios(destino, relleno);
+      }
+    }
+
+    private String decimal(double valor) {
+      if (!Double.isFinite(valor)) {
+        return Double.toString(valor);
+      }
+      // Formatter redondea HALF_UP sobre la representación decimal más corta del double
+      var texto = new BigDecimal(Double.toString(valor)).setScale(precision, RoundingMode.HALF_UP).toPlainString();
+      if (Double.doubleToRawLongBits(valor) < 0 && texto.charAt(0) != '-') {
+        texto = "-" + texto; // BigDecimal pierde el signo de los valores que redondean a cero
+      }
+      var separador = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+      return separador == '.' ? texto : texto.replace('.', separador);
+    }
+
+    private static void espacios(Appendable destino, int cantidad) throws IOException {
+      for (int i = 0; i < cantidad; i++) {
+        destino.append(' ');
+      }
+    }
+  }
+}
\ No newline at end of file
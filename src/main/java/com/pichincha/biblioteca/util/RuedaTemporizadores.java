@@ -0,0 +1,199 @@
+package com.pichincha.biblioteca.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda de temporizadores jerárquica (hashed hierarchical timing wheel).
+ * El tiempo avanza en ticks de duración fija; cada nivel tiene 64 ranuras y cubre un
+ * rango 64 veces mayor que el anterior. Un temporizador se guarda en la ranura del nivel
+ * más bajo que lo contiene y baja de nivel ("cascada") a medida que se acerca su vencimiento.
+ *
+ * <p>Programar y cancelar son O(1) (listas doblemente enlazadas por ranura, sin búsquedas);
+ * avanzar cuesta O(ticks transcurridos + temporizadores vencidos o movidos), saltando
+ * de una vez los tramos en los que los niveles inferiores están vacíos. La memoria
+ * es un nodo por temporizador pendiente, así que admite millones de ellos.
+ * La resolución es de un tick: un temporizador vence en el primer tick igual o posterior
+ * a su instante. Es thread-safe.
+ */
+public final class RuedaTemporizadores<T> {
+
+  private static final int BITS_POR_NIVEL = 6;
+  private static final int RANURAS = 1 << BITS_POR_NIVEL;
+  private static final int MASCARA = RANURAS - 1;
+  private static final int NIVELES = 6;
+  // Ranura extra para vencimientos fuera del rango del último nivel
+  private static final int DESBORDE = NIVELES * RANURAS;
+
+  private final long tickMs;
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private final Temporizador<T>[] cabezas = new Temporizador[NIVELES * RANURAS + 1];
+  private final int[] porNivel = new int[NIVELES + 1];
+  private long actual;
+  private int pendientes;
+
+  public RuedaTemporizadores(Duration tick, Instant inicio) {
+    if (tick.isNegative() || tick.isZero()) {
+      throw new IllegalArgumentException("El tick debe ser positivo");
+    }
+    this.tickMs = tick.toMillis();
+    this.actual = Math.floorDiv(inicio.toEpochMilli(), tickMs);
+  }
+
+  public synchronized int pendientes() {
+    return pendientes;
+  }
+
+  /**
+   * Programa {@code valor} para {@code vencimiento}; si ya pasó, vence en el tick siguiente al actual,
+   * es decir, en el primer avance que cruce un tick.
+   */
+  public synchronized Temporizador<T> programar(T valor, Instant vencimiento) {
+    var tick = Math.max(Math.ceilDiv(vencimiento.toEpochMilli(), tickMs), actual + 1);
+    var temporizador = new Temporizador<>(valor, tick);
+    insertar(temporizador);
+    pendientes++;
+    return temporizador;
+  }
+
+  /**
+   * Cancela el temporizador; devuelve {@code false} si ya había vencido o sido cancelado.
+   */
+  public synchronized boolean cancelar(Temporizador<T> temporizador) {
+    if (temporizador.ranura < 0) {
+      return false;
+    }
+    quitar(temporizador);
+    pendientes--;
+    return true;
+  }
+
+  /**
+   * Avanza la rueda hasta {@code ahora} y devuelve los valores vencidos en orden de vencimiento.
+   */
+  public synchronized List<T> avanzar(Instant ahora) {
+    var destino = Math.floorDiv(ahora.toEpochMilli(), tickMs);
+    var vencidos = new ArrayList<T>();
+    while (actual < destino) {
+      if (pendientes == 0) {
+        actual = destino;
+        break;
+      }
+      // Con los niveles inferiores vacíos nada vence antes de la próxima cascada: se salta hasta ella
+      var vacios = nivelesInferioresVacios();
+      if (vacios > 0) {
+        var proximaCascada = ((actual >>> (BITS_POR_NIVEL * vacios)) + 1) << (BITS_POR_NIVEL * vacios);
+        if (proximaCascada > destino) {
+          actual = destino;
+          break;
+        }
+        actual = proximaCascada - 1;
+      }
+      actual++;
+      cascada();
+      var temporizador = cabezas[(int) (actual & MASCARA)];
+      while (temporizador != null) {
+        var siguiente = temporizador.siguiente;
+        quitar(temporizador);
+        pendientes--;
+        vencidos.add(temporizador.valor);
+        temporizador = siguiente;
+      }
+    }
+    return vencidos;
+  }
+
+  /**
+   * Al cruzar el inicio del rango de una ranura superior, redistribuye sus temporizadores
+   * en los niveles inferiores; sigue subiendo solo mientras cada nivel complete una vuelta.
+   */
+  private void cascada() {
+    for (int nivel = 1; nivel <= NIVELES; nivel++) {
+      var desplazamiento = BITS_POR_NIVEL * nivel;
+      if ((actual & ((1L << desplazamiento) - 1)) != 0) {
+        return;
+      }
+      var ranura = nivel == NIVELES
+          ? DESBORDE
+          : nivel * RANURAS + (int) ((actual >>> desplazamiento) & MASCARA);
+      var temporizador = cabezas[ranura];
+      cabezas[ranura] = null;
+      while (temporizador != null) {
+        var siguiente = temporizador.siguiente;
+        porNivel[nivelDe(ranura)]--;
+        temporizador.anterior = null;
+        temporizador.siguiente = null;
+        insertar(temporizador);
+        temporizador = siguiente;
+      }
+    }
+  }
+
+  private void insertar(Temporizador<T> temporizador) {
+    var ranura = DESBORDE;
+    for (int nivel = 0; nivel < NIVELES; nivel++) {
+      var desplazamiento = BITS_POR_NIVEL * (nivel + 1);
+      if ((temporizador.tick >>> desplazamiento) == (actual >>> desplazamiento)) {
+        ranura = nivel * RANURAS + (int) ((temporizador.tick >>> (BITS_POR_NIVEL * nivel)) & MASCARA);
+        break;
+      }
+    }
+    var cabeza = cabezas[ranura];
+    temporizador.siguiente = cabeza;
+    if (cabeza != null) {
+      cabeza.anterior = temporizador;
+    }
+    cabezas[ranura] = temporizador;
+    temporizador.ranura = ranura;
+    porNivel[nivelDe(ranura)]++;
+  }
+
+  private void quitar(Temporizador<T> temporizador) {
+    if (temporizador.anterior != null) {
+      temporizador.anterior.siguiente = temporizador.siguiente;
+    } else {
+      cabezas[temporizador.ranura] = temporizador.siguiente;
+    }
+    if (temporizador.siguiente != null) {
+      temporizador.siguiente.anterior = temporizador.anterior;
+    }
+    porNivel[nivelDe(temporizador.ranura)]--;
+    temporizador.anterior = null;
+    temporizador.siguiente = null;
+    temporizador.ranura = -1;
+  }
+
+  private int nivelesInferioresVacios() {
+    var nivel = 0;
+    while (nivel < NIVELES && porNivel[nivel] == 0) {
+      nivel++;
+    }
+    return nivel;
+  }
+
+  private static int nivelDe(int ranura) {
+    return ranura / RANURAS;
+  }
+
+  /**
+   * Temporizador programado; sirve como referencia para cancelarlo.
+   */
+  public static final class Temporizador<T> {
+    private final T valor;
+    private final long tick;
+    private Temporizador<T> anterior;
+    private Temporizador<T> siguiente;
+    private int ranura = -1;
+
+    private Temporizador(T valor, long tick) {
+      this.valor = valor;
+      this.tick = tick;
+    }
+
+    public T valor() {
+      return valor;
+    }
+  }
+}
\ No newline at end of file
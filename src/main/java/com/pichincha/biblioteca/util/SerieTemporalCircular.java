@@ -0,0 +1,87 @@
+package com.pichincha.biblioteca.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Buffer circular de intervalos de duración fija, cada uno con varios contadores
+ * ("dimensiones"). Registrar y consultar los últimos N intervalos cuesta O(N) sin
+ * recorrer ningún historial; los intervalos más antiguos que la capacidad se reciclan.
+ * Es thread-safe.
+ */
+public final class SerieTemporalCircular {
+
+  private final long duracionMs;
+  private final int dimensiones;
+  private final long[] numeroIntervalo;
+  private final long[] contadores;
+
+  public SerieTemporalCircular(Duration duracion, int intervalos, int dimensiones) {
+    if (duracion.isNegative() || duracion.isZero() || intervalos <= 0 || dimensiones <= 0) {
+      throw new IllegalArgumentException("Duración, intervalos y dimensiones deben ser positivos");
+    }
+    this.duracionMs = duracion.toMillis();
+    this.dimensiones = dimensiones;
+    this.numeroIntervalo = new long[intervalos];
+    this.contadores = new long[intervalos * dimensiones];
+    Arrays.fill(numeroIntervalo, Long.MIN_VALUE);
+  }
+
+  public int capacidad() {
+    return numeroIntervalo.length;
+  }
+
+  public Duration duracionIntervalo() {
+    return Duration.ofMillis(duracionMs);
+  }
+
+  public synchronized void registrar(Instant instante, int dimension, long delta) {
+    var numero = Math.floorDiv(instante.toEpochMilli(), duracionMs);
+    var posicion = posicion(numero);
+    if (numeroIntervalo[posicion] != numero) {
+      if (numero < numeroIntervalo[posicion]) {
+        return; // Más antiguo que lo que conserva el buffer
+      }
+      Arrays.fill(contadores, posicion * dimensiones, (posicion + 1) * dimensiones, 0);
+      numeroIntervalo[posicion] = numero;
+    }
+    contadores[posicion * dimensiones + dimension] += delta;
+  }
+
+  /**
+   * Valores de la dimensión en los últimos {@code intervalos} intervalos terminando en
+   * el que contiene {@code ahora}, del más antiguo al más reciente.
+   */
+  public synchronized long[] serie(int dimension, int intervalos, Instant ahora) {
+    validar(intervalos);
+    var actual = Math.floorDiv(ahora.toEpochMilli(), duracionMs);
+    var serie = new long[intervalos];
+    for (int i = 0; i < intervalos; i++) {
+      var numero = actual - (intervalos - 1 - i);
+      var posicion = posicion(numero);
+      if (numeroIntervalo[posicion] == numero) {
+        serie[i] = contadores[posicion * dimensiones + dimension];
+      }
+    }
+    return serie;
+  }
+
+  public long sumar(int dimension, int intervalos, Instant ahora) {
+    var total = 0L;
+    for (var valor : serie(dimension, intervalos, ahora)) {
+      total += valor;
+    }
+    return total;
+  }
+
+  private int posicion(long numero) {
+    return (int) Math.floorMod(numero, (long) numeroIntervalo.length);
+  }
+
+  private void validar(int intervalos) {
+    if (intervalos <= 0 || intervalos > numeroIntervalo.length) {
+      throw new IllegalArgumentException("Se pueden consultar entre 1 y %d intervalos".formatted(numeroIntervalo.length));
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.pichincha.biblioteca.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-K aproximado con el algoritmo Space-Saving (Metwally et al.) en memoria acotada.
+ * Mantiene como máximo {@code capacidad} contadores; cuando llega una clave nueva y no
+ * hay espacio, reemplaza a la de menor cuenta y hereda esa cuenta como error.
+ *
+ * <p>Garantías, con {@code N} = total de ocurrencias registradas y {@code m} = capacidad:
+ * <ul>
+ *   <li>La cuenta estimada nunca es menor que la real y la sobreestima como mucho en
+ *       {@code error <= N / m}; {@code cuenta - error} es una cota inferior garantizada.</li>
+ *   <li>Toda clave con frecuencia real mayor que {@code N / m} está presente.</li>
+ * </ul>
+ * Al combinar resúmenes las cotas se suman: el error queda acotado por {@code N_total / m}
+ * (ver {@link #combinar(SpaceSaving)}). Es thread-safe.
+ */
+public final class SpaceSaving<K> {
+
+  private final int capacidad;
+  private final Map<K, Contador<K>> porClave;
+  // Min-heap por cuenta: la raíz es el contador a reemplazar
+  private final List<Contador<K>> heap;
+  private long total;
+
+  public SpaceSaving(int capacidad) {
+    if (capacidad <= 0) {
+      throw new IllegalArgumentException("La capacidad debe ser positiva");
+    }
+    this.capacidad = capacidad;
+    this.porClave = new HashMap<>(capacidad * 4 / 3 + 1);
+    this.heap = new ArrayList<>(capacidad);
+  }
+
+  public int capacidad() {
+    return capacidad;
+  }
+
+  public synchronized long total() {
+    return total;
+  }
+
+  public void agregar(K clave) {
+    agregar(clave, 1);
+  }
+
+  public synchronized void agregar(K clave, long peso) {
+    total += peso;
+    var existente = porClave.get(clave);
+    if (existente != null) {
+      existente.cuenta += peso;
+      bajar(existente.posicion);
+      return;
+    }
+
+    if (heap.size() < capacidad) {
+      var nuevo = new Contador<>(clave, peso, 0, heap.size());
+      heap.add(nuevo);
+      porClave.put(clave, nuevo);
+      subir(nuevo.posicion);
+      return;
+    }
+
+    // Reemplaza al mínimo: la clave nueva hereda su cuenta como error
+    var minimo = heap.get(0);
+    porClave.remove(minimo.clave);
+    minimo.error = minimo.cuenta;
+    minimo.cuenta += peso;
+    minimo.clave = clave;
+    porClave.put(clave, minimo);
+    bajar(0);
+  }
+
+  /**
+   * Devuelve las {@code n} claves más frecuentes, de mayor a menor cuenta estimada.
+   */
+  public synchronized List<Estimacion<K>> top(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("El tamaño del top no puede ser negativo: " + n);
+    }
+    return heap.stream()
+        .map(contador -> new Estimacion<>(contador.clave, contador.cuenta, contador.error))
+        .sorted(Comparator.comparingLong(Estimacion<K>::cuenta).reversed())
+        .limit(n)
+        .toList();
+  }
+
+  /**
+   * Cota superior del error de cualquier estimación ({@code N / m}).
+   */
+  public synchronized long errorMaximo() {
+    return total / capacidad;
+  }
+
+  /**
+   * Suma a este resumen las estimaciones de {@code otro} y conserva los {@code capacidad}
+   * contadores de mayor cuenta (combinación de resúmenes de Agarwal et al.).
+   *
+   * <p>Una clave ausente de un resumen lleno pudo aparecer en él hasta su cuenta mínima sin quedar
+   * registrada, así que recibe ese mínimo en cuenta y en error; una clave presente en ambos suma
+   * cuentas y errores. Cada error queda acotado por {@code minimo + minimoOtro <= N_total / m},
+   * y toda clave descartada tiene una cuenta real no mayor que el nuevo mínimo.
+   */
+  public void combinar(SpaceSaving<K> otro) {
+    if (otro == this) {
+      throw new IllegalArgumentException("Un resumen no se puede combinar consigo mismo");
+    }
+    List<Contador<K>> contadores;
+    long totalOtro;
+    long minimoOtro;
+    synchronized (otro) {
+      contadores = otro.heap.stream().map(Contador::copia).toList();
+      totalOtro = otro.total;
+      minimoOtro = otro.minimo();
+    }
+    synchronized (this) {
+      var minimoPropio = minimo();
+      var combinados = new HashMap<K, Contador<K>>((heap.size() + contadores.size()) * 4 / 3 + 1);
+      for (var contador : heap) {
+        combinados.put(contador.clave,
+            new Contador<>(contador.clave, contador.cuenta + minimoOtro, contador.error + minimoOtro, 0));
+      }
+      for (var contador : contadores) {
+        var propio = combinados.get(contador.clave);
+        if (propio != null) {
+          // Estaba en ambos: se cambia el mínimo supuesto por lo que registró el otro
+          propio.cuenta += contador.cuenta - minimoOtro;
+          propio.error += contador.error - minimoOtro;
+        } else {
+          combinados.put(contador.clave,
+              new Contador<>(contador.clave, contador.cuenta + minimoPropio, contador.error + minimoPropio, 0));
+        }
+      }
+
+      var conservados = combinados.values().stream()
+          .sorted(Comparator.comparingLong((Contador<K> contador) -> contador.cuenta).reversed())
+          .limit(capacidad)
+          .toList();
+      porClave.clear();
+      heap.clear();
+      for (var contador : conservados) {
+        contador.posicion = heap.size();
+        heap.add(contador);
+        porClave.put(contador.clave, contador);
+      }
+      for (int posicion = heap.size() / 2 - 1; posicion >= 0; posicion--) {
+        bajar(posicion);
+      }
+      total += totalOtro;
+    }
+  }
+
+  public synchronized void limpiar() {
+    porClave.clear();
+    heap.clear();
+    total = 0;
+  }
+
+  // Cuenta máxima que pudo tener una clave no registrada: cero mientras quede espacio
+  private long minimo() {
+    return heap.size() < capacidad ? 0 : heap.get(0).cuenta;
+  }
+
+  private void subir(int posicion) {
+    while (posicion > 0) {
+      var padre = (posicion - 1) / 2;
+      if (heap.get(padre).cuenta <= heap.get(posicion).cuenta) {
+        return;
+      }
+      intercambiar(posicion, padre);
+      posicion = padre;
+    }
+  }
+
+  private void bajar(int posicion) {
+    while (true) {
+      var menor = posicion;
+      var izquierdo = 2 * posicion + 1;
+      var derecho = izquierdo + 1;
+      if (izquierdo < heap.size() && heap.get(izquierdo).cuenta < heap.get(menor).cuenta) {
+        menor = izquierdo;
+      }
+      if (derecho < heap.size() && heap.get(derecho).cuenta < heap.get(menor).cuenta) {
+        menor = derecho;
+      }
+      if (menor == posicion) {
+        return;
+      }
+      intercambiar(posicion, menor);
+      posicion = menor;
+    }
+  }
+
+  private void intercambiar(int a, int b) {
+    var contadorA = heap.get(a);
+    var contadorB = heap.get(b);
+    heap.set(a, contadorB);
+    heap.set(b, contadorA);
+    contadorA.posicion = b;
+    contadorB.posicion = a;
+  }
+
+  /**
+   * Estimación de frecuencia: la real está en {@code [cuenta - error, cuenta]}.
+   */
+  public record Estimacion<K>(K clave, long cuenta, long error) {
+    public long minimoGarantizado() {
+      return cuenta - error;
+    }
+  }
+
+  private static final class Contador<K> {
+    private K clave;
+    private long cuenta;
+    private long error;
+    private int posicion;
+
+    private Contador(K clave, long cuenta, long error, int posicion) {
+      this.clave = clave;
+      this.cuenta = cuenta;
+      this.error = error;
+      this.posicion = posicion;
+    }
+
+    private Contador<K> copia() {
+      return new Contador<>(clave, cuenta, error, posicion);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.pichincha.biblioteca.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Top-K por ventanas de tiempo recientes: un anillo de resúmenes {@link SpaceSaving},
+ * uno por intervalo de duración fija. Consultar una ventana combina los intervalos que
+ * la cubren, por lo que la memoria es {@code intervalos × capacidad} sin importar el tráfico.
+ *
+ * <p>La ventana se redondea hacia arriba a intervalos completos (el borde antiguo puede
+ * incluir hasta un intervalo de más), así que la ventana máxima es
+ * {@code (intervalos - 1) × duración}. El error de cada estimación queda acotado por
+ * {@code N_ventana / capacidad}. Es thread-safe.
+ */
+public final class SpaceSavingPorVentanas<K> {
+
+  private final int capacidad;
+  private final long duracionIntervaloMs;
+  private final SpaceSaving<K>[] intervalos;
+  private final long[] numeroIntervalo;
+
+  public SpaceSavingPorVentanas(int capacidad, Duration duracionIntervalo, int cantidadIntervalos) {
+    if (duracionIntervalo.isNegative() || duracionIntervalo.isZero() || cantidadIntervalos < 2) {
+      throw new IllegalArgumentException("Se requiere una duración positiva y al menos dos intervalos");
+    }
+    this.capacidad = capacidad;
+    this.duracionIntervaloMs = duracionIntervalo.toMillis();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SpaceSaving<K>[] resumenes = new SpaceSaving[cantidadIntervalos];
+    this.intervalos = resumenes;
+    this.numeroIntervalo = new long[cantidadIntervalos];
+    for (int i = 0; i < cantidadIntervalos; i++) {
+      intervalos[i] = new SpaceSaving<>(capacidad);
+      numeroIntervalo[i] = Long.MIN_VALUE;
+    }
+  }
+
+  /**
+   * Ventana más larga que se puede consultar.
+   */
+  public Duration ventanaMaxima() {
+    return Duration.ofMillis(duracionIntervaloMs * (intervalos.length - 1));
+  }
+
+  public synchronized void agregar(K clave, Instant instante) {
+    intervaloPara(instante).agregar(clave);
+  }
+
+  /**
+   * Top {@code n} de los intervalos que caen en {@code [ahora - ventana, ahora]}.
+   */
+  public List<SpaceSaving.Estimacion<K>> top(int n, Duration ventana, Instant ahora) {
+    if (ventana.compareTo(ventanaMaxima()) > 0) {
+      throw new IllegalArgumentException("La ventana supera el máximo de " + ventanaMaxima());
+    }
+    var actual = Math.floorDiv(ahora.toEpochMilli(), duracionIntervaloMs);
+    // Intervalos completos que cubre la ventana más el intervalo en curso
+    var cubiertos = (ventana.toMillis() + duracionIntervaloMs - 1) / duracionIntervaloMs + 1;
+
+    var combinado = new SpaceSaving<K>(capacidad);
+    synchronized (this) {
+      for (int i = 0; i < intervalos.length; i++) {
+        if (numeroIntervalo[i] <= actual && numeroIntervalo[i] > actual - cubiertos) {
+          combinado.combinar(intervalos[i]);
+        }
+      }
+    }
+    return combinado.top(n);
+  }
+
+  private SpaceSaving<K> intervaloPara(Instant instante) {
+    var numero = Math.floorDiv(instante.toEpochMilli(), duracionIntervaloMs);
+    var posicion = (int) Math.floorMod(numero, (long) intervalos.length);
+    if (numeroIntervalo[posicion] != numero) {
+      if (numero < numeroIntervalo[posicion]) {
+        // Evento más antiguo que el intervalo ya reciclado: fuera de toda ventana consultable
+        return new SpaceSaving<>(1);
+      }
+      intervalos[posicion].limpiar();
+      numeroIntervalo[posicion] = numero;
+    }
+    return intervalos[posicion];
+  }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.pichincha.biblioteca.util;
+
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tabla en memoria con el {@link EstadoLibro} de cada libro, indexada directamente por id.
+ * Cada celda guarda el ordinal del estado (más uno; 0 = libro desconocido) en segmentos
+ * {@link AtomicIntegerArray} de 4096 ids que se crean a medida que aparecen ids nuevos.
+ *
+ * <p>Cada {@link TransicionLibro} se aplica con un único compare-and-set del estado de
+ * origen al de destino: sin bloqueos, y de dos transiciones concurrentes sobre el mismo
+ * libro solo gana una. Solo crear segmentos (una vez cada 4096 ids) toma un bloqueo.
+ * Quien necesite escribir además la base de datos en el mismo orden debe serializar por su
+ * cuenta las transiciones de cada libro, como hace {@code EstadosLibroService}.
+ */
+public final class TablaEstados {
+
+  private static final int BITS_SEGMENTO = 12;
+  private static final int TAMANO_SEGMENTO = 1 << BITS_SEGMENTO;
+  private static final int MASCARA = TAMANO_SEGMENTO - 1;
+  private static final int DESCONOCIDO = 0;
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+
+  // Se reemplaza entero al crear un segmento, así la lectura volátil publica los segmentos nuevos
+  private volatile AtomicIntegerArray[] segmentos = new AtomicIntegerArray[0];
+
+  /** Fija el estado del libro sin validar la transición (carga inicial o cambios externos). */
+  public void registrar(long libroId, EstadoLibro estado) {
+    segmentoParaEscribir(libroId).set(posicion(libroId), codigo(estado));
+  }
+
+  /**
+   * Fija el estado solo si el libro todavía no se conoce; devuelve {@code false} si ya estaba,
+   * en cuyo caso el estado de la tabla es más reciente y se conserva.
+   */
+  public boolean registrarSiFalta(long libroId, EstadoLibro estado) {
+    return segmentoParaEscribir(libroId).compareAndSet(posicion(libroId), DESCONOCIDO, codigo(estado));
+  }
+
+  public void olvidar(long libroId) {
+    var segmento = segmento(libroId);
+    if (segmento != null) {
+      segmento.set(posicion(libroId), DESCONOCIDO);
+    }
+  }
+
+  public Optional<EstadoLibro> estado(long libroId) {
+    var segmento = segmento(libroId);
+    if (segmento == null) {
+      return Optional.empty();
+    }
+    var codigo = segmento.get(posicion(libroId));
+    return codigo == DESCONOCIDO ? Optional.empty() : Optional.of(ESTADOS[codigo - 1]);
+  }
+
+  /**
+   * Aplica la transición si el libro está en su estado de origen. Devuelve {@code false} si el
+   * libro es desconocido o está en otro estado (incluido el caso de perder contra otro hilo).
+   */
+  public boolean aplicar(long libroId, TransicionLibro transicion) {
+    return cambiar(libroId, transicion.getDesde(), transicion.getHacia());
+  }
+
+  /** Compare-and-set de {@code desde} a {@code hacia}; sirve también para deshacer una transición. */
+  public boolean cambiar(long libroId, EstadoLibro desde, EstadoLibro hacia) {
+    var segmento = segmento(libroId);
+    return segmento != null && segmento.compareAndSet(posicion(libroId), codigo(desde), codigo(hacia));
+  }
+
+  /** Cantidad de libros conocidos en cada estado, indexada por ordinal; recorre la tabla. */
+  public long[] contarPorEstado() {
+    var conteos = new long[ESTADOS.length];
+    for (var segmento : segmentos) {
+      if (segmento != null) {
+        for (int i = 0; i < TAMANO_SEGMENTO; i++) {
+          var codigo = segmento.get(i);
+          if (codigo != DESCONOCIDO) {
+            conteos[codigo - 1]++;
+          }
+        }
+      }
+    }
+    return conteos;
+  }
+
+  private AtomicIntegerArray segmento(long libroId) {
+    var indice = indiceSegmento(libroId);
+    var actuales = segmentos;
+    return indice < actuales.length ? actuales[indice] : null;
+  }
+
+  private AtomicIntegerArray segmentoParaEscribir(long libroId) {
+    var segmento = segmento(libroId);
+    return segmento != null ? segmento : crearSegmento(indiceSegmento(libroId));
+  }
+
+  private synchronized AtomicIntegerArray crearSegmento(int indice) {
+    var actuales = segmentos;
+    if (indice < actuales.length && actuales[indice] != null) {
+      return actuales[indice];
+    }
+    var nuevos = Arrays.copyOf(actuales, Math.max(indice + 1, actuales.length));
+    nuevos[indice] = new AtomicIntegerArray(TAMANO_SEGMENTO);
+    segmentos = nuevos;
+    return nuevos[indice];
+  }
+
+  private static int indiceSegmento(long libroId) {
+    if (libroId < 0 || libroId > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Id de libro fuera de rango: " + libroId);
+    }
+    return (int) (libroId >>> BITS_SEGMENTO);
+  }
+
+  private static int posicion(long libroId) {
+    return (int) (libroId & MASCARA);
+  }
+
+  private static int codigo(EstadoLibro estado) {
+    return estado.ordinal() + 1;
+  }
+}
\ No newline at end of file
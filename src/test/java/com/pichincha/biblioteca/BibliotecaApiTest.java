@@ -0,0 +1,300 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.configuration.LimiteConcurrenciaFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "biblioteca.api.concurrencia-maxima=20000")
+@DirtiesContext
+@Import(BibliotecaApiTest.RetencionConfiguracion.class)
+@DisplayName("🌐 Tests de la API HTTP")
+class BibliotecaApiTest {
+
+  @LocalServerPort
+  private int puerto;
+
+  @Autowired
+  private LimiteConcurrenciaFilter limiteConcurrencia;
+
+  @Autowired
+  private RetencionController retencion;
+
+  private ExecutorService ejecutor;
+  private HttpClient cliente;
+
+  @BeforeEach
+  void setUp() {
+    ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // HTTP/1.1: una conexión por petición en curso, como los clientes que se quieren simular
+    cliente = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(ejecutor)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    // El cliente no cierra un ejecutor que no creó
+    cliente.close();
+    ejecutor.close();
+  }
+
+  /** Endpoint de prueba que deja cada petición en curso hasta que el test la libera. */
+  @RestController
+  static class RetencionController {
+
+    private volatile CountDownLatch llegadas = new CountDownLatch(0);
+    private volatile CountDownLatch liberar = new CountDownLatch(0);
+
+    void preparar(int cantidad) {
+      llegadas = new CountDownLatch(cantidad);
+      liberar = new CountDownLatch(1);
+    }
+
+    boolean esperarLlegadas(Duration espera) throws InterruptedException {
+      return llegadas.await(espera.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void liberar() {
+      liberar.countDown();
+    }
+
+    @GetMapping("/api/pruebas/retener")
+    String retener() {
+      llegadas.countDown();
+      esperar(liberar);
+      return "liberada";
+    }
+  }
+
+  @TestConfiguration
+  static class RetencionConfiguracion {
+
+    @Bean
+    RetencionController retencionController() {
+      return new RetencionController();
+    }
+  }
+
+  @Nested
+  @DisplayName("📚 Libros y préstamos")
+  class TestLibros {
+
+    @Test
+    @DisplayName("Debería agregar, buscar, prestar y devolver libros por HTTP")
+    void deberiaAtenderElCicloDePrestamo() throws Exception {
+      // Given
+      var alta = enviar("POST", "/api/libros", """
+          {"titulo": "Rayuela", "autor": "Julio Cortázar", "tipo": "FICCION", "formato": "FISICO"}""");
+      var libroId = idDe(alta.body());
+
+      // When
+      var busqueda = enviar("GET", "/api/libros?criterio=Rayuela&por=titulo", null);
+      var prestamo = enviar("POST", "/api/libros/" + libroId + "/prestamo", "{\"usuario\": \"Ana\"}");
+      var repetido = enviar("POST", "/api/libros/" + libroId + "/prestamo", "{\"usuario\": \"Luis\"}");
+      var devolucion = enviar("POST", "/api/libros/" + libroId + "/devolucion", "{\"usuario\": \"Ana\"}");
+      var reporte = enviar("GET", "/api/reportes/resumen", null);
+
+      // Then
+      assertThat(alta.statusCode()).isEqualTo(201);
+      assertThat(busqueda.body()).contains("Rayuela");
+      assertThat(prestamo.statusCode()).isEqualTo(200);
+      assertThat(prestamo.body()).contains("PRESTADO");
+      assertThat(repetido.statusCode()).isEqualTo(409);
+      assertThat(devolucion.body()).contains("DISPONIBLE");
+      assertThat(reporte.statusCode()).isEqualTo(200);
+      assertThat(reporte.body()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar libros inválidos con 400")
+    void deberiaRechazarLibrosInvalidos() throws Exception {
+      // When
+      var sinTitulo = enviar("POST", "/api/libros", """
+          {"titulo": "", "autor": "Autor", "tipo": "FICCION", "formato": "DIGITAL"}""");
+      var tituloCorto = enviar("POST", "/api/libros", """
+          {"titulo": "X", "autor": "Autor", "tipo": "FICCION", "formato": "DIGITAL"}""");
+
+      // Then
+      assertThat(sinTitulo.statusCode()).isEqualTo(400);
+      assertThat(tituloCorto.statusCode()).isEqualTo(400);
+      assertThat(tituloCorto.body()).contains("al menos 2 caracteres");
+    }
+  }
+
+  @Nested
+  @DisplayName("🚦 Límite de concurrencia")
+  class TestLimiteConcurrencia {
+
+    @Test
+    @DisplayName("Debería responder 503 cuando no quedan permisos")
+    void deberiaRechazarPorEncimaDelLimite() throws Exception {
+      // Given
+      var filtro = new LimiteConcurrenciaFilter(1, Duration.ZERO);
+      var enCurso = new CountDownLatch(1);
+      var liberar = new CountDownLatch(1);
+      FilterChain lenta = (request, response) -> {
+        enCurso.countDown();
+        esperar(liberar);
+      };
+      var primera = Thread.ofVirtual().start(() -> {
+        try {
+          filtro.doFilter(peticion(), new MockHttpServletResponse(), lenta);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      assertThat(enCurso.await(10, TimeUnit.SECONDS)).isTrue();
+
+      // When
+      var rechazada = new MockHttpServletResponse();
+      filtro.doFilter(peticion(), rechazada, (request, response) -> fail("No debería pasar el filtro"));
+      liberar.countDown();
+      primera.join();
+
+      // Then
+      assertThat(rechazada.getStatus()).isEqualTo(503);
+      assertThat(rechazada.getHeader("Retry-After")).isEqualTo("1");
+      assertThat(filtro.enCurso()).isZero();
+      assertThat(filtro.pico()).isEqualTo(1);
+    }
+
+    private MockHttpServletRequest peticion() {
+      return new MockHttpServletRequest("GET", "/api/libros");
+    }
+  }
+
+  /**
+   * Deja miles de peticiones en curso en el servidor y, mientras siguen abiertas, lanza préstamos,
+   * devoluciones y consultas sobre pocos libros, cada una desde su propio hilo virtual. Verifica
+   * que el pico de peticiones en curso llega a las retenidas e informa el rendimiento.
+   * Se ejecuta solo con {@code -Dbenchmark=true}.
+   */
+  @Nested
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  @DisplayName("⏱️ Prueba de carga")
+  class TestBenchmark {
+
+    private static final int PETICIONES = 5_000;
+    private static final int RETENIDAS = 2_000;
+    private static final int LIBROS = 20;
+
+    @Test
+    void medirPeticionesConcurrentes() throws Exception {
+      var ids = new ArrayList<Long>();
+      for (int i = 0; i < LIBROS; i++) {
+        ids.add(idDe(enviar("POST", "/api/libros", """
+            {"titulo": "Libro %d", "autor": "Autor %d", "tipo": "FICCION", "formato": "FISICO"}"""
+            .formatted(i, i)).body()));
+      }
+      var porEstado = new ConcurrentHashMap<Integer, AtomicInteger>();
+      var inicio = new CountDownLatch(1);
+      retencion.preparar(RETENIDAS);
+
+      var comienzo = System.nanoTime();
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        try {
+          for (int i = 0; i < RETENIDAS; i++) {
+            executor.submit(() -> {
+              var respuesta = enviar("GET", "/api/pruebas/retener", null);
+              porEstado.computeIfAbsent(respuesta.statusCode(), codigo -> new AtomicInteger()).incrementAndGet();
+              return null;
+            });
+          }
+          assertThat(retencion.esperarLlegadas(Duration.ofMinutes(1))).as("peticiones retenidas").isTrue();
+          assertThat(limiteConcurrencia.enCurso()).isGreaterThanOrEqualTo(RETENIDAS);
+
+          var carga = new ArrayList<Future<?>>(PETICIONES);
+          for (int i = 0; i < PETICIONES; i++) {
+            var n = i;
+            carga.add(executor.submit(() -> {
+              esperar(inicio);
+              var libroId = ids.get(n % LIBROS);
+              var respuesta = switch (n % 3) {
+                case 0 -> enviar("POST", "/api/libros/" + libroId + "/prestamo", "{\"usuario\": \"u" + n + "\"}");
+                case 1 -> enviar("POST", "/api/libros/" + libroId + "/devolucion", "{\"usuario\": \"u" + n + "\"}");
+                default -> enviar("GET", "/api/libros/disponibles", null);
+              };
+              porEstado.computeIfAbsent(respuesta.statusCode(), codigo -> new AtomicInteger()).incrementAndGet();
+              return null;
+            }));
+          }
+          inicio.countDown();
+          for (var tarea : carga) {
+            tarea.get();
+          }
+        } finally {
+          // Las retenidas siguen en curso hasta que se atendió el resto de la carga (o falló el test)
+          inicio.countDown();
+          retencion.liberar();
+        }
+      }
+      var segundos = (System.nanoTime() - comienzo) / 1e9;
+      var total = PETICIONES + RETENIDAS;
+
+      System.out.printf("%,d peticiones en %.2f s | %,.0f peticiones/s | pico en curso: %,d | por estado: %s%n",
+          total, segundos, total / segundos, limiteConcurrencia.pico(), Map.copyOf(porEstado));
+      assertThat(limiteConcurrencia.pico()).isGreaterThanOrEqualTo(RETENIDAS);
+      assertThat(porEstado.keySet()).allMatch(codigo -> codigo == 200 || codigo == 409);
+      assertThat(porEstado.values().stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(total);
+    }
+  }
+
+  private HttpResponse<String> enviar(String metodo, String ruta, String json) throws Exception {
+    var peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+        .timeout(Duration.ofMinutes(1))
+        .header("Content-Type", "application/json")
+        .method(metodo, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+        .build();
+    return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static long idDe(String json) {
+    var inicio = json.indexOf("\"id\":") + 5;
+    var fin = json.indexOf(',', inicio);
+    return Long.parseLong(json.substring(inicio, fin).trim());
+  }
+
+  private static void esperar(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
\ No newline at end of file
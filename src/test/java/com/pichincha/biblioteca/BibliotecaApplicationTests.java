@@ -2,10 +2,14 @@ package com.pichincha.biblioteca;
 
 import com.pichincha.biblioteca.domain.ILibro;
 import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
 import com.pichincha.biblioteca.helper.EstadisticasHelper;
 import com.pichincha.biblioteca.service.BibliotecaService;
+import com.pichincha.biblioteca.service.LibroEvent;
+import com.pichincha.biblioteca.service.LibroEventListener;
+import com.pichincha.biblioteca.service.impl.LibroEventBus;
 import com.pichincha.biblioteca.util.Java21FeaturesUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +18,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +32,9 @@ class BibliotecaApplicationTests {
   @Autowired
   private EstadisticasHelper estadisticasHelper;
 
+  @Autowired
+  private LibroEventBus eventBus;
+
   @Test
   void contextLoads() {
     assertNotNull(bibliotecaService);
@@ -208,6 +216,34 @@ class BibliotecaApplicationTests {
     });
   }
 
+  @Test
+  void testPrestarYDevolverPublicaEventos() {
+    var libro = bibliotecaService.agregarLibro(
+        "Evented Java21 Book", "Author", TipoLibro.FICCION, FormatoLibro.FISICO);
+    var eventos = new CopyOnWriteArrayList<LibroEvent>();
+    LibroEventListener listener = evento -> {
+      if (evento.getLibroInfo().id().equals(libro.getId())) {
+        eventos.add(evento);
+      }
+    };
+    eventBus.suscribir(listener);
+    try {
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      bibliotecaService.devolverLibro(libro.getId());
+    } finally {
+      eventBus.desuscribir(listener);
+    }
+
+    assertEquals(2, eventos.size());
+    var prestado = assertInstanceOf(LibroEvent.LibroPrestado.class, eventos.get(0));
+    assertEquals("Test User", prestado.getUsuario());
+    assertEquals(EstadoLibro.PRESTADO, prestado.getLibroInfo().estado());
+    assertTrue(prestado.getPrestamo().activo());
+    var devuelto = assertInstanceOf(LibroEvent.LibroDevuelto.class, eventos.get(1));
+    assertEquals("Test User", devuelto.getUsuario());
+    assertFalse(devuelto.getPrestamo().activo());
+  }
+
   @Test
   void testValidacionInfoPrestamoRecord() {
     // Test validaciones del record
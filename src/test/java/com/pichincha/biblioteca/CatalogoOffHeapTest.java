@@ -0,0 +1,227 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.util.CatalogoOffHeap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🧊 Tests del catálogo fuera del heap")
+class CatalogoOffHeapTest {
+
+  private static LibroInfo libro(long id, String titulo, String autor) {
+    return new LibroInfo(id, titulo, autor, TipoLibro.FICCION, FormatoLibro.FISICO, EstadoLibro.DISPONIBLE);
+  }
+
+  @Nested
+  @DisplayName("🔁 Ida y vuelta")
+  class TestIdaYVuelta {
+
+    @Test
+    @DisplayName("Debería devolver los mismos datos que se agregaron")
+    void deberiaDevolverLosMismosDatos() {
+      // Given
+      var entidad = Libro.builder()
+          .id(42L)
+          .titulo("Cien años de soledad")
+          .autor("Gabriel García Márquez")
+          .tipo(TipoLibro.NO_FICCION)
+          .formato(FormatoLibro.DIGITAL)
+          .estado(EstadoLibro.PRESTADO)
+          .build();
+
+      try (var catalogo = new CatalogoOffHeap()) {
+        // When
+        var slot = catalogo.agregar(entidad);
+        catalogo.agregar(libro(7L, "Rayuela", "Julio Cortázar"));
+
+        // Then
+        var vista = catalogo.buscarPorId(42L).orElseThrow();
+        assertThat(LibroInfo.fromLibro(vista)).isEqualTo(LibroInfo.fromLibro(entidad));
+        assertThat(catalogo.enSlot(slot)).isEqualTo(vista);
+        assertThat(catalogo.tamano()).isEqualTo(2);
+        assertThat(catalogo.buscarPorId(99L)).isEmpty();
+        assertThatThrownBy(() -> catalogo.enSlot(2)).isInstanceOf(IndexOutOfBoundsException.class);
+      }
+    }
+
+    @Test
+    @DisplayName("Debería recorrer y listar más de un bloque de slots")
+    void deberiaRecorrerVariosBloques() {
+      // Given
+      var cantidad = 70_000;
+      try (var catalogo = new CatalogoOffHeap()) {
+        for (long id = 1; id <= cantidad; id++) {
+          catalogo.agregar(libro(id, "Título " + id, "Autor " + id % 50));
+        }
+
+        // When
+        var ids = new ArrayList<Long>(cantidad);
+        catalogo.recorrer(vista -> ids.add(vista.getId()));
+
+        // Then
+        assertThat(ids).hasSize(cantidad).startsWith(1L).endsWith((long) cantidad);
+        assertThat(catalogo.vistas()).hasSize(cantidad);
+        assertThat(catalogo.vistas().get(cantidad - 1).getTitulo()).isEqualTo("Título " + cantidad);
+      }
+    }
+
+    @Test
+    @DisplayName("Las vistas deberían servir como entrada de una estrategia de búsqueda")
+    void deberiaBuscarSobreLasVistas() {
+      // Given
+      try (var catalogo = new CatalogoOffHeap()) {
+        catalogo.agregar(libro(1L, "Java Concurrency in Practice", "Brian Goetz"));
+        catalogo.agregar(libro(2L, "Effective Java", "Joshua Bloch"));
+        catalogo.agregar(libro(3L, "Ficciones", "Jorge Luis Borges"));
+
+        // When - ambas estrategias encuentran el libro 2; or() lo deja una sola vez
+        var estrategia = SearchStrategy.porTitulo().or(SearchStrategy.porAutor());
+        var ids = estrategia.buscar(catalogo.vistas(), "J").map(ILibro::getId).toList();
+
+        // Then
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L);
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("♻️ Reemplazo")
+  class TestReemplazo {
+
+    @Test
+    @DisplayName("Con el mismo contenido solo debería cambiar el estado, sin descartar memoria")
+    void deberiaActualizarSoloElEstado() {
+      // Given
+      try (var catalogo = new CatalogoOffHeap()) {
+        var slot = catalogo.agregar(libro(1L, "Rayuela", "Julio Cortázar"));
+        var reservados = catalogo.bytesReservados();
+
+        // When
+        var mismoSlot = catalogo.agregar(new LibroInfo(1L, "Rayuela", "Julio Cortázar",
+            TipoLibro.FICCION, FormatoLibro.FISICO, EstadoLibro.PRESTADO));
+
+        // Then
+        assertThat(mismoSlot).isEqualTo(slot);
+        assertThat(catalogo.enSlot(slot).getEstado()).isEqualTo(EstadoLibro.PRESTADO);
+        assertThat(catalogo.bytesDescartados()).isZero();
+        assertThat(catalogo.bytesReservados()).isEqualTo(reservados);
+      }
+    }
+
+    @Test
+    @DisplayName("Con otro contenido debería publicar el registro nuevo en el mismo slot")
+    void deberiaReemplazarEnElMismoSlot() {
+      // Given
+      try (var catalogo = new CatalogoOffHeap()) {
+        var slot = catalogo.agregar(libro(1L, "Rayuela", "Julio Cortázar"));
+        var vista = catalogo.enSlot(slot);
+
+        // When - el autor no cambia, así que su texto se reutiliza
+        catalogo.agregar(libro(1L, "Rayuela (edición conmemorativa)", "Julio Cortázar"));
+
+        // Then
+        assertThat(catalogo.tamano()).isEqualTo(1);
+        assertThat(vista.getTitulo()).isEqualTo("Rayuela (edición conmemorativa)");
+        assertThat(catalogo.buscarPorId(1L).orElseThrow().getAutor()).isEqualTo("Julio Cortázar");
+        assertThat(catalogo.bytesDescartados()).isEqualTo(40 + "Rayuela".length());
+      }
+    }
+
+    @Test
+    @DisplayName("agregarSiFalta no debería tocar un libro ya presente")
+    void deberiaRespetarLoYaAgregado() {
+      // Given
+      try (var catalogo = new CatalogoOffHeap()) {
+        catalogo.agregar(libro(1L, "Rayuela", "Julio Cortázar"));
+        assertThat(catalogo.actualizarEstado(1L, EstadoLibro.PRESTADO)).isTrue();
+
+        // When
+        catalogo.agregarSiFalta(libro(1L, "Otro título", "Otro autor"));
+        catalogo.agregarSiFalta(libro(2L, "Ficciones", "Jorge Luis Borges"));
+
+        // Then
+        var existente = catalogo.buscarPorId(1L).orElseThrow();
+        assertThat(existente.getTitulo()).isEqualTo("Rayuela");
+        assertThat(existente.getEstado()).isEqualTo(EstadoLibro.PRESTADO);
+        assertThat(catalogo.buscarPorId(2L)).isPresent();
+        assertThat(catalogo.actualizarEstado(3L, EstadoLibro.PRESTADO)).isFalse();
+      }
+    }
+  }
+
+  @Nested
+  @DisplayName("🧵 Concurrencia")
+  class TestConcurrencia {
+
+    @Test
+    @DisplayName("Las vistas no deberían mezclar posición y longitud de textos reemplazados")
+    void deberiaLeerRegistrosCompletosMientrasSeReemplazan() throws InterruptedException {
+      // Given - textos de longitudes muy distintas: una lectura mezclada daría otro texto
+      var largo = libro(1L, "A".repeat(300), "a".repeat(7));
+      var corto = new LibroInfo(1L, "B".repeat(3), "b".repeat(90),
+          TipoLibro.NO_FICCION, FormatoLibro.DIGITAL, EstadoLibro.DISPONIBLE);
+      var titulosValidos = List.of(largo.titulo(), corto.titulo());
+      var autoresValidos = List.of(largo.autor(), corto.autor());
+
+      try (var catalogo = new CatalogoOffHeap()) {
+        catalogo.agregar(largo);
+        var lectores = 3;
+        var listos = new CountDownLatch(lectores);
+        var fin = new AtomicBoolean();
+        var invalidos = new ConcurrentLinkedQueue<String>();
+        var pool = Executors.newFixedThreadPool(lectores);
+        for (int i = 0; i < lectores; i++) {
+          pool.execute(() -> {
+            var vista = catalogo.enSlot(0);
+            listos.countDown();
+            while (!fin.get()) {
+              var titulo = vista.getTitulo();
+              var autor = vista.getAutor();
+              if (!titulosValidos.contains(titulo)) {
+                invalidos.add(titulo);
+              }
+              if (!autoresValidos.contains(autor)) {
+                invalidos.add(autor);
+              }
+            }
+          });
+        }
+
+        // When
+        listos.await();
+        IntStream.range(0, 100_000).forEach(i -> catalogo.agregar(i % 2 == 0 ? corto : largo));
+        fin.set(true);
+        detener(pool);
+
+        // Then
+        assertThat(invalidos).isEmpty();
+        assertThat(catalogo.tamano()).isEqualTo(1);
+        assertThat(catalogo.buscarPorId(1L).orElseThrow().getTitulo()).isEqualTo(largo.titulo());
+      }
+    }
+  }
+
+  private static void detener(ExecutorService pool) throws InterruptedException {
+    pool.shutdown();
+    assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+  }
+}
\ No newline at end of file
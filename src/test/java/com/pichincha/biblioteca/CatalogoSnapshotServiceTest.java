@@ -0,0 +1,227 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.repository.LibroRepository;
+import com.pichincha.biblioteca.service.impl.CatalogoSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@DisplayName("📦 Tests del snapshot binario del catálogo")
+class CatalogoSnapshotServiceTest {
+
+  // Fecha anterior a cualquier marca de agua: un cambio con esta fecha no entra en el delta
+  private static final LocalDateTime FECHA_ANTIGUA = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+  @Autowired
+  private LibroRepository libroRepository;
+
+  @Autowired
+  private CatalogoSnapshotService catalogoDeArranque;
+
+  @TempDir
+  Path directorio;
+
+  private Path archivo;
+  private CatalogoSnapshotService snapshot;
+  private Libro libro;
+
+  @BeforeEach
+  void setUp() {
+    archivo = directorio.resolve("catalogo.snap");
+    snapshot = new CatalogoSnapshotService(libroRepository, archivo.toString(), true);
+    libro = guardar("Rayuela", "Julio Cortázar");
+    guardar("Ficciones", "Jorge Luis Borges");
+    guardar("Pedro Páramo", "Juan Rulfo");
+  }
+
+  private Libro guardar(String titulo, String autor) {
+    return libroRepository.save(Libro.builder()
+        .titulo(titulo)
+        .autor(autor)
+        .tipo(TipoLibro.FICCION)
+        .formato(FormatoLibro.FISICO)
+        .build());
+  }
+
+  // Cambia el estado en la base de datos sin mover fechaActualizacion más allá de la marca
+  private void cambiarSinMarca(Long id, EstadoLibro estado) {
+    libroRepository.actualizarEstado(estado, FECHA_ANTIGUA, List.of(id));
+  }
+
+  private static Map<Long, LibroInfo> porId(List<LibroInfo> catalogo) {
+    return catalogo.stream().collect(Collectors.toMap(LibroInfo::id, Function.identity()));
+  }
+
+  @Nested
+  @DisplayName("🔁 Carga desde el snapshot")
+  class TestCarga {
+
+    @Test
+    @DisplayName("Debería leer del snapshot las filas anteriores a la marca de agua")
+    void deberiaLeerDelSnapshotLasFilasAnterioresALaMarca() {
+      // Given - ningún libro tiene fechaActualizacion: la marca sale de fechaCreacion
+      snapshot.guardarSnapshot();
+      cambiarSinMarca(libro.getId(), EstadoLibro.MANTENIMIENTO);
+
+      // When
+      var catalogo = porId(snapshot.cargarCatalogo());
+
+      // Then - sin la marca por fechaCreacion se releería todo y se vería MANTENIMIENTO
+      assertThat(catalogo).hasSize((int) libroRepository.count());
+      assertThat(catalogo.get(libro.getId()).estado()).isEqualTo(EstadoLibro.DISPONIBLE);
+    }
+
+    @Test
+    @DisplayName("Debería releer las filas creadas o modificadas después de la marca de agua")
+    void deberiaReleerLasFilasPosterioresALaMarca() {
+      // Given
+      snapshot.guardarSnapshot();
+      libro.setTitulo("Rayuela (edición conmemorativa)");
+      libroRepository.save(libro);
+      var nuevo = guardar("El Aleph", "Jorge Luis Borges");
+
+      // When
+      var catalogo = porId(snapshot.cargarCatalogo());
+
+      // Then
+      assertThat(catalogo).hasSize((int) libroRepository.count());
+      assertThat(catalogo.get(libro.getId()).titulo()).isEqualTo("Rayuela (edición conmemorativa)");
+      assertThat(catalogo.get(nuevo.getId()).titulo()).isEqualTo("El Aleph");
+    }
+
+    @Test
+    @DisplayName("Debería cargar el catálogo de arranque una sola vez")
+    void deberiaCargarElCatalogoDeArranqueUnaSolaVez() {
+      // Given
+      snapshot.guardarSnapshot();
+      var primero = snapshot.getCatalogo();
+
+      // When
+      guardar("El Aleph", "Jorge Luis Borges");
+
+      // Then
+      assertThat(snapshot.getCatalogo()).isSameAs(primero);
+    }
+
+    @Test
+    @DisplayName("Debería liberar el catálogo de arranque después de que lo lean sus consumidores")
+    void deberiaLiberarElCatalogoDeArranque() {
+      // Given
+      var primero = snapshot.getCatalogo();
+
+      // When
+      snapshot.liberarCatalogo();
+
+      // Then - el del contexto ya se liberó al terminar el arranque
+      assertThat(primero).hasSize((int) libroRepository.count());
+      assertThatThrownBy(snapshot::getCatalogo).isInstanceOf(IllegalStateException.class);
+      assertThatThrownBy(catalogoDeArranque::getCatalogo).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Debería guardar y leer un catálogo de varias páginas")
+    void deberiaGuardarVariasPaginas() {
+      // Given - más filas que una página de lectura del repositorio
+      libroRepository.saveAll(IntStream.range(0, 2_500)
+          .mapToObj(i -> Libro.builder()
+              .titulo("Título " + i)
+              .autor("Autor " + i % 40)
+              .tipo(TipoLibro.NO_FICCION)
+              .formato(FormatoLibro.DIGITAL)
+              .build())
+          .toList());
+
+      // When
+      snapshot.guardarSnapshot();
+      var catalogo = porId(snapshot.cargarCatalogo());
+
+      // Then
+      assertThat(catalogo).hasSize((int) libroRepository.count());
+      assertThat(catalogo.get(libro.getId()).titulo()).isEqualTo("Rayuela");
+    }
+  }
+
+  @Nested
+  @DisplayName("🛡️ Snapshot inválido")
+  class TestSnapshotInvalido {
+
+    @Test
+    @DisplayName("Debería ignorar un snapshot con checksum incorrecto y leer todo el repositorio")
+    void deberiaIgnorarSnapshotConChecksumIncorrecto() throws IOException {
+      // Given
+      snapshot.guardarSnapshot();
+      try (var datos = new RandomAccessFile(archivo.toFile(), "rw")) {
+        var ultimo = datos.length() - 1;
+        datos.seek(ultimo);
+        var original = datos.read();
+        datos.seek(ultimo);
+        datos.write(original ^ 0xFF);
+      }
+      cambiarSinMarca(libro.getId(), EstadoLibro.MANTENIMIENTO);
+
+      // When
+      var catalogo = porId(snapshot.cargarCatalogo());
+
+      // Then - el estado solo puede venir de la lectura completa
+      assertThat(catalogo).hasSize((int) libroRepository.count());
+      assertThat(catalogo.get(libro.getId()).estado()).isEqualTo(EstadoLibro.MANTENIMIENTO);
+    }
+
+    @Test
+    @DisplayName("Debería ignorar un snapshot de otra versión")
+    void deberiaIgnorarSnapshotDeOtraVersion() throws IOException {
+      // Given - la versión va justo después del magic, en little-endian
+      snapshot.guardarSnapshot();
+      try (var datos = new RandomAccessFile(archivo.toFile(), "rw")) {
+        datos.seek(4);
+        datos.write(99);
+        datos.write(0);
+      }
+      cambiarSinMarca(libro.getId(), EstadoLibro.MANTENIMIENTO);
+
+      // When
+      var catalogo = porId(snapshot.cargarCatalogo());
+
+      // Then
+      assertThat(catalogo.get(libro.getId()).estado()).isEqualTo(EstadoLibro.MANTENIMIENTO);
+    }
+
+    @Test
+    @DisplayName("Debería ignorar un archivo truncado")
+    void deberiaIgnorarArchivoTruncado() throws IOException {
+      // Given
+      Files.write(archivo, new byte[]{0x50, 0x4E});
+
+      // When
+      var catalogo = snapshot.cargarCatalogo();
+
+      // Then
+      assertThat(catalogo).hasSize((int) libroRepository.count());
+    }
+  }
+}
\ No newline at end of file
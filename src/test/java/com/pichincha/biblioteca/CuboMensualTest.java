@@ -0,0 +1,146 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.CuboMensual;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🧊 Tests del cubo mensual")
+class CuboMensualTest {
+
+  private static final int[] DIMENSIONES = {3, 4};
+  private static final long[] TODO = {CuboMensual.TODOS, CuboMensual.TODOS};
+  private static final YearMonth MAYO = YearMonth.of(2024, 5);
+
+  private static CuboMensual ida(CuboMensual cubo) {
+    return CuboMensual.deserializar(cubo.serializar(), DIMENSIONES);
+  }
+
+  @Nested
+  @DisplayName("📊 Consultas")
+  class TestConsultas {
+
+    @Test
+    @DisplayName("Debería filtrar por máscara, agrupar y separar por mes")
+    void deberiaFiltrarAgruparYSepararPorMes() {
+      // Given
+      var cubo = new CuboMensual(DIMENSIONES);
+      cubo.sumar(cubo.celda(0, 1), MAYO, 2);
+      cubo.sumar(cubo.celda(0, 3), MAYO, 5);
+      cubo.sumar(cubo.celda(2, 1), MAYO.plusMonths(1), 7);
+
+      // When / Then
+      assertThat(cubo.total(TODO, null, null)).isEqualTo(14);
+      assertThat(cubo.total(new long[]{1L, CuboMensual.TODOS}, null, null)).isEqualTo(7);
+      assertThat(cubo.total(TODO, MAYO.plusMonths(1), null)).isEqualTo(7);
+      assertThat(cubo.agrupar(1, TODO, null, null)).containsExactly(0, 9, 0, 5);
+      assertThat(cubo.porMes(TODO, null, null)).containsExactly(Map.entry(MAYO, 7L), Map.entry(MAYO.plusMonths(1), 7L));
+      assertThatThrownBy(() -> cubo.celda(3, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Debería aceptar meses anteriores al origen sin perder los existentes")
+    void deberiaExtenderHaciaAtras() {
+      // Given
+      var cubo = new CuboMensual(DIMENSIONES);
+      var celda = cubo.celda(1, 2);
+      cubo.sumar(celda, MAYO, 3);
+
+      // When
+      cubo.sumar(celda, MAYO.minusMonths(7), 4);
+      cubo.sumar(celda, MAYO.minusMonths(2), 1);
+
+      // Then
+      assertThat(cubo.porMes(TODO, null, null)).containsExactly(
+          Map.entry(MAYO.minusMonths(7), 4L), Map.entry(MAYO.minusMonths(2), 1L), Map.entry(MAYO, 3L));
+      assertThat(cubo.total(TODO, MAYO.minusMonths(2), MAYO)).isEqualTo(4);
+    }
+  }
+
+  @Nested
+  @DisplayName("💾 Serialización")
+  class TestSerializacion {
+
+    @Test
+    @DisplayName("Debería conservar los contadores de todos los meses en la ida y vuelta")
+    void deberiaConservarLosContadores() {
+      // Given - meses antes del origen, huecos y celdas dispersas
+      var cubo = new CuboMensual(DIMENSIONES);
+      cubo.sumar(cubo.celda(0, 0), MAYO, 1);
+      cubo.sumar(cubo.celda(2, 3), MAYO, 300);
+      cubo.sumar(cubo.celda(1, 1), MAYO.minusMonths(14), 42);
+      cubo.sumar(cubo.celda(1, 2), MAYO.plusMonths(3), 9);
+
+      // When
+      var copia = ida(cubo);
+
+      // Then
+      assertThat(copia.porMes(TODO, null, null)).isEqualTo(cubo.porMes(TODO, null, null));
+      for (int fila = 0; fila < DIMENSIONES[0]; fila++) {
+        var mascaras = new long[]{1L << fila, CuboMensual.TODOS};
+        assertThat(copia.agrupar(1, mascaras, null, null)).containsExactly(cubo.agrupar(1, mascaras, null, null));
+      }
+      assertThat(copia.serializar()).isEqualTo(cubo.serializar());
+    }
+
+    @Test
+    @DisplayName("Debería conservar deltas negativos y valores extremos")
+    void deberiaConservarDeltasNegativos() {
+      // Given - las existencias guardan variaciones netas, que pueden ser negativas
+      var cubo = new CuboMensual(DIMENSIONES);
+      cubo.sumar(cubo.celda(0, 0), MAYO, -1);
+      cubo.sumar(cubo.celda(0, 1), MAYO, -5_000_000_000L);
+      cubo.sumar(cubo.celda(0, 2), MAYO, Long.MIN_VALUE);
+      cubo.sumar(cubo.celda(0, 3), MAYO, Long.MAX_VALUE);
+
+      // When
+      var copia = ida(cubo);
+
+      // Then
+      assertThat(copia.agrupar(1, TODO, null, null)).containsExactly(-1, -5_000_000_000L, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Un cubo vacío debería ida y volver vacío")
+    void deberiaSerializarUnCuboVacio() {
+      var copia = ida(new CuboMensual(DIMENSIONES));
+
+      assertThat(copia.porMes(TODO, null, null)).isEmpty();
+      assertThat(copia.total(TODO, null, null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un contenido con el checksum alterado")
+    void deberiaRechazarChecksumAlterado() {
+      // Given
+      var cubo = new CuboMensual(DIMENSIONES);
+      cubo.sumar(cubo.celda(1, 1), MAYO, 12);
+      var datos = cubo.serializar();
+
+      // When - un bit cambiado en el cuerpo
+      datos[datos.length / 2] ^= 0x01;
+
+      // Then
+      assertThatThrownBy(() -> CuboMensual.deserializar(datos, DIMENSIONES))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Checksum");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar otras dimensiones y contenidos truncados")
+    void deberiaRechazarDimensionesDistintasYTruncados() {
+      var datos = new CuboMensual(DIMENSIONES).serializar();
+
+      assertThatThrownBy(() -> CuboMensual.deserializar(datos, 4, 3))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Dimensiones");
+      assertThatThrownBy(() -> CuboMensual.deserializar(new byte[5], DIMENSIONES))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.AutorCanonicoListener;
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.util.DiccionarioCadenas;
+import com.pichincha.biblioteca.util.Java21FeaturesUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("📇 Tests del diccionario de cadenas")
+class DiccionarioCadenasTest {
+
+  private static List<ILibro> catalogo(int cantidad, int autores) {
+    return IntStream.range(0, cantidad)
+        .mapToObj(i -> (ILibro) Libro.builder()
+            .id((long) i + 1)
+            .titulo("Título " + i)
+            // new String simula las copias que llegan desde la base de datos
+            .autor(new String("Autor Número " + (i % autores)))
+            .tipo(TipoLibro.values()[i % 2])
+            .formato(FormatoLibro.values()[i % 2])
+            .estado(EstadoLibro.DISPONIBLE)
+            .build())
+        .toList();
+  }
+
+  @Nested
+  @DisplayName("🔤 Codificación")
+  class TestCodificacion {
+
+    @Test
+    @DisplayName("Debería asignar códigos estables y compartir la instancia canónica")
+    void deberiaAsignarCodigosEstables() {
+      var diccionario = new DiccionarioCadenas();
+
+      var codigo = diccionario.codificar("Isabel Allende");
+
+      assertThat(diccionario.codificar(new String("Isabel Allende"))).isEqualTo(codigo);
+      assertThat(diccionario.codigoDe("Mario Vargas Llosa")).isEqualTo(-1);
+      assertThat(diccionario.decodificar(codigo)).isEqualTo("Isabel Allende");
+      assertThat(diccionario.canonica(new String("Isabel Allende")))
+          .isSameAs(diccionario.canonica(new String("Isabel Allende")));
+      assertThat(diccionario.tamano()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Los libros cargados y sus LibroInfo deberían compartir el autor")
+    void deberiaCompartirAutorEnLibrosCargados() {
+      // Given
+      var diccionario = new DiccionarioCadenas();
+      var listener = new AutorCanonicoListener(diccionario);
+      var libros = catalogo(10, 2);
+
+      // When - lo que Hibernate hace al cargar cada entidad
+      libros.forEach(libro -> listener.alCargar((Libro) libro));
+
+      // Then
+      var primero = LibroInfo.fromLibro(libros.get(0));
+      var tercero = LibroInfo.fromLibro(libros.get(2));
+      assertThat(primero.autor()).isSameAs(tercero.autor());
+      assertThat(diccionario.tamano()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("El filtro memorizado debería evaluar la condición una vez por valor distinto")
+    void deberiaEvaluarUnaVezPorValor() {
+      // Given - un diccionario con muchos códigos que la consulta no toca
+      var diccionario = new DiccionarioCadenas();
+      IntStream.range(0, 10_000).forEach(i -> diccionario.codificar("Otro " + i));
+      var evaluaciones = new AtomicInteger();
+      var filtro = diccionario.filtroMemorizado(autor -> {
+        evaluaciones.incrementAndGet();
+        return autor.endsWith("1");
+      });
+
+      // When
+      var coincidencias = catalogo(300, 3).stream().filter(libro -> filtro.test(libro.getAutor())).count();
+
+      // Then
+      assertThat(coincidencias).isEqualTo(100);
+      assertThat(evaluaciones).hasValue(3);
+      assertThat(DiccionarioCadenas.memorizar(autor -> autor.endsWith("2")).test("Autor Número 2")).isTrue();
+    }
+  }
+
+  @Nested
+  @DisplayName("🔎 Agrupación y búsqueda")
+  class TestAgrupacionYBusqueda {
+
+    @Test
+    @DisplayName("contarLibrosPorAutor debería coincidir con groupingBy")
+    void deberiaContarIgualQueGroupingBy() {
+      var libros = catalogo(1_000, 37);
+
+      var esperado = libros.stream()
+          .collect(Collectors.groupingBy(ILibro::getAutor, Collectors.counting()));
+
+      assertThat(Java21FeaturesUtil.contarLibrosPorAutor(libros)).isEqualTo(esperado);
+    }
+
+    @Test
+    @DisplayName("El conteo paralelo debería coincidir con el secuencial")
+    void deberiaContarEnParaleloIgualQueSecuencial() {
+      var libros = catalogo(50_000, 1_200);
+
+      var esperado = libros.stream()
+          .collect(Collectors.groupingBy(ILibro::getAutor, Collectors.counting()));
+
+      assertThat(Java21FeaturesUtil.contarLibrosPorAutorParalelo(libros)).isEqualTo(esperado);
+      assertThat(Java21FeaturesUtil.contarLibrosPorAutorParalelo(new LinkedList<>(libros))).isEqualTo(esperado);
+      assertThat(Java21FeaturesUtil.contarLibrosPorAutorParalelo(List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("La búsqueda por autor debería devolver los mismos libros")
+    void deberiaBuscarPorAutor() {
+      var libros = catalogo(500, 20);
+
+      var encontrados = SearchStrategy.porAutor().buscar(libros, "número 1").toList();
+      var exactos = SearchStrategy.porAutorExacto().buscar(libros, "autor número 7").toList();
+
+      assertThat(encontrados).isEqualTo(libros.stream()
+          .filter(libro -> libro.getAutor().toLowerCase().contains("número 1"))
+          .toList());
+      assertThat(exactos).hasSize(25).allMatch(libro -> libro.getAutor().equals("Autor Número 7"));
+    }
+  }
+
+  /**
+   * Mide el heap retenido por los autores de un catálogo con y sin el diccionario, y el
+   * escalado del conteo por autor con la cantidad de hilos. Se ejecuta solo con {@code -Dbenchmark=true}.
+   */
+  @Nested
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  @DisplayName("⏱️ Benchmarks de memoria y conteo")
+  class TestBenchmark {
+
+    private static final int LIBROS = 500_000;
+    private static final int AUTORES = 5_000;
+
+    @Test
+    void medirReduccionDeHeap() {
+      var libros = catalogo(LIBROS, AUTORES);
+
+      var antes = heapUsado();
+      var copias = new ArrayList<String>(LIBROS);
+      libros.forEach(libro -> copias.add(new String(libro.getAutor())));
+      var bytesSinDiccionario = heapUsado() - antes;
+
+      antes = heapUsado();
+      var diccionario = new DiccionarioCadenas();
+      var canonicas = new ArrayList<String>(LIBROS);
+      libros.forEach(libro -> canonicas.add(diccionario.canonica(libro.getAutor())));
+      var bytesConDiccionario = heapUsado() - antes;
+
+      System.out.printf("Autores sin diccionario: %,d bytes | con diccionario: %,d bytes (%d autores)%n",
+          bytesSinDiccionario, bytesConDiccionario, diccionario.tamano());
+      assertThat(copias).hasSameSizeAs(canonicas);
+      assertThat(bytesConDiccionario).isLessThan(bytesSinDiccionario);
+    }
+
+    /**
+     * Compara el conteo secuencial, el paralelo por tramos y {@code groupingBy} en paralelo
+     * con 1M de libros en pools de distinto tamaño.
+     */
+    @Test
+    void medirEscaladoDelConteoPorAutor() throws Exception {
+      var libros = catalogo(1_000_000, AUTORES);
+      var esperado = Java21FeaturesUtil.contarLibrosPorAutorParalelo(libros);
+      var nucleos = Runtime.getRuntime().availableProcessors();
+
+      System.out.printf("Secuencial: %,d ms%n", medir(() -> contarSecuencial(libros)));
+      for (var hilos : new TreeSet<>(List.of(1, 2, 4, nucleos))) {
+        var pool = new ForkJoinPool(hilos);
+        try {
+          var tramos = pool.submit(() -> medir(() -> Java21FeaturesUtil.contarLibrosPorAutorParalelo(libros))).get();
+          var agrupando = pool.submit(() -> medir(() -> libros.parallelStream()
+              .collect(Collectors.groupingByConcurrent(ILibro::getAutor, Collectors.counting())))).get();
+          System.out.printf("%2d hilos | por tramos: %,d ms | groupingByConcurrent: %,d ms%n",
+              hilos, tramos, agrupando);
+          assertThat(pool.submit(() -> Java21FeaturesUtil.contarLibrosPorAutorParalelo(libros)).get())
+              .isEqualTo(esperado);
+        } finally {
+          pool.shutdown();
+        }
+      }
+      assertThat(contarSecuencial(libros)).isEqualTo(esperado);
+    }
+
+    private static Map<String, Long> contarSecuencial(List<ILibro> libros) {
+      // Tramos por debajo del umbral, para medir el camino secuencial con el mismo catálogo
+      var resultado = new HashMap<String, Long>();
+      for (int desde = 0; desde < libros.size(); desde += Java21FeaturesUtil.UMBRAL_CONTEO_PARALELO - 1) {
+        var tramo = libros.subList(desde, Math.min(libros.size(), desde + Java21FeaturesUtil.UMBRAL_CONTEO_PARALELO - 1));
+        Java21FeaturesUtil.contarLibrosPorAutor(tramo).forEach((autor, cantidad) -> resultado.merge(autor, cantidad, Long::sum));
+      }
+      return resultado;
+    }
+
+    private static long medir(Supplier<?> conteo) {
+      var mejor = Long.MAX_VALUE;
+      for (int i = 0; i < 5; i++) {
+        var inicio = System.nanoTime();
+        conteo.get();
+        mejor = Math.min(mejor, System.nanoTime() - inicio);
+      }
+      return mejor / 1_000_000;
+    }
+
+    private static long heapUsado() {
+      var runtime = Runtime.getRuntime();
+      for (int i = 0; i < 3; i++) {
+        System.gc();
+      }
+      return runtime.totalMemory() - runtime.freeMemory();
+    }
+  }
+}
\ No newline at end of file
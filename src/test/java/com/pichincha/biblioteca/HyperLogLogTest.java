@@ -0,0 +1,135 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.HyperLogLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🔢 Tests del contador de distintos HyperLogLog")
+class HyperLogLogTest {
+
+  private static HyperLogLog contar(String prefijo, int desde, int hasta) {
+    var contador = new HyperLogLog();
+    for (int i = desde; i < hasta; i++) {
+      contador.agregar(prefijo + i);
+    }
+    return contador;
+  }
+
+  // Margen de tres errores estándar alrededor del valor real
+  private static void assertCercano(HyperLogLog contador, long real) {
+    var margen = 3 * contador.errorEstandar() * real;
+    assertThat((double) contador.estimar()).isCloseTo(real, within(margen));
+  }
+
+  @Nested
+  @DisplayName("📏 Estimación")
+  class TestEstimacion {
+
+    @Test
+    @DisplayName("Un contador vacío debería estimar cero")
+    void deberiaEstimarCeroSinElementos() {
+      assertThat(new HyperLogLog().estimar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Los repetidos no deberían alterar el conteo")
+    void deberiaIgnorarRepetidos() {
+      // Given
+      var contador = contar("usuario-", 0, 1_000);
+      var antes = contador.estimar();
+
+      // When
+      for (int i = 0; i < 1_000; i++) {
+        contador.agregar("usuario-" + i);
+      }
+
+      // Then
+      assertThat(contador.estimar()).isEqualTo(antes);
+      assertCercano(contador, 1_000);
+    }
+
+    @Test
+    @DisplayName("Debería estimar cardinalidades grandes dentro del error estándar")
+    void deberiaEstimarCardinalidadesGrandes() {
+      // When
+      var contador = contar("libro-", 0, 100_000);
+
+      // Then
+      assertThat(contador.errorEstandar()).isCloseTo(0.0081, within(0.0001));
+      assertCercano(contador, 100_000);
+      assertThat(contador.toByteArray()).hasSize(16 * 1024);
+    }
+
+    @Test
+    @DisplayName("Con menos precisión debería usar menos memoria y acotar peor")
+    void deberiaRespetarLaPrecision() {
+      // Given
+      var contador = new HyperLogLog(10);
+
+      // When
+      for (int i = 0; i < 50_000; i++) {
+        contador.agregar("autor-" + i);
+      }
+
+      // Then
+      assertThat(contador.precision()).isEqualTo(10);
+      assertThat(contador.toByteArray()).hasSize(1024);
+      assertCercano(contador, 50_000);
+      assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> new HyperLogLog(19)).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("🔗 Combinación")
+  class TestCombinacion {
+
+    @Test
+    @DisplayName("Combinar particiones solapadas debería equivaler a contar la unión")
+    void deberiaCombinarComoLaUnion() {
+      // Given - 60k + 60k elementos con 20k en común
+      var primera = contar("k", 0, 60_000);
+      var segunda = contar("k", 40_000, 100_000);
+      var union = contar("k", 0, 100_000);
+
+      // When
+      var combinado = HyperLogLog.unir(List.of(primera, segunda));
+      primera.combinar(segunda);
+
+      // Then
+      assertThat(primera.toByteArray()).isEqualTo(union.toByteArray());
+      assertThat(combinado.estimar()).isEqualTo(union.estimar());
+      assertCercano(union, 100_000);
+    }
+
+    @Test
+    @DisplayName("No debería combinar contadores de distinta precisión")
+    void noDeberiaCombinarDistintaPrecision() {
+      var contador = new HyperLogLog(12);
+
+      assertThatThrownBy(() -> contador.combinar(new HyperLogLog(14)))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debería reconstruirse desde sus registros y limpiarse")
+    void deberiaReconstruirseDesdeSusRegistros() {
+      // Given
+      var contador = contar("titulo-", 0, 5_000);
+
+      // When
+      var copia = HyperLogLog.desde(contador.toByteArray());
+      contador.limpiar();
+
+      // Then
+      assertThat(copia.estimar()).isEqualTo(contar("titulo-", 0, 5_000).estimar());
+      assertThat(contador.estimar()).isZero();
+      assertThatThrownBy(() -> HyperLogLog.desde(new byte[1000])).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+}
\ No newline at end of file
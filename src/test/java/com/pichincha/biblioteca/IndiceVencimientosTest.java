@@ -0,0 +1,169 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.util.IndiceVencimientos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("📅 Tests del índice de vencimientos")
+class IndiceVencimientosTest {
+
+  private static final LocalDate HOY = LocalDate.of(2024, 3, 15);
+
+  private IndiceVencimientos indice;
+
+  @BeforeEach
+  void setUp() {
+    indice = new IndiceVencimientos();
+  }
+
+  // Préstamo activo tomado hace 'haceDias' días que vence en 'venceEn' días desde HOY
+  private static InfoPrestamo prestamo(long libroId, int haceDias, int venceEn) {
+    return new InfoPrestamo(libroId, "Libro " + libroId, "usuario" + libroId,
+        HOY.minusDays(haceDias), HOY.plusDays(venceEn), true);
+  }
+
+  @Nested
+  @DisplayName("🔎 Consultas")
+  class TestConsultas {
+
+    @Test
+    @DisplayName("Debería devolver solo los vencidos, ordenados por fecha de devolución")
+    void deberiaDevolverVencidosOrdenados() {
+      // Given
+      var vencidoHaceTres = prestamo(1L, 20, -3);
+      var vencidoAyer = prestamo(2L, 15, -1);
+      var venceHoy = prestamo(3L, 14, 0);
+      var venceManana = prestamo(4L, 13, 1);
+      indice.registrar(vencidoAyer);
+      indice.registrar(venceManana);
+      indice.registrar(vencidoHaceTres);
+      indice.registrar(venceHoy);
+
+      // When
+      var vencidos = indice.vencidos(HOY);
+
+      // Then - el que vence hoy todavía no está vencido, igual que InfoPrestamo.estaVencido
+      assertThat(vencidos).containsExactly(vencidoHaceTres, vencidoAyer);
+      assertThat(vencidos).allMatch(prestamo -> prestamo.estaVencido(HOY));
+      assertThat(indice.vencidos(HOY.plusDays(1))).containsExactly(vencidoHaceTres, vencidoAyer, venceHoy);
+    }
+
+    @Test
+    @DisplayName("El rango de vencimiento debería incluir ambos extremos")
+    void deberiaIncluirAmbosExtremosDelRango() {
+      // Given
+      var antes = prestamo(1L, 10, 1);
+      var desde = prestamo(2L, 10, 2);
+      var medio = prestamo(3L, 10, 3);
+      var hasta = prestamo(4L, 10, 4);
+      var despues = prestamo(5L, 10, 5);
+      for (var prestamo : new InfoPrestamo[]{despues, hasta, medio, desde, antes}) {
+        indice.registrar(prestamo);
+      }
+
+      // When / Then
+      assertThat(indice.vencenEntre(HOY.plusDays(2), HOY.plusDays(4))).containsExactly(desde, medio, hasta);
+      assertThat(indice.vencenEntre(HOY.plusDays(3), HOY.plusDays(3))).containsExactly(medio);
+      assertThat(indice.vencenEntre(HOY.plusDays(4), HOY.plusDays(2))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Préstamos con la misma fecha deberían conservarse todos, desempatados por libro")
+    void deberiaConservarEmpatesDeFecha() {
+      // Given - mismas fechas de préstamo y devolución
+      var tercero = prestamo(30L, 20, -2);
+      var primero = prestamo(10L, 20, -2);
+      var segundo = prestamo(20L, 20, -2);
+      indice.registrar(tercero);
+      indice.registrar(primero);
+      indice.registrar(segundo);
+
+      // When / Then
+      assertThat(indice.tamano()).isEqualTo(3);
+      assertThat(indice.vencidos(HOY)).containsExactly(primero, segundo, tercero);
+      assertThat(indice.vencenEntre(HOY.minusDays(2), HOY.minusDays(2))).containsExactly(primero, segundo, tercero);
+      assertThat(indice.masAntiguo()).contains(primero);
+    }
+
+    @Test
+    @DisplayName("Debería encontrar el préstamo más antiguo por fecha de préstamo")
+    void deberiaEncontrarElMasAntiguo() {
+      // Given - el más antiguo no es el que vence primero
+      var antiguo = prestamo(1L, 30, 5);
+      indice.registrar(prestamo(2L, 10, -1));
+      indice.registrar(antiguo);
+
+      // When / Then
+      assertThat(indice.masAntiguo()).contains(antiguo);
+      assertThat(new IndiceVencimientos().masAntiguo()).isEmpty();
+    }
+  }
+
+  @Nested
+  @DisplayName("♻️ Actualizaciones")
+  class TestActualizaciones {
+
+    @Test
+    @DisplayName("Una devolución debería sacar el préstamo de todos los índices")
+    void deberiaEliminarAlDevolver() {
+      // Given
+      var devuelto = prestamo(1L, 20, -5);
+      var otro = prestamo(2L, 10, -1);
+      indice.registrar(devuelto);
+      indice.registrar(otro);
+
+      // When
+      var eliminado = indice.eliminar(1L);
+
+      // Then
+      assertThat(eliminado).contains(devuelto);
+      assertThat(indice.buscar(1L)).isEmpty();
+      assertThat(indice.vencidos(HOY)).containsExactly(otro);
+      assertThat(indice.masAntiguo()).contains(otro);
+      assertThat(indice.eliminar(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Registrar un préstamo inactivo debería equivaler a eliminarlo")
+    void deberiaEliminarAlRegistrarInactivo() {
+      // Given
+      var prestamo = prestamo(1L, 20, -5);
+      indice.registrar(prestamo);
+
+      // When
+      indice.registrar(prestamo.marcarComoDevuelto());
+
+      // Then
+      assertThat(indice.tamano()).isZero();
+      assertThat(indice.vencidos(HOY)).isEmpty();
+      assertThat(indice.masAntiguo()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Una renovación debería reemplazar la fecha de devolución anterior")
+    void deberiaReemplazarAlRenovar() {
+      // Given
+      var original = prestamo(1L, 20, -2);
+      indice.registrar(original);
+
+      // When
+      var renovado = original.renovar(7);
+      indice.registrar(renovado);
+
+      // Then - sin restos de la clave anterior
+      assertThat(indice.tamano()).isEqualTo(1);
+      assertThat(indice.buscar(1L)).contains(renovado);
+      assertThat(indice.vencidos(HOY)).isEmpty();
+      assertThat(indice.vencenEntre(HOY.minusDays(2), HOY.minusDays(2))).isEmpty();
+      assertThat(indice.vencenEntre(HOY, HOY.plusDays(7))).containsExactly(renovado);
+      assertThat(indice.masAntiguo()).contains(renovado);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,250 @@
+package com.pichincha.biblioteca;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.Libro;
+import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.util.LibroCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🧬 Tests del codec binario LibroCodec")
+class LibroCodecTest {
+
+  private static Libro libroCompleto() {
+    return Libro.builder()
+        .id(1_234_567L)
+        .titulo("Cien años de soledad")
+        .autor("Gabriel García Márquez")
+        .tipo(TipoLibro.FICCION)
+        .formato(FormatoLibro.FISICO)
+        .estado(EstadoLibro.PRESTADO)
+        .fechaCreacion(LocalDateTime.of(2023, 5, 17, 10, 30, 15, 123_456_789))
+        .fechaActualizacion(LocalDateTime.of(2024, 1, 2, 8, 0))
+        .descripcion("Novela del realismo mágico")
+        .numeroPaginas(471)
+        .isbn("978-0307474728")
+        .build();
+  }
+
+  @Nested
+  @DisplayName("🔁 Ida y vuelta")
+  class TestIdaYVuelta {
+
+    @Test
+    @DisplayName("Debería preservar todos los campos de Libro")
+    void deberiaPreservarLibro() {
+      var libro = libroCompleto();
+
+      var decodificado = LibroCodec.leerLibro(ByteBuffer.wrap(LibroCodec.codificar(libro)));
+
+      assertThat(decodificado).usingRecursiveComparison().isEqualTo(libro);
+    }
+
+    @Test
+    @DisplayName("Debería preservar los campos opcionales nulos de Libro")
+    void deberiaPreservarLibroConNulos() {
+      var libro = Libro.builder()
+          .titulo("Sapiens")
+          .autor("Yuval Noah Harari")
+          .tipo(TipoLibro.NO_FICCION)
+          .formato(FormatoLibro.DIGITAL)
+          .fechaCreacion(null)
+          .build();
+
+      var decodificado = LibroCodec.leerLibro(ByteBuffer.wrap(LibroCodec.codificar(libro)));
+
+      assertThat(decodificado).usingRecursiveComparison().isEqualTo(libro);
+      assertThat(decodificado.getId()).isNull();
+      assertThat(decodificado.getFechaCreacion()).isNull();
+    }
+
+    @Test
+    @DisplayName("Debería preservar LibroInfo con y sin id")
+    void deberiaPreservarLibroInfo() {
+      var conId = new LibroInfo(42L, "1984", "George Orwell",
+          TipoLibro.FICCION, FormatoLibro.DIGITAL, EstadoLibro.RESERVADO);
+      var sinId = new LibroInfo(null, "El Principito", "Antoine de Saint-Exupéry",
+          TipoLibro.FICCION, FormatoLibro.FISICO, EstadoLibro.DISPONIBLE);
+
+      assertThat(LibroCodec.leerLibroInfo(ByteBuffer.wrap(LibroCodec.codificar(conId)))).isEqualTo(conId);
+      assertThat(LibroCodec.leerLibroInfo(ByteBuffer.wrap(LibroCodec.codificar(sinId)))).isEqualTo(sinId);
+    }
+
+    @Test
+    @DisplayName("Debería preservar InfoPrestamo activo y devuelto")
+    void deberiaPreservarInfoPrestamo() {
+      var activo = new InfoPrestamo(7L, "Fundación", "María López",
+          LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 13), true);
+      var devuelto = new InfoPrestamo(8L, "Antiguo", "Juan Pérez",
+          LocalDate.of(1960, 1, 1), LocalDate.of(1960, 1, 15), false);
+
+      assertThat(LibroCodec.leerInfoPrestamo(ByteBuffer.wrap(LibroCodec.codificar(activo)))).isEqualTo(activo);
+      assertThat(LibroCodec.leerInfoPrestamo(ByteBuffer.wrap(LibroCodec.codificar(devuelto)))).isEqualTo(devuelto);
+    }
+
+    @Test
+    @DisplayName("Debería leer varios registros consecutivos del mismo buffer")
+    void deberiaLeerRegistrosConsecutivos() {
+      var libros = IntStream.rangeClosed(1, 100)
+          .mapToObj(i -> new LibroInfo((long) i * 1000, "Título " + i, "Autor " + (i % 7),
+              TipoLibro.values()[i % 2], FormatoLibro.values()[i % 2], EstadoLibro.values()[i % 5]))
+          .toList();
+      var buffer = ByteBuffer.allocate(libros.stream().mapToInt(LibroCodec::tamanoMaximo).sum());
+      libros.forEach(libro -> LibroCodec.escribir(buffer, libro));
+      buffer.flip();
+
+      var leidos = IntStream.range(0, libros.size())
+          .mapToObj(i -> LibroCodec.leerLibroInfo(buffer))
+          .toList();
+
+      assertThat(leidos).isEqualTo(libros);
+      assertThat(buffer.hasRemaining()).isFalse();
+    }
+  }
+
+  @Nested
+  @DisplayName("🔢 Primitivas")
+  class TestPrimitivas {
+
+    @Test
+    @DisplayName("Debería codificar varints en el mínimo de bytes")
+    void deberiaCodificarVarints() {
+      var buffer = ByteBuffer.allocate(32);
+
+      LibroCodec.escribirVarLong(buffer, 127);
+      assertThat(buffer.position()).isEqualTo(1);
+      LibroCodec.escribirVarLong(buffer, 128);
+      assertThat(buffer.position()).isEqualTo(3);
+      LibroCodec.escribirVarLong(buffer, Long.MAX_VALUE);
+
+      buffer.flip();
+      assertThat(LibroCodec.leerVarLong(buffer)).isEqualTo(127);
+      assertThat(LibroCodec.leerVarLong(buffer)).isEqualTo(128);
+      assertThat(LibroCodec.leerVarLong(buffer)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Debería ser más compacto que JSON y ObjectOutputStream")
+    void deberiaSerMasCompacto() throws IOException {
+      var libro = LibroInfo.fromLibro(libroCompleto());
+
+      var codec = LibroCodec.codificar(libro).length;
+      var json = Comparacion.JSON.writeValueAsBytes(libro).length;
+      var java = Comparacion.serializar(Comparacion.LibroSerializable.de(libro)).length;
+
+      assertThat(codec).isLessThan(json).isLessThan(java);
+    }
+  }
+
+  /**
+   * Micro-benchmark contra JSON (Jackson) y ObjectOutputStream.
+   * Se ejecuta solo con {@code -Dbenchmark=true}.
+   */
+  @Nested
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  @DisplayName("⏱️ Benchmark de serialización")
+  class TestBenchmark {
+
+    private static final int REGISTROS = 100_000;
+    private static final int RONDAS = 5;
+
+    private final List<InfoPrestamo> prestamos = IntStream.range(0, REGISTROS)
+        .mapToObj(i -> new InfoPrestamo(i + 1L, "Título del libro " + i, "Usuario " + (i % 500),
+            LocalDate.of(2024, 1, 1).plusDays(i % 365), LocalDate.of(2024, 1, 15).plusDays(i % 365),
+            i % 3 != 0))
+        .toList();
+
+    @Test
+    void compararSerializadores() throws Exception {
+      for (int ronda = 0; ronda < RONDAS; ronda++) {
+        var codec = medir("LibroCodec", () -> {
+          var buffer = ByteBuffer.allocate(REGISTROS * 128);
+          prestamos.forEach(prestamo -> LibroCodec.escribir(buffer, prestamo));
+          buffer.flip();
+          for (int i = 0; i < REGISTROS; i++) {
+            LibroCodec.leerInfoPrestamo(buffer);
+          }
+          return buffer.limit();
+        });
+        var json = medir("Jackson JSON", () -> {
+          var bytes = Comparacion.JSON.writeValueAsBytes(prestamos);
+          Comparacion.JSON.readValue(bytes, InfoPrestamo[].class);
+          return bytes.length;
+        });
+        var java = medir("ObjectOutputStream", () -> {
+          var bytes = Comparacion.serializar(prestamos.stream()
+              .map(Comparacion.PrestamoSerializable::de)
+              .toArray(Comparacion.PrestamoSerializable[]::new));
+          try (var entrada = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            entrada.readObject();
+          }
+          return bytes.length;
+        });
+        assertThat(codec).isLessThan(json).isLessThan(java);
+      }
+    }
+
+    private long medir(String nombre, Operacion operacion) throws Exception {
+      var inicio = System.nanoTime();
+      var bytes = operacion.ejecutar();
+      var nanos = System.nanoTime() - inicio;
+      System.out.printf("%-20s %8.1f ms  %10d bytes  %6.1f ns/registro%n",
+          nombre, nanos / 1e6, bytes, (double) nanos / REGISTROS);
+      return bytes;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Operacion {
+    long ejecutar() throws Exception;
+  }
+
+  private static final class Comparacion {
+
+    static final ObjectMapper JSON = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    static byte[] serializar(Object objeto) throws IOException {
+      var salida = new ByteArrayOutputStream();
+      try (var flujo = new ObjectOutputStream(salida)) {
+        flujo.writeObject(objeto);
+      }
+      return salida.toByteArray();
+    }
+
+    record LibroSerializable(Long id, String titulo, String autor,
+                             TipoLibro tipo, FormatoLibro formato, EstadoLibro estado) implements Serializable {
+      static LibroSerializable de(LibroInfo libro) {
+        return new LibroSerializable(libro.id(), libro.titulo(), libro.autor(),
+            libro.tipo(), libro.formato(), libro.estado());
+      }
+    }
+
+    record PrestamoSerializable(Long libroId, String tituloLibro, String usuario,
+                                LocalDate fechaPrestamo, LocalDate fechaDevolucion,
+                                boolean activo) implements Serializable {
+      static PrestamoSerializable de(InfoPrestamo prestamo) {
+        return new PrestamoSerializable(prestamo.libroId(), prestamo.tituloLibro(), prestamo.usuario(),
+            prestamo.fechaPrestamo(), prestamo.fechaDevolucion(), prestamo.activo());
+      }
+    }
+  }
+}
\ No newline at end of file
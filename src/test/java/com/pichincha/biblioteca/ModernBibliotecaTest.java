@@ -1,13 +1,34 @@
 package com.pichincha.biblioteca;
 
+import com.pichincha.biblioteca.domain.ConsultaCubo;
+import com.pichincha.biblioteca.domain.CriterioRenovacion;
+import com.pichincha.biblioteca.domain.EstadoRenovacion;
+import com.pichincha.biblioteca.domain.ILibro;
+import com.pichincha.biblioteca.domain.InfoPrestamo;
+import com.pichincha.biblioteca.domain.Libro;
 import com.pichincha.biblioteca.domain.LibroInfo;
+import com.pichincha.biblioteca.domain.OperacionLibro;
+import com.pichincha.biblioteca.domain.Percentiles;
+import com.pichincha.biblioteca.domain.Reserva;
+import com.pichincha.biblioteca.domain.ResultadoOperacion;
 import com.pichincha.biblioteca.domain.enums.EstadoLibro;
 import com.pichincha.biblioteca.domain.enums.FormatoLibro;
 import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
+import com.pichincha.biblioteca.helper.CuboBiblioteca;
+import com.pichincha.biblioteca.helper.EstadisticasEnVivo;
+import com.pichincha.biblioteca.helper.EstadisticasHelper;
+import com.pichincha.biblioteca.helper.HistogramasPrestamo;
+import com.pichincha.biblioteca.helper.TendenciaPrestamos;
+import com.pichincha.biblioteca.repository.LibroRepository;
 import com.pichincha.biblioteca.service.LibroEvent;
 import com.pichincha.biblioteca.service.LibroEventListener;
 import com.pichincha.biblioteca.service.SearchStrategy;
+import com.pichincha.biblioteca.service.impl.BibliotecaServiceImpl;
+import com.pichincha.biblioteca.service.impl.EstadosLibroService;
 import com.pichincha.biblioteca.service.impl.ModernBibliotecaService;
+import com.pichincha.biblioteca.service.impl.RenovacionMasivaService;
+import com.pichincha.biblioteca.service.impl.ReservasLibro;
 import com.pichincha.biblioteca.util.LibroUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,9 +38,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -31,6 +61,30 @@ class ModernBibliotecaTest {
   @Autowired
   private ModernBibliotecaService bibliotecaService;
 
+  @Autowired
+  private EstadisticasEnVivo estadisticasEnVivo;
+
+  @Autowired
+  private EstadisticasHelper estadisticasHelper;
+
+  @Autowired
+  private CuboBiblioteca cuboBiblioteca;
+
+  @Autowired
+  private EstadosLibroService estadosLibroService;
+
+  @Autowired
+  private LibroRepository libroRepository;
+
+  @Autowired
+  private RenovacionMasivaService renovacionMasiva;
+
+  @Autowired
+  private BibliotecaServiceImpl bibliotecaServiceClasico;
+
+  @Autowired
+  private ReservasLibro reservasLibro;
+
   private final List<LibroEvent> eventosCapturados = new ArrayList<>();
   private final AtomicInteger contadorEventos = new AtomicInteger(0);
 
@@ -234,6 +288,310 @@ class ModernBibliotecaTest {
       // Then
       assertThat(resultado).isEmpty();
     }
+
+    @Test
+    @DisplayName("Un préstamo del servicio clásico debería verse y devolverse desde el moderno")
+    void deberiaCompartirElRegistroEntreServicios() {
+      // Given
+      bibliotecaServiceClasico.prestarLibro(libroId, "Juan Pérez");
+
+      // When
+      var segundoPrestamo = bibliotecaService.prestarLibro(libroId, "Ana Gómez");
+      var activos = bibliotecaService.obtenerPrestamosActivos();
+      var devolucion = bibliotecaService.devolverLibro(libroId, "Juan Pérez");
+
+      // Then
+      assertThat(segundoPrestamo).isEmpty();
+      assertThat(activos).extracting(InfoPrestamo::usuario).containsExactly("Juan Pérez");
+      assertThat(devolucion).isPresent();
+      assertThat(bibliotecaService.obtenerPrestamosActivos()).isEmpty();
+      assertThatThrownBy(() -> bibliotecaServiceClasico.devolverLibro(libroId))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Solo un préstamo concurrente del mismo libro debería tener éxito")
+    void deberiaPrestarUnaSolaVezConcurrentemente() throws Exception {
+      // Given
+      var usuarios = List.of("Usuario 1", "Usuario 2", "Usuario 3", "Usuario 4");
+
+      // When
+      List<Optional<ILibro>> resultados;
+      try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        var tareas = usuarios.stream()
+            .map(usuario -> executor.submit(() -> bibliotecaService.prestarLibro(libroId, usuario)))
+            .toList();
+        resultados = new ArrayList<>();
+        for (var tarea : tareas) {
+          resultados.add(tarea.get());
+        }
+      }
+
+      // Then
+      assertThat(resultados).filteredOn(Optional::isPresent).hasSize(1);
+      assertThat(bibliotecaService.obtenerPrestamosActivos())
+          .filteredOn(prestamo -> prestamo.libroId().equals(libroId))
+          .singleElement()
+          .satisfies(prestamo -> assertThat(bibliotecaService.obtenerPrestamosDeUsuario(prestamo.usuario()))
+              .containsExactly(prestamo));
+    }
+
+    @Test
+    @DisplayName("Debería prestar y devolver en lote con un resultado por operación")
+    void deberiaPrestarYDevolverEnLote() {
+      // Given
+      var otroId = bibliotecaService.agregarLibro("Otro Libro", "Otro Autor", TipoLibro.NO_FICCION, FormatoLibro.DIGITAL).getId();
+      eventosCapturados.clear();
+      var operaciones = List.of(
+          new OperacionLibro(libroId, "Ana"),
+          new OperacionLibro(999_999L, "Ana"),
+          new OperacionLibro(otroId, "Luis"),
+          new OperacionLibro(libroId, "Luis"));
+
+      // When
+      var prestamos = bibliotecaService.prestarLibros(operaciones);
+
+      // Then
+      assertThat(prestamos).extracting(ResultadoOperacion::resultado).containsExactly(
+          ResultadoOperacion.Resultado.EXITOSO,
+          ResultadoOperacion.Resultado.NO_ENCONTRADO,
+          ResultadoOperacion.Resultado.EXITOSO,
+          ResultadoOperacion.Resultado.ESTADO_INVALIDO);
+      assertThat(prestamos.get(0).prestamo().usuario()).isEqualTo("Ana");
+      assertThat(eventosCapturados).hasSize(2).allMatch(LibroEvent.LibroPrestado.class::isInstance);
+      assertThat(libroRepository.findAllById(List.of(libroId, otroId)))
+          .extracting(Libro::getEstado).containsOnly(EstadoLibro.PRESTADO);
+      assertThat(bibliotecaService.obtenerPrestamosDeUsuario("Luis")).hasSize(1);
+
+      // When
+      eventosCapturados.clear();
+      var devoluciones = bibliotecaService.devolverLibros(
+          List.of(new OperacionLibro(otroId, "Luis"), new OperacionLibro(otroId, "Luis")));
+
+      // Then
+      assertThat(devoluciones).extracting(ResultadoOperacion::esExitoso).containsExactly(true, false);
+      assertThat(devoluciones.get(0).prestamo().activo()).isFalse();
+      assertThat(eventosCapturados).singleElement().isInstanceOf(LibroEvent.LibroDevuelto.class);
+      assertThat(libroRepository.findById(otroId)).get()
+          .extracting(Libro::getEstado).isEqualTo(EstadoLibro.DISPONIBLE);
+    }
+
+    @Test
+    @DisplayName("Debería retener el libro devuelto para el siguiente en la lista de espera")
+    void deberiaEntregarLibroDevueltoAlSiguienteEnEspera() {
+      // Given
+      bibliotecaService.prestarLibro(libroId, "Ana");
+      var luis = bibliotecaService.reservarLibro(libroId, "Luis");
+      var marta = bibliotecaService.reservarLibro(libroId, "Marta");
+      eventosCapturados.clear();
+
+      // When
+      bibliotecaService.devolverLibro(libroId, "Ana");
+
+      // Then
+      assertThat(luis).get().extracting(Reserva::posicion).isEqualTo(1);
+      assertThat(marta).get().extracting(Reserva::posicion).isEqualTo(2);
+      assertThat(bibliotecaService.reservarLibro(libroId, "Ana")).isPresent();
+      assertThat(eventosCapturados).hasSize(2);
+      assertThat(eventosCapturados.get(1)).isInstanceOfSatisfying(LibroEvent.LibroReservado.class,
+          reservado -> assertThat(reservado.getUsuario()).isEqualTo("Luis"));
+      assertThat(libroRepository.findById(libroId)).get()
+          .extracting(Libro::getEstado).isEqualTo(EstadoLibro.RESERVADO);
+      assertThat(bibliotecaService.prestarLibro(libroId, "Marta")).isEmpty();
+      assertThat(bibliotecaService.obtenerReserva(libroId, "Luis")).get()
+          .satisfies(reserva -> assertThat(reserva.estaRetenida()).isTrue());
+
+      // When
+      var cancelada = bibliotecaService.cancelarReserva(libroId, "Luis");
+      var prestado = bibliotecaService.prestarLibro(libroId, "Marta");
+
+      // Then
+      assertThat(cancelada).isTrue();
+      assertThat(prestado).get().extracting(ILibro::getEstado).isEqualTo(EstadoLibro.PRESTADO);
+      assertThat(bibliotecaService.obtenerListaDeEspera(libroId)).containsExactly("Ana");
+      assertThat(eventosCapturados).filteredOn(LibroEvent.ReservaFinalizada.class::isInstance)
+          .extracting(evento -> ((LibroEvent.ReservaFinalizada) evento).getMotivo())
+          .containsExactly(LibroEvent.ReservaFinalizada.Motivo.CANCELADA, LibroEvent.ReservaFinalizada.Motivo.RETIRADA);
+    }
+
+    @Test
+    @DisplayName("Una devolución del servicio clásico debería entregar el libro al siguiente en espera")
+    void deberiaEntregarAlSiguienteDesdeElServicioClasico() {
+      // Given
+      bibliotecaServiceClasico.prestarLibro(libroId, "Ana");
+      bibliotecaService.reservarLibro(libroId, "Luis");
+      eventosCapturados.clear();
+
+      // When
+      bibliotecaServiceClasico.devolverLibro(libroId);
+
+      // Then
+      assertThat(eventosCapturados).hasSize(2);
+      assertThat(eventosCapturados.get(1)).isInstanceOfSatisfying(LibroEvent.LibroReservado.class,
+          reservado -> assertThat(reservado.getUsuario()).isEqualTo("Luis"));
+      assertThat(libroRepository.findById(libroId)).get()
+          .extracting(Libro::getEstado).isEqualTo(EstadoLibro.RESERVADO);
+      assertThat(bibliotecaService.obtenerReserva(libroId, "Luis")).get()
+          .satisfies(reserva -> assertThat(reserva.estaRetenida()).isTrue());
+      assertThat(bibliotecaService.prestarLibro(libroId, "Ana")).isEmpty();
+      assertThat(estadisticasEnVivo.reconciliar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Prestar un libro reservado sin retención vigente debería finalizar la reserva")
+    void deberiaFinalizarReservaSinRetencionAlPrestar() {
+      // Given - la retención se perdió (por ejemplo, tras reiniciar) y el libro sigue RESERVADO
+      var reserva = bibliotecaService.reservarLibro(libroId, "Luis").orElseThrow();
+      assertThat(reservasLibro.terminar(reserva)).isTrue();
+      eventosCapturados.clear();
+
+      // When
+      var prestado = bibliotecaService.prestarLibro(libroId, "Ana");
+
+      // Then
+      assertThat(prestado).get().extracting(ILibro::getEstado).isEqualTo(EstadoLibro.PRESTADO);
+      assertThat(eventosCapturados).hasSize(2);
+      assertThat(eventosCapturados.get(0)).isInstanceOfSatisfying(LibroEvent.ReservaFinalizada.class,
+          finalizada -> assertThat(finalizada.getMotivo()).isEqualTo(LibroEvent.ReservaFinalizada.Motivo.RETIRADA));
+      assertThat(estadisticasEnVivo.reconciliar()).isZero();
+      assertThat(cuboBiblioteca.ajustarExistencias()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería renovar en masa los préstamos del grupo y no repetir un trabajo completado")
+    void deberiaRenovarPrestamosEnMasa() {
+      // Given
+      var otroId = bibliotecaService.agregarLibro("Otro Libro", "Otro Autor", TipoLibro.NO_FICCION, FormatoLibro.DIGITAL).getId();
+      var terceroId = bibliotecaService.agregarLibro("Tercer Libro", "Tercer Autor", TipoLibro.FICCION, FormatoLibro.DIGITAL).getId();
+      bibliotecaService.prestarLibro(libroId, "Ana");
+      bibliotecaService.prestarLibro(otroId, "Luis");
+      bibliotecaService.prestarLibro(terceroId, "Marta");
+      var vencimientos = bibliotecaService.obtenerPrestamosActivos().stream()
+          .collect(Collectors.toMap(InfoPrestamo::usuario, InfoPrestamo::fechaDevolucion));
+      var criterio = CriterioRenovacion.paraUsuarios(Set.of("Ana", "Luis"), 7);
+      var trabajo = "test-" + System.nanoTime();
+      eventosCapturados.clear();
+
+      try {
+        // When
+        var resultado = renovacionMasiva.renovar(trabajo, criterio);
+        var repetido = renovacionMasiva.renovar(trabajo, criterio);
+
+        // Then
+        assertThat(resultado.revisados()).isEqualTo(3);
+        assertThat(resultado.renovados()).isEqualTo(2);
+        assertThat(repetido.revisados()).isZero();
+        assertThat(repetido.reanudadoDesde()).isEqualTo(terceroId);
+        assertThat(eventosCapturados).hasSize(2).allMatch(LibroEvent.PrestamoRenovado.class::isInstance);
+        assertThat(bibliotecaService.obtenerPrestamosActivos()).allSatisfy(prestamo ->
+            assertThat(prestamo.fechaDevolucion()).isEqualTo(prestamo.usuario().equals("Marta")
+                ? vencimientos.get("Marta") : vencimientos.get(prestamo.usuario()).plusDays(7)));
+        assertThatThrownBy(() -> renovacionMasiva.renovar(trabajo, CriterioRenovacion.paraUsuarios(Set.of("Ana"), 3)))
+            .isInstanceOf(IllegalArgumentException.class);
+      } finally {
+        renovacionMasiva.olvidar(trabajo);
+      }
+    }
+
+    @Test
+    @DisplayName("Repetir un tramo de renovación con sus renovados anotados no debería renovar dos veces")
+    void noDeberiaRenovarDosVecesUnTramoRepetido() {
+      // Given - el tramo ya renovó este libro antes de que fallara otro tramo del lote
+      bibliotecaService.prestarLibro(libroId, "Ana");
+      var vencimiento = bibliotecaService.obtenerPrestamosActivos().getFirst().fechaDevolucion();
+      var criterio = CriterioRenovacion.paraUsuarios(Set.of("Ana"), 7);
+      var yaRenovados = new HashSet<Long>();
+      var primera = bibliotecaService.renovarPrestamos(List.of(libroId), criterio, yaRenovados);
+
+      // When
+      var repetida = bibliotecaService.renovarPrestamos(List.of(libroId), criterio, yaRenovados);
+
+      // Then
+      assertThat(primera).hasSize(1);
+      assertThat(repetida).isEmpty();
+      assertThat(yaRenovados).containsExactly(libroId);
+      assertThat(bibliotecaService.obtenerPrestamosActivos().getFirst().fechaDevolucion())
+          .isEqualTo(vencimiento.plusDays(7));
+    }
+
+    @Test
+    @DisplayName("Debería renovar en segundo plano e informar el avance del trabajo")
+    void deberiaRenovarEnSegundoPlano() throws InterruptedException {
+      // Given
+      bibliotecaService.prestarLibro(libroId, "Ana");
+      var vencimiento = bibliotecaService.obtenerPrestamosActivos().getFirst().fechaDevolucion();
+      var trabajo = "test-" + System.nanoTime();
+
+      try {
+        // When
+        var inicial = renovacionMasiva.iniciar(trabajo, CriterioRenovacion.paraUsuarios(Set.of("Ana"), 7));
+        var limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        var estado = renovacionMasiva.consultar(trabajo);
+        while (estado.filter(EstadoRenovacion::enCurso).isPresent() && System.nanoTime() < limite) {
+          Thread.sleep(10);
+          estado = renovacionMasiva.consultar(trabajo);
+        }
+
+        // Then
+        assertThat(inicial).isPresent();
+        assertThat(estado).get().satisfies(actual -> {
+          assertThat(actual.enCurso()).isFalse();
+          assertThat(actual.completado()).isTrue();
+          assertThat(actual.revisados()).isEqualTo(1);
+          assertThat(actual.renovados()).isEqualTo(1);
+          assertThat(actual.ultimoId()).isEqualTo(libroId);
+          assertThat(actual.error()).isNull();
+        });
+        assertThat(bibliotecaService.obtenerPrestamosActivos().getFirst().fechaDevolucion())
+            .isEqualTo(vencimiento.plusDays(7));
+        assertThat(renovacionMasiva.consultar("otro-trabajo")).isEmpty();
+      } finally {
+        renovacionMasiva.olvidar(trabajo);
+      }
+    }
+
+    @Test
+    @DisplayName("Debería cambiar estados en memoria y sincronizarlos con la base de datos")
+    void deberiaSincronizarEstadosEnMemoria() {
+      // When
+      var enMantenimiento = estadosLibroService.enviarAMantenimiento(libroId);
+      var prestado = bibliotecaService.prestarLibro(libroId, "Juan Pérez");
+      var reserva = bibliotecaService.reservarLibro(libroId, "Ana Gómez");
+      estadosLibroService.sincronizar();
+
+      // Then - la tabla decide: en mantenimiento no se presta ni se reserva
+      assertThat(enMantenimiento).isTrue();
+      assertThat(prestado).isEmpty();
+      assertThat(reserva).isEmpty();
+      assertThat(estadosLibroService.obtenerEstado(libroId)).contains(EstadoLibro.MANTENIMIENTO);
+      assertThat(estadosLibroService.cantidadPendientes()).isZero();
+      assertThat(libroRepository.findById(libroId)).get()
+          .extracting(Libro::getEstado).isEqualTo(EstadoLibro.MANTENIMIENTO);
+      assertThat(eventosCapturados).singleElement()
+          .isInstanceOfSatisfying(LibroEvent.EstadoCambiado.class, evento -> {
+            assertThat(evento.getTransicion()).isEqualTo(TransicionLibro.ENVIAR_A_MANTENIMIENTO);
+            assertThat(evento.getLibroInfo().estado()).isEqualTo(EstadoLibro.MANTENIMIENTO);
+          });
+    }
+
+    @Test
+    @DisplayName("La sincronización no debería pisar lo que escribió un préstamo posterior")
+    void noDeberiaPisarEscriturasSincronicas() {
+      // Given - DISPONIBLE queda pendiente de escribir
+      estadosLibroService.enviarAMantenimiento(libroId);
+      estadosLibroService.sincronizar();
+      estadosLibroService.completarMantenimiento(libroId);
+
+      // When - el préstamo escribe PRESTADO antes de que se sincronice el pendiente
+      var prestado = bibliotecaService.prestarLibro(libroId, "Juan Pérez");
+      estadosLibroService.sincronizar();
+
+      // Then
+      assertThat(prestado).isPresent();
+      assertThat(estadosLibroService.cantidadPendientes()).isZero();
+      assertThat(libroRepository.findById(libroId)).get()
+          .extracting(Libro::getEstado).isEqualTo(EstadoLibro.PRESTADO);
+    }
   }
 
   @Nested
@@ -260,6 +618,21 @@ class ModernBibliotecaTest {
       assertThat(estadisticas.get(TipoLibro.NO_FICCION)).hasSize(2);
     }
 
+    @Test
+    @DisplayName("Debería contar libros por tipo con agregados de la base de datos")
+    void deberiaContarLibrosPorTipo() {
+      // Given
+      var primerLibro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      bibliotecaService.prestarLibro(primerLibro.getId(), "Test User");
+
+      // When
+      var conteos = bibliotecaService.contarLibrosPorTipo();
+
+      // Then
+      assertThat(conteos).containsEntry(TipoLibro.FICCION, 2L).containsEntry(TipoLibro.NO_FICCION, 2L);
+      assertThat(bibliotecaService.generarReporteCompleto()).contains("Disponibles: 3", "Prestados: 1");
+    }
+
     @Test
     @DisplayName("Debería generar estadísticas por formato")
     void deberiaGenerarEstadisticasPorFormato() {
@@ -301,6 +674,260 @@ class ModernBibliotecaTest {
       assertThat(reporte).contains("Disponibles: 4");
       assertThat(reporte).contains("Prestados: 0");
     }
+
+    @Test
+    @DisplayName("El reporte con historial debería listar los vencidos de ese historial")
+    void deberiaReportarVencidosDelHistorial() {
+      // Given - un préstamo real de la biblioteca y un historial de muestra con otro vencido
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      var hoy = LocalDate.now();
+      var vencido = new InfoPrestamo(999L, "Libro de muestra", "Ana", hoy.minusDays(20), hoy.minusDays(6), true);
+
+      // When
+      var reporte = estadisticasHelper.generarReporteCompleto(
+          bibliotecaService.obtenerLibrosDisponibles(), List.of(vencido));
+
+      // Then
+      assertThat(reporte).contains("Préstamos Vencidos (1)", vencido.toString());
+      assertThat(reporte).doesNotContain("Test User");
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar el reporte hasta que cambie el catálogo")
+    void deberiaMemorizarReportePorVersion() {
+      // Given
+      var reporte = bibliotecaService.generarReporteCompleto();
+
+      // When
+      var repetido = bibliotecaService.generarReporteCompleto();
+      bibliotecaService.agregarLibro("Nuevo Libro", "Autor Nuevo", TipoLibro.FICCION, FormatoLibro.DIGITAL);
+      var actualizado = bibliotecaService.generarReporteCompleto();
+
+      // Then
+      assertThat(repetido).isSameAs(reporte);
+      assertThat(actualizado).isNotSameAs(reporte).contains("Total de libros: 5");
+    }
+
+    @Test
+    @DisplayName("Debería mantener estadísticas en vivo consistentes con la base de datos")
+    void deberiaMantenerEstadisticasEnVivo() {
+      // Given
+      var antes = estadisticasEnVivo.obtenerEstadisticas();
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+
+      // When
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      var despues = estadisticasEnVivo.obtenerEstadisticas();
+
+      // Then
+      assertThat(despues.totalLibros()).isEqualTo(antes.totalLibros());
+      assertThat(despues.prestamosActivos()).isEqualTo(antes.prestamosActivos() + 1);
+      assertThat(despues.librosPorEstado().get(EstadoLibro.DISPONIBLE))
+          .isEqualTo(antes.librosPorEstado().get(EstadoLibro.DISPONIBLE) - 1);
+      assertThat(estadisticasEnVivo.reconciliar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Las estadísticas en vivo deberían seguir los cambios de mantenimiento")
+    void deberiaSeguirMantenimientoEnVivo() {
+      // Given
+      var antes = estadisticasEnVivo.obtenerEstadisticas();
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+
+      // When - el estado todavía no se escribió en la base de datos
+      assertThat(estadosLibroService.enviarAMantenimiento(libro.getId())).isTrue();
+      var enMantenimiento = estadisticasEnVivo.obtenerEstadisticas();
+
+      // Then
+      assertThat(enMantenimiento.totalLibros()).isEqualTo(antes.totalLibros());
+      assertThat(enMantenimiento.librosPorEstado().get(EstadoLibro.DISPONIBLE))
+          .isEqualTo(antes.librosPorEstado().get(EstadoLibro.DISPONIBLE) - 1);
+      assertThat(enMantenimiento.librosPorEstado()).containsEntry(EstadoLibro.MANTENIMIENTO, 1);
+      assertThat(estadisticasEnVivo.reconciliar()).isZero();
+      assertThat(estadosLibroService.cantidadPendientes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería acumular el tiempo promedio de préstamo al devolver")
+    void deberiaAcumularTiempoPromedioPrestamo() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+
+      // When
+      bibliotecaService.devolverLibro(libro.getId(), "Test User");
+
+      // Then - se acumulan los días realmente prestados (devuelto el mismo día), no el plazo de 14
+      assertThat(estadisticasHelper.obtenerTiempoPromedioPorTipo()).containsEntry(libro.getTipo(), 0.0);
+      assertThat(estadisticasHelper.obtenerTiempoPromedioPorFormato()).containsEntry(libro.getFormato(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Debería registrar la devolución en los histogramas de préstamo")
+    void deberiaRegistrarHistogramasPrestamo() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+
+      // When
+      bibliotecaService.devolverLibro(libro.getId(), "Test User");
+
+      // Then
+      var duracion = estadisticasHelper.obtenerPercentilesPorTipo(HistogramasPrestamo.Medida.DURACION);
+      assertThat(duracion.get(libro.getTipo())).isEqualTo(new Percentiles(1, 0, 0, 0, 0));
+      assertThat(estadisticasHelper.obtenerPercentiles(HistogramasPrestamo.Medida.RETRASO).muestras()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debería servir los libros y autores más prestados desde los préstamos")
+    void deberiaServirLosMasPrestados() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+
+      // When
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      bibliotecaService.devolverLibro(libro.getId(), "Test User");
+      bibliotecaService.prestarLibro(libro.getId(), "Otro User");
+
+      // Then
+      var libros = estadisticasHelper.obtenerLibrosMasPrestados(1);
+      assertThat(libros).hasSize(1);
+      assertThat(libros.get(0).clave()).isEqualTo(libro.getId());
+      assertThat(libros.get(0).cuenta()).isEqualTo(2);
+      assertThat(estadisticasHelper.obtenerLibrosMasPrestados(1, Duration.ofHours(1))).isEqualTo(libros);
+      assertThat(estadisticasHelper.obtenerAutoresMasPrestados(5).get(0).clave()).isEqualTo(libro.getAutor());
+      assertThatThrownBy(() -> estadisticasHelper.obtenerLibrosMasPrestados(-1))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debería contar los préstamos de todos los autores o solo de los primeros")
+    void deberiaObtenerAutoresMasLeidos() {
+      // Given
+      var hoy = LocalDate.now();
+      var historial = List.of(
+          new InfoPrestamo(1L, "Rayuela", "Ana", hoy, hoy.plusDays(14), false),
+          new InfoPrestamo(1L, "Rayuela", "Luis", hoy, hoy.plusDays(14), true),
+          new InfoPrestamo(2L, "Ficciones", "Ana", hoy, hoy.plusDays(14), true),
+          new InfoPrestamo(1L, "Rayuela", "Eva", hoy, hoy.plusDays(14), false));
+
+      // When
+      var todos = estadisticasHelper.obtenerAutoresMasLeidos(historial);
+      var primero = estadisticasHelper.obtenerAutoresMasLeidos(historial, 1);
+
+      // Then
+      assertThat(todos).containsExactly(Map.entry("Autor de Rayuela", 3), Map.entry("Autor de Ficciones", 1));
+      assertThat(primero).containsExactly(Map.entry("Autor de Rayuela", 3));
+    }
+
+    @Test
+    @DisplayName("Debería contar autores y usuarios distintos a partir de los eventos")
+    void deberiaContarDistintos() {
+      // Given
+      var libros = bibliotecaService.obtenerLibrosDisponibles();
+
+      // When
+      bibliotecaService.prestarLibro(libros.get(0).getId(), "Ana");
+      bibliotecaService.prestarLibro(libros.get(1).getId(), "Luis");
+      bibliotecaService.prestarLibro(libros.get(2).getId(), "Ana");
+
+      // Then - con pocos elementos la estimación es exacta
+      var conteos = estadisticasHelper.obtenerConteosDistintos(7);
+      assertThat(conteos.autores()).isEqualTo(4);
+      assertThat(conteos.titulos()).isEqualTo(4);
+      assertThat(conteos.usuarios()).isEqualTo(2);
+      assertThat(conteos.usuariosRecientes()).isEqualTo(2);
+      assertThatThrownBy(() -> estadisticasHelper.obtenerConteosDistintos(0))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Debería reflejar préstamos y devoluciones en la tendencia por ventanas")
+    void deberiaReflejarLaTendencia() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+
+      // When
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      bibliotecaService.devolverLibro(libro.getId(), "Test User");
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+
+      // Then
+      var prestamos = estadisticasHelper.obtenerTendencia(
+          TendenciaPrestamos.Metrica.PRESTAMOS, TendenciaPrestamos.Granularidad.DIA, 7);
+      assertThat(prestamos.serie()).hasSize(7).endsWith(2L);
+      assertThat(prestamos.total()).isEqualTo(2);
+      assertThat(prestamos.tasaPorTipo().get(libro.getTipo())).isEqualTo(2.0 / 7);
+      assertThat(prestamos.variacion()).isNaN();
+      var devoluciones = estadisticasHelper.obtenerTendencia(
+          TendenciaPrestamos.Metrica.DEVOLUCIONES, TendenciaPrestamos.Granularidad.MINUTO, 120);
+      assertThat(devoluciones.total()).isEqualTo(1);
+      assertThat(devoluciones.variacion()).isNaN();
+    }
+
+    @Test
+    @DisplayName("Debería consultar vencidos y el préstamo más antiguo en el índice de vencimientos")
+    void deberiaConsultarVencidosEnElIndice() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+      var despuesDelVencimiento = LocalDate.now().plusDays(15);
+
+      // When
+      var vencidos = estadisticasHelper.obtenerPrestamosVencidos(despuesDelVencimiento);
+
+      // Then
+      assertThat(vencidos).extracting(InfoPrestamo::libroId).containsExactly(libro.getId());
+      assertThat(estadisticasHelper.obtenerPrestamosVencidos()).isEmpty();
+      assertThat(estadisticasHelper.obtenerPrestamoMasAntiguo()).map(InfoPrestamo::libroId).contains(libro.getId());
+
+      bibliotecaService.devolverLibro(libro.getId(), "Test User");
+      assertThat(estadisticasHelper.obtenerPrestamosVencidos(despuesDelVencimiento)).isEmpty();
+      assertThat(estadisticasHelper.obtenerPrestamoMasAntiguo()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería consultar vencidos y el préstamo más antiguo en una lista propia")
+    void deberiaConsultarVencidosEnUnaLista() {
+      // Given - el índice de la biblioteca no conoce estos préstamos
+      var hoy = LocalDate.now();
+      var vigente = new InfoPrestamo(1L, "Rayuela", "Ana", hoy.minusDays(3), hoy.plusDays(11), true);
+      var vencido = new InfoPrestamo(2L, "Ficciones", "Luis", hoy.minusDays(20), hoy.minusDays(6), true);
+      var devuelto = new InfoPrestamo(3L, "Pedro Páramo", "Eva", hoy.minusDays(30), hoy.minusDays(16), false);
+      var prestamos = List.of(vigente, vencido, devuelto);
+
+      // When
+      var vencidos = estadisticasHelper.obtenerPrestamosVencidos(prestamos);
+      var enDosSemanas = estadisticasHelper.obtenerPrestamosVencidos(prestamos, hoy.plusDays(14));
+
+      // Then
+      assertThat(vencidos).containsExactly(vencido);
+      assertThat(enDosSemanas).containsExactly(vencido, vigente);
+      assertThat(estadisticasHelper.obtenerPrestamoMasAntiguo(prestamos)).contains(vencido);
+      assertThat(estadisticasHelper.obtenerPrestamosVencidos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería mantener el cubo mensual a partir de los eventos")
+    void deberiaMantenerCuboMensual() {
+      // Given
+      var libro = bibliotecaService.obtenerLibrosDisponibles().get(0);
+      var mes = YearMonth.now();
+      var consulta = ConsultaCubo.TODO.conTipos(libro.getTipo()).enMes(mes);
+      var prestamosAntes = cuboBiblioteca.contar(CuboBiblioteca.Medida.PRESTAMOS, consulta);
+
+      // When
+      bibliotecaService.prestarLibro(libro.getId(), "Test User");
+
+      // Then
+      assertThat(cuboBiblioteca.contar(CuboBiblioteca.Medida.PRESTAMOS, consulta)).isEqualTo(prestamosAntes + 1);
+      assertThat(cuboBiblioteca.porMes(CuboBiblioteca.Medida.PRESTAMOS, consulta)).containsKey(mes);
+      var existencias = cuboBiblioteca.existencias(mes, ConsultaCubo.TODO);
+      assertThat(existencias.getOrDefault(EstadoLibro.PRESTADO, 0L))
+          .isEqualTo((long) estadisticasEnVivo.obtenerEstadisticas().prestamosActivos());
+      assertThat(cuboBiblioteca.ajustarExistencias()).isZero();
+    }
   }
 
   @Nested
@@ -0,0 +1,184 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.RegistroPrestamos;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🔐 Tests del registro concurrente de préstamos")
+class RegistroPrestamosTest {
+
+  @Nested
+  @DisplayName("📋 Registro")
+  class TestRegistro {
+
+    @Test
+    @DisplayName("Debería registrar, indexar por usuario y liberar préstamos")
+    void deberiaRegistrarYLiberar() {
+      // Given
+      var registro = new RegistroPrestamos<String>(4);
+
+      // When
+      registro.registrar(1L, "ana", "préstamo 1");
+      registro.registrar(2L, "ana", "préstamo 2");
+      registro.registrar(3L, "luis", "préstamo 3");
+
+      // Then
+      assertThat(registro.registrar(1L, "luis", "duplicado")).isFalse();
+      assertThat(registro.porUsuario("ana")).containsExactlyInAnyOrder("préstamo 1", "préstamo 2");
+      assertThat(registro.actualizar(3L, valor -> valor + " renovado")).contains("préstamo 3 renovado");
+      assertThat(registro.liberar(1L)).contains("préstamo 1");
+      assertThat(registro.liberar(1L)).isEmpty();
+      assertThat(registro.porUsuario("ana")).containsExactly("préstamo 2");
+      assertThat(registro.valores()).containsExactlyInAnyOrder("préstamo 2", "préstamo 3 renovado");
+      assertThat(registro.cantidad()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debería recorrer los libros prestados por lotes en orden ascendente de todos los tramos")
+    void deberiaRecorrerLibrosPorLotes() {
+      // Given - ids registrados en orden descendente y repartidos en varios tramos
+      var registro = new RegistroPrestamos<String>(4);
+      var esperados = new TreeSet<Long>();
+      for (long id = 100; id > 60; id -= 3) {
+        registro.registrar(id, "usuario", "préstamo " + id);
+        esperados.add(id);
+      }
+      registro.liberar(97L);
+      esperados.remove(97L);
+
+      // When
+      var recorridos = new ArrayList<Long>();
+      var lotes = 0;
+      for (var lote = registro.librosDesde(0, 4); lote.length > 0; lote = registro.librosDesde(lote[lote.length - 1], 4)) {
+        assertThat(lote.length).isLessThanOrEqualTo(4);
+        Arrays.stream(lote).forEach(recorridos::add);
+        lotes++;
+      }
+
+      // Then
+      assertThat(recorridos).containsExactlyElementsOf(esperados);
+      assertThat(lotes).isEqualTo(Math.ceilDiv(esperados.size(), 4));
+      assertThat(registro.librosDesde(85, 2)).containsExactly(88L, 91L);
+      assertThat(new RegistroPrestamos<String>().librosDesde(0, 10)).isEmpty();
+      assertThatThrownBy(() -> registro.librosDesde(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Un libro debería prestarse una sola vez aunque lo pidan varios hilos")
+    void deberiaPrestarUnaSolaVezConcurrentemente() throws InterruptedException {
+      // Given
+      var registro = new RegistroPrestamos<String>();
+      var exitos = new AtomicInteger();
+      var hilos = 8;
+      var inicio = new CountDownLatch(1);
+      var pool = Executors.newFixedThreadPool(hilos);
+
+      // When
+      for (int h = 0; h < hilos; h++) {
+        var usuario = "usuario-" + h;
+        pool.execute(() -> {
+          await(inicio);
+          for (long libro = 1; libro <= 1_000; libro++) {
+            if (registro.registrar(libro, usuario, usuario)) {
+              exitos.incrementAndGet();
+            }
+          }
+        });
+      }
+      inicio.countDown();
+      detener(pool);
+
+      // Then
+      assertThat(exitos).hasValue(1_000);
+      assertThat(registro.cantidad()).isEqualTo(1_000);
+      var indexados = 0;
+      for (int h = 0; h < hilos; h++) {
+        indexados += registro.porUsuario("usuario-" + h).size();
+      }
+      assertThat(indexados).isEqualTo(1_000);
+    }
+  }
+
+  /**
+   * Mide préstamos y devoluciones por segundo con varios hilos contra el mismo registro
+   * detrás de un único bloqueo. Se ejecuta solo con {@code -Dbenchmark=true}.
+   */
+  @Nested
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  @DisplayName("⏱️ Benchmark de throughput")
+  class TestBenchmark {
+
+    private static final int LIBROS = 100_000;
+    private static final int OPERACIONES_POR_HILO = 2_000_000;
+
+    @Test
+    void medirThroughputConcurrente() throws InterruptedException {
+      var nucleos = Runtime.getRuntime().availableProcessors();
+      for (var hilos : new TreeSet<>(List.of(1, 2, 4, nucleos))) {
+        var registro = new RegistroPrestamos<Long>();
+        var striped = medir(hilos, libro -> registro.registrar(libro, "usuario", libro)
+            || registro.liberar(libro).isPresent());
+
+        // Equivalente a sincronizar todo el servicio: un solo monitor para el mapa y el índice
+        var global = new RegistroPrestamos<Long>(1);
+        var sincronizado = medir(hilos, libro -> {
+          synchronized (global) {
+            return global.registrar(libro, "usuario", libro) || global.liberar(libro).isPresent();
+          }
+        });
+
+        System.out.printf("%2d hilos | registro por tramos: %,12.0f ops/s | bloqueo global: %,12.0f ops/s%n",
+            hilos, striped, sincronizado);
+        assertThat(registro.cantidad()).isEqualTo(registro.valores().size());
+      }
+    }
+
+    private double medir(int hilos, LongPredicate operacion) throws InterruptedException {
+      var pool = Executors.newFixedThreadPool(hilos);
+      var inicio = new CountDownLatch(1);
+      for (int h = 0; h < hilos; h++) {
+        var semilla = h;
+        pool.execute(() -> {
+          await(inicio);
+          var libro = (long) semilla;
+          for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+            libro = (libro * 6364136223846793005L + 1442695040888963407L);
+            operacion.test(Math.floorMod(libro >>> 16, LIBROS) + 1);
+          }
+        });
+      }
+      var comienzo = System.nanoTime();
+      inicio.countDown();
+      detener(pool);
+      return (double) hilos * OPERACIONES_POR_HILO / ((System.nanoTime() - comienzo) / 1e9);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void detener(ExecutorService pool) throws InterruptedException {
+    pool.shutdown();
+    assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+  }
+}
\ No newline at end of file
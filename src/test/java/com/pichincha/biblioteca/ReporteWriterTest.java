@@ -0,0 +1,49 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.EstadisticasBiblioteca;
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.FormatoLibro;
+import com.pichincha.biblioteca.domain.enums.TipoLibro;
+import com.pichincha.biblioteca.util.Java21FeaturesUtil;
+import com.pichincha.biblioteca.util.ReporteWriter;
+import com.pichincha.biblioteca.util.ReporteWriter.Plantilla;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🖨️ Tests del writer de reportes")
+class ReporteWriterTest {
+
+  @Test
+  @DisplayName("Las plantillas deberían producir el mismo texto que String.formatted")
+  void deberiaFormatearIgualQueFormatted() {
+    var patron = "║ %-18d ║ %s: %.1f%% | %8.2f";
+    var plantilla = Plantilla.de(patron);
+
+    for (var valor : new double[]{0, 0.05, 0.25, 83.3333, 99.95, -0.04, 1234.5678}) {
+      assertThat(plantilla.formatear(42, "Ficción", valor, valor))
+          .isEqualTo(patron.formatted(42, "Ficción", valor, valor));
+    }
+    assertThatThrownBy(() -> Plantilla.de("%x")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Debería escribir el reporte sobre un Writer con el mismo contenido")
+  void deberiaEscribirSobreWriter() {
+    var estadisticas = new EstadisticasBiblioteca(10,
+        Map.of(TipoLibro.FICCION, 10), Map.of(FormatoLibro.FISICO, 10),
+        Map.of(EstadoLibro.DISPONIBLE, 8, EstadoLibro.PRESTADO, 2), 2, 80.0);
+    var writer = new StringWriter();
+
+    estadisticas.escribirReporte(new ReporteWriter(writer));
+    Java21FeaturesUtil.escribirReporteConTextBlocks(estadisticas, writer);
+
+    assertThat(writer.toString()).isEqualTo(
+        estadisticas.generarReporte() + Java21FeaturesUtil.generarReporteConTextBlocks(estadisticas));
+    assertThat(writer.toString()).contains("Disponibilidad: 80", "║ Total de libros: 10");
+  }
+}
\ No newline at end of file
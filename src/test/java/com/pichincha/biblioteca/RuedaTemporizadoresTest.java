@@ -0,0 +1,170 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.RuedaTemporizadores;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("⏰ Tests de la rueda de temporizadores")
+class RuedaTemporizadoresTest {
+
+  private static final Instant INICIO = Instant.parse("2024-01-01T00:00:00Z");
+
+  private static Instant segundos(long segundos) {
+    return INICIO.plusSeconds(segundos);
+  }
+
+  @Nested
+  @DisplayName("⏱️ Vencimientos")
+  class TestVencimientos {
+
+    @Test
+    @DisplayName("Debería vencer en el primer tick igual o posterior al instante programado")
+    void deberiaVencerConResolucionDeUnTick() {
+      // Given - ticks de 10 segundos
+      var rueda = new RuedaTemporizadores<String>(Duration.ofSeconds(10), INICIO);
+      rueda.programar("a", segundos(25));
+
+      // When / Then - 25 s cae en el tick que empieza a los 30 s
+      assertThat(rueda.avanzar(segundos(29))).isEmpty();
+      assertThat(rueda.avanzar(segundos(30))).containsExactly("a");
+      assertThat(rueda.pendientes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería devolver los vencidos en orden de vencimiento")
+    void deberiaDevolverEnOrdenDeVencimiento() {
+      // Given - programados desordenados y en distintos niveles de la rueda
+      var rueda = new RuedaTemporizadores<String>(Duration.ofSeconds(1), INICIO);
+      rueda.programar("un día", segundos(86_400));
+      rueda.programar("un minuto", segundos(60));
+      rueda.programar("un segundo", segundos(1));
+      rueda.programar("una hora", segundos(3_600));
+
+      // When
+      var vencidos = rueda.avanzar(segundos(86_400));
+
+      // Then
+      assertThat(vencidos).containsExactly("un segundo", "un minuto", "una hora", "un día");
+    }
+
+    @Test
+    @DisplayName("Un instante ya pasado debería vencer en el tick siguiente")
+    void deberiaVencerEnElTickSiguienteSiYaPaso() {
+      // Given
+      var rueda = new RuedaTemporizadores<String>(Duration.ofSeconds(1), INICIO);
+      rueda.avanzar(segundos(100));
+
+      // When
+      rueda.programar("atrasado", segundos(10));
+
+      // Then - sin cruzar un tick todavía no vence
+      assertThat(rueda.avanzar(segundos(100).plusMillis(500))).isEmpty();
+      assertThat(rueda.avanzar(segundos(101))).containsExactly("atrasado");
+    }
+
+    @Test
+    @DisplayName("Debería alcanzar vencimientos más allá del último nivel")
+    void deberiaAlcanzarVencimientosDesbordados() {
+      // Given - con ticks de 1 ms los seis niveles cubren unos 795 días
+      var rueda = new RuedaTemporizadores<String>(Duration.ofMillis(1), INICIO);
+      var cincoAnios = INICIO.plus(Duration.ofDays(5 * 365));
+      rueda.programar("lejano", cincoAnios);
+      rueda.programar("cercano", INICIO.plusMillis(5));
+
+      // When / Then
+      assertThat(rueda.avanzar(cincoAnios.minusMillis(1))).containsExactly("cercano");
+      assertThat(rueda.avanzar(cincoAnios)).containsExactly("lejano");
+    }
+  }
+
+  @Nested
+  @DisplayName("❌ Cancelación")
+  class TestCancelacion {
+
+    @Test
+    @DisplayName("Un temporizador cancelado no debería vencer ni poder cancelarse dos veces")
+    void deberiaCancelarUnaSolaVez() {
+      // Given
+      var rueda = new RuedaTemporizadores<String>(Duration.ofSeconds(1), INICIO);
+      var cancelado = rueda.programar("cancelado", segundos(5));
+      rueda.programar("activo", segundos(5));
+
+      // When
+      var primera = rueda.cancelar(cancelado);
+
+      // Then
+      assertThat(primera).isTrue();
+      assertThat(rueda.cancelar(cancelado)).isFalse();
+      assertThat(rueda.pendientes()).isEqualTo(1);
+      assertThat(rueda.avanzar(segundos(5))).containsExactly("activo");
+    }
+
+    @Test
+    @DisplayName("Cancelar un temporizador ya vencido debería devolver false")
+    void noDeberiaCancelarUnVencido() {
+      // Given
+      var rueda = new RuedaTemporizadores<String>(Duration.ofSeconds(1), INICIO);
+      var temporizador = rueda.programar("a", segundos(1));
+      rueda.avanzar(segundos(1));
+
+      // When / Then
+      assertThat(temporizador.valor()).isEqualTo("a");
+      assertThat(rueda.cancelar(temporizador)).isFalse();
+      assertThat(rueda.pendientes()).isZero();
+    }
+  }
+
+  @Test
+  @DisplayName("Debería coincidir con una referencia exacta en programaciones, cancelaciones y avances aleatorios")
+  void deberiaCoincidirConUnaReferenciaExacta() {
+    // Given - horizontes de milisegundos a décadas, con un tick de 7 ms
+    var random = new Random(2024);
+    var tickMs = 7L;
+    var rueda = new RuedaTemporizadores<Integer>(Duration.ofMillis(tickMs), INICIO);
+    var tickEsperado = new HashMap<Integer, Long>();
+    var temporizadores = new ArrayList<RuedaTemporizadores.Temporizador<Integer>>();
+    var ahora = INICIO;
+    var tickActual = Math.floorDiv(INICIO.toEpochMilli(), tickMs);
+
+    for (int i = 0; i < 20_000; i++) {
+      // When
+      var vencimiento = ahora.plusMillis((long) Math.pow(10, random.nextDouble() * 12) - 1_000);
+      temporizadores.add(rueda.programar(i, vencimiento));
+      tickEsperado.put(i, Math.max(Math.ceilDiv(vencimiento.toEpochMilli(), tickMs), tickActual + 1));
+
+      if (random.nextInt(10) == 0) {
+        var elegido = random.nextInt(i + 1);
+        assertThat(rueda.cancelar(temporizadores.get(elegido))).isEqualTo(tickEsperado.remove(elegido) != null);
+      }
+
+      if (random.nextInt(20) == 0) {
+        ahora = ahora.plusMillis((long) Math.pow(10, random.nextDouble() * 11));
+        var destino = Math.floorDiv(ahora.toEpochMilli(), tickMs);
+        tickActual = Math.max(tickActual, destino);
+        var vencidos = rueda.avanzar(ahora);
+
+        // Then - exactamente los de tick alcanzado, en orden de tick
+        var esperados = new HashSet<Integer>();
+        tickEsperado.forEach((valor, tick) -> {
+          if (tick <= destino) {
+            esperados.add(valor);
+          }
+        });
+        assertThat(vencidos).containsExactlyInAnyOrderElementsOf(esperados);
+        assertThat(vencidos).extracting(tickEsperado::get).isSorted();
+        vencidos.forEach(tickEsperado::remove);
+        assertThat(rueda.pendientes()).isEqualTo(tickEsperado.size());
+      }
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.SerieTemporalCircular;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("⏱️ Tests de la serie temporal circular")
+class SerieTemporalCircularTest {
+
+  private static final Instant INICIO = Instant.parse("2024-03-01T10:00:00Z");
+
+  private static Instant minuto(long minutos) {
+    return INICIO.plus(Duration.ofMinutes(minutos));
+  }
+
+  @Nested
+  @DisplayName("📈 Consultas")
+  class TestConsultas {
+
+    @Test
+    @DisplayName("Debería devolver la serie del intervalo más antiguo al actual, con ceros en los huecos")
+    void deberiaOrdenarDelMasAntiguoAlActual() {
+      // Given
+      var serie = new SerieTemporalCircular(Duration.ofMinutes(1), 10, 2);
+
+      // When
+      serie.registrar(minuto(0), 0, 1);
+      serie.registrar(minuto(0).plusSeconds(59), 0, 2);
+      serie.registrar(minuto(2), 0, 5);
+      serie.registrar(minuto(3), 1, 7);
+
+      // Then
+      assertThat(serie.serie(0, 4, minuto(3))).containsExactly(3, 0, 5, 0);
+      assertThat(serie.serie(1, 4, minuto(3))).containsExactly(0, 0, 0, 7);
+      assertThat(serie.sumar(0, 2, minuto(3))).isEqualTo(5);
+      assertThat(serie.sumar(0, 10, minuto(3))).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Una consulta posterior no debería incluir intervalos fuera de la ventana")
+    void deberiaDesplazarLaVentanaConElTiempo() {
+      // Given
+      var serie = new SerieTemporalCircular(Duration.ofMinutes(1), 10, 1);
+      serie.registrar(minuto(0), 0, 4);
+
+      // When / Then
+      assertThat(serie.sumar(0, 3, minuto(2))).isEqualTo(4);
+      assertThat(serie.sumar(0, 3, minuto(3))).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar consultas de más intervalos que la capacidad")
+    void deberiaValidarLaCantidadDeIntervalos() {
+      var serie = new SerieTemporalCircular(Duration.ofHours(1), 24, 1);
+
+      assertThat(serie.capacidad()).isEqualTo(24);
+      assertThat(serie.duracionIntervalo()).isEqualTo(Duration.ofHours(1));
+      assertThatThrownBy(() -> serie.serie(0, 25, INICIO)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> serie.serie(0, 0, INICIO)).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> new SerieTemporalCircular(Duration.ZERO, 24, 1))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Nested
+  @DisplayName("♻️ Reciclado")
+  class TestReciclado {
+
+    @Test
+    @DisplayName("Al dar la vuelta debería reiniciar el intervalo reciclado")
+    void deberiaReiniciarElIntervaloReciclado() {
+      // Given - capacidad 5: el minuto 5 ocupa la posición del minuto 0
+      var serie = new SerieTemporalCircular(Duration.ofMinutes(1), 5, 1);
+      serie.registrar(minuto(0), 0, 10);
+
+      // When
+      serie.registrar(minuto(5), 0, 1);
+
+      // Then
+      assertThat(serie.serie(0, 5, minuto(5))).containsExactly(0, 0, 0, 0, 1);
+      assertThat(serie.serie(0, 1, minuto(0))).containsExactly(0);
+    }
+
+    @Test
+    @DisplayName("Debería ignorar eventos más antiguos que lo que conserva el buffer")
+    void deberiaIgnorarEventosDemasiadoAntiguos() {
+      // Given
+      var serie = new SerieTemporalCircular(Duration.ofMinutes(1), 5, 1);
+      serie.registrar(minuto(5), 0, 1);
+
+      // When - el minuto 0 ya fue reciclado por el 5
+      serie.registrar(minuto(0), 0, 100);
+
+      // Then
+      assertThat(serie.sumar(0, 5, minuto(5))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un evento atrasado dentro de la ventana debería contarse en su intervalo")
+    void deberiaContarEventosAtrasadosDentroDeLaVentana() {
+      // Given
+      var serie = new SerieTemporalCircular(Duration.ofMinutes(1), 5, 1);
+      serie.registrar(minuto(4), 0, 1);
+
+      // When
+      serie.registrar(minuto(1), 0, 2);
+
+      // Then
+      assertThat(serie.serie(0, 5, minuto(4))).containsExactly(0, 2, 0, 0, 1);
+    }
+  }
+}
\ No newline at end of file
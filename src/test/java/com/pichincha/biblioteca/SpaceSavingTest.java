@@ -0,0 +1,181 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.util.SpaceSaving;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🏆 Tests del top-K aproximado Space-Saving")
+class SpaceSavingTest {
+
+  // Flujo sesgado: la clave 0 aparece mucho más que la 1, la 1 más que la 2, etc.
+  private static List<Integer> flujoSesgado(Random random, int largo, int claves) {
+    var flujo = new ArrayList<Integer>(largo);
+    for (int i = 0; i < largo; i++) {
+      flujo.add((int) Math.min(claves - 1, Math.floor(Math.pow(random.nextDouble(), 4) * claves)));
+    }
+    return flujo;
+  }
+
+  private static Map<Integer, Long> contarExacto(List<Integer> flujo) {
+    var reales = new HashMap<Integer, Long>();
+    flujo.forEach(clave -> reales.merge(clave, 1L, Long::sum));
+    return reales;
+  }
+
+  private static void verificarGarantias(SpaceSaving<Integer> resumen, Map<Integer, Long> reales) {
+    var total = reales.values().stream().mapToLong(Long::longValue).sum();
+    var cota = total / resumen.capacidad();
+    var estimaciones = resumen.top(resumen.capacidad()).stream()
+        .collect(Collectors.toMap(SpaceSaving.Estimacion::clave, Function.identity()));
+
+    assertThat(resumen.total()).isEqualTo(total);
+    assertThat(resumen.errorMaximo()).isEqualTo(cota);
+    estimaciones.values().forEach(estimacion -> {
+      var real = reales.getOrDefault(estimacion.clave(), 0L);
+      assertThat(estimacion.error()).isBetween(0L, cota);
+      assertThat(estimacion.minimoGarantizado()).isLessThanOrEqualTo(real);
+      assertThat(estimacion.cuenta()).isGreaterThanOrEqualTo(real);
+    });
+    reales.forEach((clave, real) -> {
+      if (real > cota) {
+        assertThat(estimaciones).as("clave frecuente %d", clave).containsKey(clave);
+      }
+    });
+  }
+
+  @Nested
+  @DisplayName("➕ Agregar")
+  class TestAgregar {
+
+    @Test
+    @DisplayName("Con espacio libre debería contar exacto y sin error")
+    void deberiaContarExactoConEspacio() {
+      // Given
+      var resumen = new SpaceSaving<String>(3);
+
+      // When
+      resumen.agregar("a");
+      resumen.agregar("b", 5);
+      resumen.agregar("a");
+
+      // Then
+      assertThat(resumen.top(3)).containsExactly(
+          new SpaceSaving.Estimacion<>("b", 5, 0),
+          new SpaceSaving.Estimacion<>("a", 2, 0));
+      assertThat(resumen.total()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Una clave nueva sin espacio debería heredar la cuenta mínima como error")
+    void deberiaHeredarElMinimoComoError() {
+      // Given
+      var resumen = new SpaceSaving<String>(2);
+      resumen.agregar("a", 4);
+      resumen.agregar("b", 2);
+
+      // When
+      resumen.agregar("c");
+
+      // Then
+      assertThat(resumen.top(2)).containsExactly(
+          new SpaceSaving.Estimacion<>("a", 4, 0),
+          new SpaceSaving.Estimacion<>("c", 3, 2));
+    }
+
+    @Test
+    @DisplayName("Debería cumplir las cotas de error en un flujo sesgado")
+    void deberiaCumplirLasCotasEnUnFlujoSesgado() {
+      // Given
+      var flujo = flujoSesgado(new Random(7), 50_000, 2_000);
+      var resumen = new SpaceSaving<Integer>(50);
+
+      // When
+      flujo.forEach(resumen::agregar);
+
+      // Then
+      verificarGarantias(resumen, contarExacto(flujo));
+      assertThat(resumen.top(1).get(0).clave()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un top negativo")
+    void deberiaRechazarTopNegativo() {
+      var resumen = new SpaceSaving<String>(2);
+
+      assertThatThrownBy(() -> resumen.top(-1))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("-1");
+      assertThat(resumen.top(0)).isEmpty();
+    }
+  }
+
+  @Nested
+  @DisplayName("🔗 Combinar")
+  class TestCombinar {
+
+    @Test
+    @DisplayName("Una clave ausente de un resumen lleno debería recibir su mínimo en cuenta y error")
+    void deberiaSumarElMinimoDelOtroAClavesAusentes() {
+      // Given - "c" pudo aparecer en el otro hasta 3 veces sin quedar registrada
+      var propio = new SpaceSaving<String>(3);
+      propio.agregar("a", 10);
+      propio.agregar("c", 1);
+      var otro = new SpaceSaving<String>(3);
+      otro.agregar("a", 5);
+      otro.agregar("b", 3);
+      otro.agregar("e", 4);
+
+      // When - el propio no está lleno: las claves solo del otro no reciben nada
+      propio.combinar(otro);
+
+      // Then - "b" queda fuera al conservar las tres cuentas mayores
+      assertThat(propio.top(3)).containsExactlyInAnyOrder(
+          new SpaceSaving.Estimacion<>("a", 15, 0),
+          new SpaceSaving.Estimacion<>("c", 4, 3),
+          new SpaceSaving.Estimacion<>("e", 4, 0));
+      assertThat(propio.total()).isEqualTo(23);
+    }
+
+    @Test
+    @DisplayName("El error combinado debería quedar acotado por N_total / m")
+    void deberiaAcotarElErrorCombinado() {
+      // Given - particiones del mismo flujo, como los intervalos de una ventana
+      var random = new Random(42);
+      var capacidad = 40;
+      var combinado = new SpaceSaving<Integer>(capacidad);
+      var todo = new ArrayList<Integer>();
+
+      // When
+      for (int particion = 0; particion < 12; particion++) {
+        var flujo = flujoSesgado(random, 2_000 + random.nextInt(6_000), 800);
+        var resumen = new SpaceSaving<Integer>(capacidad);
+        flujo.forEach(resumen::agregar);
+        combinado.combinar(resumen);
+        todo.addAll(flujo);
+      }
+
+      // Then
+      verificarGarantias(combinado, contarExacto(todo));
+    }
+
+    @Test
+    @DisplayName("No debería combinarse consigo mismo")
+    void noDeberiaCombinarseConsigoMismo() {
+      var resumen = new SpaceSaving<String>(2);
+
+      assertThatThrownBy(() -> resumen.combinar(resumen))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.pichincha.biblioteca;
+
+import com.pichincha.biblioteca.domain.enums.EstadoLibro;
+import com.pichincha.biblioteca.domain.enums.TransicionLibro;
+import com.pichincha.biblioteca.util.TablaEstados;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("🚦 Tests de la tabla de estados sin bloqueos")
+class TablaEstadosTest {
+
+  @Nested
+  @DisplayName("🔁 Transiciones")
+  class TestTransiciones {
+
+    @Test
+    @DisplayName("Debería aplicar solo transiciones desde el estado de origen")
+    void deberiaAplicarTransicionesLegales() {
+      // Given
+      var tabla = new TablaEstados();
+      tabla.registrar(10_000, EstadoLibro.DISPONIBLE);
+
+      // When / Then
+      assertThat(tabla.aplicar(10_000, TransicionLibro.DEVOLVER)).isFalse();
+      assertThat(tabla.aplicar(10_000, TransicionLibro.RESERVAR)).isTrue();
+      assertThat(tabla.aplicar(10_000, TransicionLibro.PRESTAR)).isFalse();
+      assertThat(tabla.aplicar(10_000, TransicionLibro.PRESTAR_RESERVADO)).isTrue();
+      assertThat(tabla.estado(10_000)).contains(EstadoLibro.PRESTADO);
+      assertThat(tabla.aplicar(1, TransicionLibro.PRESTAR)).isFalse();
+      assertThat(tabla.estado(1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("registrarSiFalta no debería pisar un estado conocido y cambiar debería deshacer")
+    void deberiaRegistrarSiFaltaYDeshacer() {
+      // Given
+      var tabla = new TablaEstados();
+      tabla.registrar(5, EstadoLibro.DISPONIBLE);
+      tabla.aplicar(5, TransicionLibro.PRESTAR);
+
+      // When
+      var registrado = tabla.registrarSiFalta(5, EstadoLibro.DISPONIBLE);
+      var nuevo = tabla.registrarSiFalta(6, EstadoLibro.MANTENIMIENTO);
+      var deshecho = tabla.cambiar(5, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE);
+
+      // Then
+      assertThat(registrado).isFalse();
+      assertThat(nuevo).isTrue();
+      assertThat(deshecho).isTrue();
+      assertThat(tabla.estado(5)).contains(EstadoLibro.DISPONIBLE);
+      assertThat(tabla.estado(6)).contains(EstadoLibro.MANTENIMIENTO);
+      assertThat(tabla.cambiar(6, EstadoLibro.PRESTADO, EstadoLibro.DISPONIBLE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Las transiciones permitidas deberían coincidir con las acciones del estado")
+    void deberiaDerivarTransicionesPermitidas() {
+      assertThat(EstadoLibro.DISPONIBLE.getTransicionesPermitidas())
+          .containsExactlyInAnyOrder(TransicionLibro.PRESTAR, TransicionLibro.RESERVAR,
+              TransicionLibro.ENVIAR_A_MANTENIMIENTO);
+      assertThat(EstadoLibro.PRESTADO.puedeDevolver()).isTrue();
+      assertThat(TransicionLibro.entre(EstadoLibro.MANTENIMIENTO, EstadoLibro.DISPONIBLE))
+          .contains(TransicionLibro.COMPLETAR_MANTENIMIENTO);
+    }
+
+    @Test
+    @DisplayName("Solo un hilo debería ganar cada préstamo")
+    void deberiaPrestarUnaSolaVezConcurrentemente() throws InterruptedException {
+      // Given
+      var tabla = new TablaEstados();
+      for (long id = 1; id <= 10_000; id++) {
+        tabla.registrar(id, EstadoLibro.DISPONIBLE);
+      }
+      var exitos = new AtomicInteger();
+      var inicio = new CountDownLatch(1);
+      var pool = Executors.newFixedThreadPool(8);
+
+      // When
+      for (int h = 0; h < 8; h++) {
+        pool.execute(() -> {
+          esperar(inicio);
+          for (long id = 1; id <= 10_000; id++) {
+            if (tabla.aplicar(id, TransicionLibro.PRESTAR)) {
+              exitos.incrementAndGet();
+            }
+          }
+        });
+      }
+      inicio.countDown();
+      pool.shutdown();
+
+      // Then
+      assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+      assertThat(exitos).hasValue(10_000);
+      assertThat(tabla.contarPorEstado()[EstadoLibro.PRESTADO.ordinal()]).isEqualTo(10_000);
+    }
+  }
+
+  /**
+   * Mide transiciones por segundo (préstamo y devolución alternados) con varios hilos.
+   * Se ejecuta solo con {@code -Dbenchmark=true}.
+   */
+  @Nested
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  @DisplayName("⏱️ Benchmark de transiciones")
+  class TestBenchmark {
+
+    private static final int LIBROS = 1_000_000;
+    private static final int OPERACIONES_POR_HILO = 10_000_000;
+
+    @Test
+    void medirTransicionesPorSegundo() throws InterruptedException {
+      var tabla = new TablaEstados();
+      for (long id = 1; id <= LIBROS; id++) {
+        tabla.registrar(id, EstadoLibro.DISPONIBLE);
+      }
+      var nucleos = Runtime.getRuntime().availableProcessors();
+      for (var hilos : new TreeSet<>(List.of(1, 2, 4, nucleos))) {
+        var pool = Executors.newFixedThreadPool(hilos);
+        var inicio = new CountDownLatch(1);
+        for (int h = 0; h < hilos; h++) {
+          var semilla = h;
+          pool.execute(() -> {
+            esperar(inicio);
+            var id = (long) semilla;
+            for (int i = 0; i < OPERACIONES_POR_HILO; i++) {
+              id = (id * 6364136223846793005L + 1442695040888963407L);
+              var libro = Math.floorMod(id >>> 16, LIBROS) + 1;
+              if (!tabla.aplicar(libro, TransicionLibro.PRESTAR)) {
+                tabla.aplicar(libro, TransicionLibro.DEVOLVER);
+              }
+            }
+          });
+        }
+        var comienzo = System.nanoTime();
+        inicio.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        var segundos = (System.nanoTime() - comienzo) / 1e9;
+        System.out.printf("%2d hilos | %,14.0f transiciones/s%n", hilos, hilos * OPERACIONES_POR_HILO / segundos);
+      }
+      var conteos = tabla.contarPorEstado();
+      assertThat(conteos[EstadoLibro.DISPONIBLE.ordinal()] + conteos[EstadoLibro.PRESTADO.ordinal()]).isEqualTo(LIBROS);
+    }
+  }
+
+  private static void esperar(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
\ No newline at end of file